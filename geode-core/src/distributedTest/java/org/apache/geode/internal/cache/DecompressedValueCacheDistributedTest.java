@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.cache.RegionShortcut.REPLICATE;
+import static org.apache.geode.test.dunit.VM.getVM;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.Delta;
+import org.apache.geode.InvalidDeltaException;
+import org.apache.geode.cache.Region;
+import org.apache.geode.compression.SnappyCompressor;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.dunit.rules.CacheRule;
+import org.apache.geode.test.dunit.rules.DistributedRule;
+
+/**
+ * Reads and changes entries of a compressed region that caches the values it decompresses, and
+ * checks that the cached values are never seen changed and are dropped when their entry changes
+ */
+@SuppressWarnings("serial")
+public class DecompressedValueCacheDistributedTest implements Serializable {
+
+  private static final String REGION_NAME = "compressedRegion";
+  private static final String UNVERSIONED_REGION_NAME = "unversionedCompressedRegion";
+  private static final String KEY = "key";
+
+  /**
+   * The value read by vm0 before a delta is applied to it
+   */
+  private static ListValue valueReadBeforeDelta;
+
+  private VM vm0;
+
+  @Rule
+  public DistributedRule distributedRule = new DistributedRule();
+
+  @Rule
+  public CacheRule cacheRule = new CacheRule();
+
+  @Before
+  public void setUp() {
+    vm0 = getVM(0);
+
+    createCompressedRegions();
+    vm0.invoke(() -> createCompressedRegions());
+  }
+
+  @After
+  public void tearDown() {
+    System.clearProperty(DecompressedValueCache.MAX_BYTES_PROPERTY);
+    vm0.invoke(() -> {
+      System.clearProperty(DecompressedValueCache.MAX_BYTES_PROPERTY);
+      valueReadBeforeDelta = null;
+    });
+  }
+
+  @Test
+  public void copyOnReadReturnsDistinctInstancesOfACachedValue() {
+    cacheRule.getCache().setCopyOnRead(true);
+    Region<String, ListValue> region = cacheRule.getCache().getRegion(REGION_NAME);
+    region.put(KEY, new ListValue("a"));
+    long hits = getDecompressedValueCacheHits(region);
+
+    ListValue first = region.get(KEY);
+    ListValue second = region.get(KEY);
+    first.add("changed by a reader");
+
+    assertThat(first).isNotSameAs(second);
+    assertThat(second.getItems()).containsExactly("a");
+    assertThat(region.get(KEY).getItems()).containsExactly("a");
+    assertThat(getDecompressedValueCacheHits(region)).isGreaterThan(hits);
+  }
+
+  @Test
+  public void putInvalidateAndDestroyDropTheCachedValue() {
+    putInvalidateAndDestroyDropTheCachedValue(REGION_NAME);
+  }
+
+  @Test
+  public void putInvalidateAndDestroyDropTheCachedValueWithoutConcurrencyChecks() {
+    putInvalidateAndDestroyDropTheCachedValue(UNVERSIONED_REGION_NAME);
+  }
+
+  @Test
+  public void deltaAppliedToACachedValueDoesNotChangeIt() {
+    Region<String, ListValue> region = cacheRule.getCache().getRegion(REGION_NAME);
+    ListValue value = new ListValue("a");
+    region.put(KEY, value);
+
+    vm0.invoke(() -> {
+      Region<String, ListValue> regionOnVm0 = cacheRule.getCache().getRegion(REGION_NAME);
+      valueReadBeforeDelta = regionOnVm0.get(KEY);
+      // without copy-on-read the cached instance itself is returned
+      assertThat(regionOnVm0.get(KEY)).isSameAs(valueReadBeforeDelta);
+    });
+
+    value.add("b");
+    region.put(KEY, value);
+
+    vm0.invoke(() -> {
+      LocalRegion regionOnVm0 = (LocalRegion) cacheRule.getCache().<String, ListValue>getRegion(
+          REGION_NAME);
+      assertThat(regionOnVm0.getCachePerfStats().getDeltaUpdates()).isEqualTo(1);
+      assertThat(valueReadBeforeDelta.getItems()).containsExactly("a");
+      assertThat(((ListValue) regionOnVm0.get(KEY)).getItems()).containsExactly("a", "b");
+
+      // decompress the stored bytes again
+      regionOnVm0.getDecompressedValueCache().clear();
+      assertThat(((ListValue) regionOnVm0.get(KEY)).getItems()).containsExactly("a", "b");
+    });
+  }
+
+  private void putInvalidateAndDestroyDropTheCachedValue(String regionName) {
+    Region<String, ListValue> region = cacheRule.getCache().getRegion(regionName);
+    DecompressedValueCache decompressedValues =
+        ((LocalRegion) region).getDecompressedValueCache();
+
+    region.put(KEY, new ListValue("a"));
+    assertThat(region.get(KEY).getItems()).containsExactly("a");
+    assertThat(decompressedValues.getSize()).isPositive();
+
+    region.put(KEY, new ListValue("b"));
+    assertThat(decompressedValues.getSize()).isZero();
+    assertThat(region.get(KEY).getItems()).containsExactly("b");
+    assertThat(decompressedValues.getSize()).isPositive();
+
+    region.invalidate(KEY);
+    assertThat(decompressedValues.getSize()).isZero();
+    assertThat(region.get(KEY)).isNull();
+
+    region.put(KEY, new ListValue("c"));
+    assertThat(region.get(KEY).getItems()).containsExactly("c");
+    region.destroy(KEY);
+    assertThat(decompressedValues.getSize()).isZero();
+    assertThat(region.get(KEY)).isNull();
+  }
+
+  private long getDecompressedValueCacheHits(Region<?, ?> region) {
+    return ((LocalRegion) region).getCachePerfStats().getDecompressedValueCacheHits();
+  }
+
+  private void createCompressedRegions() {
+    System.setProperty(DecompressedValueCache.MAX_BYTES_PROPERTY, "1000000");
+    cacheRule.getOrCreateCache().<String, ListValue>createRegionFactory(REPLICATE)
+        .setCompressor(new SnappyCompressor()).create(REGION_NAME);
+    cacheRule.getCache().<String, ListValue>createRegionFactory(REPLICATE)
+        .setCompressor(new SnappyCompressor()).setConcurrencyChecksEnabled(false)
+        .create(UNVERSIONED_REGION_NAME);
+  }
+
+  /**
+   * A list of items that sends the items added since it was last put as a delta
+   */
+  public static class ListValue implements DataSerializable, Delta {
+
+    private ArrayList<String> items = new ArrayList<>();
+
+    private transient ArrayList<String> added = new ArrayList<>();
+
+    public ListValue() {
+      // for deserialization
+    }
+
+    ListValue(String... items) {
+      this.items.addAll(Arrays.asList(items));
+    }
+
+    List<String> getItems() {
+      return items;
+    }
+
+    void add(String item) {
+      items.add(item);
+      added.add(item);
+    }
+
+    @Override
+    public boolean hasDelta() {
+      return !added.isEmpty();
+    }
+
+    @Override
+    public void toDelta(DataOutput out) throws IOException {
+      DataSerializer.writeArrayList(added, out);
+    }
+
+    @Override
+    public void fromDelta(DataInput in) throws IOException, InvalidDeltaException {
+      try {
+        items.addAll(DataSerializer.readArrayList(in));
+      } catch (ClassNotFoundException e) {
+        throw new InvalidDeltaException(e);
+      }
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      DataSerializer.writeArrayList(items, out);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+      items = DataSerializer.readArrayList(in);
+    }
+  }
+}
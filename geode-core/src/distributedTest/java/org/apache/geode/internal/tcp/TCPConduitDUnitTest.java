@@ -15,11 +15,13 @@
 package org.apache.geode.internal.tcp;
 
 import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Properties;
 
 import org.junit.Test;
@@ -31,6 +33,9 @@ import org.apache.geode.distributed.DistributedSystem;
 import org.apache.geode.distributed.Locator;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.distributed.internal.SerialAckedMessage;
+import org.apache.geode.distributed.internal.membership.gms.mgr.GMSMembershipManager;
+import org.apache.geode.internal.net.NioPlainEngine;
+import org.apache.geode.internal.net.NioSslEngine;
 import org.apache.geode.test.dunit.DistributedTestCase;
 import org.apache.geode.test.dunit.DistributedTestUtils;
 import org.apache.geode.test.dunit.IgnoredException;
@@ -114,6 +119,58 @@ public class TCPConduitDUnitTest extends DistributedTestCase {
     }
   }
 
+  /**
+   * With cluster SSL enabled, connections between members use NIO and encrypt what they carry with
+   * an SSLEngine rather than falling back to old-IO SSL sockets.
+   */
+  @Test
+  public void connectionsUseNioWithAnSSLEngineWhenSSLIsEnabled() throws Exception {
+    final VM vm1 = VM.getVM(1);
+    final VM vm2 = VM.getVM(2);
+    final boolean ssl = properties.containsKey(ConfigurationProperties.SSL_ENABLED_COMPONENTS);
+
+    disconnectAllFromDS();
+
+    int port = startLocator();
+    properties.put(ConfigurationProperties.LOCATORS, "localhost[" + port + "]");
+
+    vm1.invoke(() -> startServer(properties));
+    vm2.invoke(() -> startServer(properties));
+
+    try {
+      for (VM vm : Arrays.asList(vm1, vm2)) {
+        vm.invoke("send a message to the other members", () -> {
+          new SerialAckedMessage().send(system.getAllOtherMembers(), false);
+        });
+      }
+
+      for (VM vm : Arrays.asList(vm1, vm2)) {
+        vm.invoke("check the accepted connections", () -> {
+          TCPConduit conduit = getConduit();
+          assertThat(conduit.useNIO()).isTrue();
+          await().untilAsserted(() -> {
+            List<Connection> receivers = conduit.getReceivers();
+            assertThat(receivers).isNotEmpty();
+            for (Connection receiver : receivers) {
+              assertThat(receiver.getIoFilter())
+                  .isInstanceOf(ssl ? NioSslEngine.class : NioPlainEngine.class);
+            }
+          });
+        });
+      }
+    } finally {
+      for (VM vm : Arrays.asList(vm1, vm2)) {
+        vm.invoke(() -> disconnectFromDS());
+      }
+      disconnectFromDS();
+    }
+  }
+
+  private static TCPConduit getConduit() {
+    return ((GMSMembershipManager) system.getDistributionManager().getMembershipManager())
+        .getDirectChannel().getConduit();
+  }
+
   private int startLocator() throws Exception {
     Locator locator = Locator.startLocatorAndDS(0, new File(""), properties);
     system = (InternalDistributedSystem) locator.getDistributedSystem();
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.distributed.ConfigurationProperties;
+import org.apache.geode.internal.AvailablePortHelper;
+import org.apache.geode.internal.net.SocketCreator;
+import org.apache.geode.redis.internal.ClusterSlots;
+import org.apache.geode.test.dunit.AsyncInvocation;
+import org.apache.geode.test.dunit.DistributedTestUtils;
+import org.apache.geode.test.dunit.Host;
+import org.apache.geode.test.dunit.LogWriterUtils;
+import org.apache.geode.test.dunit.SerializableCallable;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.dunit.internal.JUnit4DistributedTestCase;
+import org.apache.geode.test.junit.categories.RedisTest;
+
+/**
+ * Runs a cluster-aware client against two servers that emulate Redis Cluster hash slots
+ */
+@Category({RedisTest.class})
+public class RedisClusterSlotsDUnitTest extends JUnit4DistributedTestCase {
+
+  private static final int NUM_KEYS = 1000;
+
+  private static final int JEDIS_TIMEOUT = 20 * 1000;
+
+  private VM server1;
+  private VM server2;
+
+  private int server1Port;
+  private int server2Port;
+
+  private String localHost;
+
+  @Override
+  public final void postSetUp() throws Exception {
+    disconnectAllFromDS();
+
+    localHost = SocketCreator.getLocalHost().getHostName();
+
+    Host host = Host.getHost(0);
+    server1 = host.getVM(0);
+    server2 = host.getVM(1);
+    final int[] ports = AvailablePortHelper.getRandomAvailableTCPPorts(2);
+    final int locatorPort = DistributedTestUtils.getDUnitLocatorPort();
+    final SerializableCallable<Object> startRedisAdapter = new SerializableCallable<Object>() {
+
+      @Override
+      public Object call() throws Exception {
+        System.setProperty(GeodeRedisServer.CLUSTER_SLOTS_SYS_PROP_NAME, "true");
+        int port = ports[VM.getCurrentVMNum()];
+        CacheFactory cF = new CacheFactory();
+        String locator = SocketCreator.getLocalHost().getHostName() + "[" + locatorPort + "]";
+        cF.set(LOG_LEVEL, LogWriterUtils.getDUnitLogLevel());
+        cF.set(ConfigurationProperties.REDIS_BIND_ADDRESS, localHost);
+        cF.set(ConfigurationProperties.REDIS_PORT, "" + port);
+        cF.set(MCAST_PORT, "0");
+        cF.set(LOCATORS, locator);
+        cF.create();
+        return Integer.valueOf(port);
+      }
+    };
+    AsyncInvocation i = server1.invokeAsync(startRedisAdapter);
+    server2Port = (Integer) server2.invoke(startRedisAdapter);
+    server1Port = (Integer) i.getResult();
+  }
+
+  @Override
+  public final void preTearDown() throws Exception {
+    disconnectAllFromDS();
+    server1.invoke(() -> System.clearProperty(GeodeRedisServer.CLUSTER_SLOTS_SYS_PROP_NAME));
+    server2.invoke(() -> System.clearProperty(GeodeRedisServer.CLUSTER_SLOTS_SYS_PROP_NAME));
+  }
+
+  @Test
+  public void clusterClientReadsBackEveryKey() throws Exception {
+    try (JedisCluster cluster =
+        new JedisCluster(new HostAndPort(localHost, server1Port), JEDIS_TIMEOUT)) {
+      for (int i = 0; i < NUM_KEYS; i++) {
+        cluster.set("key" + i, "value" + i);
+      }
+      for (int i = 0; i < NUM_KEYS; i++) {
+        assertThat(cluster.get("key" + i)).isEqualTo("value" + i);
+      }
+    }
+  }
+
+  @Test
+  public void eachKeyIsServedByOneServerAndMovedByTheOther() throws Exception {
+    Jedis jedis1 = new Jedis(localHost, server1Port, JEDIS_TIMEOUT);
+    Jedis jedis2 = new Jedis(localHost, server2Port, JEDIS_TIMEOUT);
+    try (JedisCluster cluster =
+        new JedisCluster(new HostAndPort(localHost, server1Port), JEDIS_TIMEOUT)) {
+      for (int i = 0; i < NUM_KEYS; i++) {
+        cluster.set("key" + i, "value" + i);
+      }
+    }
+
+    int servedBy1 = 0;
+    for (int i = 0; i < NUM_KEYS; i++) {
+      String key = "key" + i;
+      String value1 = getOrMovedPort(jedis1, key, server2Port);
+      String value2 = getOrMovedPort(jedis2, key, server1Port);
+      if (value1 != null) {
+        servedBy1++;
+        assertThat(value1).isEqualTo("value" + i);
+        assertThat(value2).isNull();
+      } else {
+        assertThat(value2).isEqualTo("value" + i);
+      }
+    }
+    assertThat(servedBy1).isBetween(1, NUM_KEYS - 1);
+
+    jedis1.close();
+    jedis2.close();
+  }
+
+  @Test
+  public void clusterSlotsCoverEverySlotOnce() throws Exception {
+    Jedis jedis = new Jedis(localHost, server1Port, JEDIS_TIMEOUT);
+    for (int i = 0; i < NUM_KEYS; i++) {
+      try {
+        jedis.set("key" + i, "value" + i);
+      } catch (JedisMovedDataException ignored) {
+        // owned by the other server
+      }
+    }
+
+    long nextSlot = 0;
+    for (Object slotRange : jedis.clusterSlots()) {
+      List<?> range = (List<?>) slotRange;
+      assertThat(range.get(0)).isEqualTo(nextSlot);
+      nextSlot = (Long) range.get(1) + 1;
+      List<?> master = (List<?>) range.get(2);
+      assertThat((Long) master.get(1)).isIn((long) server1Port, (long) server2Port);
+    }
+    assertThat(nextSlot).isEqualTo(ClusterSlots.SLOTS);
+    assertThat(jedis.clusterKeySlot("{user1000}.following")).isEqualTo(3443L);
+
+    jedis.close();
+  }
+
+  /**
+   * @return The value of the key, or null if the server redirected the GET to the expected port
+   */
+  private String getOrMovedPort(Jedis jedis, String key, int expectedPort) {
+    try {
+      return jedis.get(key);
+    } catch (JedisMovedDataException e) {
+      assertThat(e.getTargetNode().getPort()).isEqualTo(expectedPort);
+      assertThat(e.getSlot()).isEqualTo(ClusterSlots.getSlot(key.getBytes()));
+      return null;
+    }
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
+import org.apache.geode.distributed.ConfigurationProperties;
+import org.apache.geode.internal.AvailablePortHelper;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.net.SocketCreator;
+import org.apache.geode.redis.internal.ByteArrayWrapper;
+import org.apache.geode.redis.internal.Coder;
+import org.apache.geode.redis.internal.RedisCollection;
+import org.apache.geode.redis.internal.RedisHash;
+import org.apache.geode.redis.internal.RedisList;
+import org.apache.geode.redis.internal.RedisSet;
+import org.apache.geode.test.dunit.AsyncInvocation;
+import org.apache.geode.test.dunit.DistributedTestUtils;
+import org.apache.geode.test.dunit.Host;
+import org.apache.geode.test.dunit.LogWriterUtils;
+import org.apache.geode.test.dunit.SerializableCallable;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.dunit.internal.JUnit4DistributedTestCase;
+import org.apache.geode.test.junit.categories.RedisTest;
+
+/**
+ * Updates the same keys through two servers at once, and checks that the redundant copies of each
+ * key held by the servers end up the same
+ */
+@Category({RedisTest.class})
+public class RedisCollectionUpdateDUnitTest extends JUnit4DistributedTestCase {
+
+  private static final String LIST_KEY = "list";
+  private static final String SET_KEY = "set";
+  private static final String HASH_KEY = "hash";
+
+  private static final int OPS = 500;
+
+  private static final int JEDIS_TIMEOUT = 20 * 1000;
+
+  private VM server1;
+  private VM server2;
+  private VM client1;
+  private VM client2;
+
+  private int server1Port;
+  private int server2Port;
+
+  private String localHost;
+
+  @Override
+  public final void postSetUp() throws Exception {
+    disconnectAllFromDS();
+
+    localHost = SocketCreator.getLocalHost().getHostName();
+
+    Host host = Host.getHost(0);
+    server1 = host.getVM(0);
+    server2 = host.getVM(1);
+    client1 = host.getVM(2);
+    client2 = host.getVM(3);
+    final int[] ports = AvailablePortHelper.getRandomAvailableTCPPorts(2);
+    final int locatorPort = DistributedTestUtils.getDUnitLocatorPort();
+    final SerializableCallable<Object> startRedisAdapter = new SerializableCallable<Object>() {
+
+      @Override
+      public Object call() throws Exception {
+        System.setProperty(GeodeRedisServer.COLLECTION_ENTRIES_SYS_PROP_NAME, "true");
+        System.setProperty(GeodeRedisServer.DEFAULT_REGION_SYS_PROP_NAME,
+            RegionShortcut.PARTITION_REDUNDANT.name());
+        int port = ports[VM.getCurrentVMNum()];
+        CacheFactory cF = new CacheFactory();
+        String locator = SocketCreator.getLocalHost().getHostName() + "[" + locatorPort + "]";
+        cF.set(LOG_LEVEL, LogWriterUtils.getDUnitLogLevel());
+        cF.set(ConfigurationProperties.REDIS_BIND_ADDRESS, localHost);
+        cF.set(ConfigurationProperties.REDIS_PORT, "" + port);
+        cF.set(MCAST_PORT, "0");
+        cF.set(LOCATORS, locator);
+        cF.create();
+        return Integer.valueOf(port);
+      }
+    };
+    AsyncInvocation i = server1.invokeAsync(startRedisAdapter);
+    server2Port = (Integer) server2.invoke(startRedisAdapter);
+    server1Port = (Integer) i.getResult();
+  }
+
+  @Override
+  public final void preTearDown() throws Exception {
+    disconnectAllFromDS();
+    for (VM server : new VM[] {server1, server2}) {
+      server.invoke(() -> {
+        System.clearProperty(GeodeRedisServer.COLLECTION_ENTRIES_SYS_PROP_NAME);
+        System.clearProperty(GeodeRedisServer.DEFAULT_REGION_SYS_PROP_NAME);
+      });
+    }
+  }
+
+  @Test
+  public void concurrentUpdatesThroughBothServersLeaveTheSameCopies() throws Exception {
+    Jedis jedis = new Jedis(localHost, server1Port, JEDIS_TIMEOUT);
+    for (int i = 0; i < 10; i++) {
+      jedis.rpush(LIST_KEY, "initial" + i);
+    }
+
+    AsyncInvocation i = client1.invokeAsync(new ConcurrentUpdates(localHost, server1Port));
+    client2.invoke(new ConcurrentUpdates(localHost, server2Port));
+    i.getResult();
+
+    for (String key : new String[] {LIST_KEY, SET_KEY, HASH_KEY}) {
+      Object copy1 = server1.invoke(() -> getLocalCopy(key));
+      Object copy2 = server2.invoke(() -> getLocalCopy(key));
+      assertThat(copy1).as(key).isEqualTo(copy2);
+    }
+    assertThat(jedis.lrange(LIST_KEY, 0, -1)).isEqualTo(
+        new Jedis(localHost, server2Port, JEDIS_TIMEOUT).lrange(LIST_KEY, 0, -1));
+  }
+
+  /**
+   * Returns the contents of the key's copy held by this member, which is the primary copy on one
+   * server and the redundant copy on the other
+   */
+  private static Object getLocalCopy(String key) {
+    Region<ByteArrayWrapper, RedisCollection> region =
+        GemFireCacheImpl.getInstance().getRegion(GeodeRedisServer.COLLECTION_REGION);
+    RedisCollection collection = PartitionRegionHelper.getLocalData(region)
+        .get(new ByteArrayWrapper(Coder.stringToBytes(key)));
+    if (collection instanceof RedisList) {
+      List<String> elements = new ArrayList<>();
+      RedisList list = (RedisList) collection;
+      for (ByteArrayWrapper element : list.range(0, list.size() - 1)) {
+        elements.add(element.toString());
+      }
+      return elements;
+    } else if (collection instanceof RedisSet) {
+      TreeSet<String> members = new TreeSet<>();
+      for (ByteArrayWrapper member : ((RedisSet) collection).getMembers()) {
+        members.add(member.toString());
+      }
+      return members;
+    } else if (collection instanceof RedisHash) {
+      TreeMap<String, String> fields = new TreeMap<>();
+      for (Map.Entry<ByteArrayWrapper, ByteArrayWrapper> field : ((RedisHash) collection)
+          .getFields().entrySet()) {
+        fields.put(field.getKey().toString(), field.getValue().toString());
+      }
+      return fields;
+    }
+    return collection;
+  }
+
+  /**
+   * Mixes the updates of a list, including the positional ones, with those of a set and a hash
+   */
+  private static class ConcurrentUpdates extends SerializableCallable<Object> {
+
+    private final String host;
+    private final int port;
+
+    ConcurrentUpdates(String host, int port) {
+      this.host = host;
+      this.port = port;
+    }
+
+    @Override
+    public Object call() throws Exception {
+      Jedis jedis = new Jedis(host, port, JEDIS_TIMEOUT);
+      Random random = new Random();
+      for (int i = 0; i < OPS; i++) {
+        String value = port + "-" + i;
+        switch (random.nextInt(8)) {
+          case 0:
+            jedis.lpush(LIST_KEY, value);
+            break;
+          case 1:
+            jedis.rpush(LIST_KEY, value);
+            break;
+          case 2:
+            try {
+              jedis.lset(LIST_KEY, random.nextInt(5), value);
+            } catch (JedisDataException e) {
+              // the list was shorter than the index
+            }
+            break;
+          case 3:
+            String last = jedis.lindex(LIST_KEY, -1);
+            if (last != null) {
+              jedis.lrem(LIST_KEY, 1, last);
+            }
+            jedis.rpush(LIST_KEY, value);
+            break;
+          case 4:
+            jedis.ltrim(LIST_KEY, 1, 40);
+            break;
+          case 5:
+            jedis.sadd(SET_KEY, value, Integer.toString(random.nextInt(20)));
+            break;
+          case 6:
+            jedis.srem(SET_KEY, Integer.toString(random.nextInt(20)));
+            jedis.hset(HASH_KEY, Integer.toString(random.nextInt(20)), value);
+            break;
+          default:
+            jedis.hdel(HASH_KEY, Integer.toString(random.nextInt(20)));
+            jedis.hset(HASH_KEY, value, value);
+            break;
+        }
+      }
+      return null;
+    }
+  }
+}
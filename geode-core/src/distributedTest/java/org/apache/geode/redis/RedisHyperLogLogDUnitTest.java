@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import redis.clients.jedis.Jedis;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
+import org.apache.geode.distributed.ConfigurationProperties;
+import org.apache.geode.internal.AvailablePortHelper;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.net.SocketCreator;
+import org.apache.geode.redis.internal.ByteArrayWrapper;
+import org.apache.geode.redis.internal.Coder;
+import org.apache.geode.redis.internal.RedisHyperLogLog;
+import org.apache.geode.test.dunit.AsyncInvocation;
+import org.apache.geode.test.dunit.DistributedTestUtils;
+import org.apache.geode.test.dunit.Host;
+import org.apache.geode.test.dunit.LogWriterUtils;
+import org.apache.geode.test.dunit.SerializableCallable;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.dunit.internal.JUnit4DistributedTestCase;
+import org.apache.geode.test.junit.categories.RedisTest;
+
+/**
+ * Adds to and merges into the same HyperLogLog through two servers at once, and checks that the
+ * redundant copies held by the servers end up with the same registers
+ */
+@Category({RedisTest.class})
+public class RedisHyperLogLogDUnitTest extends JUnit4DistributedTestCase {
+
+  private static final String KEY = "hll";
+
+  /**
+   * The number of registers of a {@link RedisHyperLogLog}
+   */
+  private static final int REGISTERS = 1 << 14;
+
+  private static final int OPS = 500;
+
+  private static final int JEDIS_TIMEOUT = 20 * 1000;
+
+  private VM server1;
+  private VM server2;
+  private VM client1;
+  private VM client2;
+
+  private int server1Port;
+  private int server2Port;
+
+  private String localHost;
+
+  @Override
+  public final void postSetUp() throws Exception {
+    disconnectAllFromDS();
+
+    localHost = SocketCreator.getLocalHost().getHostName();
+
+    Host host = Host.getHost(0);
+    server1 = host.getVM(0);
+    server2 = host.getVM(1);
+    client1 = host.getVM(2);
+    client2 = host.getVM(3);
+    final int[] ports = AvailablePortHelper.getRandomAvailableTCPPorts(2);
+    final int locatorPort = DistributedTestUtils.getDUnitLocatorPort();
+    final SerializableCallable<Object> startRedisAdapter = new SerializableCallable<Object>() {
+
+      @Override
+      public Object call() throws Exception {
+        System.setProperty(GeodeRedisServer.DEFAULT_REGION_SYS_PROP_NAME,
+            RegionShortcut.PARTITION_REDUNDANT.name());
+        int port = ports[VM.getCurrentVMNum()];
+        CacheFactory cF = new CacheFactory();
+        String locator = SocketCreator.getLocalHost().getHostName() + "[" + locatorPort + "]";
+        cF.set(LOG_LEVEL, LogWriterUtils.getDUnitLogLevel());
+        cF.set(ConfigurationProperties.REDIS_BIND_ADDRESS, localHost);
+        cF.set(ConfigurationProperties.REDIS_PORT, "" + port);
+        cF.set(MCAST_PORT, "0");
+        cF.set(LOCATORS, locator);
+        cF.create();
+        return Integer.valueOf(port);
+      }
+    };
+    AsyncInvocation i = server1.invokeAsync(startRedisAdapter);
+    server2Port = (Integer) server2.invoke(startRedisAdapter);
+    server1Port = (Integer) i.getResult();
+  }
+
+  @Override
+  public final void preTearDown() throws Exception {
+    disconnectAllFromDS();
+    for (VM server : new VM[] {server1, server2}) {
+      server.invoke(() -> System.clearProperty(GeodeRedisServer.DEFAULT_REGION_SYS_PROP_NAME));
+    }
+  }
+
+  @Test
+  public void concurrentUpdatesThroughBothServersLeaveTheSameRegisters() throws Exception {
+    AsyncInvocation i = client1.invokeAsync(new ConcurrentUpdates(localHost, server1Port));
+    client2.invoke(new ConcurrentUpdates(localHost, server2Port));
+    i.getResult();
+
+    List<Integer> registers1 = server1.invoke(() -> getLocalRegisters());
+    List<Integer> registers2 = server2.invoke(() -> getLocalRegisters());
+    assertThat(registers1).isEqualTo(registers2);
+    assertThat(new Jedis(localHost, server1Port, JEDIS_TIMEOUT).pfcount(KEY))
+        .isEqualTo(new Jedis(localHost, server2Port, JEDIS_TIMEOUT).pfcount(KEY));
+  }
+
+  /**
+   * Returns the registers of the copy of the HyperLogLog held by this member, which is the primary
+   * copy on one server and the redundant copy on the other
+   */
+  private static List<Integer> getLocalRegisters() {
+    Region<ByteArrayWrapper, RedisHyperLogLog> region =
+        GemFireCacheImpl.getInstance().getRegion(GeodeRedisServer.HLL_REGION);
+    RedisHyperLogLog hll = PartitionRegionHelper.getLocalData(region)
+        .get(new ByteArrayWrapper(Coder.stringToBytes(KEY)));
+    assertThat(hll).isNotNull();
+    List<Integer> registers = new ArrayList<>(REGISTERS);
+    for (int i = 0; i < REGISTERS; i++) {
+      registers.add(hll.getRegister(i));
+    }
+    return registers;
+  }
+
+  /**
+   * Adds elements no other client adds, and now and then merges another HyperLogLog in
+   */
+  private static class ConcurrentUpdates extends SerializableCallable<Object> {
+
+    private final String host;
+    private final int port;
+
+    ConcurrentUpdates(String host, int port) {
+      this.host = host;
+      this.port = port;
+    }
+
+    @Override
+    public Object call() throws Exception {
+      Jedis jedis = new Jedis(host, port, JEDIS_TIMEOUT);
+      String source = KEY + port;
+      for (int i = 0; i < OPS; i++) {
+        if (i % 10 == 9) {
+          jedis.pfmerge(KEY, source);
+        } else if (i % 2 == 0) {
+          jedis.pfadd(KEY, port + "-" + i, port + "-" + i + "-2");
+        } else {
+          jedis.pfadd(source, port + "-" + i);
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import static org.apache.geode.security.SecurableCommunicationChannels.CLUSTER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.ssl.CertStores;
+import org.apache.geode.cache.ssl.TestSSLUtils.CertificateBuilder;
+import org.apache.geode.internal.security.SecurableCommunicationChannel;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class NioSslEngineIntegrationTest {
+
+  private static final int TIMEOUT = 30_000;
+
+  private ServerSocketChannel serverChannel;
+
+  private SocketChannel clientChannel;
+
+  private SocketChannel acceptedChannel;
+
+  private NioSslEngine clientEngine;
+
+  private NioSslEngine serverEngine;
+
+  private SocketCreator socketCreator;
+
+  @Before
+  public void setUp() throws Exception {
+    CertStores store = CertStores.serverStore();
+    store.withCertificate(new CertificateBuilder().commonName("member"));
+    Properties properties = store.trustSelf().propertiesWith(CLUSTER, true, false);
+    SocketCreator socketCreator = new SocketCreator(SSLConfigurationFactory
+        .getSSLConfigForComponent(properties, SecurableCommunicationChannel.CLUSTER));
+    this.socketCreator = socketCreator;
+
+    this.serverChannel = ServerSocketChannel.open();
+    this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    this.clientChannel = SocketChannel.open(this.serverChannel.getLocalAddress());
+    this.acceptedChannel = this.serverChannel.accept();
+
+    CompletableFuture<NioSslEngine> serverHandshake = CompletableFuture.supplyAsync(() -> {
+      try {
+        return socketCreator.handshakeSSLSocketChannel(this.acceptedChannel,
+            socketCreator.createSSLEngine("localhost", 0, false), TIMEOUT, true);
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    this.clientEngine = socketCreator.handshakeSSLSocketChannel(this.clientChannel,
+        socketCreator.createSSLEngine("localhost", 0, true), TIMEOUT, true);
+    this.serverEngine = serverHandshake.get(TIMEOUT, TimeUnit.MILLISECONDS);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    this.clientChannel.close();
+    this.acceptedChannel.close();
+    this.serverChannel.close();
+  }
+
+  @Test
+  public void smallMessagesArriveIntact() throws Exception {
+    assertTransfer(this.clientEngine, this.clientChannel, this.serverEngine, this.acceptedChannel,
+        100);
+    assertTransfer(this.serverEngine, this.acceptedChannel, this.clientEngine, this.clientChannel,
+        100);
+  }
+
+  @Test
+  public void messagesLargerThanAnSslRecordArriveIntact() throws Exception {
+    assertTransfer(this.clientEngine, this.clientChannel, this.serverEngine, this.acceptedChannel,
+        1024 * 1024);
+  }
+
+  @Test
+  public void readHandsOutDecryptedBytesInPiecesThatFitTheBuffer() throws Exception {
+    write(this.clientEngine, this.clientChannel, createMessage(1000));
+
+    ByteBuffer received = ByteBuffer.allocate(1000);
+    ByteBuffer piece = ByteBuffer.allocate(7);
+    while (received.hasRemaining()) {
+      piece.clear();
+      assertThat(this.serverEngine.read(this.acceptedChannel, piece)).isPositive();
+      piece.flip();
+      received.put(piece);
+    }
+    received.flip();
+    assertThat(received).isEqualTo(createMessage(1000));
+  }
+
+  @Test
+  public void handshakeWithSilentPeerTimesOut() throws Exception {
+    try (SocketChannel silentPeer = SocketChannel.open(this.serverChannel.getLocalAddress());
+        SocketChannel channel = this.serverChannel.accept()) {
+      long start = System.currentTimeMillis();
+
+      assertThatThrownBy(() -> this.socketCreator.handshakeSSLSocketChannel(channel,
+          this.socketCreator.createSSLEngine("localhost", 0, false), 500, true))
+              .isInstanceOf(SocketTimeoutException.class);
+
+      assertThat(System.currentTimeMillis() - start).isLessThan(TIMEOUT);
+      assertThat(channel.isBlocking()).isTrue();
+    }
+  }
+
+  @Test
+  public void handshakeLeavesChannelBlocking() {
+    assertThat(this.clientChannel.isBlocking()).isTrue();
+    assertThat(this.acceptedChannel.isBlocking()).isTrue();
+  }
+
+  @Test
+  public void bufferGrownForLargeMessageIsReleasedBySmallerMessage() throws Exception {
+    int packetBufferSize = this.clientEngine.getEngine().getSession().getPacketBufferSize();
+    assertTransfer(this.clientEngine, this.clientChannel, this.serverEngine, this.acceptedChannel,
+        1024 * 1024);
+
+    ByteBuffer wrapped = this.clientEngine.wrap(createMessage(100));
+
+    assertThat(wrapped.capacity()).isEqualTo(packetBufferSize);
+  }
+
+  private static void assertTransfer(NioSslEngine senderEngine, SocketChannel sender,
+      NioSslEngine receiverEngine, SocketChannel receiver, int size) throws Exception {
+    CompletableFuture<ByteBuffer> received = CompletableFuture.supplyAsync(() -> {
+      try {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        while (buffer.hasRemaining()) {
+          assertThat(receiverEngine.read(receiver, buffer)).isNotNegative();
+        }
+        buffer.flip();
+        return buffer;
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    write(senderEngine, sender, createMessage(size));
+
+    assertThat(received.get(TIMEOUT, TimeUnit.MILLISECONDS)).isEqualTo(createMessage(size));
+  }
+
+  private static void write(NioSslEngine engine, SocketChannel channel, ByteBuffer message)
+      throws Exception {
+    ByteBuffer wrapped = engine.wrap(message);
+    assertThat(message.hasRemaining()).isFalse();
+    while (wrapped.hasRemaining()) {
+      channel.write(wrapped);
+    }
+  }
+
+  private static ByteBuffer createMessage(int size) {
+    ByteBuffer message = ByteBuffer.allocate(size);
+    for (int i = 0; i < size; i++) {
+      message.put((byte) i);
+    }
+    message.flip();
+    return message;
+  }
+}
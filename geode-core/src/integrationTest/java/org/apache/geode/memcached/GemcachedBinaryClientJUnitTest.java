@@ -15,6 +15,7 @@
 package org.apache.geode.memcached;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -23,10 +24,13 @@ import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import net.spy.memcached.BinaryConnectionFactory;
 import net.spy.memcached.MemcachedClient;
+import org.junit.Test;
 
 import org.apache.geode.cache.CacheLoader;
 import org.apache.geode.cache.CacheLoaderException;
@@ -126,6 +130,33 @@ public class GemcachedBinaryClientJUnitTest extends GemcachedDevelopmentJUnitTes
     assertEquals(0, client.decr("decrkey", 999));
   }
 
+  @Test
+  public void testPipelinedGetBulk() throws Exception {
+    MemcachedClient client = createMemcachedClient();
+    List<String> keys = new ArrayList<String>();
+    List<Future<Boolean>> sets = new ArrayList<Future<Boolean>>();
+    for (int i = 0; i < 100; i++) {
+      keys.add("key" + i);
+      if (i % 10 != 0) {
+        sets.add(client.set("key" + i, 0, "value" + i));
+      }
+    }
+    for (Future<Boolean> set : sets) {
+      assertTrue(set.get());
+    }
+
+    Map<String, Object> values = client.getBulk(keys);
+
+    assertEquals(90, values.size());
+    for (int i = 0; i < 100; i++) {
+      if (i % 10 == 0) {
+        assertNull(values.get("key" + i));
+      } else {
+        assertEquals("value" + i, values.get("key" + i));
+      }
+    }
+  }
+
   @Override
   public void testFlushDelay() throws Exception {
     // for some reason the server never gets expiration bits from the
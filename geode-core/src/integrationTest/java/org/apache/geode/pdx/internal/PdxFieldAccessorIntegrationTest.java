@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.offheap.StoredObject;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.PdxFieldTypeMismatchException;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.PdxSerializationException;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({SerializationTest.class})
+public class PdxFieldAccessorIntegrationTest {
+
+  private InternalCache cache;
+
+  @Before
+  public void setUp() {
+    this.cache = (InternalCache) new CacheFactory().set(MCAST_PORT, "0")
+        .setPdxReadSerialized(true).create();
+  }
+
+  @After
+  public void tearDown() {
+    this.cache.close();
+  }
+
+  @Test
+  public void readsFieldsOfSerializedBytes() throws Exception {
+    byte[] bytes = serialize("name");
+
+    assertThat(accessor("id").readInt(bytes)).isEqualTo(37);
+    assertThat(accessor("price").readDouble(bytes)).isEqualTo(3.5);
+    assertThat(accessor("active").readBoolean(bytes)).isTrue();
+    assertThat(accessor("created").readDateMillis(bytes)).isEqualTo(1234L);
+    assertThat(accessor("name").readString(bytes)).isEqualTo("name");
+    assertThat(accessor("count").readLong(bytes)).isEqualTo(42L);
+  }
+
+  @Test
+  public void readsFieldsOfLargeValues() throws Exception {
+    StringBuilder name = new StringBuilder();
+    for (int i = 0; i < 70000; i++) {
+      name.append((char) ('a' + i % 26));
+    }
+    byte[] bytes = serialize(name.toString());
+
+    assertThat(accessor("name").readString(bytes)).isEqualTo(name.toString());
+    assertThat(accessor("count").readLong(bytes)).isEqualTo(42L);
+  }
+
+  @Test
+  public void readsFieldsOfStoredObject() throws Exception {
+    byte[] bytes = serialize("name");
+    StoredObject storedObject = mock(StoredObject.class);
+    when(storedObject.hasRefCount()).thenReturn(true);
+    when(storedObject.isSerialized()).thenReturn(true);
+    when(storedObject.readDataByte(anyInt()))
+        .thenAnswer(invocation -> bytes[invocation.<Integer>getArgument(0)]);
+    doAnswer(invocation -> {
+      byte[] destination = invocation.getArgument(1);
+      System.arraycopy(bytes, invocation.<Integer>getArgument(0), destination, 0,
+          destination.length);
+      return null;
+    }).when(storedObject).readDataBytes(anyInt(), any(byte[].class));
+
+    assertThat(accessor("id").readInt(storedObject)).isEqualTo(37);
+    assertThat(accessor("name").readString(storedObject)).isEqualTo("name");
+  }
+
+  @Test
+  public void readsValuesOfDifferentTypes() throws Exception {
+    PdxFieldAccessor accessor = accessor("id");
+    byte[] first = serialize("name");
+    byte[] second = BlobHelper.serializeToBlob(
+        this.cache.createPdxInstanceFactory("Other").writeString("other", "x").writeInt("id", 7)
+            .create());
+
+    assertThat(accessor.readInt(first)).isEqualTo(37);
+    assertThat(accessor.readInt(second)).isEqualTo(7);
+    assertThat(accessor.readInt(first)).isEqualTo(37);
+  }
+
+  @Test
+  public void missingFieldReadsAsDefault() throws Exception {
+    byte[] bytes = serialize("name");
+
+    assertThat(accessor("missing").hasField(bytes)).isFalse();
+    assertThat(accessor("missing").readInt(bytes)).isZero();
+    assertThat(accessor("missing").readString(bytes)).isNull();
+  }
+
+  @Test
+  public void wrongFieldTypeThrows() throws Exception {
+    byte[] bytes = serialize("name");
+
+    assertThatThrownBy(() -> accessor("name").readInt(bytes))
+        .isInstanceOf(PdxFieldTypeMismatchException.class);
+  }
+
+  @Test
+  public void valueThatIsNotPdxThrows() throws Exception {
+    byte[] bytes = BlobHelper.serializeToBlob("not pdx");
+
+    assertThatThrownBy(() -> accessor("id").readInt(bytes))
+        .isInstanceOf(PdxSerializationException.class);
+  }
+
+  private PdxFieldAccessor accessor(String fieldName) {
+    return new PdxFieldAccessor(this.cache.getPdxRegistry(), fieldName);
+  }
+
+  private byte[] serialize(String name) throws Exception {
+    PdxInstance instance = this.cache.createPdxInstanceFactory("Order").writeInt("id", 37)
+        .writeString("name", name).writeDouble("price", 3.5).writeBoolean("active", true)
+        .writeDate("created", new Date(1234L)).writeLong("count", 42L).create();
+    return BlobHelper.serializeToBlob(instance);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.internal.AvailablePortHelper;
+import org.apache.geode.test.junit.categories.RedisTest;
+
+/**
+ * Checks that keys of each type are removed once their expiration is reached, including many keys
+ * that expire together
+ */
+@Category({RedisTest.class})
+public class ExpirationJUnitTest {
+  private static final int NUM_KEYS = 5000;
+
+  private static Jedis jedis;
+  private static GeodeRedisServer server;
+  private static GemFireCache cache;
+
+  @BeforeClass
+  public static void setUp() throws IOException {
+    CacheFactory cf = new CacheFactory();
+    cf.set(LOG_LEVEL, "error");
+    cf.set(MCAST_PORT, "0");
+    cf.set(LOCATORS, "");
+    cache = cf.create();
+    int port = AvailablePortHelper.getRandomAvailableTCPPort();
+    server = new GeodeRedisServer("localhost", port);
+
+    server.start();
+    jedis = new Jedis("localhost", port, 10000000);
+  }
+
+  @Test
+  public void keysOfEachTypeExpire() {
+    jedis.set("string", "value");
+    jedis.hset("hash", "field", "value");
+    jedis.sadd("set", "member");
+    jedis.pfadd("hll", "element");
+    jedis.pexpire("string", 100);
+    jedis.pexpire("hash", 100);
+    jedis.pexpire("set", 100);
+    jedis.pexpire("hll", 100);
+    assertThat(jedis.pttl("string")).isBetween(1L, 100L);
+
+    await().until(() -> jedis.dbSize() == 0);
+    assertThat(jedis.pttl("string")).isEqualTo(-2);
+  }
+
+  @Test
+  public void manyKeysExpireTogether() {
+    Pipeline pipeline = jedis.pipelined();
+    for (int i = 0; i < NUM_KEYS; i++) {
+      pipeline.psetex("key" + i, 200, "value" + i);
+    }
+    pipeline.sync();
+    assertThat(jedis.dbSize()).isEqualTo(NUM_KEYS);
+
+    await().until(() -> jedis.dbSize() == 0);
+  }
+
+  @Test
+  public void changedAndRemovedExpirationsAreHonored() throws InterruptedException {
+    jedis.set("persisted", "value");
+    jedis.set("extended", "value");
+    jedis.pexpire("persisted", 100);
+    jedis.pexpire("extended", 100);
+    jedis.persist("persisted");
+    jedis.pexpire("extended", 60000);
+
+    Thread.sleep(500);
+
+    assertThat(jedis.get("persisted")).isEqualTo("value");
+    assertThat(jedis.ttl("persisted")).isEqualTo(-1);
+    assertThat(jedis.get("extended")).isEqualTo("value");
+    assertThat(jedis.pttl("extended")).isGreaterThan(50000);
+  }
+
+  @After
+  public void flushAll() {
+    jedis.flushAll();
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    jedis.close();
+    cache.close();
+    server.shutdown();
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.internal.AvailablePortHelper;
+import org.apache.geode.test.junit.categories.RedisTest;
+
+/**
+ * Sends pipelined commands, which the server executes in batches, and checks that each gets the
+ * response it would get on its own
+ */
+@Category({RedisTest.class})
+public class PipelineJUnitTest {
+  private static final int NUM_KEYS = 500;
+
+  private static Jedis jedis;
+  private static GeodeRedisServer server;
+  private static GemFireCache cache;
+
+  @BeforeClass
+  public static void setUp() throws IOException {
+    CacheFactory cf = new CacheFactory();
+    cf.set(LOG_LEVEL, "error");
+    cf.set(MCAST_PORT, "0");
+    cf.set(LOCATORS, "");
+    cache = cf.create();
+    int port = AvailablePortHelper.getRandomAvailableTCPPort();
+    server = new GeodeRedisServer("localhost", port);
+
+    server.start();
+    jedis = new Jedis("localhost", port, 10000000);
+  }
+
+  @Test
+  public void pipelinedSetsAndGetsAreAnsweredInOrder() {
+    Pipeline pipeline = jedis.pipelined();
+    List<Response<String>> sets = new ArrayList<>();
+    for (int i = 0; i < NUM_KEYS; i++) {
+      sets.add(pipeline.set("key" + i, "value" + i));
+    }
+    List<Response<String>> gets = new ArrayList<>();
+    for (int i = 0; i < NUM_KEYS + 1; i++) {
+      gets.add(pipeline.get("key" + i));
+    }
+    pipeline.sync();
+
+    for (int i = 0; i < NUM_KEYS; i++) {
+      assertThat(sets.get(i).get()).isEqualTo("OK");
+      assertThat(gets.get(i).get()).isEqualTo("value" + i);
+    }
+    assertThat(gets.get(NUM_KEYS).get()).isNull();
+  }
+
+  @Test
+  public void lastPipelinedSetOfAKeyWins() {
+    Pipeline pipeline = jedis.pipelined();
+    pipeline.set("key", "first");
+    pipeline.set("other", "value");
+    pipeline.set("key", "second");
+    Response<String> get = pipeline.get("key");
+    pipeline.sync();
+
+    assertThat(get.get()).isEqualTo("second");
+  }
+
+  @Test
+  public void keyOfAnotherTypeFailsOnlyItsOwnCommand() {
+    jedis.sadd("set", "member");
+
+    Pipeline pipeline = jedis.pipelined();
+    pipeline.set("before", "value");
+    Response<String> wrongSet = pipeline.set("set", "value");
+    Response<String> after = pipeline.set("after", "value");
+    Response<String> beforeGet = pipeline.get("before");
+    Response<String> wrongGet = pipeline.get("set");
+    Response<String> afterGet = pipeline.get("after");
+    pipeline.sync();
+
+    assertThat(after.get()).isEqualTo("OK");
+    assertThat(beforeGet.get()).isEqualTo("value");
+    assertThat(afterGet.get()).isEqualTo("value");
+    assertThat(isError(wrongSet)).isTrue();
+    assertThat(isError(wrongGet)).isTrue();
+    assertThat(jedis.smembers("set")).containsExactly("member");
+  }
+
+  @Test
+  public void commandsBetweenBatchesSeeEarlierWrites() {
+    Pipeline pipeline = jedis.pipelined();
+    pipeline.set("counter", "1");
+    Response<Long> incremented = pipeline.incr("counter");
+    Response<String> get = pipeline.get("counter");
+    pipeline.set("counter", "10");
+    Response<Long> appended = pipeline.append("counter", "0");
+    pipeline.sync();
+
+    assertThat(incremented.get()).isEqualTo(2);
+    assertThat(get.get()).isEqualTo("2");
+    assertThat(appended.get()).isEqualTo(3);
+    assertThat(jedis.get("counter")).isEqualTo("100");
+  }
+
+  @Test
+  public void pipelinedTransactionQueuesItsCommands() {
+    Pipeline pipeline = jedis.pipelined();
+    pipeline.multi();
+    pipeline.set("key1", "value1");
+    pipeline.set("key2", "value2");
+    Response<List<Object>> results = pipeline.exec();
+    Response<String> get = pipeline.get("key2");
+    pipeline.sync();
+
+    assertThat(results.get()).hasSize(2);
+    assertThat(get.get()).isEqualTo("value2");
+  }
+
+  @Test
+  public void pipelinedRangeReadsAreAnsweredInOrderWithOtherResponses() {
+    String largeValue = new String(new char[8192]).replace('\0', 'v');
+    jedis.hset("hash", "field", largeValue);
+    jedis.rpush("list", "a", "b", "c");
+    jedis.zadd("zset", 1, "member");
+    jedis.set("large", largeValue);
+
+    Pipeline pipeline = jedis.pipelined();
+    List<Response<String>> gets = new ArrayList<>();
+    List<Response<Map<String, String>>> hashes = new ArrayList<>();
+    List<Response<List<String>>> lists = new ArrayList<>();
+    List<Response<Set<String>>> sortedSets = new ArrayList<>();
+    List<Response<String>> largeGets = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      gets.add(pipeline.get("key" + i));
+      hashes.add(pipeline.hgetAll("hash"));
+      pipeline.set("key" + (i + 1), "value" + (i + 1));
+      lists.add(pipeline.lrange("list", 0, -1));
+      sortedSets.add(pipeline.zrange("zset", 0, -1));
+      largeGets.add(pipeline.get("large"));
+    }
+    pipeline.sync();
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(gets.get(i).get()).isEqualTo(i == 0 ? null : "value" + i);
+      assertThat(hashes.get(i).get()).containsOnlyKeys("field").containsValue(largeValue);
+      assertThat(lists.get(i).get()).containsExactly("a", "b", "c");
+      assertThat(sortedSets.get(i).get()).containsExactly("member");
+      assertThat(largeGets.get(i).get()).isEqualTo(largeValue);
+    }
+  }
+
+  private static boolean isError(Response<String> response) {
+    try {
+      response.get();
+      return false;
+    } catch (JedisDataException expected) {
+      return true;
+    }
+  }
+
+  @After
+  public void flushAll() {
+    jedis.flushAll();
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    jedis.close();
+    cache.close();
+    server.shutdown();
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import redis.clients.jedis.Jedis;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.internal.AvailablePortHelper;
+import org.apache.geode.test.junit.categories.RedisTest;
+
+/**
+ * Runs sorted set commands against a server that stores each sorted set as a single entry, and
+ * checks the results against the order Redis defines
+ */
+@Category({RedisTest.class})
+public class SortedSetEntriesJUnitTest {
+  private static final int NUM_MEMBERS = 1000;
+
+  private static Jedis jedis;
+  private static GeodeRedisServer server;
+  private static GemFireCache cache;
+
+  @BeforeClass
+  public static void setUp() throws IOException {
+    System.setProperty(GeodeRedisServer.COLLECTION_ENTRIES_SYS_PROP_NAME, "true");
+    CacheFactory cf = new CacheFactory();
+    cf.set(LOG_LEVEL, "error");
+    cf.set(MCAST_PORT, "0");
+    cf.set(LOCATORS, "");
+    cache = cf.create();
+    int port = AvailablePortHelper.getRandomAvailableTCPPort();
+    server = new GeodeRedisServer("localhost", port);
+
+    server.start();
+    jedis = new Jedis("localhost", port, 10000000);
+  }
+
+  @Test
+  public void rangesAndRanksFollowScoreOrder() {
+    String key = "ranked";
+    List<String> expected = addMembers(key);
+
+    assertThat(jedis.zcard(key)).isEqualTo(NUM_MEMBERS);
+    assertThat(jedis.zrange(key, 0, -1)).containsExactlyElementsOf(expected);
+    assertThat(jedis.zrange(key, 10, 19)).containsExactlyElementsOf(expected.subList(10, 20));
+    assertThat(jedis.zrevrange(key, 0, 2)).containsExactly(expected.get(NUM_MEMBERS - 1),
+        expected.get(NUM_MEMBERS - 2), expected.get(NUM_MEMBERS - 3));
+    for (int i = 0; i < NUM_MEMBERS; i += 97) {
+      assertThat(jedis.zrank(key, expected.get(i))).isEqualTo(i);
+      assertThat(jedis.zrevrank(key, expected.get(i))).isEqualTo(NUM_MEMBERS - 1 - i);
+    }
+    assertThat(jedis.zrank(key, "missing")).isNull();
+  }
+
+  @Test
+  public void scoreRangesFollowScoreOrder() {
+    String key = "scored";
+    List<String> expected = addMembers(key);
+
+    assertThat(jedis.zcount(key, 100, 199)).isEqualTo(100);
+    assertThat(jedis.zcount(key, "(100", "(199")).isEqualTo(98);
+    assertThat(jedis.zrangeByScore(key, 100, 199)).containsExactlyElementsOf(expected.subList(100,
+        200));
+    assertThat(jedis.zrangeByScore(key, 100, 199, 5, 10))
+        .containsExactlyElementsOf(expected.subList(105, 115));
+    assertThat(jedis.zrevrangeByScore(key, 199, 100, 0, 2)).containsExactly(expected.get(199),
+        expected.get(198));
+  }
+
+  @Test
+  public void removalsKeepRanksConsistent() {
+    String key = "removed";
+    List<String> expected = addMembers(key);
+
+    assertThat(jedis.zrem(key, expected.get(0), expected.get(1), "missing")).isEqualTo(2);
+    assertThat(jedis.zremrangeByRank(key, 0, 7)).isEqualTo(8);
+    assertThat(jedis.zremrangeByScore(key, 990, 999)).isEqualTo(10);
+    assertThat(jedis.zrange(key, 0, -1)).containsExactlyElementsOf(expected.subList(10, 990));
+    assertThat(jedis.zrank(key, expected.get(10))).isEqualTo(0);
+
+    assertThat(jedis.zincrby(key, 1000, expected.get(10))).isEqualTo(1010);
+    assertThat(jedis.zrevrank(key, expected.get(10))).isEqualTo(0);
+
+    jedis.zremrangeByRank(key, 0, -1);
+    assertThat(jedis.exists(key)).isFalse();
+  }
+
+  @Test
+  public void keyOfAnotherTypeIsRejected() {
+    jedis.hset("hash", "field", "value");
+
+    try {
+      jedis.zadd("hash", 1, "member");
+    } catch (Exception expected) {
+      return;
+    }
+    throw new AssertionError("ZADD to a hash succeeded");
+  }
+
+  /**
+   * Adds members named so that their order by name differs from their order by score
+   *
+   * @return The members in score order
+   */
+  private List<String> addMembers(String key) {
+    Map<String, Double> scoreMembers = new HashMap<>();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < NUM_MEMBERS; i++) {
+      String member = "member" + (NUM_MEMBERS - i);
+      scoreMembers.put(member, (double) i);
+      expected.add(member);
+    }
+    jedis.zadd(key, scoreMembers);
+    return expected;
+  }
+
+  @After
+  public void flushAll() {
+    jedis.flushAll();
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    jedis.close();
+    cache.close();
+    server.shutdown();
+    System.clearProperty(GeodeRedisServer.COLLECTION_ENTRIES_SYS_PROP_NAME);
+  }
+}
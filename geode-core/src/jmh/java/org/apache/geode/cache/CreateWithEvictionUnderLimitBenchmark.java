@@ -44,15 +44,20 @@ import org.apache.geode.internal.lang.SystemPropertyHelper;
 public class CreateWithEvictionUnderLimitBenchmark {
   private static final int MAX_ENTRIES = Integer.MAX_VALUE;
 
-  @Param({"true", "false"})
-  public String useAsync;
+  @Param({"async", "sync", "sampled", "tinylfu"})
+  public String evictionList;
 
   Cache cache;
   Region<String, String> region;
 
   @Setup(Level.Trial)
   public void setup() {
-    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SCAN_ASYNC, useAsync);
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SCAN_ASYNC,
+        Boolean.toString(evictionList.equals("async")));
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SAMPLING,
+        Boolean.toString(evictionList.equals("sampled")));
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_TINY_LFU,
+        Boolean.toString(evictionList.equals("tinylfu")));
     cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
     region = createRegion(cache, MAX_ENTRIES);
   }
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+
+/**
+ * This benchmark compares the hit ratio of the eviction lists for a read-through workload, where
+ * each miss puts the key in a region that can hold a tenth of the keys. The keys are chosen from a
+ * Zipfian distribution, interrupted every scanInterval operations by a scan of twice as many keys
+ * as the region holds that are never read again. The hits and misses of the popular keys are
+ * reported as secondary results, so the hit ratio is hits / (hits + misses). An entry count limit
+ * is used so that the results do not depend on the heap, but the same eviction list is used for
+ * heap and memory based eviction.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class EvictionHitRatioBenchmark {
+  private static final int MAX_ENTRIES = 10_000;
+  private static final int NUM_KEYS = 100_000;
+  private static final double ZIPF_EXPONENT = 0.99;
+
+  @Param({"async", "sync", "sampled", "tinylfu"})
+  public String evictionList;
+
+  @Param({"0", "100000"})
+  public int scanInterval;
+
+  Cache cache;
+  Region<String, String> region;
+  double[] cumulativeProbabilities = new double[NUM_KEYS];
+
+  @Setup(Level.Trial)
+  public void setup() {
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SCAN_ASYNC,
+        Boolean.toString(evictionList.equals("async")));
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SAMPLING,
+        Boolean.toString(evictionList.equals("sampled")));
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_TINY_LFU,
+        Boolean.toString(evictionList.equals("tinylfu")));
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+    region = cache.<String, String>createRegionFactory(RegionShortcut.LOCAL)
+        .setEvictionAttributes(
+            EvictionAttributes.createLRUEntryAttributes(MAX_ENTRIES, EvictionAction.LOCAL_DESTROY))
+        .create("testRegion");
+
+    double sum = 0;
+    for (int i = 0; i < NUM_KEYS; i++) {
+      sum += 1 / Math.pow(i + 1, ZIPF_EXPONENT);
+      cumulativeProbabilities[i] = sum;
+    }
+    for (int i = 0; i < NUM_KEYS; i++) {
+      cumulativeProbabilities[i] /= sum;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @State(Scope.Thread)
+  public static class MyState {
+    Random random = new Random();
+    long operations;
+    long scanKey;
+    int scanRemaining;
+  }
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class HitCounters {
+    public long hits;
+    public long misses;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      hits = 0;
+      misses = 0;
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String readThrough(MyState state, HitCounters counters) {
+    if (scanInterval > 0 && ++state.operations % scanInterval == 0) {
+      state.scanRemaining = 2 * MAX_ENTRIES;
+    }
+    if (state.scanRemaining > 0) {
+      state.scanRemaining--;
+      String key = "scan" + state.scanKey++;
+      region.put(key, "value");
+      return key;
+    }
+
+    String key = Integer.toString(nextZipfianKey(state.random));
+    String value = region.get(key);
+    if (value != null) {
+      counters.hits++;
+      return value;
+    }
+    counters.misses++;
+    region.put(key, "value");
+    return key;
+  }
+
+  private int nextZipfianKey(Random random) {
+    int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+    return Math.min(index < 0 ? -index - 1 : index, NUM_KEYS - 1);
+  }
+}
@@ -44,8 +44,8 @@ public class EvictionWithPartiallyMarkedListsBenchmark {
   @Param({"10000", "100000", "1000000"})
   public int maxEntries;
 
-  @Param({"true", "false"})
-  public String useAsync;
+  @Param({"async", "sync", "sampled", "tinylfu"})
+  public String evictionList;
 
   @Param({"95", "90", "75", "50", "25", "10"})
   public int markedPercentage;
@@ -65,7 +65,12 @@ public class EvictionWithPartiallyMarkedListsBenchmark {
 
   @Setup(Level.Trial)
   public void setup() {
-    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SCAN_ASYNC, useAsync);
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SCAN_ASYNC,
+        Boolean.toString(evictionList.equals("async")));
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SAMPLING,
+        Boolean.toString(evictionList.equals("sampled")));
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_TINY_LFU,
+        Boolean.toString(evictionList.equals("tinylfu")));
     cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
     region = createRegion(cache, maxEntries);
     for (int i = 0; i < maxEntries; i++) {
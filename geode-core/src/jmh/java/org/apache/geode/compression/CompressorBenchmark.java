@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.compression;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+
+/**
+ * Compares {@link DictionaryCompressor} with {@link SnappyCompressor} on small JSON documents,
+ * both compressing and decompressing values directly and putting and getting them on a region
+ * that uses the compressor. The compression ratio of each is printed when the trial ends.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class CompressorBenchmark {
+  private static final int VALUES = 10_000;
+
+  @Param({"snappy", "dictionary"})
+  public String compressorType;
+
+  private Compressor compressor;
+
+  private Cache cache;
+
+  private Region<Integer, String> region;
+
+  private byte[][] values;
+
+  private byte[][] compressedValues;
+
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.compressor =
+        "snappy".equals(this.compressorType) ? new SnappyCompressor() : new DictionaryCompressor();
+    Random random = new Random(37);
+    this.values = new byte[VALUES][];
+    for (int i = 0; i < VALUES; i++) {
+      this.values[i] = createDocument(i, random).getBytes(StandardCharsets.UTF_8);
+    }
+    // compress the values twice, so that the dictionary is built before the values are kept
+    for (byte[] value : this.values) {
+      this.compressor.compress(value);
+    }
+    this.compressedValues = new byte[VALUES][];
+    for (int i = 0; i < VALUES; i++) {
+      this.compressedValues[i] = this.compressor.compress(this.values[i]);
+    }
+
+    this.cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+    this.region = this.cache.<Integer, String>createRegionFactory(RegionShortcut.LOCAL)
+        .setCompressor(this.compressor).create("compressed");
+    for (int i = 0; i < VALUES; i++) {
+      this.region.put(i, createDocument(i, random));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    long size = 0;
+    long compressedSize = 0;
+    for (int i = 0; i < VALUES; i++) {
+      size += this.values[i].length;
+      compressedSize += this.compressedValues[i].length;
+    }
+    System.out.printf("%n%s compression ratio: %.2f (%d bytes to %d bytes)%n", this.compressorType,
+        (double) size / compressedSize, size, compressedSize);
+    this.cache.close();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public byte[] compress() {
+    return this.compressor.compress(this.values[nextIndex()]);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public byte[] decompress() {
+    return this.compressor.decompress(this.compressedValues[nextIndex()]);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public String get() {
+    return this.region.get(nextIndex());
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public String put() {
+    int i = nextIndex();
+    return this.region.put(i, new String(this.values[i], StandardCharsets.UTF_8));
+  }
+
+  private int nextIndex() {
+    int i = this.index;
+    this.index = i + 1 == VALUES ? 0 : i + 1;
+    return i;
+  }
+
+  private static String createDocument(int id, Random random) {
+    String[] statuses = {"NEW", "FILLED", "CANCELLED", "PARTIALLY_FILLED"};
+    String[] symbols = {"AAPL", "GOOG", "MSFT", "ORCL", "IBM", "AMZN"};
+    return "{\"orderId\":" + id + ",\"status\":\"" + statuses[random.nextInt(statuses.length)]
+        + "\",\"symbol\":\"" + symbols[random.nextInt(symbols.length)] + "\",\"quantity\":"
+        + random.nextInt(10_000) + ",\"price\":" + random.nextInt(100_000) / 100.0
+        + ",\"currency\":\"USD\",\"account\":\"account-" + random.nextInt(500)
+        + "\",\"exchange\":\"NASDAQ\",\"timestamp\":" + (1_540_000_000_000L + id * 1000L) + "}";
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DirectReplyProcessor;
+import org.apache.geode.internal.ByteArrayDataInput;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.DistributedCacheOperation.CacheOperationMessage;
+import org.apache.geode.internal.cache.partitioned.PutMessage;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+
+/**
+ * Measures serializing and deserializing the messages most often sent for region updates, the way
+ * the distribution layer does it.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class MessageSerializationBenchmark {
+
+  @Param({"UpdateMessage", "PutMessage", "GatewaySenderEventImpl"})
+  public String message;
+
+  @Param({"100", "1000"})
+  public int valueSize;
+
+  private InternalCache cache;
+
+  private Object object;
+
+  private byte[] serializedBytes;
+
+  private final HeapDataOutputStream output = new HeapDataOutputStream(1024, Version.CURRENT);
+
+  private final ByteArrayDataInput input = new ByteArrayDataInput();
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    this.cache = (InternalCache) new CacheFactory().set(LOG_LEVEL, "warn").create();
+    DistributedRegion region = (DistributedRegion) this.cache
+        .<String, String>createRegionFactory(RegionShortcut.REPLICATE).create("region");
+
+    StringBuilder value = new StringBuilder(this.valueSize);
+    for (int i = 0; i < this.valueSize; i++) {
+      value.append((char) ('a' + i % 26));
+    }
+    EntryEventImpl event = EntryEventImpl.create(region, Operation.UPDATE, "key",
+        value.toString(), null, false, this.cache.getMyId());
+    event.setEventId(new EventID(this.cache.getDistributedSystem()));
+
+    switch (this.message) {
+      case "UpdateMessage":
+        UpdateOperation operation = new UpdateOperation(event, System.currentTimeMillis());
+        CacheOperationMessage updateMessage = operation.createMessage();
+        operation.initMessage(updateMessage, null);
+        this.object = updateMessage;
+        break;
+      case "PutMessage":
+        this.object = createPutMessage(event);
+        break;
+      case "GatewaySenderEventImpl":
+        this.object = new GatewaySenderEventImpl(EnumListenerEvent.AFTER_UPDATE, event, null);
+        break;
+      default:
+        throw new IllegalArgumentException(this.message);
+    }
+
+    this.serializedBytes = serialize();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.cache.close();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int toData() throws IOException {
+    this.output.reset();
+    DataSerializer.writeObject(this.object, this.output);
+    return this.output.size();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object fromData() throws IOException, ClassNotFoundException {
+    this.input.initialize(this.serializedBytes, Version.CURRENT);
+    return DataSerializer.readObject(this.input);
+  }
+
+  private byte[] serialize() throws IOException {
+    HeapDataOutputStream hdos = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(this.object, hdos);
+    return hdos.toByteArray();
+  }
+
+  /**
+   * The constructor used for a put on a partitioned region is only visible to its package.
+   */
+  private static PutMessage createPutMessage(EntryEventImpl event) throws Exception {
+    Constructor<PutMessage> constructor = PutMessage.class.getDeclaredConstructor(Set.class,
+        boolean.class, int.class, DirectReplyProcessor.class, EntryEventImpl.class, long.class,
+        boolean.class, boolean.class, Object.class, boolean.class);
+    constructor.setAccessible(true);
+    return constructor.newInstance(Collections.emptySet(), false, 1, null, event,
+        System.currentTimeMillis(), false, false, null, false);
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.security.KeyStore;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManagerFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of sending put-sized P2P messages over a loopback NIO connection with
+ * and without TLS, the way {@code Connection} writes and reads them.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class NioFilterBenchmark {
+
+  private static final String PASSWORD = "password";
+
+  @Param({"false", "true"})
+  public boolean tls;
+
+  @Param({"128", "4096", "65536"})
+  public int messageSize;
+
+  private ServerSocketChannel serverChannel;
+
+  private SocketChannel senderChannel;
+
+  private SocketChannel receiverChannel;
+
+  private NioFilter senderFilter;
+
+  private ByteBuffer message;
+
+  private Thread receiver;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    this.serverChannel = ServerSocketChannel.open();
+    this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    this.senderChannel = SocketChannel.open(this.serverChannel.getLocalAddress());
+    this.senderChannel.socket().setTcpNoDelay(true);
+    this.receiverChannel = this.serverChannel.accept();
+
+    NioFilter receiverFilter;
+    if (this.tls) {
+      SSLContext sslContext = createSslContext();
+      CompletableFuture<NioSslEngine> receiverHandshake =
+          CompletableFuture.supplyAsync(() -> handshake(sslContext, this.receiverChannel, false));
+      this.senderFilter = handshake(sslContext, this.senderChannel, true);
+      receiverFilter = receiverHandshake.get();
+    } else {
+      this.senderFilter = NioPlainEngine.getInstance();
+      receiverFilter = NioPlainEngine.getInstance();
+    }
+
+    this.receiver = new Thread(() -> {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(32768);
+      try {
+        while (receiverFilter.read(this.receiverChannel, buffer) >= 0) {
+          buffer.clear();
+        }
+      } catch (IOException ignore) {
+        // the channel was closed
+      }
+    }, "NioFilterBenchmark receiver");
+    this.receiver.setDaemon(true);
+    this.receiver.start();
+
+    this.message = ByteBuffer.allocateDirect(this.messageSize);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    this.senderChannel.close();
+    this.receiverChannel.close();
+    this.serverChannel.close();
+    this.receiver.join();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int send() throws IOException {
+    this.message.clear();
+    ByteBuffer wrapped = this.senderFilter.wrap(this.message);
+    int written = 0;
+    while (wrapped.hasRemaining()) {
+      written += this.senderChannel.write(wrapped);
+    }
+    return written;
+  }
+
+  private static NioSslEngine handshake(SSLContext sslContext, SocketChannel channel,
+      boolean clientMode) {
+    SSLEngine engine = sslContext.createSSLEngine("localhost", 0);
+    engine.setUseClientMode(clientMode);
+    NioSslEngine nioSslEngine = new NioSslEngine(engine, true);
+    try {
+      nioSslEngine.handshake(channel, 0);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return nioSslEngine;
+  }
+
+  /**
+   * Creates a context trusting a self-signed certificate generated by keytool.
+   */
+  private static SSLContext createSslContext() throws Exception {
+    File keyStoreFile = File.createTempFile("NioFilterBenchmark", ".jks");
+    keyStoreFile.delete();
+    keyStoreFile.deleteOnExit();
+    String keytool = System.getProperty("java.home") + File.separator + "bin" + File.separator
+        + "keytool";
+    Process process = new ProcessBuilder(keytool, "-genkeypair", "-keyalg", "RSA", "-keysize",
+        "2048", "-alias", "member", "-dname", "CN=localhost", "-validity", "1", "-keystore",
+        keyStoreFile.getPath(), "-storetype", "JKS", "-storepass", PASSWORD, "-keypass", PASSWORD)
+            .inheritIO().start();
+    if (process.waitFor() != 0) {
+      throw new IllegalStateException("keytool failed to create " + keyStoreFile);
+    }
+
+    KeyStore keyStore = KeyStore.getInstance("JKS");
+    try (InputStream input = new FileInputStream(keyStoreFile)) {
+      keyStore.load(input, PASSWORD.toCharArray());
+    }
+    KeyManagerFactory keyManagerFactory =
+        KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+    keyManagerFactory.init(keyStore, PASSWORD.toCharArray());
+    TrustManagerFactory trustManagerFactory =
+        TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+    trustManagerFactory.init(keyStore);
+    SSLContext sslContext = SSLContext.getInstance("TLS");
+    sslContext.init(keyManagerFactory.getKeyManagers(), trustManagerFactory.getTrustManagers(),
+        null);
+    return sslContext;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+
+/**
+ * Compares serializing a value the way a put does, through {@link BlobHelper#serializeToBlob}
+ * and its pooled stream, with allocating a new stream for each value. Run it with
+ * {@code -prof gc} to see the allocation rate of each.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class BlobHelperBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int valueSize;
+
+  private String value;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    StringBuilder builder = new StringBuilder(this.valueSize);
+    for (int i = 0; i < this.valueSize; i++) {
+      builder.append((char) ('a' + i % 26));
+    }
+    this.value = builder.toString();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public byte[] pooledStream() throws IOException {
+    return BlobHelper.serializeToBlob(this.value);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public byte[] newStream() throws IOException {
+    HeapDataOutputStream hdos = new HeapDataOutputStream((Version) null);
+    DataSerializer.writeObject(this.value, hdos);
+    return hdos.toByteArray();
+  }
+}
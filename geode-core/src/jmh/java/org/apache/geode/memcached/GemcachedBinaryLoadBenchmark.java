@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.memcached;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.spy.memcached.BinaryConnectionFactory;
+import net.spy.memcached.MemcachedClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.AvailablePort;
+import org.apache.geode.memcached.GemFireMemcachedServer.Protocol;
+
+/**
+ * Drives a binary protocol {@link GemFireMemcachedServer} with a memcached client from several
+ * threads sharing one connection, the way an application does, so that requests are pipelined.
+ * Measures single gets and sets, multi-gets, and sets sent without waiting for each reply.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class GemcachedBinaryLoadBenchmark {
+  private static final int KEYS = 10_000;
+
+  private static final int MULTI_GET_SIZE = 20;
+
+  private GemFireMemcachedServer server;
+
+  private MemcachedClient client;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException, InterruptedException, ExecutionException {
+    new CacheFactory().set(MCAST_PORT, "0").set(LOG_LEVEL, "warn").create();
+    int port = AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET);
+    this.server = new GemFireMemcachedServer("", port, Protocol.BINARY);
+    this.server.start();
+    this.client = new MemcachedClient(new BinaryConnectionFactory(),
+        Collections.singletonList(new InetSocketAddress(InetAddress.getLocalHost(), port)));
+    List<Future<Boolean>> sets = new ArrayList<>();
+    for (int i = 0; i < KEYS; i++) {
+      sets.add(this.client.set(key(i), 0, value(i)));
+    }
+    for (Future<Boolean> set : sets) {
+      set.get();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.client.shutdown();
+    this.server.shutdown();
+  }
+
+  @State(Scope.Thread)
+  public static class ClientState {
+    int next;
+
+    int nextKey() {
+      this.next = (this.next + 7919) % KEYS;
+      return this.next;
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(8)
+  public Object get(ClientState state) {
+    return this.client.get(key(state.nextKey()));
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(8)
+  public Boolean set(ClientState state) throws InterruptedException, ExecutionException {
+    int key = state.nextKey();
+    return this.client.set(key(key), 0, value(key)).get();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(8)
+  public Map<String, Object> multiGet(ClientState state) {
+    List<String> keys = new ArrayList<>(MULTI_GET_SIZE);
+    for (int i = 0; i < MULTI_GET_SIZE; i++) {
+      keys.add(key(state.nextKey()));
+    }
+    return this.client.getBulk(keys);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(8)
+  public Boolean pipelinedSets(ClientState state) throws InterruptedException, ExecutionException {
+    List<Future<Boolean>> sets = new ArrayList<>(MULTI_GET_SIZE);
+    for (int i = 0; i < MULTI_GET_SIZE; i++) {
+      int key = state.nextKey();
+      sets.add(this.client.set(key(key), 0, value(key)));
+    }
+    boolean result = true;
+    for (Future<Boolean> set : sets) {
+      result &= set.get();
+    }
+    return result;
+  }
+
+  private static String key(int i) {
+    return "key-" + i;
+  }
+
+  private static String value(int i) {
+    return "a value of about one hundred bytes for the key numbered " + i
+        + " in the benchmark's region";
+  }
+}
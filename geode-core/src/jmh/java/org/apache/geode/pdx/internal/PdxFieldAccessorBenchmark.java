@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.PdxInstance;
+
+/**
+ * Compares reading one field of a serialized PDX value with {@link PdxFieldAccessor} and with
+ * {@link PdxInstanceImpl#getField}, both on an existing instance and on one deserialized from the
+ * same bytes, the way a query on a region of serialized values does.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class PdxFieldAccessorBenchmark {
+
+  private InternalCache cache;
+
+  private byte[] serializedBytes;
+
+  private PdxInstance instance;
+
+  private PdxFieldAccessor intAccessor;
+
+  private PdxFieldAccessor stringAccessor;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    this.cache = (InternalCache) new CacheFactory().set(LOG_LEVEL, "warn")
+        .setPdxReadSerialized(true).create();
+    this.instance = this.cache.createPdxInstanceFactory("Order").writeInt("id", 37)
+        .writeString("customer", "customer-37").writeDouble("price", 3.5)
+        .writeString("description", "an order with a few fields").writeLong("quantity", 42L)
+        .create();
+    this.serializedBytes = BlobHelper.serializeToBlob(this.instance);
+    this.intAccessor = new PdxFieldAccessor(this.cache.getPdxRegistry(), "quantity");
+    this.stringAccessor = new PdxFieldAccessor(this.cache.getPdxRegistry(), "customer");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.cache.close();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public long accessorReadLong() {
+    return this.intAccessor.readLong(this.serializedBytes);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String accessorReadString() {
+    return this.stringAccessor.readString(this.serializedBytes);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object instanceGetLong() {
+    return this.instance.getField("quantity");
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object instanceGetString() {
+    return this.instance.getField("customer");
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object deserializeAndGetLong() throws IOException, ClassNotFoundException {
+    PdxInstance deserialized = (PdxInstance) BlobHelper.deserializeBlob(this.serializedBytes);
+    return deserialized.getField("quantity");
+  }
+}
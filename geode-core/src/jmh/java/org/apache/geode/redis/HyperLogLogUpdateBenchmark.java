@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import redis.clients.jedis.Jedis;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.AvailablePort;
+
+/**
+ * Measures the latency of PFADD through a {@link GeodeRedisServer}. In a PARTITION Region the
+ * update is executed on the primary copy of the key under a local lock, while in a REPLICATE Region
+ * it is serialized by a distributed lock, so the difference between the two is the cost of taking
+ * that lock.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class HyperLogLogUpdateBenchmark {
+  private static final int KEYS = 1000;
+
+  @Param({"PARTITION", "REPLICATE"})
+  public String regionType;
+
+  private Cache cache;
+
+  private GeodeRedisServer server;
+
+  private int port;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    System.setProperty(GeodeRedisServer.DEFAULT_REGION_SYS_PROP_NAME, this.regionType);
+    this.cache = new CacheFactory().set(MCAST_PORT, "0").set(LOG_LEVEL, "warn").create();
+    this.port = AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET);
+    this.server = new GeodeRedisServer("localhost", this.port);
+    this.server.start();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.server.shutdown();
+    if (!this.cache.isClosed()) {
+      this.cache.close();
+    }
+    System.clearProperty(GeodeRedisServer.DEFAULT_REGION_SYS_PROP_NAME);
+  }
+
+  @State(Scope.Thread)
+  public static class ClientState {
+    Jedis jedis;
+
+    int next;
+
+    @Setup(Level.Trial)
+    public void setup(HyperLogLogUpdateBenchmark benchmark) {
+      this.jedis = new Jedis("localhost", benchmark.port, 10000000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      this.jedis.close();
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Threads(4)
+  public Long pfadd(ClientState state) {
+    state.next++;
+    return state.jedis.pfadd("hll-" + (state.next % KEYS), "element-" + state.next);
+  }
+}
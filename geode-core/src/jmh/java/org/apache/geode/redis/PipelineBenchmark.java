@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.AvailablePort;
+
+/**
+ * Sends GET and SET commands to a {@link GeodeRedisServer} in pipelines of different depths. Each
+ * operation is one round trip carrying {@code depth} commands, so the number of commands per
+ * millisecond is the score multiplied by the depth.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class PipelineBenchmark {
+  private static final int KEYS = 100_000;
+
+  @Param({"1", "10", "100"})
+  public int depth;
+
+  private Cache cache;
+
+  private GeodeRedisServer server;
+
+  private int port;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.cache = new CacheFactory().set(MCAST_PORT, "0").set(LOG_LEVEL, "warn").create();
+    this.port = AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET);
+    this.server = new GeodeRedisServer("localhost", this.port);
+    this.server.start();
+    try (Jedis jedis = new Jedis("localhost", this.port, 10000000)) {
+      Pipeline pipeline = jedis.pipelined();
+      for (int i = 0; i < KEYS; i++) {
+        pipeline.set(key(i), value(i));
+      }
+      pipeline.sync();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.server.shutdown();
+    if (!this.cache.isClosed()) {
+      this.cache.close();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ClientState {
+    Jedis jedis;
+
+    int next;
+
+    @Setup(Level.Trial)
+    public void setup(PipelineBenchmark benchmark) {
+      this.jedis = new Jedis("localhost", benchmark.port, 10000000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      this.jedis.close();
+    }
+
+    int nextKey() {
+      this.next = (this.next + 7919) % KEYS;
+      return this.next;
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(4)
+  public List<Object> get(ClientState state) {
+    Pipeline pipeline = state.jedis.pipelined();
+    for (int i = 0; i < this.depth; i++) {
+      pipeline.get(key(state.nextKey()));
+    }
+    return pipeline.syncAndReturnAll();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(4)
+  public List<Object> set(ClientState state) {
+    Pipeline pipeline = state.jedis.pipelined();
+    for (int i = 0; i < this.depth; i++) {
+      int key = state.nextKey();
+      pipeline.set(key(key), value(key));
+    }
+    return pipeline.syncAndReturnAll();
+  }
+
+  private static String key(int i) {
+    return "key-" + i;
+  }
+
+  private static String value(int i) {
+    return "value-" + i;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.AvailablePort;
+
+/**
+ * Creates many small hashes through a {@link GeodeRedisServer}, with each hash either in a Region
+ * of its own or stored as a single entry when
+ * {@value GeodeRedisServer#COLLECTION_ENTRIES_SYS_PROP_NAME} is set, and reads fields from hashes
+ * created earlier.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class SmallHashesBenchmark {
+  private static final int HASHES = 100_000;
+
+  private static final int FIELDS = 4;
+
+  @Param({"false", "true"})
+  public boolean collectionEntries;
+
+  private final AtomicInteger nextHash = new AtomicInteger(HASHES);
+
+  private Cache cache;
+
+  private GeodeRedisServer server;
+
+  private int port;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    System.setProperty(GeodeRedisServer.COLLECTION_ENTRIES_SYS_PROP_NAME,
+        String.valueOf(this.collectionEntries));
+    this.cache = new CacheFactory().set(MCAST_PORT, "0").set(LOG_LEVEL, "warn").create();
+    this.port = AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET);
+    this.server = new GeodeRedisServer("localhost", this.port);
+    this.server.start();
+    try (Jedis jedis = new Jedis("localhost", this.port, 10000000)) {
+      Pipeline pipeline = jedis.pipelined();
+      for (int i = 0; i < HASHES; i++) {
+        for (int j = 0; j < FIELDS; j++) {
+          pipeline.hset(key(i), field(j), value(j));
+        }
+      }
+      pipeline.sync();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.server.shutdown();
+    if (!this.cache.isClosed()) {
+      this.cache.close();
+    }
+    System.clearProperty(GeodeRedisServer.COLLECTION_ENTRIES_SYS_PROP_NAME);
+  }
+
+  @State(Scope.Thread)
+  public static class ClientState {
+    Jedis jedis;
+
+    int next;
+
+    @Setup(Level.Trial)
+    public void setup(SmallHashesBenchmark benchmark) {
+      this.jedis = new Jedis("localhost", benchmark.port, 10000000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      this.jedis.close();
+    }
+
+    int nextHash() {
+      this.next = (this.next + 7919) % HASHES;
+      return this.next;
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(4)
+  public Long createHash(ClientState state) {
+    String key = key(this.nextHash.getAndIncrement());
+    long created = 0;
+    for (int i = 0; i < FIELDS; i++) {
+      created += state.jedis.hset(key, field(i), value(i));
+    }
+    return created;
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(4)
+  public String getField(ClientState state) {
+    int hash = state.nextHash();
+    return state.jedis.hget(key(hash), field(hash % FIELDS));
+  }
+
+  private static String key(int i) {
+    return "hash-" + i;
+  }
+
+  private static String field(int i) {
+    return "field-" + i;
+  }
+
+  private static String value(int i) {
+    return "value-" + i;
+  }
+}
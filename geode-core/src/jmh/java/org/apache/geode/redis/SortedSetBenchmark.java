@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.AvailablePort;
+
+/**
+ * Reads ranks and ranges of one large sorted set through a {@link GeodeRedisServer}, with the
+ * sorted set either in a Region of its own or stored as a single entry when
+ * {@value GeodeRedisServer#COLLECTION_ENTRIES_SYS_PROP_NAME} is set.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class SortedSetBenchmark {
+  private static final String KEY = "leaderboard";
+
+  private static final int MEMBERS = 10_000;
+
+  private static final int WINDOW = 10;
+
+  @Param({"false", "true"})
+  public boolean collectionEntries;
+
+  private Cache cache;
+
+  private GeodeRedisServer server;
+
+  private int port;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    System.setProperty(GeodeRedisServer.COLLECTION_ENTRIES_SYS_PROP_NAME,
+        String.valueOf(this.collectionEntries));
+    this.cache = new CacheFactory().set(MCAST_PORT, "0").set(LOG_LEVEL, "warn").create();
+    this.port = AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET);
+    this.server = new GeodeRedisServer("localhost", this.port);
+    this.server.start();
+    try (Jedis jedis = new Jedis("localhost", this.port, 10000000)) {
+      Pipeline pipeline = jedis.pipelined();
+      for (int i = 0; i < MEMBERS; i++) {
+        pipeline.zadd(KEY, i, member(i));
+      }
+      pipeline.sync();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.server.shutdown();
+    if (!this.cache.isClosed()) {
+      this.cache.close();
+    }
+    System.clearProperty(GeodeRedisServer.COLLECTION_ENTRIES_SYS_PROP_NAME);
+  }
+
+  @State(Scope.Thread)
+  public static class ClientState {
+    Jedis jedis;
+
+    int next;
+
+    @Setup(Level.Trial)
+    public void setup(SortedSetBenchmark benchmark) {
+      this.jedis = new Jedis("localhost", benchmark.port, 10000000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      this.jedis.close();
+    }
+
+    int nextMember() {
+      this.next = (this.next + 7919) % MEMBERS;
+      return this.next;
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(4)
+  public Long rank(ClientState state) {
+    return state.jedis.zrank(KEY, member(state.nextMember()));
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(4)
+  public Set<String> rangeByRank(ClientState state) {
+    int start = state.nextMember();
+    return state.jedis.zrange(KEY, start, start + WINDOW - 1);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(4)
+  public Set<String> rangeByScore(ClientState state) {
+    int min = state.nextMember();
+    return state.jedis.zrangeByScore(KEY, min, min + WINDOW - 1);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Threads(4)
+  public Double incrementScore(ClientState state) {
+    return state.jedis.zincrby(KEY, 0, member(state.nextMember()));
+  }
+
+  private static String member(int i) {
+    return "member-" + i;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decodes SET commands and encodes the responses to GET and SET with the pooled allocator the
+ * server uses. Run with {@code -prof gc} to see the bytes allocated per command.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class CoderBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  public int valueSize;
+
+  private final ByteBufAllocator alloc = PooledByteBufAllocator.DEFAULT;
+
+  private final ByteToCommandDecoder decoder = new ByteToCommandDecoder();
+
+  private final List<Object> decoded = new ArrayList<>(1);
+
+  private ByteArrayWrapper value;
+
+  private ByteBuf setCommand;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    byte[] bytes = new byte[this.valueSize];
+    this.value = new ByteArrayWrapper(bytes);
+    this.setCommand = this.alloc.buffer();
+    this.setCommand.writeBytes(("*3\r\n$3\r\nSET\r\n$3\r\nkey\r\n$" + this.valueSize + "\r\n")
+        .getBytes(StandardCharsets.UTF_8));
+    this.setCommand.writeBytes(bytes);
+    this.setCommand.writeBytes(Coder.CRLFar);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.setCommand.release();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object decodeSet() throws Exception {
+    this.decoded.clear();
+    this.decoder.decode(null, this.setCommand.readerIndex(0), this.decoded);
+    return this.decoded.get(0);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int encodeGetResponse() throws Exception {
+    ByteBuf response = Coder.getBulkStringResponse(this.alloc, this.value);
+    int length = response.readableBytes();
+    response.release();
+    return length;
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int encodeSetResponse() {
+    ByteBuf response = Coder.getSimpleStringResponse(this.alloc, "OK");
+    int length = response.readableBytes();
+    response.release();
+    return length;
+  }
+}
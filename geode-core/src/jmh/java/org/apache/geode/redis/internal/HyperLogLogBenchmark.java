@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.internal.hll.HyperLogLogPlus;
+import org.apache.geode.redis.internal.executor.hll.HllExecutor;
+
+/**
+ * Compares {@link RedisHyperLogLog} with the {@link HyperLogLogPlus} the hll Region used to hold,
+ * at a cardinality where the registers of both are sparse and at one where they are dense. The
+ * pfadd benchmarks include what each PFADD of one element sends to the other members: the whole
+ * HyperLogLogPlus, or the changed registers of a copy of the RedisHyperLogLog.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class HyperLogLogBenchmark {
+
+  private static final int NUM_ELEMENTS = 1 << 16;
+
+  @Param({"100", "100000"})
+  public int cardinality;
+
+  private final byte[][] elements = new byte[NUM_ELEMENTS][];
+
+  private int next;
+
+  private HyperLogLogPlus hyperLogLogPlus;
+
+  private HyperLogLogPlus otherHyperLogLogPlus;
+
+  private RedisHyperLogLog redisHyperLogLog;
+
+  private RedisHyperLogLog otherRedisHyperLogLog;
+
+  private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+  private final DataOutputStream out = new DataOutputStream(bytes);
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.hyperLogLogPlus = new HyperLogLogPlus(HllExecutor.DEFAULT_HLL_DENSE);
+    this.otherHyperLogLogPlus = new HyperLogLogPlus(HllExecutor.DEFAULT_HLL_DENSE);
+    this.redisHyperLogLog = new RedisHyperLogLog();
+    this.otherRedisHyperLogLog = new RedisHyperLogLog();
+    for (int i = 0; i < this.cardinality; i++) {
+      byte[] element = ("element" + i).getBytes();
+      this.hyperLogLogPlus.offer(element);
+      this.redisHyperLogLog.add(element);
+      byte[] other = ("other" + i).getBytes();
+      this.otherHyperLogLogPlus.offer(other);
+      this.otherRedisHyperLogLog.add(other);
+    }
+    this.redisHyperLogLog.clearDelta();
+    this.otherRedisHyperLogLog.clearDelta();
+    for (int i = 0; i < NUM_ELEMENTS; i++) {
+      this.elements[i] = ("element" + (this.cardinality + i)).getBytes();
+    }
+  }
+
+  private byte[] nextElement() {
+    return this.elements[this.next++ & (NUM_ELEMENTS - 1)];
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public boolean offerHyperLogLogPlus() {
+    return this.hyperLogLogPlus.offer(nextElement());
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public boolean addRedisHyperLogLog() {
+    boolean changed = this.redisHyperLogLog.add(nextElement());
+    this.redisHyperLogLog.clearDelta();
+    return changed;
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int pfaddHyperLogLogPlus() throws Exception {
+    this.hyperLogLogPlus.offer(nextElement());
+    return this.hyperLogLogPlus.getBytes().length;
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int pfaddRedisHyperLogLog() throws Exception {
+    RedisHyperLogLog copy = this.redisHyperLogLog.copy();
+    copy.add(nextElement());
+    this.bytes.reset();
+    if (copy.hasDelta()) {
+      copy.toDelta(this.out);
+    } else if (copy.hasChanges()) {
+      copy.toData(this.out);
+    }
+    return this.bytes.size();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public long countHyperLogLogPlus() {
+    return this.hyperLogLogPlus.cardinality();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public long countRedisHyperLogLog() {
+    return this.redisHyperLogLog.count();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object mergeHyperLogLogPlus() throws Exception {
+    return this.hyperLogLogPlus.merge(this.otherHyperLogLogPlus);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object mergeRedisHyperLogLog() {
+    RedisHyperLogLog merged = this.redisHyperLogLog.copy();
+    merged.merge(this.otherRedisHyperLogLog);
+    return merged;
+  }
+}
@@ -106,7 +106,43 @@ public class AsyncEventQueueStats extends GatewaySenderStats {
             f.createIntCounter(SYNCHRONIZATION_EVENTS_ENQUEUED,
                 "Number of synchronization events added to the event queue.", "operations"),
             f.createIntCounter(SYNCHRONIZATION_EVENTS_PROVIDED,
-                "Number of synchronization events provided to other members.", "operations"),});
+                "Number of synchronization events provided to other members.", "operations"),
+            f.createIntGauge(BATCHES_IN_FLIGHT,
+                "Number of batches dispatched that are awaiting acknowledgement.", "operations"),
+            f.createIntCounter(BATCHES_ACKNOWLEDGED, "Number of batches acknowledged.",
+                "operations"),
+            f.createLongCounter(BATCH_ACKNOWLEDGEMENT_TIME,
+                "Total time between dispatching batches and receiving their acknowledgements.",
+                "nanoseconds"),
+            f.createLongCounter(IN_FLIGHT_BATCHES_WAIT_TIME,
+                "Total time spent waiting for the number of in flight batches to drop below the maximum.",
+                "nanoseconds"),
+            f.createIntCounter(BATCHES_COMPRESSED,
+                "Number of batches compressed before being sent to the remote site.",
+                "operations"),
+            f.createLongCounter(UNCOMPRESSED_BATCH_BYTES,
+                "Total size of the event data of compressed batches before compression.", "bytes"),
+            f.createLongCounter(COMPRESSED_BATCH_BYTES,
+                "Total size of the event data of compressed batches after compression.", "bytes"),
+            f.createLongCounter(BATCH_COMPRESSION_TIME, "Total time spent compressing batches.",
+                "nanoseconds"),
+            f.createIntGauge(EFFECTIVE_BATCH_SIZE,
+                "Number of events currently peeked per batch. Differs from the configured batch size if the batch size is adapted to the load or was reduced because a batch was too large.",
+                "operations"),
+            f.createIntCounter(BATCH_SIZE_INCREASES,
+                "Number of times the batch size was increased by adaptive batching.",
+                "operations"),
+            f.createIntCounter(BATCH_SIZE_DECREASES,
+                "Number of times the batch size was decreased by adaptive batching.",
+                "operations"),
+            f.createIntGauge(LISTENER_PARTITIONS_IN_PROGRESS,
+                "Number of partitions of batches currently being processed concurrently by the listeners.",
+                "operations"),
+            f.createIntCounter(LISTENER_PARTITIONS_PROCESSED,
+                "Number of partitions of batches processed by the listeners.", "operations"),
+            f.createLongCounter(LISTENER_PARTITION_TIME,
+                "Total time spent by the listeners processing partitions of batches.",
+                "nanoseconds"),});
 
     // Initialize id fields
     eventsReceivedId = type.nameToId(EVENTS_RECEIVED);
@@ -141,6 +177,20 @@ public class AsyncEventQueueStats extends GatewaySenderStats {
     loadBalanceTimeId = type.nameToId(LOAD_BALANCE_TIME);
     synchronizationEventsEnqueuedId = type.nameToId(SYNCHRONIZATION_EVENTS_ENQUEUED);
     synchronizationEventsProvidedId = type.nameToId(SYNCHRONIZATION_EVENTS_PROVIDED);
+    batchesInFlightId = type.nameToId(BATCHES_IN_FLIGHT);
+    batchesAcknowledgedId = type.nameToId(BATCHES_ACKNOWLEDGED);
+    batchAcknowledgementTimeId = type.nameToId(BATCH_ACKNOWLEDGEMENT_TIME);
+    inFlightBatchesWaitTimeId = type.nameToId(IN_FLIGHT_BATCHES_WAIT_TIME);
+    batchesCompressedId = type.nameToId(BATCHES_COMPRESSED);
+    uncompressedBatchBytesId = type.nameToId(UNCOMPRESSED_BATCH_BYTES);
+    compressedBatchBytesId = type.nameToId(COMPRESSED_BATCH_BYTES);
+    batchCompressionTimeId = type.nameToId(BATCH_COMPRESSION_TIME);
+    effectiveBatchSizeId = type.nameToId(EFFECTIVE_BATCH_SIZE);
+    batchSizeIncreasesId = type.nameToId(BATCH_SIZE_INCREASES);
+    batchSizeDecreasesId = type.nameToId(BATCH_SIZE_DECREASES);
+    listenerPartitionsInProgressId = type.nameToId(LISTENER_PARTITIONS_IN_PROGRESS);
+    listenerPartitionsProcessedId = type.nameToId(LISTENER_PARTITIONS_PROCESSED);
+    listenerPartitionTimeId = type.nameToId(LISTENER_PARTITION_TIME);
   }
 
   /**
@@ -112,11 +112,16 @@ public class CompiledIn extends AbstractCompiledValue implements Indexable {
 
     if (evalColln instanceof Collection) {
       Iterator iterator = ((Iterable) evalColln).iterator();
+      // a PdxString element is converted at most once, not once for each String in the collection
+      String evalElmString = null;
       while (iterator.hasNext()) {
         Object evalObj = evalElm;
         Object collnObj = iterator.next();
         if (evalElm instanceof PdxString && collnObj instanceof String) {
-          evalObj = ((PdxString) evalElm).toString();
+          if (evalElmString == null) {
+            evalElmString = evalElm.toString();
+          }
+          evalObj = evalElmString;
         } else if (collnObj instanceof PdxString && evalElm instanceof String) {
           collnObj = ((PdxString) collnObj).toString();
         }
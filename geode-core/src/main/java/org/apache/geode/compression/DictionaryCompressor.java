@@ -0,0 +1,435 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.compression;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link Compressor} for regions of small values that have much in common with each other, such
+ * as JSON documents or PDX instances of a few classes. Compressing each small value on its own, as
+ * {@link SnappyCompressor} does, finds little to remove, so this compressor deflates each value
+ * against a dictionary of the byte sequences most common in a sample of the region's values.
+ *
+ * <p>
+ * The first values are compressed without a dictionary while a sample of them is collected. A
+ * dictionary is then built from the sample and used for the values compressed after it. The
+ * compressor periodically samples values again and replaces the dictionary if a new one would
+ * compress the new sample better. Each compressed value starts with the version of the dictionary
+ * it was compressed with, and the compressor keeps every version it has built, so values compressed
+ * before a dictionary was replaced can still be decompressed.
+ *
+ * <p>
+ * Compressed values are only kept in the memory of the member that compressed them; values are
+ * decompressed before they are written to disk or sent to another member. A compressor instance,
+ * and its dictionaries, is shared by all of the buckets of a partitioned region in a member.
+ *
+ * @since Geode 1.9
+ */
+public class DictionaryCompressor implements Compressor, Serializable {
+  private static final long serialVersionUID = -2924127371000163316L;
+
+  /**
+   * The largest dictionary that deflate can use.
+   */
+  private static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+  /**
+   * The number of dictionary versions that can be stored in a compressed value's header.
+   */
+  private static final int MAX_VERSIONS = 256;
+
+  /**
+   * The length of the byte sequences counted when choosing what goes into a dictionary.
+   */
+  private static final int SEQUENCE_LENGTH = 6;
+
+  /**
+   * The length of the pieces of sampled values that are copied into a dictionary.
+   */
+  private static final int SEGMENT_LENGTH = 32;
+
+  private final int dictionarySize;
+
+  private final int sampleCount;
+
+  private final int retrainInterval;
+
+  private final int level;
+
+  private final transient AtomicReferenceArray<byte[]> dictionaries =
+      new AtomicReferenceArray<>(MAX_VERSIONS);
+
+  private transient volatile int currentVersion;
+
+  private final transient AtomicInteger compressionsUntilSampling = new AtomicInteger();
+
+  private final transient List<byte[]> samples = new ArrayList<>();
+
+  private transient volatile boolean sampling = true;
+
+  /**
+   * Whether a dictionary is being built. Only one is built at a time, since two built from the same
+   * current version would both be published as the next version.
+   */
+  private final transient AtomicBoolean training = new AtomicBoolean();
+
+  private final transient ThreadLocal<Deflater> deflaters;
+
+  private final transient ThreadLocal<Inflater> inflaters;
+
+  /**
+   * Creates a compressor that builds 16KB dictionaries from samples of 1000 values and samples
+   * again after every 100,000 values it compresses.
+   */
+  public DictionaryCompressor() {
+    this(16 * 1024, 1000, 100_000, Deflater.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * @param dictionarySize the size in bytes of the dictionaries built, at most 32KB
+   * @param sampleCount the number of values sampled to build a dictionary
+   * @param retrainInterval the number of values compressed with a dictionary before the
+   *        compressor samples values again to build a new one, or zero to never replace the first
+   *        dictionary
+   * @param level the deflate compression level, from 0 to 9
+   */
+  public DictionaryCompressor(int dictionarySize, int sampleCount, int retrainInterval,
+      int level) {
+    if (dictionarySize <= 0 || dictionarySize > MAX_DICTIONARY_SIZE) {
+      throw new IllegalArgumentException(
+          "dictionarySize must be between 1 and " + MAX_DICTIONARY_SIZE);
+    }
+    if (sampleCount <= 0) {
+      throw new IllegalArgumentException("sampleCount must be positive");
+    }
+    if (retrainInterval < 0) {
+      throw new IllegalArgumentException("retrainInterval must not be negative");
+    }
+    this.dictionarySize = dictionarySize;
+    this.sampleCount = sampleCount;
+    this.retrainInterval = retrainInterval;
+    this.level = level;
+    this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));
+    this.inflaters = ThreadLocal.withInitial(() -> new Inflater(true));
+  }
+
+  /**
+   * Returns the version of the dictionary that values are currently compressed with, or zero if
+   * no dictionary has been built yet.
+   */
+  public int getDictionaryVersion() {
+    return this.currentVersion;
+  }
+
+  @Override
+  public byte[] compress(byte[] input) {
+    if (this.sampling) {
+      addSample(input);
+    } else if (this.retrainInterval > 0
+        && this.compressionsUntilSampling.decrementAndGet() == 0) {
+      this.sampling = true;
+    }
+
+    int version = this.currentVersion;
+    byte[] output = deflate(input, version, this.dictionaries.get(version));
+    if (output.length >= input.length + 1 + getVarIntSize(input.length)) {
+      // nothing was gained, so store the value as is
+      output = new byte[input.length + 1 + getVarIntSize(input.length)];
+      output[0] = 0;
+      int offset = putVarInt(output, 1, -1 - input.length);
+      System.arraycopy(input, 0, output, offset, input.length);
+    }
+    return output;
+  }
+
+  @Override
+  public byte[] decompress(byte[] input) {
+    if (input.length < 2) {
+      throw new CompressionException("Compressed value is too short");
+    }
+    int version = input[0] & 0xFF;
+    int length = getVarInt(input, 1);
+    int offset = 1 + getVarIntSize(length);
+    if (length < 0) {
+      // stored as is
+      length = -1 - length;
+      byte[] output = new byte[length];
+      System.arraycopy(input, offset, output, 0, length);
+      return output;
+    }
+
+    Inflater inflater = this.inflaters.get();
+    inflater.reset();
+    if (version > 0) {
+      byte[] dictionary = this.dictionaries.get(version);
+      if (dictionary == null) {
+        throw new CompressionException("Unknown compression dictionary version " + version);
+      }
+      inflater.setDictionary(dictionary);
+    }
+    inflater.setInput(input, offset, input.length - offset);
+    byte[] output = new byte[length];
+    try {
+      int inflated = 0;
+      while (inflated < length) {
+        int count = inflater.inflate(output, inflated, length - inflated);
+        if (count == 0 && (inflater.finished() || inflater.needsInput()
+            || inflater.needsDictionary())) {
+          throw new CompressionException("Compressed value is truncated");
+        }
+        inflated += count;
+      }
+    } catch (DataFormatException e) {
+      throw new CompressionException(e);
+    }
+    return output;
+  }
+
+  private byte[] deflate(byte[] input, int version, byte[] dictionary) {
+    Deflater deflater = this.deflaters.get();
+    deflater.reset();
+    if (dictionary != null) {
+      deflater.setDictionary(dictionary);
+    }
+    deflater.setInput(input);
+    deflater.finish();
+
+    int headerSize = 1 + getVarIntSize(input.length);
+    byte[] output = new byte[headerSize + input.length + input.length / 16 + 16];
+    output[0] = (byte) version;
+    putVarInt(output, 1, input.length);
+    int length = headerSize;
+    while (!deflater.finished()) {
+      if (length == output.length) {
+        byte[] larger = new byte[output.length * 2];
+        System.arraycopy(output, 0, larger, 0, length);
+        output = larger;
+      }
+      length += deflater.deflate(output, length, output.length - length);
+    }
+    if (length == output.length) {
+      return output;
+    }
+    byte[] result = new byte[length];
+    System.arraycopy(output, 0, result, 0, length);
+    return result;
+  }
+
+  private void addSample(byte[] input) {
+    List<byte[]> trainingSamples = null;
+    synchronized (this.samples) {
+      if (!this.sampling) {
+        return;
+      }
+      this.samples.add(input.clone());
+      if (this.samples.size() >= this.sampleCount) {
+        // if a dictionary is still being built from an earlier sample, this one is dropped
+        if (this.training.compareAndSet(false, true)) {
+          trainingSamples = new ArrayList<>(this.samples);
+        }
+        this.samples.clear();
+        this.sampling = false;
+        this.compressionsUntilSampling.set(this.retrainInterval);
+      }
+    }
+    if (trainingSamples != null) {
+      try {
+        train(trainingSamples);
+      } finally {
+        this.training.set(false);
+      }
+    }
+  }
+
+  /**
+   * Builds a dictionary from the given samples and makes it current if it compresses them better
+   * than the current dictionary.
+   */
+  private void train(List<byte[]> trainingSamples) {
+    int version = this.currentVersion;
+    if (version + 1 >= MAX_VERSIONS) {
+      return;
+    }
+    byte[] dictionary = buildDictionary(trainingSamples, this.dictionarySize);
+    if (dictionary.length == 0) {
+      return;
+    }
+    long currentSize = 0;
+    long newSize = 0;
+    byte[] currentDictionary = this.dictionaries.get(version);
+    for (byte[] sample : trainingSamples) {
+      currentSize += deflate(sample, version, currentDictionary).length;
+      newSize += deflate(sample, version + 1, dictionary).length;
+    }
+    // a published version is never replaced, since values may already be compressed with it
+    if (newSize < currentSize && this.dictionaries.compareAndSet(version + 1, null, dictionary)) {
+      this.currentVersion = version + 1;
+    }
+  }
+
+  /**
+   * Returns a dictionary of the pieces of the samples that contain the byte sequences found in the
+   * most samples. Deflate encodes a match more cheaply the closer it is to the end of the
+   * dictionary, so the best pieces are put last.
+   */
+  static byte[] buildDictionary(List<byte[]> samples, int dictionarySize) {
+    Map<Long, Integer> sequenceCounts = new HashMap<>();
+    Set<Long> sequencesInSample = new HashSet<>();
+    for (byte[] sample : samples) {
+      sequencesInSample.clear();
+      for (int i = 0; i + SEQUENCE_LENGTH <= sample.length; i++) {
+        sequencesInSample.add(getSequence(sample, i));
+      }
+      for (Long sequence : sequencesInSample) {
+        sequenceCounts.merge(sequence, 1, Integer::sum);
+      }
+    }
+
+    List<Segment> segments = new ArrayList<>();
+    for (byte[] sample : samples) {
+      for (int start = 0; start < sample.length; start += SEGMENT_LENGTH) {
+        int end = Math.min(sample.length, start + SEGMENT_LENGTH);
+        long score = 0;
+        for (int i = start; i + SEQUENCE_LENGTH <= end; i++) {
+          int count = sequenceCounts.get(getSequence(sample, i));
+          if (count > 1) {
+            score += count;
+          }
+        }
+        if (score > 0) {
+          segments.add(new Segment(sample, start, end, score));
+        }
+      }
+    }
+    segments.sort((a, b) -> Long.compare(b.score, a.score));
+
+    byte[] dictionary = new byte[dictionarySize];
+    int position = dictionarySize;
+    Set<ByteBuffer> added = new HashSet<>();
+    for (Segment segment : segments) {
+      int length = segment.end - segment.start;
+      if (length > position) {
+        continue;
+      }
+      if (added.add(ByteBuffer.wrap(segment.sample, segment.start, length))) {
+        position -= length;
+        System.arraycopy(segment.sample, segment.start, dictionary, position, length);
+      }
+      if (position == 0) {
+        break;
+      }
+    }
+    if (position == 0) {
+      return dictionary;
+    }
+    byte[] result = new byte[dictionarySize - position];
+    System.arraycopy(dictionary, position, result, 0, result.length);
+    return result;
+  }
+
+  private static long getSequence(byte[] bytes, int offset) {
+    long sequence = 0;
+    for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+      sequence = (sequence << 8) | (bytes[offset + i] & 0xFF);
+    }
+    return sequence;
+  }
+
+  private static int getVarIntSize(int value) {
+    int zigZag = (value << 1) ^ (value >> 31);
+    int size = 1;
+    while ((zigZag & ~0x7F) != 0) {
+      zigZag >>>= 7;
+      size++;
+    }
+    return size;
+  }
+
+  private static int putVarInt(byte[] bytes, int offset, int value) {
+    int zigZag = (value << 1) ^ (value >> 31);
+    while ((zigZag & ~0x7F) != 0) {
+      bytes[offset++] = (byte) ((zigZag & 0x7F) | 0x80);
+      zigZag >>>= 7;
+    }
+    bytes[offset++] = (byte) zigZag;
+    return offset;
+  }
+
+  private static int getVarInt(byte[] bytes, int offset) {
+    int zigZag = 0;
+    int shift = 0;
+    byte b;
+    do {
+      if (offset >= bytes.length || shift > 28) {
+        throw new CompressionException("Compressed value has a malformed length");
+      }
+      b = bytes[offset++];
+      zigZag |= (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return (zigZag >>> 1) ^ -(zigZag & 1);
+  }
+
+  /**
+   * Dictionaries are only meaningful to the instance that built them, so a deserialized
+   * compressor starts without one.
+   */
+  private Object readResolve() {
+    return new DictionaryCompressor(this.dictionarySize, this.sampleCount, this.retrainInterval,
+        this.level);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.getClass().getName().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (!(other instanceof DictionaryCompressor)) {
+      return false;
+    }
+    DictionaryCompressor that = (DictionaryCompressor) other;
+    return this.dictionarySize == that.dictionarySize && this.sampleCount == that.sampleCount
+        && this.retrainInterval == that.retrainInterval && this.level == that.level;
+  }
+
+  private static class Segment {
+    private final byte[] sample;
+    private final int start;
+    private final int end;
+    private final long score;
+
+    private Segment(byte[] sample, int start, int end, long score) {
+      this.sample = sample;
+      this.start = start;
+      this.end = end;
+      this.score = score;
+    }
+  }
+}
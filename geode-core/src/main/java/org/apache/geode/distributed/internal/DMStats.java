@@ -141,6 +141,14 @@ public interface DMStats {
 
   void incBatchFlushTime(long start);
 
+  /**
+   * Records a batch of messages written to the network with a single write.
+   *
+   * @param messages the number of messages in the batch
+   * @param delay the nanoseconds the first message of the batch waited for it to be written
+   */
+  void incBatchFrames(int messages, long delay);
+
   /**
    * Increments the total number of nanoseconds spent scheduling messages to be processed.
    */
@@ -548,6 +556,30 @@ public interface DMStats {
    */
   void endSocketLock(long start);
 
+  /**
+   * Increments the number of shared sockets that carry the ordered messages of many threads.
+   */
+  void incMultiplexedSenders();
+
+  void decMultiplexedSenders();
+
+  /**
+   * Records that a message is about to be written to a multiplexed socket.
+   *
+   * @return the start time to pass to {@link #endMultiplexedFrameBlocking(long)}
+   */
+  long startMultiplexedFrame();
+
+  /**
+   * Records the time a message waited for the messages of other threads sharing the socket.
+   */
+  void endMultiplexedFrameBlocking(long start);
+
+  /**
+   * Records that a message started with {@link #startMultiplexedFrame()} has been written.
+   */
+  void endMultiplexedFrame();
+
   /**
    * @since GemFire 5.0.2.4
    */
@@ -26,6 +26,7 @@ import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
 import org.apache.geode.internal.tcp.Buffers;
 import org.apache.geode.internal.util.Breadcrumbs;
+import org.apache.geode.pdx.internal.PdxStringInterner;
 
 /**
  * This class maintains statistics in GemFire about the distribution manager and distribution in
@@ -134,6 +135,9 @@ public class DistributionStats implements DMStats {
   private static final int pdxInstanceDeserializationsId;
   private static final int pdxInstanceDeserializationTimeId;
   private static final int pdxInstanceCreationsId;
+  private static final int pdxStringInternHitsId;
+  private static final int pdxStringInternMissesId;
+  private static final int pdxStringInternBytesSavedId;
 
   private static final int msgSerializationTimeId;
   private static final int msgDeserializationTimeId;
@@ -145,6 +149,9 @@ public class DistributionStats implements DMStats {
   private static final int batchCopyTimeId;
   private static final int batchWaitTimeId;
   private static final int batchFlushTimeId;
+  private static final int batchFramesId;
+  private static final int batchFrameMessagesId;
+  private static final int batchDelayTimeId;
 
   private static final int threadOwnedReceiversId;
   private static final int threadOwnedReceiversId2;
@@ -159,6 +166,11 @@ public class DistributionStats implements DMStats {
   private static final int socketLocksId;
   private static final int socketLockTimeId;
 
+  private static final int multiplexedSenderConnectionsId;
+  private static final int multiplexedFramesInFlightId;
+  private static final int multiplexedFramesId;
+  private static final int multiplexedBlockingTimeId;
+
   private static final int bufferAcquiresInProgressId;
   private static final int bufferAcquiresId;
   private static final int bufferAcquireTimeId;
@@ -584,6 +596,14 @@ public class DistributionStats implements DMStats {
             "nanoseconds"),
         f.createIntCounter("pdxInstanceCreations",
             "Total number of times a deserialization created a PdxInstance.", "ops"),
+        f.createLongCounter("pdxStringInternHits",
+            "Total number of PDX string fields read from the string intern cache.", "ops"),
+        f.createLongCounter("pdxStringInternMisses",
+            "Total number of PDX string fields eligible for the string intern cache that were not in it.",
+            "ops"),
+        f.createLongCounter("pdxStringInternBytesSaved",
+            "Estimated number of heap bytes not allocated because PDX string fields were read from the string intern cache.",
+            "bytes"),
 
         f.createLongCounter("batchSendTime",
             "Total amount of time, in nanoseconds, spent queueing and flushing message batches",
@@ -595,6 +615,15 @@ public class DistributionStats implements DMStats {
         f.createLongCounter("batchFlushTime",
             "Total amount of time, in nanoseconds, spent flushing batched messages to the network",
             "nanoseconds"),
+        f.createIntCounter("batchFrames",
+            "Total number of message batches written to the network with a single write",
+            "writes"),
+        f.createIntCounter("batchFrameMessages",
+            "Total number of messages written to the network in message batches. Divide by batchFrames for the average number of messages per batch.",
+            "messages"),
+        f.createLongCounter("batchDelayTime",
+            "Total amount of time, in nanoseconds, the first message of each batch waited for the batch to be written",
+            "nanoseconds", false),
 
         f.createIntGauge("asyncSocketWritesInProgress",
             "Current number of non-blocking socket write calls in progress.", "writes"),
@@ -653,6 +682,17 @@ public class DistributionStats implements DMStats {
             "locks"),
         f.createLongCounter("socketLockTime",
             "Total amount of time, in nanoseconds, spent locking a socket", "nanoseconds", false),
+        f.createIntGauge("sendersMultiplexed",
+            "Current number of shared sockets carrying the ordered messages of many threads because p2p.multiplexedConnections is set.",
+            "sockets"),
+        f.createIntGauge("multiplexedFramesInFlight",
+            "Current number of messages waiting for or being written to a multiplexed socket.",
+            "messages", false),
+        f.createIntCounter("multiplexedFrames",
+            "Total number of messages written to a multiplexed socket.", "messages"),
+        f.createLongCounter("multiplexedBlockingTime",
+            "Total amount of time, in nanoseconds, messages spent waiting for other threads' messages to be written to a multiplexed socket.",
+            "nanoseconds", false),
         f.createIntGauge("bufferAcquiresInProgress",
             "Current number of threads waiting to acquire a buffer", "threads", false),
         f.createIntCounter("bufferAcquires", "Total number of times a buffer has been acquired.",
@@ -829,6 +869,9 @@ public class DistributionStats implements DMStats {
     pdxInstanceDeserializationsId = type.nameToId("pdxInstanceDeserializations");
     pdxInstanceDeserializationTimeId = type.nameToId("pdxInstanceDeserializationTime");
     pdxInstanceCreationsId = type.nameToId("pdxInstanceCreations");
+    pdxStringInternHitsId = type.nameToId("pdxStringInternHits");
+    pdxStringInternMissesId = type.nameToId("pdxStringInternMisses");
+    pdxStringInternBytesSavedId = type.nameToId("pdxStringInternBytesSaved");
 
     msgSerializationTimeId = type.nameToId("msgSerializationTime");
     msgDeserializationTimeId = type.nameToId("msgDeserializationTime");
@@ -840,6 +883,9 @@ public class DistributionStats implements DMStats {
     batchCopyTimeId = type.nameToId("batchCopyTime");
     batchWaitTimeId = type.nameToId("batchWaitTime");
     batchFlushTimeId = type.nameToId("batchFlushTime");
+    batchFramesId = type.nameToId("batchFrames");
+    batchFrameMessagesId = type.nameToId("batchFrameMessages");
+    batchDelayTimeId = type.nameToId("batchDelayTime");
 
     asyncSocketWritesInProgressId = type.nameToId("asyncSocketWritesInProgress");
     asyncSocketWritesId = type.nameToId("asyncSocketWrites");
@@ -879,6 +925,11 @@ public class DistributionStats implements DMStats {
     socketLocksId = type.nameToId("socketLocks");
     socketLockTimeId = type.nameToId("socketLockTime");
 
+    multiplexedSenderConnectionsId = type.nameToId("sendersMultiplexed");
+    multiplexedFramesInFlightId = type.nameToId("multiplexedFramesInFlight");
+    multiplexedFramesId = type.nameToId("multiplexedFrames");
+    multiplexedBlockingTimeId = type.nameToId("multiplexedBlockingTime");
+
     bufferAcquiresInProgressId = type.nameToId("bufferAcquiresInProgress");
     bufferAcquiresId = type.nameToId("bufferAcquires");
     bufferAcquireTimeId = type.nameToId("bufferAcquireTime");
@@ -951,6 +1002,9 @@ public class DistributionStats implements DMStats {
     // new long[] {100000, 200000, 300000, 400000, 500000, 600000, 700000, 800000, 900000, 1000000},
     // false);
     Buffers.initBufferStats(this);
+    this.stats.setLongSupplier(pdxStringInternHitsId, PdxStringInterner::getHitCount);
+    this.stats.setLongSupplier(pdxStringInternMissesId, PdxStringInterner::getMissCount);
+    this.stats.setLongSupplier(pdxStringInternBytesSavedId, PdxStringInterner::getBytesSaved);
   }
 
   /**
@@ -1425,6 +1479,33 @@ public class DistributionStats implements DMStats {
     stats.incLong(socketLockTimeId, ts - start);
   }
 
+  @Override
+  public void incMultiplexedSenders() {
+    stats.incInt(multiplexedSenderConnectionsId, 1);
+  }
+
+  @Override
+  public void decMultiplexedSenders() {
+    stats.incInt(multiplexedSenderConnectionsId, -1);
+  }
+
+  @Override
+  public long startMultiplexedFrame() {
+    stats.incInt(multiplexedFramesInFlightId, 1);
+    return getStatTime();
+  }
+
+  @Override
+  public void endMultiplexedFrameBlocking(long start) {
+    stats.incLong(multiplexedBlockingTimeId, getStatTime() - start);
+  }
+
+  @Override
+  public void endMultiplexedFrame() {
+    stats.incInt(multiplexedFramesInFlightId, -1);
+    stats.incInt(multiplexedFramesId, 1);
+  }
+
   @Override
   public long startBufferAcquire() {
     stats.incInt(bufferAcquiresInProgressId, 1);
@@ -2233,6 +2314,13 @@ public class DistributionStats implements DMStats {
     }
   }
 
+  @Override
+  public void incBatchFrames(int messages, long delay) {
+    stats.incInt(batchFramesId, 1);
+    stats.incInt(batchFrameMessagesId, messages);
+    stats.incLong(batchDelayTimeId, delay);
+  }
+
   @Override
   public void incUcastRetransmits() {
     stats.incInt(ucastRetransmitsId, 1);
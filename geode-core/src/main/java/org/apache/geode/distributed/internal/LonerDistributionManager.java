@@ -616,6 +616,9 @@ public class LonerDistributionManager implements DistributionManager {
     @Override
     public void incBatchFlushTime(long start) {}
 
+    @Override
+    public void incBatchFrames(int messages, long delay) {}
+
     @Override
     public void incUcastWriteBytes(int bytesWritten) {}
 
@@ -825,6 +828,23 @@ public class LonerDistributionManager implements DistributionManager {
     @Override
     public void endSocketLock(long start) {}
 
+    @Override
+    public void incMultiplexedSenders() {}
+
+    @Override
+    public void decMultiplexedSenders() {}
+
+    @Override
+    public long startMultiplexedFrame() {
+      return 0;
+    }
+
+    @Override
+    public void endMultiplexedFrameBlocking(long start) {}
+
+    @Override
+    public void endMultiplexedFrame() {}
+
     @Override
     public long startBufferAcquire() {
       return 0;
@@ -2179,6 +2179,13 @@ public class GMSMembershipManager implements MembershipManager, Manager {
     return directChannel == null ? 0 : directChannel.getPort();
   }
 
+  /**
+   * for testing verification purposes, this returns the direct channel, or null if there is none
+   */
+  public DirectChannel getDirectChannel() {
+    return directChannel;
+  }
+
   /**
    * for mock testing this allows insertion of a DirectChannel mock
    */
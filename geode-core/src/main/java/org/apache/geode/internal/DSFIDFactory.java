@@ -17,13 +17,19 @@ package org.apache.geode.internal;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.function.Supplier;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
 import org.apache.geode.DataSerializer;
 import org.apache.geode.InternalGemFireError;
+import org.apache.geode.SystemFailure;
 import org.apache.geode.admin.internal.SystemMemberCacheEventProcessor;
 import org.apache.geode.admin.jmx.internal.StatAlertNotification;
 import org.apache.geode.cache.InterestResultPolicy;
@@ -451,10 +457,61 @@ public class DSFIDFactory implements DataSerializableFixedID {
 
   private static final Int2ObjectOpenHashMap dsfidMap2 = new Int2ObjectOpenHashMap(800);
 
+  /**
+   * Instantiators that call the default constructor of a fixed ID class directly, like compiled
+   * code would, instead of through reflection. They are generated the first time an instance of
+   * the class is deserialized. The value is null for classes whose constructor can only be
+   * invoked reflectively.
+   */
+  private static final ClassValue<Supplier<?>> instantiators = new ClassValue<Supplier<?>>() {
+    @Override
+    protected Supplier<?> computeValue(Class<?> type) {
+      return createInstantiator(type);
+    }
+  };
+
   static {
     registerDSFIDTypes();
   }
 
+  private static Supplier<?> createInstantiator(Class<?> type) {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+      return (Supplier<?>) LambdaMetafactory
+          .metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+              MethodType.methodType(Object.class), constructor, MethodType.methodType(type))
+          .getTarget().invokeExact();
+    } catch (VirtualMachineError err) {
+      SystemFailure.initiateFailure(err);
+      // If this ever returns, rethrow the error. We're poisoned
+      // now, so don't let this thread continue.
+      throw err;
+    } catch (Throwable t) {
+      // Whenever you catch Error or Throwable, you must also
+      // catch VirtualMachineError (see above). However, there is
+      // _still_ a possibility that you are dealing with a cascading
+      // error condition, so you also need to check to see if the JVM
+      // is still usable:
+      SystemFailure.checkFailure();
+      // the class is not accessible from here; use the reflective constructor
+      return null;
+    }
+  }
+
+  private static Object instantiate(Constructor<?> cons)
+      throws InstantiationException, IllegalAccessException, InvocationTargetException {
+    Supplier<?> instantiator = instantiators.get(cons.getDeclaringClass());
+    if (instantiator == null) {
+      return cons.newInstance((Object[]) null);
+    }
+    try {
+      return instantiator.get();
+    } catch (RuntimeException e) {
+      throw new InvocationTargetException(e);
+    }
+  }
+
   /** Register the constructor for a fixed ID class. */
   public static void registerDSFID(int dsfid, Class dsfidClass) {
     try {
@@ -990,7 +1047,7 @@ public class DSFIDFactory implements DataSerializableFixedID {
         }
         if (cons != null) {
           try {
-            Object ds = cons.newInstance((Object[]) null);
+            Object ds = instantiate(cons);
             InternalDataSerializer.invokeFromData(ds, in);
             return ds;
           } catch (InstantiationException ie) {
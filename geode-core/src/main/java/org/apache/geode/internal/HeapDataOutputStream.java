@@ -170,6 +170,10 @@ public class HeapDataOutputStream extends OutputStream
     return this.version;
   }
 
+  void setVersion(Version version) {
+    this.version = version;
+  }
+
   /*
    * throw an exception instead of allocating a new buffer. The exception is a
    * BufferOverflowException thrown from expand, and will restore the position to the point at which
@@ -452,6 +456,18 @@ public class HeapDataOutputStream extends OutputStream
     }
   }
 
+  /**
+   * gets a copy of the contents of this stream as a byte[]. Unlike {@link #toByteArray()} the
+   * returned array is never this stream's own buffer, so the stream may be reset and reused while
+   * the array is still referenced.
+   */
+  public byte[] copyToByteArray() {
+    ByteBuffer bb = toByteBuffer().duplicate();
+    byte[] result = new byte[bb.remaining()];
+    bb.get(result);
+    return result;
+  }
+
 
   /**
    * Writes this stream to the wrapper object of BytesAndBitsForCompactor type. The byte array
@@ -34,6 +34,7 @@ import java.io.UTFDataFormatException;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.math.BigDecimal;
@@ -2377,6 +2378,29 @@ public abstract class InternalDataSerializer extends DataSerializer {
     }
   }
 
+  /**
+   * The toDataPre_ and fromDataPre_ methods of each class, keyed by name. They are looked up once
+   * instead of for every object exchanged with an older member or disk store.
+   */
+  private static final ClassValue<ConcurrentMap<String, Method>> versionedMethods =
+      new ClassValue<ConcurrentMap<String, Method>>() {
+        @Override
+        protected ConcurrentMap<String, Method> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private static Method getVersionedMethod(Class<?> c, String name, Class<?> parameterType)
+      throws NoSuchMethodException {
+    ConcurrentMap<String, Method> methods = versionedMethods.get(c);
+    Method method = methods.get(name);
+    if (method == null) {
+      method = c.getMethod(name, parameterType);
+      methods.put(name, method);
+    }
+    return method;
+  }
+
   /**
    * For backward compatibility this method should be used to invoke toData on a DSFID or
    * DataSerializable. It will invoke the correct toData method based on the class's version
@@ -2405,8 +2429,8 @@ public abstract class InternalDataSerializer extends DataSerializer {
           for (Version version : versions) {
             // if peer version is less than the greatest upgraded version
             if (v.compareTo(version) < 0) {
-              ds.getClass().getMethod("toDataPre_" + version.getMethodSuffix(),
-                  new Class[] {DataOutput.class}).invoke(ds, out);
+              getVersionedMethod(ds.getClass(), "toDataPre_" + version.getMethodSuffix(),
+                  DataOutput.class).invoke(ds, out);
               invoked = true;
               break;
             }
@@ -2478,8 +2502,8 @@ public abstract class InternalDataSerializer extends DataSerializer {
           for (Version version : versions) {
             // if peer version is less than the greatest upgraded version
             if (v.compareTo(version) < 0) {
-              ds.getClass().getMethod("fromDataPre" + '_' + version.getMethodSuffix(),
-                  new Class[] {DataInput.class}).invoke(ds, in);
+              getVersionedMethod(ds.getClass(), "fromDataPre" + '_' + version.getMethodSuffix(),
+                  DataInput.class).invoke(ds, in);
               invoked = true;
               break;
             }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * A HeapDataOutputStream that is kept by the thread that closed it and handed out again by the
+ * next {@link #acquire} on that thread, so that serializing a value does not allocate a new buffer
+ * each time.
+ *
+ * <p>
+ * Closing the stream gives it back. The stream, and any buffer or array obtained from it without
+ * copying, must not be used after that, so a caller that needs the bytes to outlive the stream
+ * should use {@link #copyToByteArray()}. A stream that is never closed is simply left to the
+ * garbage collector.
+ *
+ * <p>
+ * Each thread keeps at most one stream, and a stream whose buffer has grown past
+ * {@link #MAX_RETAINED_CAPACITY} is dropped rather than kept, so that an occasional large value
+ * does not pin a large buffer to a thread.
+ */
+public class PooledHeapDataOutputStream extends HeapDataOutputStream {
+
+  /**
+   * The largest buffer, in bytes, that a thread keeps for reuse.
+   */
+  static final int MAX_RETAINED_CAPACITY = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "PooledHeapDataOutputStream.MAX_RETAINED_CAPACITY",
+      64 * 1024);
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private static final ThreadLocal<PooledHeapDataOutputStream> cached = new ThreadLocal<>();
+
+  private boolean inUse;
+
+  private PooledHeapDataOutputStream() {
+    super(INITIAL_CAPACITY, null);
+  }
+
+  /**
+   * Returns an empty stream for the given version, reusing the one last closed by this thread if
+   * there is one. The caller owns the stream until it closes it.
+   */
+  public static PooledHeapDataOutputStream acquire(Version version) {
+    PooledHeapDataOutputStream result = cached.get();
+    if (result == null) {
+      result = new PooledHeapDataOutputStream();
+    } else {
+      cached.set(null);
+    }
+    result.inUse = true;
+    result.setVersion(version);
+    result.setDoNotCopy(false);
+    return result;
+  }
+
+  /**
+   * Resets this stream and keeps it for the next {@link #acquire} on the calling thread.
+   */
+  @Override
+  public void close() {
+    if (!this.inUse) {
+      return;
+    }
+    this.inUse = false;
+    super.close();
+    if (this.buffer.capacity() <= MAX_RETAINED_CAPACITY && cached.get() == null) {
+      cached.set(this);
+    }
+  }
+}
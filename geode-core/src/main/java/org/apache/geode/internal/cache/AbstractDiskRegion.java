@@ -33,6 +33,7 @@ import org.apache.geode.internal.ClassPathLoader;
 import org.apache.geode.internal.CopyOnWriteHashSet;
 import org.apache.geode.internal.cache.DiskInitFile.DiskRegionFlag;
 import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
+import org.apache.geode.internal.cache.eviction.EvictionNode;
 import org.apache.geode.internal.cache.persistence.DiskRegionView;
 import org.apache.geode.internal.cache.persistence.PersistentMemberID;
 import org.apache.geode.internal.cache.persistence.PersistentMemberPattern;
@@ -1120,6 +1121,11 @@ public abstract class AbstractDiskRegion implements DiskRegionView {
     entries.incRecentlyUsed();
   }
 
+  @Override
+  public void recordUse(EvictionNode entry) {
+    entries.recordUse(entry);
+  }
+
   @Override
   public StatisticsFactory getStatisticsFactory() {
     return this.ds.getStatisticsFactory();
@@ -156,6 +156,15 @@ public class CachePerfStats {
   protected static final int compressionDecompressionsId;
   protected static final int compressionPreCompressedBytesId;
   protected static final int compressionPostCompressedBytesId;
+  protected static final int decompressedValueCacheHitsId;
+  protected static final int decompressedValueCacheMissesId;
+  protected static final int decompressTimeSavedId;
+
+  protected static final int expirationTasksId;
+  protected static final int expirationBacklogId;
+  protected static final int expirationBatchesId;
+  protected static final int expirationBatchTasksId;
+  protected static final int expirationLagId;
 
   /** The Statistics object that we delegate most behavior to */
   protected final Statistics stats;
@@ -322,6 +331,12 @@ public class CachePerfStats {
     final String compressionDecompressionsDesc = "The total number of decompression operations.";
     final String compressionPreCompresssedBytesDesc =
         "The total number of bytes before compressing.";
+    final String decompressedValueCacheHitsDesc =
+        "The total number of compressed values read from the decompressed value cache.";
+    final String decompressedValueCacheMissesDesc =
+        "The total number of compressed values that were not in the decompressed value cache.";
+    final String decompressTimeSavedDesc =
+        "The total time not spent decompressing values because they were read from the decompressed value cache.";
     final String compressionPostCompressedBytesDesc =
         "The total number of bytes after compressing.";
     final String evictByCriteria_evictionsDesc = "The total number of entries evicted";// total
@@ -493,6 +508,11 @@ public class CachePerfStats {
             f.createLongCounter("decompressions", compressionDecompressionsDesc, "operations"),
             f.createLongCounter("preCompressedBytes", compressionPreCompresssedBytesDesc, "bytes"),
             f.createLongCounter("postCompressedBytes", compressionPostCompressedBytesDesc, "bytes"),
+            f.createLongCounter("decompressedValueCacheHits", decompressedValueCacheHitsDesc,
+                "operations"),
+            f.createLongCounter("decompressedValueCacheMisses", decompressedValueCacheMissesDesc,
+                "operations"),
+            f.createLongCounter("decompressTimeSaved", decompressTimeSavedDesc, "nanoseconds"),
 
             f.createLongCounter("evictByCriteria_evictions", evictByCriteria_evictionsDesc,
                 "operations"),
@@ -503,7 +523,23 @@ public class CachePerfStats {
             f.createLongCounter("evictByCriteria_evaluations", evictByCriteria_evaluationsDesc,
                 "operations"),
             f.createLongCounter("evictByCriteria_evaluationTime",
-                evictByCriteria_evaluationTimeDesc, "nanoseconds")});
+                evictByCriteria_evaluationTimeDesc, "nanoseconds"),
+
+            f.createLongGauge("expirationTasks",
+                "Current number of entry expiration tasks waiting on the expiry timing wheel for their expiration time.",
+                "tasks"),
+            f.createLongGauge("expirationBacklog",
+                "Current number of entry expiration tasks taken from the expiry timing wheel that are waiting for a thread to run them.",
+                "tasks"),
+            f.createLongCounter("expirationBatches",
+                "Total number of batches of entry expiration tasks run from the expiry timing wheel.",
+                "operations"),
+            f.createLongCounter("expirationBatchTasks",
+                "Total number of entry expiration tasks run in batches from the expiry timing wheel. Divide by expirationBatches for the average batch size.",
+                "tasks"),
+            f.createLongCounter("expirationLag",
+                "Total time between the expiration times of the tasks run from the expiry timing wheel and the start of the batches that ran them.",
+                "milliseconds")});
 
     // Initialize id fields
     loadsInProgressId = type.nameToId("loadsInProgress");
@@ -625,6 +661,15 @@ public class CachePerfStats {
     compressionDecompressionsId = type.nameToId("decompressions");
     compressionPreCompressedBytesId = type.nameToId("preCompressedBytes");
     compressionPostCompressedBytesId = type.nameToId("postCompressedBytes");
+    decompressedValueCacheHitsId = type.nameToId("decompressedValueCacheHits");
+    decompressedValueCacheMissesId = type.nameToId("decompressedValueCacheMisses");
+    decompressTimeSavedId = type.nameToId("decompressTimeSaved");
+
+    expirationTasksId = type.nameToId("expirationTasks");
+    expirationBacklogId = type.nameToId("expirationBacklog");
+    expirationBatchesId = type.nameToId("expirationBatches");
+    expirationBatchTasksId = type.nameToId("expirationBatchTasks");
+    expirationLagId = type.nameToId("expirationLag");
   }
 
   //////////////////////// Constructors ////////////////////////
@@ -899,6 +944,18 @@ public class CachePerfStats {
     return stats.getLong(compressionPostCompressedBytesId);
   }
 
+  public long getDecompressedValueCacheHits() {
+    return stats.getLong(decompressedValueCacheHitsId);
+  }
+
+  public long getDecompressedValueCacheMisses() {
+    return stats.getLong(decompressedValueCacheMissesId);
+  }
+
+  public long getDecompressTimeSaved() {
+    return stats.getLong(decompressTimeSavedId);
+  }
+
   ////////////////////// Updating Stats //////////////////////
 
   public long startCompression() {
@@ -925,6 +982,18 @@ public class CachePerfStats {
     }
   }
 
+  /**
+   * @param decompressTime the time it took to decompress the value when it was cached
+   */
+  public void incDecompressedValueCacheHits(long decompressTime) {
+    stats.incLong(decompressedValueCacheHitsId, 1);
+    stats.incLong(decompressTimeSavedId, decompressTime);
+  }
+
+  public void incDecompressedValueCacheMisses() {
+    stats.incLong(decompressedValueCacheMissesId, 1);
+  }
+
   /**
    * @return the timestamp that marks the start of the operation
    */
@@ -1539,4 +1608,44 @@ public class CachePerfStats {
       stats.incLong(exportTimeId, getStatTime() - start);
     }
   }
+
+  public long getExpirationTasks() {
+    return stats.getLong(expirationTasksId);
+  }
+
+  public void incExpirationTasks(long delta) {
+    stats.incLong(expirationTasksId, delta);
+  }
+
+  public long getExpirationBacklog() {
+    return stats.getLong(expirationBacklogId);
+  }
+
+  public void incExpirationBacklog(long delta) {
+    stats.incLong(expirationBacklogId, delta);
+  }
+
+  public long getExpirationBatches() {
+    return stats.getLong(expirationBatchesId);
+  }
+
+  public long getExpirationBatchTasks() {
+    return stats.getLong(expirationBatchTasksId);
+  }
+
+  public long getExpirationLag() {
+    return stats.getLong(expirationLagId);
+  }
+
+  /**
+   * @param size The number of tasks in the batch, which are no longer in the backlog
+   * @param tasks The number of tasks of the batch that ran, the others having been cancelled
+   * @param lag The total milliseconds between the expiration times of the tasks and the batch
+   */
+  public void endExpirationBatch(int size, int tasks, long lag) {
+    stats.incLong(expirationBacklogId, -size);
+    stats.incLong(expirationBatchesId, 1);
+    stats.incLong(expirationBatchTasksId, tasks);
+    stats.incLong(expirationLagId, lag);
+  }
 }
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * A bounded cache of the values most recently decompressed by the entries of a region that has a
+ * {@link Compressor}, so that reading a hot entry does not decompress and deserialize its value
+ * every time.
+ *
+ * <p>
+ * Values are cached by the identity of the compressed byte array stored in the region entry.
+ * Updating an entry stores a new array, so a cached value can never be returned for an entry that
+ * has since changed; the value cached for the old array is also removed when the entry's value is
+ * replaced. The least recently read values are removed once the serialized size of the cached
+ * values exceeds the limit. The cache is divided into independently locked segments, so the
+ * ordering is only approximately least recently used.
+ *
+ * <p>
+ * The maximum size, in bytes, is set for each region with the
+ * gemfire.DecompressedValueCache.MAX_BYTES system property, which is read when the region is
+ * created. It is zero by default, which disables the cache. A partitioned region shares one cache
+ * between all of its buckets in a member.
+ */
+public class DecompressedValueCache {
+
+  static final String MAX_BYTES_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "DecompressedValueCache.MAX_BYTES";
+
+  private static final int SEGMENTS = 16;
+
+  /**
+   * The estimated heap overhead of each cached value, not counting the value itself.
+   */
+  private static final int ENTRY_OVERHEAD = 64;
+
+  /**
+   * Returns a cache for a region with the given attributes, or null if decompressed values should
+   * not be cached.
+   */
+  static DecompressedValueCache create(Compressor compressor, boolean offHeap) {
+    if (compressor == null || offHeap) {
+      return null;
+    }
+    long maxBytes = Long.getLong(MAX_BYTES_PROPERTY, 0);
+    if (maxBytes <= 0) {
+      return null;
+    }
+    return new DecompressedValueCache(maxBytes);
+  }
+
+  private final Segment[] segments = new Segment[SEGMENTS];
+
+  DecompressedValueCache(long maxBytes) {
+    for (int i = 0; i < SEGMENTS; i++) {
+      this.segments[i] = new Segment(Math.max(1, maxBytes / SEGMENTS));
+    }
+  }
+
+  /**
+   * Returns the value cached for the given compressed bytes and counts the hit or miss in the
+   * given stats.
+   *
+   * @return the cached value, or null if there is none
+   */
+  public Object get(byte[] compressed, CachePerfStats stats) {
+    Node node = getSegment(compressed).get(compressed);
+    if (node == null) {
+      stats.incDecompressedValueCacheMisses();
+      return null;
+    }
+    stats.incDecompressedValueCacheHits(node.decompressTime);
+    return node.value;
+  }
+
+  /**
+   * Caches the value that the given compressed bytes decompressed to.
+   *
+   * @param size the size of the value's serialized form
+   * @param decompressTime the time, in nanoseconds, that it took to decompress the value
+   */
+  public void put(byte[] compressed, Object value, int size, long decompressTime) {
+    getSegment(compressed).put(compressed,
+        new Node(compressed, value, size + ENTRY_OVERHEAD, decompressTime));
+  }
+
+  /**
+   * Removes the value cached for the given region entry value, if it is one that is cached.
+   */
+  public void invalidate(Object compressed) {
+    if (compressed instanceof byte[]) {
+      getSegment((byte[]) compressed).remove((byte[]) compressed);
+    }
+  }
+
+  public void clear() {
+    for (Segment segment : this.segments) {
+      segment.clear();
+    }
+  }
+
+  /**
+   * Returns the estimated size, in bytes, of the cached values.
+   */
+  public long getSize() {
+    long size = 0;
+    for (Segment segment : this.segments) {
+      size += segment.getSize();
+    }
+    return size;
+  }
+
+  private Segment getSegment(byte[] compressed) {
+    int hash = System.identityHashCode(compressed);
+    return this.segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+  }
+
+  private static class Segment {
+    private final Map<byte[], Node> nodes = new IdentityHashMap<>();
+
+    /**
+     * The head of a circular list of the nodes, ordered from least to most recently used.
+     */
+    private final Node head = new Node(null, null, 0, 0);
+
+    private final long maxSize;
+
+    private long size;
+
+    Segment(long maxSize) {
+      this.maxSize = maxSize;
+      this.head.previous = this.head;
+      this.head.next = this.head;
+    }
+
+    synchronized Node get(byte[] compressed) {
+      Node node = this.nodes.get(compressed);
+      if (node != null && node.next != this.head) {
+        unlink(node);
+        append(node);
+      }
+      return node;
+    }
+
+    synchronized void put(byte[] compressed, Node node) {
+      if (node.size > this.maxSize) {
+        return;
+      }
+      Node old = this.nodes.put(compressed, node);
+      if (old != null) {
+        unlink(old);
+        this.size -= old.size;
+      }
+      append(node);
+      this.size += node.size;
+      while (this.size > this.maxSize) {
+        Node eldest = this.head.next;
+        unlink(eldest);
+        this.nodes.remove(eldest.compressed);
+        this.size -= eldest.size;
+      }
+    }
+
+    synchronized void remove(byte[] compressed) {
+      Node node = this.nodes.remove(compressed);
+      if (node != null) {
+        unlink(node);
+        this.size -= node.size;
+      }
+    }
+
+    synchronized void clear() {
+      this.nodes.clear();
+      this.head.previous = this.head;
+      this.head.next = this.head;
+      this.size = 0;
+    }
+
+    synchronized long getSize() {
+      return this.size;
+    }
+
+    private void append(Node node) {
+      node.previous = this.head.previous;
+      node.next = this.head;
+      this.head.previous.next = node;
+      this.head.previous = node;
+    }
+
+    private static void unlink(Node node) {
+      node.previous.next = node.next;
+      node.next.previous = node.previous;
+      node.previous = null;
+      node.next = null;
+    }
+  }
+
+  private static class Node {
+    private final byte[] compressed;
+    private final Object value;
+    private final int size;
+    private final long decompressTime;
+    private Node previous;
+    private Node next;
+
+    Node(byte[] compressed, Object value, int size, long decompressTime) {
+      this.compressed = compressed;
+      this.value = value;
+      this.size = size;
+      this.decompressTime = decompressTime;
+    }
+  }
+}
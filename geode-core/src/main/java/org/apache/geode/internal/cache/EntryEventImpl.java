@@ -1789,9 +1789,15 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
       }
       FilterProfile fp = getRegion().getFilterProfile();
       // If compression is enabled then we've already gotten a new copy due to the
-      // serializaion and deserialization that occurs.
-      boolean copy = getRegion().getCompressor() == null && (getRegion().isCopyOnRead()
-          || getRegion().getCloningEnabled() || (fp != null && fp.getCqCount() > 0));
+      // serializaion and deserialization that occurs, unless the value was read from the
+      // decompressed value cache, in which case it must not be changed in place.
+      boolean copy;
+      if (getRegion().getCompressor() != null) {
+        copy = getRegion().getDecompressedValueCache() != null;
+      } else {
+        copy = getRegion().isCopyOnRead() || getRegion().getCloningEnabled()
+            || (fp != null && fp.getCqCount() > 0);
+      }
       Object value = oldValueInVM;
       boolean wasCD = false;
       if (value instanceof CachedDeserializable) {
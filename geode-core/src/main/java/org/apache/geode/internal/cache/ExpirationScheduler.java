@@ -14,6 +14,8 @@
  */
 package org.apache.geode.internal.cache;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.Logger;
@@ -23,10 +25,15 @@ import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.SystemTimer;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingExecutors;
 
 /**
  * ExpirationScheduler uses a single instance of java.util.Timer (and therefore a single thread) per
  * VM to schedule and execute region and entry expiration tasks.
+ * <p>
+ * If the gemfire.EXPIRY_TIMING_WHEEL system property is true, entry expiration tasks are scheduled
+ * on an {@link ExpiryTimingWheel} instead, and run in batches by a pool of gemfire.EXPIRY_THREADS
+ * threads, or of one thread if that is not set. Region expiration tasks stay on the timer.
  */
 
 public class ExpirationScheduler {
@@ -37,8 +44,33 @@ public class ExpirationScheduler {
   private static final int MAX_PENDING_CANCELS = Integer
       .getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAX_PENDING_CANCELS", 10000).intValue();
 
-  public ExpirationScheduler(InternalDistributedSystem ds) {
+  private static final boolean USE_TIMING_WHEEL =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_TIMING_WHEEL");
+
+  /** Null unless {@link #USE_TIMING_WHEEL} */
+  private final ExpiryTimingWheel timingWheel;
+
+  private final ScheduledExecutorService timingWheelSweeper;
+
+  private final ExecutorService timingWheelExecutor;
+
+  public ExpirationScheduler(InternalDistributedSystem ds, CachePerfStats stats) {
     this.timer = new SystemTimer(ds, true);
+    if (USE_TIMING_WHEEL) {
+      int nThreads = Math.max(1,
+          Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_THREADS", 0));
+      this.timingWheelExecutor = LoggingExecutors.newThreadPoolWithUnlimitedFeed("Expiry ", null,
+          ExpiryTask::doExpiryThread, nThreads, null, Integer.MAX_VALUE, null);
+      this.timingWheelSweeper =
+          LoggingExecutors.newSingleThreadScheduledExecutor("Expiry Timing Wheel");
+      this.timingWheel = new ExpiryTimingWheel(stats, this.timingWheelExecutor,
+          ExpiryTask::runInThreadPool, System::currentTimeMillis);
+      this.timingWheel.start(this.timingWheelSweeper);
+    } else {
+      this.timingWheelExecutor = null;
+      this.timingWheelSweeper = null;
+      this.timingWheel = null;
+    }
   }
 
   public void forcePurge() {
@@ -91,11 +123,29 @@ public class ExpirationScheduler {
 
   /** schedules the given entry expiration task and returns true; returns false if not scheduled */
   public boolean addEntryExpiryTask(EntryExpiryTask task) {
-    return addExpiryTask(task) != null;
+    if (this.timingWheel == null) {
+      return addExpiryTask(task) != null;
+    }
+    try {
+      if (logger.isTraceEnabled()) {
+        logger.trace("Scheduling  {}  to fire in  {}  ms on the timing wheel",
+            new Object[] {task, task.getExpiryMillis()});
+      }
+      return this.timingWheel.schedule(task, task.getExpiryMillis());
+    } catch (EntryNotFoundException e) {
+      // ignore - there are unsynchronized paths that allow an entry to
+      // be destroyed out from under us.
+      return false;
+    }
   }
 
   /** @see java.util.Timer#cancel() */
   public void cancel() {
     timer.cancel();
+    if (this.timingWheel != null) {
+      this.timingWheel.close();
+      this.timingWheelSweeper.shutdownNow();
+      this.timingWheelExecutor.shutdown();
+    }
   }
 }
@@ -45,6 +45,16 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
 
   private static final ExecutorService executor;
 
+  /*
+   * Link this task into a slot of the ExpiryTimingWheel it is scheduled on, if any. They are
+   * guarded by the lock of the stripe of the wheel.
+   */
+  volatile ExpiryTimingWheel.Stripe wheelStripe;
+  ExpiryTask wheelPrev;
+  ExpiryTask wheelNext;
+  long wheelTick;
+  int wheelPosition;
+
   static {
     // default to inline expiry to fix bug 37115
     int nThreads = Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_THREADS", 0);
@@ -57,7 +67,7 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
     }
   }
 
-  private static void doExpiryThread(Runnable command) {
+  static void doExpiryThread(Runnable command) {
     ConnectionTable.threadWantsSharedResources();
     try {
       command.run();
@@ -300,7 +310,8 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
    */
   @Override
   public boolean cancel() {
-    boolean superCancel = super.cancel();
+    boolean superCancel =
+        this.wheelStripe != null ? ExpiryTimingWheel.cancel(this) : super.cancel();
     LocalRegion lr = getLocalRegion();
     if (lr != null) {
       if (superCancel) {
@@ -0,0 +1,381 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Schedules entry expiration tasks on hierarchical timing wheels, as an alternative to the
+ * SystemTimer of {@link ExpirationScheduler} for regions with very many entries that expire.
+ * Scheduling or cancelling a task takes constant time, and a cancelled task is unlinked at once
+ * rather than left in the timer queue until it is purged.
+ * <p>
+ * Each of {@link #NUM_LEVELS} wheels has {@link #WHEEL_SIZE} slots. A slot of the first wheel holds
+ * the tasks due in one tick of {@link #TICK_MILLIS}, and a slot of each following wheel spans a
+ * whole turn of the wheel before it. As the ticks pass, the tasks of a slot of an outer wheel are
+ * moved to the inner wheels, until they reach the slot of the tick they are due in.
+ * <p>
+ * The tasks are spread over {@link #NUM_STRIPES} sets of wheels, each with its own lock, so that
+ * threads scheduling and cancelling tasks seldom contend. A single thread advances the wheels, and
+ * hands the tasks that are due to a pool in batches of at most {@link #MAX_BATCH_SIZE}.
+ * <p>
+ * A task links itself into its slot through fields of {@link ExpiryTask}, which are guarded by the
+ * lock of its stripe, so no other object is allocated for each scheduled task.
+ */
+class ExpiryTimingWheel {
+  private static final Logger logger = LogService.getLogger();
+
+  static final long TICK_MILLIS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_TIMING_WHEEL_TICK_MILLIS", 10);
+
+  static final int NUM_STRIPES = Integer.highestOneBit(Math.max(1,
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_TIMING_WHEEL_STRIPES", 16)));
+
+  static final int MAX_BATCH_SIZE = Math.max(1,
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_TIMING_WHEEL_BATCH_SIZE",
+          1000));
+
+  private static final int WHEEL_BITS = 8;
+
+  static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+  /**
+   * With ticks of 10 milliseconds the outer wheel turns once in about 497 days. A task due later
+   * than that waits in the outer wheel for more than one turn.
+   */
+  static final int NUM_LEVELS = 4;
+
+  /**
+   * The {@link ExpiryTask#wheelPosition} of a task that was never scheduled on a wheel. While a
+   * task is in a slot, its position is the index of the slot plus one.
+   */
+  static final int NOT_SCHEDULED = 0;
+
+  /** The position of a task that is due and waiting for a thread of the pool */
+  static final int DUE = -1;
+
+  /** The position of a task that has run or been cancelled */
+  static final int DONE = -2;
+
+  /**
+   * The wheels of one stripe, guarded by synchronizing on the stripe
+   */
+  static class Stripe {
+    private final ExpiryTimingWheel wheel;
+
+    private final ExpiryTask[] slots = new ExpiryTask[NUM_LEVELS * WHEEL_SIZE];
+
+    /** The next tick whose slot has not been taken yet */
+    private long currentTick;
+
+    private int size;
+
+    Stripe(ExpiryTimingWheel wheel, long currentTick) {
+      this.wheel = wheel;
+      this.currentTick = currentTick;
+    }
+  }
+
+  private final Stripe[] stripes;
+
+  private final CachePerfStats stats;
+
+  private final Executor executor;
+
+  private final Consumer<ExpiryTask> runner;
+
+  private final LongSupplier clock;
+
+  private volatile boolean closed;
+
+  private ScheduledFuture<?> sweeper;
+
+  /**
+   * @param executor Runs the batches of tasks that are due
+   * @param runner Runs a task that is due
+   * @param clock Supplies the current time in milliseconds
+   */
+  ExpiryTimingWheel(CachePerfStats stats, Executor executor, Consumer<ExpiryTask> runner,
+      LongSupplier clock) {
+    this.stats = stats;
+    this.executor = executor;
+    this.runner = runner;
+    this.clock = clock;
+    long currentTick = clock.getAsLong() / TICK_MILLIS;
+    this.stripes = new Stripe[NUM_STRIPES];
+    for (int i = 0; i < NUM_STRIPES; i++) {
+      this.stripes[i] = new Stripe(this, currentTick);
+    }
+  }
+
+  /**
+   * Advances the wheels every tick on the given executor until {@link #close}
+   */
+  synchronized void start(ScheduledExecutorService sweepExecutor) {
+    if (this.sweeper == null && !this.closed) {
+      this.sweeper = sweepExecutor.scheduleWithFixedDelay(this::sweep, TICK_MILLIS, TICK_MILLIS,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Stops advancing the wheels and drops the tasks scheduled on them
+   */
+  synchronized void close() {
+    this.closed = true;
+    if (this.sweeper != null) {
+      this.sweeper.cancel(false);
+      this.sweeper = null;
+    }
+    for (Stripe stripe : this.stripes) {
+      synchronized (stripe) {
+        for (int slot = 0; slot < stripe.slots.length; slot++) {
+          for (ExpiryTask task = detach(stripe, slot); task != null;) {
+            ExpiryTask next = task.wheelNext;
+            unlink(task, DONE);
+            task = next;
+          }
+        }
+        this.stats.incExpirationTasks(-stripe.size);
+        stripe.size = 0;
+      }
+    }
+  }
+
+  /**
+   * Schedules a task to run once the given delay has passed
+   *
+   * @return false if the wheel has been closed, so the task will not run
+   */
+  boolean schedule(ExpiryTask task, long delayMillis) {
+    // round up, so that a task never runs before it is due
+    long dueTick = (this.clock.getAsLong() + delayMillis + TICK_MILLIS - 1) / TICK_MILLIS;
+    Stripe stripe = this.stripes[System.identityHashCode(task) & (NUM_STRIPES - 1)];
+    synchronized (stripe) {
+      if (this.closed || task.wheelPosition != NOT_SCHEDULED) {
+        return false;
+      }
+      task.wheelStripe = stripe;
+      task.wheelTick = dueTick;
+      insert(stripe, task);
+      stripe.size++;
+    }
+    this.stats.incExpirationTasks(1);
+    return true;
+  }
+
+  /**
+   * Prevents a scheduled task from running, if it has not run yet
+   *
+   * @return true if the task will not run because of this call
+   */
+  static boolean cancel(ExpiryTask task) {
+    Stripe stripe = task.wheelStripe;
+    if (stripe == null) {
+      return false;
+    }
+    synchronized (stripe) {
+      int position = task.wheelPosition;
+      if (position > 0) {
+        unlinkFromSlot(stripe, task, position - 1);
+        stripe.size--;
+        stripe.wheel.stats.incExpirationTasks(-1);
+        return true;
+      } else if (position == DUE) {
+        // still counted in the backlog, which the batch holding it decrements
+        task.wheelPosition = DONE;
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * @return The number of tasks scheduled that are not yet due
+   */
+  int size() {
+    int size = 0;
+    for (Stripe stripe : this.stripes) {
+      synchronized (stripe) {
+        size += stripe.size;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Takes the tasks due by now from the wheels of each stripe, and hands them to the pool in
+   * batches
+   */
+  void sweep() {
+    if (this.closed) {
+      return;
+    }
+    long nowTick = this.clock.getAsLong() / TICK_MILLIS;
+    List<ExpiryTask> batch = new ArrayList<>();
+    for (Stripe stripe : this.stripes) {
+      int taken;
+      synchronized (stripe) {
+        int before = batch.size();
+        advance(stripe, nowTick, batch);
+        taken = batch.size() - before;
+      }
+      this.stats.incExpirationTasks(-taken);
+      while (batch.size() >= MAX_BATCH_SIZE) {
+        List<ExpiryTask> full = new ArrayList<>(batch.subList(0, MAX_BATCH_SIZE));
+        batch.subList(0, MAX_BATCH_SIZE).clear();
+        submit(full);
+      }
+    }
+    if (!batch.isEmpty()) {
+      submit(batch);
+    }
+  }
+
+  private void submit(List<ExpiryTask> batch) {
+    this.stats.incExpirationBacklog(batch.size());
+    try {
+      this.executor.execute(() -> runBatch(batch));
+    } catch (RejectedExecutionException e) {
+      // the cache is closing
+      this.stats.incExpirationBacklog(-batch.size());
+      if (logger.isDebugEnabled()) {
+        logger.debug("Rejected execution of {} expiration tasks", batch.size(), e);
+      }
+    }
+  }
+
+  private void runBatch(List<ExpiryTask> batch) {
+    long start = this.clock.getAsLong();
+    long lag = 0;
+    int ran = 0;
+    try {
+      for (ExpiryTask task : batch) {
+        synchronized (task.wheelStripe) {
+          if (task.wheelPosition != DUE) {
+            // cancelled while it waited
+            continue;
+          }
+          task.wheelPosition = DONE;
+        }
+        lag += Math.max(0L, start - task.wheelTick * TICK_MILLIS);
+        ran++;
+        this.runner.accept(task);
+      }
+    } finally {
+      this.stats.endExpirationBatch(batch.size(), ran, lag);
+    }
+  }
+
+  /**
+   * Takes the slots of the ticks up to and including the given tick
+   */
+  private void advance(Stripe stripe, long nowTick, List<ExpiryTask> due) {
+    if (stripe.size == 0) {
+      stripe.currentTick = Math.max(stripe.currentTick, nowTick + 1);
+      return;
+    }
+    while (stripe.currentTick <= nowTick) {
+      long tick = stripe.currentTick;
+      // move the tasks whose turn has come down from the outer wheels, outermost first
+      for (int level = NUM_LEVELS - 1; level > 0; level--) {
+        int shift = WHEEL_BITS * level;
+        if ((tick & ((1L << shift) - 1)) == 0) {
+          int slot = level * WHEEL_SIZE + (int) ((tick >>> shift) & WHEEL_MASK);
+          for (ExpiryTask task = detach(stripe, slot); task != null;) {
+            ExpiryTask next = task.wheelNext;
+            insert(stripe, task);
+            task = next;
+          }
+        }
+      }
+      for (ExpiryTask task = detach(stripe, (int) (tick & WHEEL_MASK)); task != null;) {
+        ExpiryTask next = task.wheelNext;
+        unlink(task, DUE);
+        due.add(task);
+        stripe.size--;
+        task = next;
+      }
+      stripe.currentTick++;
+      if (stripe.size == 0) {
+        stripe.currentTick = Math.max(stripe.currentTick, nowTick + 1);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Links a task into the slot of the innermost wheel whose turn covers the tick it is due in
+   */
+  private static void insert(Stripe stripe, ExpiryTask task) {
+    long tick = Math.max(task.wheelTick, stripe.currentTick);
+    long delta = tick - stripe.currentTick;
+    int level = 0;
+    while (level < NUM_LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+      level++;
+    }
+    int slot = level * WHEEL_SIZE + (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+    ExpiryTask head = stripe.slots[slot];
+    task.wheelPrev = null;
+    task.wheelNext = head;
+    if (head != null) {
+      head.wheelPrev = task;
+    }
+    stripe.slots[slot] = task;
+    task.wheelPosition = slot + 1;
+  }
+
+  /**
+   * Empties a slot, returning the first of the tasks that were linked into it
+   */
+  private static ExpiryTask detach(Stripe stripe, int slot) {
+    ExpiryTask head = stripe.slots[slot];
+    stripe.slots[slot] = null;
+    return head;
+  }
+
+  private static void unlinkFromSlot(Stripe stripe, ExpiryTask task, int slot) {
+    if (task.wheelPrev != null) {
+      task.wheelPrev.wheelNext = task.wheelNext;
+    } else {
+      stripe.slots[slot] = task.wheelNext;
+    }
+    if (task.wheelNext != null) {
+      task.wheelNext.wheelPrev = task.wheelPrev;
+    }
+    unlink(task, DONE);
+  }
+
+  private static void unlink(ExpiryTask task, int position) {
+    task.wheelPrev = null;
+    task.wheelNext = null;
+    task.wheelPosition = position;
+  }
+}
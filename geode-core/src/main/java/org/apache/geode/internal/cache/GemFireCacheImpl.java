@@ -958,7 +958,7 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
         HARegionQueue.setMessageSyncInterval(HARegionQueue.DEFAULT_MESSAGE_SYNC_INTERVAL);
       }
       FunctionService.registerFunction(new PRContainsValueFunction());
-      this.expirationScheduler = new ExpirationScheduler(this.system);
+      this.expirationScheduler = new ExpirationScheduler(this.system, this.cachePerfStats);
 
       // uncomment following line when debugging CacheExistsException
       if (DEBUG_CREATION_STACK) {
@@ -174,6 +174,7 @@ import org.apache.geode.internal.cache.event.NonDistributedEventTracker;
 import org.apache.geode.internal.cache.eviction.EvictableEntry;
 import org.apache.geode.internal.cache.eviction.EvictionController;
 import org.apache.geode.internal.cache.eviction.EvictionCounters;
+import org.apache.geode.internal.cache.eviction.EvictionNode;
 import org.apache.geode.internal.cache.execute.DistributedRegionFunctionExecutor;
 import org.apache.geode.internal.cache.execute.DistributedRegionFunctionResultSender;
 import org.apache.geode.internal.cache.execute.LocalResultCollector;
@@ -458,6 +459,11 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
   private final boolean hasOwnStats;
 
+  /**
+   * Recently decompressed values, or null if this region does not cache them
+   */
+  private final DecompressedValueCache decompressedValueCache;
+
   private final ImageState imageState;
 
   private final EventTracker eventTracker;
@@ -620,6 +626,12 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
                 myName));
       }
     }
+    if (internalRegionArgs.getPartitionedRegion() != null) {
+      this.decompressedValueCache =
+          internalRegionArgs.getPartitionedRegion().getDecompressedValueCache();
+    } else {
+      this.decompressedValueCache = DecompressedValueCache.create(getCompressor(), getOffHeap());
+    }
 
     this.initializationLatchBeforeGetInitialImage = new StoppableCountDownLatch(this.stopper, 1);
     this.initializationLatchAfterGetInitialImage = new StoppableCountDownLatch(this.stopper, 1);
@@ -1566,7 +1578,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
    */
   @Override
   public boolean isCopyOnRead() {
-    return this.compressor == null && this.cache.isCopyOnRead()
+    // a decompressed value is already a copy, unless it came from the decompressed value cache
+    return (this.compressor == null || this.decompressedValueCache != null)
+        && this.cache.isCopyOnRead()
         && !this.isUsedForPartitionedRegionAdmin && !this.isUsedForMetaRegion && !getOffHeap()
         && !isSecret();
   }
@@ -3269,6 +3283,11 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     return this.cachePerfStats;
   }
 
+  @Override
+  public DecompressedValueCache getDecompressedValueCache() {
+    return this.decompressedValueCache;
+  }
+
   public CachePerfStats getRegionPerfStats() {
     return this.cachePerfStats;
   }
@@ -8475,6 +8494,11 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     this.entries.incRecentlyUsed();
   }
 
+  @Override
+  public void recordUse(EvictionNode entry) {
+    this.entries.recordUse(entry);
+  }
+
   // package-private to avoid synthetic accessor
   static void dispatchEvent(LocalRegion region, InternalCacheEvent event,
       EnumListenerEvent operation) {
@@ -16,6 +16,7 @@
 package org.apache.geode.internal.cache;
 
 import org.apache.geode.compression.Compressor;
+import org.apache.geode.internal.cache.eviction.EvictionNode;
 
 /**
  * Provides important contextual information that allows a {@link RegionEntry} to manage its state.
@@ -40,5 +41,22 @@ public interface RegionEntryContext extends HasCachePerfStats {
 
   void incRecentlyUsed();
 
+  /**
+   * Called each time an entry of an LRU region is used, whether or not it is already marked as
+   * recently used, unlike {@link #incRecentlyUsed()}, which is only called when it is marked.
+   */
+  default void recordUse(EvictionNode entry) {
+    // nothing by default
+  }
+
+  /**
+   * Returns the cache of recently decompressed values read by region entries in this context.
+   *
+   * @return null if values are not compressed or decompressed values are not cached
+   */
+  default DecompressedValueCache getDecompressedValueCache() {
+    return null;
+  }
+
   InternalCache getCache();
 }
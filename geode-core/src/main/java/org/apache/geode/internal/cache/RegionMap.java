@@ -29,6 +29,7 @@ import org.apache.geode.internal.cache.AbstractRegionMap.ARMLockTestHook;
 import org.apache.geode.internal.cache.entries.DiskEntry;
 import org.apache.geode.internal.cache.eviction.EvictableEntry;
 import org.apache.geode.internal.cache.eviction.EvictableMap;
+import org.apache.geode.internal.cache.eviction.EvictionNode;
 import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.cache.versions.VersionHolder;
@@ -354,6 +355,13 @@ public interface RegionMap extends EvictableMap {
 
   void incRecentlyUsed();
 
+  /**
+   * Records a use of an entry with the eviction list of an LRU map
+   */
+  default void recordUse(EvictionNode entry) {
+    // nothing by default
+  }
+
   /**
    * Returns the memory overhead of entries in this map
    */
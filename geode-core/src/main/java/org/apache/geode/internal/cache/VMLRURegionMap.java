@@ -33,6 +33,7 @@ import org.apache.geode.internal.cache.eviction.EvictionController;
 import org.apache.geode.internal.cache.eviction.EvictionCounters;
 import org.apache.geode.internal.cache.eviction.EvictionList;
 import org.apache.geode.internal.cache.eviction.EvictionListBuilder;
+import org.apache.geode.internal.cache.eviction.EvictionNode;
 import org.apache.geode.internal.cache.eviction.HeapEvictor;
 import org.apache.geode.internal.cache.persistence.DiskRegionView;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
@@ -798,4 +799,9 @@ public class VMLRURegionMap extends AbstractRegionMap {
   public void incRecentlyUsed() {
     getEvictionList().incrementRecentlyUsed();
   }
+
+  @Override
+  public void recordUse(EvictionNode entry) {
+    getEvictionList().recordUse(entry);
+  }
 }
@@ -48,6 +48,7 @@ public abstract class AbstractOplogDiskRegionEntry extends AbstractDiskRegionEnt
   public void removePhase1(InternalRegion region, boolean clear) throws RegionClearedException {
     synchronized (this) {
       Helper.removeFromDisk(this, region, clear);
+      invalidateDecompressedValue(region);
       _removePhase1();
     }
   }
@@ -43,8 +43,10 @@ import org.apache.geode.internal.ByteArrayDataInput;
 import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.InternalStatisticsDisabledException;
 import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.CachePerfStats;
 import org.apache.geode.internal.cache.CachedDeserializable;
 import org.apache.geode.internal.cache.CachedDeserializableFactory;
+import org.apache.geode.internal.cache.DecompressedValueCache;
 import org.apache.geode.internal.cache.DistributedRegion;
 import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.FilterProfile;
@@ -244,6 +246,7 @@ public abstract class AbstractRegionEntry implements HashRegionEntry<Object, Obj
 
   @Override
   public void removePhase1(InternalRegion region, boolean clear) throws RegionClearedException {
+    invalidateDecompressedValue(region);
     _removePhase1();
   }
 
@@ -490,6 +493,7 @@ public abstract class AbstractRegionEntry implements HashRegionEntry<Object, Obj
   @Released
   protected void setValue(RegionEntryContext context, @Unretained Object value,
       boolean recentlyUsed) {
+    invalidateDecompressedValue(context);
     _setValue(value);
     releaseOffHeapRefIfRegionBeingClosedOrDestroyed(context, value);
     if (recentlyUsed) {
@@ -497,6 +501,17 @@ public abstract class AbstractRegionEntry implements HashRegionEntry<Object, Obj
     }
   }
 
+  /**
+   * Removes the value cached for the compressed value this entry holds, before it is replaced
+   */
+  void invalidateDecompressedValue(RegionEntryContext context) {
+    DecompressedValueCache decompressedValues =
+        context == null ? null : context.getDecompressedValueCache();
+    if (decompressedValues != null) {
+      decompressedValues.invalidate(getValueField());
+    }
+  }
+
   void releaseOffHeapRefIfRegionBeingClosedOrDestroyed(RegionEntryContext context, Object ref) {
     if (isOffHeapReference(ref) && isThisRegionBeingClosedOrDestroyed(context)) {
       ((Releasable) this).release();
@@ -524,6 +539,10 @@ public abstract class AbstractRegionEntry implements HashRegionEntry<Object, Obj
    */
   static Object decompress(RegionEntryContext context, Object value) {
     if (isCompressible(context, value)) {
+      DecompressedValueCache decompressedValues = context.getDecompressedValueCache();
+      if (decompressedValues != null) {
+        return decompressAndCache(context, decompressedValues, (byte[]) value);
+      }
       long time = context.getCachePerfStats().startDecompression();
       value = EntryEventImpl.deserialize(context.getCompressor().decompress((byte[]) value));
       context.getCachePerfStats().endDecompression(time);
@@ -532,6 +551,22 @@ public abstract class AbstractRegionEntry implements HashRegionEntry<Object, Obj
     return value;
   }
 
+  private static Object decompressAndCache(RegionEntryContext context,
+      DecompressedValueCache decompressedValues, byte[] compressed) {
+    CachePerfStats stats = context.getCachePerfStats();
+    Object value = decompressedValues.get(compressed, stats);
+    if (value != null) {
+      return value;
+    }
+    long start = System.nanoTime();
+    long time = stats.startDecompression();
+    byte[] decompressed = context.getCompressor().decompress(compressed);
+    value = EntryEventImpl.deserialize(decompressed);
+    stats.endDecompression(time);
+    decompressedValues.put(compressed, value, decompressed.length, System.nanoTime() - start);
+    return value;
+  }
+
   protected static Object compress(RegionEntryContext context, Object value) {
     return compress(context, value, null);
   }
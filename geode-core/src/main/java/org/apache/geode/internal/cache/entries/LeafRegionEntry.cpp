@@ -484,6 +484,7 @@ public class LEAF_CLASS extends PARENT_CLASS {
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
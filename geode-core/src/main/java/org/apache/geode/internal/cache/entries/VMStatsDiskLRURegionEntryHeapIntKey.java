@@ -204,6 +204,7 @@ public class VMStatsDiskLRURegionEntryHeapIntKey extends VMStatsDiskLRURegionEnt
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
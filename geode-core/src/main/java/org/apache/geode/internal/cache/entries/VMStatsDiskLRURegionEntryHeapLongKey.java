@@ -204,6 +204,7 @@ public class VMStatsDiskLRURegionEntryHeapLongKey extends VMStatsDiskLRURegionEn
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -207,6 +207,7 @@ public class VMStatsDiskLRURegionEntryHeapObjectKey extends VMStatsDiskLRURegion
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
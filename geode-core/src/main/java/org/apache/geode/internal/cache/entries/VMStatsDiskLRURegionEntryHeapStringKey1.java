@@ -224,6 +224,7 @@ public class VMStatsDiskLRURegionEntryHeapStringKey1 extends VMStatsDiskLRURegio
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
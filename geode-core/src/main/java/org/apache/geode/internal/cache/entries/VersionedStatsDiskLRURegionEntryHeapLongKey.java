@@ -221,6 +221,7 @@ public class VersionedStatsDiskLRURegionEntryHeapLongKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
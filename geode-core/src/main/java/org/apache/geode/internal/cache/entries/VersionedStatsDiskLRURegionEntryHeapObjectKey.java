@@ -221,6 +221,7 @@ public class VersionedStatsDiskLRURegionEntryHeapObjectKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
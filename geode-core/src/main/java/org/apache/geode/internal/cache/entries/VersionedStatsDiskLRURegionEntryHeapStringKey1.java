@@ -238,6 +238,7 @@ public class VersionedStatsDiskLRURegionEntryHeapStringKey1
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -259,6 +259,7 @@ public class VersionedStatsDiskLRURegionEntryHeapStringKey2
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -224,6 +224,7 @@ public class VersionedStatsDiskLRURegionEntryHeapUUIDKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
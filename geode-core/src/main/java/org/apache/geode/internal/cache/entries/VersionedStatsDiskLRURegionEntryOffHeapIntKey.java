@@ -280,6 +280,7 @@ public class VersionedStatsDiskLRURegionEntryOffHeapIntKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -280,6 +280,7 @@ public class VersionedStatsDiskLRURegionEntryOffHeapObjectKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
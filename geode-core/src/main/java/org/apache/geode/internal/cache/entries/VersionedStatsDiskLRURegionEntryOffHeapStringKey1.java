@@ -297,6 +297,7 @@ public class VersionedStatsDiskLRURegionEntryOffHeapStringKey1
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -318,6 +318,7 @@ public class VersionedStatsDiskLRURegionEntryOffHeapStringKey2
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
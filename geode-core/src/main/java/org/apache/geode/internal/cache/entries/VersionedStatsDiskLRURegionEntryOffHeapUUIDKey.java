@@ -283,6 +283,7 @@ public class VersionedStatsDiskLRURegionEntryOffHeapUUIDKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -162,6 +162,7 @@ public class VersionedStatsLRURegionEntryHeapLongKey extends VersionedStatsLRURe
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -162,6 +162,7 @@ public class VersionedStatsLRURegionEntryHeapObjectKey extends VersionedStatsLRU
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
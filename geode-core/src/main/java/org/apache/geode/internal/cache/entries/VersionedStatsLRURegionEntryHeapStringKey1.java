@@ -179,6 +179,7 @@ public class VersionedStatsLRURegionEntryHeapStringKey1 extends VersionedStatsLR
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -200,6 +200,7 @@ public class VersionedStatsLRURegionEntryHeapStringKey2 extends VersionedStatsLR
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
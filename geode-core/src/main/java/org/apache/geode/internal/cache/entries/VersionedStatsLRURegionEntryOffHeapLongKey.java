@@ -222,6 +222,7 @@ public class VersionedStatsLRURegionEntryOffHeapLongKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -239,6 +239,7 @@ public class VersionedStatsLRURegionEntryOffHeapStringKey1
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -260,6 +260,7 @@ public class VersionedStatsLRURegionEntryOffHeapStringKey2
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
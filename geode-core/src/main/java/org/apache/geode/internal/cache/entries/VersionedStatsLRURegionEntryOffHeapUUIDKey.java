@@ -225,6 +225,7 @@ public class VersionedStatsLRURegionEntryOffHeapUUIDKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
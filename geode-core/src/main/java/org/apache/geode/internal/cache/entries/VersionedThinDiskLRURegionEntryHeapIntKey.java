@@ -208,6 +208,7 @@ public class VersionedThinDiskLRURegionEntryHeapIntKey extends VersionedThinDisk
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -209,6 +209,7 @@ public class VersionedThinDiskLRURegionEntryHeapObjectKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -226,6 +226,7 @@ public class VersionedThinDiskLRURegionEntryHeapStringKey1
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -247,6 +247,7 @@ public class VersionedThinDiskLRURegionEntryHeapStringKey2
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
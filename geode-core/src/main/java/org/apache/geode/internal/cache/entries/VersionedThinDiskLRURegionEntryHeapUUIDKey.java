@@ -212,6 +212,7 @@ public class VersionedThinDiskLRURegionEntryHeapUUIDKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
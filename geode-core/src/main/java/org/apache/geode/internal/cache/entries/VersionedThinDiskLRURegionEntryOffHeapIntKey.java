@@ -268,6 +268,7 @@ public class VersionedThinDiskLRURegionEntryOffHeapIntKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
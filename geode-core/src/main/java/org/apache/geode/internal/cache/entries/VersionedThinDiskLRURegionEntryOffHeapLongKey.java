@@ -268,6 +268,7 @@ public class VersionedThinDiskLRURegionEntryOffHeapLongKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -268,6 +268,7 @@ public class VersionedThinDiskLRURegionEntryOffHeapObjectKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -285,6 +285,7 @@ public class VersionedThinDiskLRURegionEntryOffHeapStringKey1
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
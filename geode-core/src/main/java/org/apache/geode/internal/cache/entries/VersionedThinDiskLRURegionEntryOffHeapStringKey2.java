@@ -306,6 +306,7 @@ public class VersionedThinDiskLRURegionEntryOffHeapStringKey2
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -271,6 +271,7 @@ public class VersionedThinDiskLRURegionEntryOffHeapUUIDKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
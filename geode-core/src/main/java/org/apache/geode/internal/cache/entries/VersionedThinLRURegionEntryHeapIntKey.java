@@ -150,6 +150,7 @@ public class VersionedThinLRURegionEntryHeapIntKey extends VersionedThinLRURegio
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -150,6 +150,7 @@ public class VersionedThinLRURegionEntryHeapLongKey extends VersionedThinLRURegi
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -150,6 +150,7 @@ public class VersionedThinLRURegionEntryHeapObjectKey extends VersionedThinLRURe
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -167,6 +167,7 @@ public class VersionedThinLRURegionEntryHeapStringKey1 extends VersionedThinLRUR
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
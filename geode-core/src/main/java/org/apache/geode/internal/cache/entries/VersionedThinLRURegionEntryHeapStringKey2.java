@@ -188,6 +188,7 @@ public class VersionedThinLRURegionEntryHeapStringKey2 extends VersionedThinLRUR
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
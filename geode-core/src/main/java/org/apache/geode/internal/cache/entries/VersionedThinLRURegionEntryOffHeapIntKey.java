@@ -209,6 +209,7 @@ public class VersionedThinLRURegionEntryOffHeapIntKey extends VersionedThinLRURe
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
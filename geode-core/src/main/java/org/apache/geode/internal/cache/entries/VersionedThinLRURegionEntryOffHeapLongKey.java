@@ -209,6 +209,7 @@ public class VersionedThinLRURegionEntryOffHeapLongKey extends VersionedThinLRUR
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
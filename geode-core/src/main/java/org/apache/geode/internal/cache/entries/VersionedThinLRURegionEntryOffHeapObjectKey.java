@@ -210,6 +210,7 @@ public class VersionedThinLRURegionEntryOffHeapObjectKey
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
@@ -227,6 +227,7 @@ public class VersionedThinLRURegionEntryOffHeapStringKey1
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
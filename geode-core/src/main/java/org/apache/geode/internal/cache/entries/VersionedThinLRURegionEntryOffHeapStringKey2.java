@@ -248,6 +248,7 @@ public class VersionedThinLRURegionEntryOffHeapStringKey2
       setBits(RECENTLY_USED);
       context.incRecentlyUsed();
     }
+    context.recordUse(this);
   }
 
   @Override
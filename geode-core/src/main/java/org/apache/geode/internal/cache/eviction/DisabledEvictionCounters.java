@@ -53,6 +53,11 @@ class DisabledEvictionCounters implements EvictionCounters {
     // nothing
   }
 
+  @Override
+  public void incAdmissionRejections() {
+    // nothing
+  }
+
   @Override
   public void incEvictions() {
     // nothing
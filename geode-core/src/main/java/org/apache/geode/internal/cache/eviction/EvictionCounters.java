@@ -42,6 +42,8 @@ public interface EvictionCounters {
 
   void incGreedyReturns(long greedyReturns);
 
+  void incAdmissionRejections();
+
   Statistics getStatistics();
 
   void close();
@@ -121,4 +121,9 @@ class EvictionCountersImpl implements EvictionCounters {
   public void incGreedyReturns(long greedyReturns) {
     this.stats.incGreedyReturns(greedyReturns);
   }
+
+  @Override
+  public void incAdmissionRejections() {
+    this.stats.incAdmissionRejections();
+  }
 }
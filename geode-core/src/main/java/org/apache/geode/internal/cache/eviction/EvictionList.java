@@ -53,4 +53,11 @@ public interface EvictionList {
   int size();
 
   void incrementRecentlyUsed();
+
+  /**
+   * Called each time an entry in the list is used, for lists that count how often keys are used
+   */
+  default void recordUse(EvictionNode evictionNode) {
+    // nothing by default
+  }
 }
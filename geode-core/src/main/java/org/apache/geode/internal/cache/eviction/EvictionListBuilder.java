@@ -22,6 +22,10 @@ public class EvictionListBuilder {
 
   private final boolean evictionScanAsync;
 
+  private final boolean evictionSampling;
+
+  private final boolean evictionTinyLFU;
+
   private final EvictionController controller;
 
   public EvictionListBuilder(EvictionController evictionController) {
@@ -29,13 +33,21 @@ public class EvictionListBuilder {
     Optional<Boolean> asyncScan =
         SystemPropertyHelper.getProductBooleanProperty(SystemPropertyHelper.EVICTION_SCAN_ASYNC);
     evictionScanAsync = asyncScan.orElse(true);
+    evictionSampling = SystemPropertyHelper
+        .getProductBooleanProperty(SystemPropertyHelper.EVICTION_SAMPLING).orElse(false);
+    evictionTinyLFU = SystemPropertyHelper
+        .getProductBooleanProperty(SystemPropertyHelper.EVICTION_TINY_LFU).orElse(false);
   }
 
   public EvictionList create() {
     if (this.controller.getEvictionAlgorithm().isLIFO()) {
       return new LIFOList(this.controller);
     } else {
-      if (evictionScanAsync) {
+      if (evictionTinyLFU) {
+        return new TinyLFUEvictionList(this.controller);
+      } else if (evictionSampling) {
+        return new SampledEvictionList(this.controller);
+      } else if (evictionScanAsync) {
         return new LRUListWithAsyncSorting(this.controller);
       } else {
         return new LRUListWithSyncSorting(this.controller);
@@ -36,4 +36,6 @@ public interface EvictionStats {
 
   void incGreedyReturns(long greedyReturns);
 
+  void incAdmissionRejections();
+
 }
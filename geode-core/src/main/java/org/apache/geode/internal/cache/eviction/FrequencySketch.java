@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+/**
+ * A count-min sketch of how often keys have been used. Each of four rows of counters has a counter
+ * for every key, chosen by a hash function of its own, and a key's frequency is the smallest of its
+ * four counters, so it may be overestimated because of collisions but is never underestimated. Only
+ * the counters holding that smallest value are incremented, so that the keys sharing a counter
+ * with a popular key are overestimated less. Once the number of increments reaches ten times the
+ * number of keys the sketch is sized for, every counter is halved, so that frequencies age and keys
+ * that were popular a long time ago are eventually forgotten.
+ * <p>
+ * Each counter takes 4 bits, two to a byte, and each row has four times as many counters as the
+ * keys the sketch is sized for, so a frequency of up to 15 is kept for several times more keys than
+ * are cached using 8 bytes per cached key. This class is not thread safe.
+ */
+class FrequencySketch {
+
+  static final int MAX_FREQUENCY = 15;
+
+  private static final int ROWS = 4;
+
+  /**
+   * The number of increments after which the counters are halved, for each key the sketch is sized
+   * for
+   */
+  private static final int SAMPLE_FACTOR = 10;
+
+  private static final int MAX_CAPACITY = 1 << 26;
+
+  /**
+   * The number of keys the sketch is sized for, which is a power of two
+   */
+  private int capacity = 1;
+
+  /**
+   * The counters of each row, one row after the other, with the even counters in the low 4 bits of
+   * each byte and the odd ones in the high 4 bits
+   */
+  private byte[] counters = new byte[ROWS * 2 * this.capacity];
+
+  private int sampleSize = SAMPLE_FACTOR * this.capacity;
+
+  private int additions;
+
+  /**
+   * Grows the sketch, forgetting all the frequencies, if it is too small for the given number of
+   * keys
+   */
+  void ensureCapacity(int maximumSize) {
+    int maximum = Math.min(Math.max(maximumSize, 1), MAX_CAPACITY);
+    if (this.capacity >= maximum) {
+      return;
+    }
+    this.capacity = Integer.highestOneBit(maximum - 1) << 1;
+    this.counters = new byte[ROWS * 2 * this.capacity];
+    this.sampleSize = SAMPLE_FACTOR * this.capacity;
+    this.additions = 0;
+  }
+
+  /**
+   * Returns the estimated number of times the key with the given hash code has been used, up to
+   * {@link #MAX_FREQUENCY}
+   */
+  int frequency(int hashCode) {
+    return frequency(mix(hashCode));
+  }
+
+  private int frequency(long hash) {
+    int frequency = MAX_FREQUENCY;
+    for (int row = 0; row < ROWS; row++) {
+      frequency = Math.min(frequency, get(indexOf(hash, row)));
+    }
+    return frequency;
+  }
+
+  /**
+   * Records a use of the key with the given hash code
+   */
+  void increment(int hashCode) {
+    long hash = mix(hashCode);
+    int frequency = frequency(hash);
+    if (frequency == MAX_FREQUENCY) {
+      return;
+    }
+    for (int row = 0; row < ROWS; row++) {
+      int index = indexOf(hash, row);
+      if (get(index) == frequency) {
+        // the counter is below the maximum, so adding one cannot carry into the other counter
+        this.counters[index >>> 1] += 1 << shiftOf(index);
+      }
+    }
+    if (++this.additions == this.sampleSize) {
+      halve();
+    }
+  }
+
+  int getSampleSize() {
+    return this.sampleSize;
+  }
+
+  /**
+   * Halves both counters of each byte, dropping the bit each shifts into the other
+   */
+  private void halve() {
+    for (int i = 0; i < this.counters.length; i++) {
+      this.counters[i] = (byte) ((this.counters[i] & 0xee) >>> 1);
+    }
+    this.additions >>= 1;
+  }
+
+  private int get(int index) {
+    return (this.counters[index >>> 1] >>> shiftOf(index)) & 0xf;
+  }
+
+  private static int shiftOf(int index) {
+    return (index & 1) << 2;
+  }
+
+  /**
+   * Returns the index of the key's counter in the given row. The counters of the rows are chosen
+   * from the two halves of the hash by double hashing. The second half is made odd so that it is
+   * never a multiple of the row width, which would give the key the same column in every row.
+   */
+  private int indexOf(long hash, int row) {
+    int width = 4 * this.capacity;
+    int first = (int) hash;
+    int step = (int) (hash >>> 32) | 1;
+    return row * width + ((first + row * step) & (width - 1));
+  }
+
+  /**
+   * Spreads a hash code over 64 bits with the finalizer of SplitMix64, since the hash codes of keys
+   * are often poorly distributed
+   */
+  private static long mix(int hashCode) {
+    long z = hashCode * 0x9e3779b97f4a7c15L;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
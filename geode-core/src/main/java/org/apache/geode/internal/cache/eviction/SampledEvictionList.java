@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * SampledEvictionList approximates LRU without keeping its entries in order. The entries are held
+ * in striped arrays, so adds and removes only lock one stripe and accessing an entry never touches
+ * the list at all; it only sets the recently used bit of the entry, as it does for the other lists.
+ * To evict, a sample of entries is taken at random and the first one that has not been recently
+ * used is chosen. The recently used bits of the sampled entries are cleared, giving each of them a
+ * second chance as the CLOCK algorithm does, so an entry that keeps being used is never evicted
+ * while one that has not been used since it was last sampled soon is.
+ * <p>
+ * While in the list, the next node of an entry is the {@link Slot} that records where it is held
+ * and its previous node is null. Like the other lists, an entry that is not in the list has a null
+ * next node.
+ */
+public class SampledEvictionList implements EvictionList {
+
+  private static final Logger logger = LogService.getLogger();
+
+  private static final int DEFAULT_SAMPLE_SIZE = 5;
+
+  private static final int DEFAULT_MAX_EVICTION_ATTEMPTS = 10;
+
+  private static final int NUM_STRIPES =
+      Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors(), 1) * 4);
+
+  private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+  private final EvictionController controller;
+
+  private final Stripe[] stripes;
+
+  private final int sampleSize;
+
+  private final int maxEvictionAttempts;
+
+  SampledEvictionList(EvictionController controller) {
+    this(controller, NUM_STRIPES, getConfiguredSampleSize(), DEFAULT_MAX_EVICTION_ATTEMPTS);
+  }
+
+  /**
+   * @param numStripes a power of 2
+   */
+  SampledEvictionList(EvictionController controller, int numStripes, int sampleSize,
+      int maxEvictionAttempts) {
+    this.controller = controller;
+    this.sampleSize = sampleSize;
+    this.maxEvictionAttempts = maxEvictionAttempts;
+    this.stripes = new Stripe[numStripes];
+    for (int i = 0; i < numStripes; i++) {
+      this.stripes[i] = new Stripe();
+    }
+  }
+
+  private static int getConfiguredSampleSize() {
+    Optional<Integer> sampleSize = SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_SAMPLE_SIZE);
+    return Math.max(sampleSize.orElse(DEFAULT_SAMPLE_SIZE), 1);
+  }
+
+  @Override
+  public void closeStats() {
+    getStatistics().close();
+  }
+
+  @Override
+  public EvictionCounters getStatistics() {
+    return this.controller.getCounters();
+  }
+
+  @Override
+  public void appendEntry(EvictionNode evictionNode) {
+    if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+      logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "adding a Node to lru list: {}", evictionNode);
+    }
+    this.stripes[ThreadLocalRandom.current().nextInt(this.stripes.length)].add(evictionNode);
+  }
+
+  @Override
+  public void destroyEntry(EvictionNode evictionNode) {
+    if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+      logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "destroyEntry called for {}", evictionNode);
+    }
+
+    if (removeEntry(evictionNode)) {
+      getStatistics().incDestroys();
+    }
+  }
+
+  private boolean removeEntry(EvictionNode evictionNode) {
+    EvictionNode next = evictionNode.next();
+    if (!(next instanceof Slot)) {
+      // not in the list anymore.
+      return false;
+    }
+    return ((Slot) next).stripe.remove(evictionNode);
+  }
+
+  /**
+   * Remove and return an entry that has not been recently used, chosen from a random sample of the
+   * entries. If every entry sampled has been recently used then the sample is taken again, up to
+   * the maximum eviction attempts, after which a recently used entry is returned.
+   */
+  @Override
+  public EvictableEntry getEvictableEntry() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int evictionAttempts = 0;
+    for (;;) {
+      EvictionNode recentlyUsedNode = null;
+      for (int i = 0; i < this.sampleSize; i++) {
+        EvictionNode evictionNode = sample(random);
+        if (evictionNode == null) {
+          // the list is empty
+          return null;
+        }
+
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "lru considering {}", evictionNode);
+        }
+
+        if (!isEvictable(evictionNode)) {
+          removeEntry(evictionNode);
+          continue;
+        }
+
+        if (!evictionNode.isRecentlyUsed()) {
+          if (removeEntry(evictionNode)) {
+            if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+              logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "returning unused entry: {}",
+                  evictionNode);
+            }
+            return (EvictableEntry) evictionNode;
+          }
+          continue;
+        }
+
+        if (evictionAttempts < this.maxEvictionAttempts) {
+          evictionNode.unsetRecentlyUsed();
+        }
+        recentlyUsedNode = evictionNode;
+      }
+
+      if (recentlyUsedNode != null && evictionAttempts >= this.maxEvictionAttempts
+          && removeEntry(recentlyUsedNode)) {
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "returning recently used entry: {}",
+              recentlyUsedNode);
+        }
+        getStatistics().incGreedyReturns(1);
+        return (EvictableEntry) recentlyUsedNode;
+      }
+      evictionAttempts++;
+    }
+  }
+
+  /**
+   * Returns an entry from a random position of a random stripe, or null if every stripe is empty
+   */
+  private EvictionNode sample(ThreadLocalRandom random) {
+    int start = random.nextInt(this.stripes.length);
+    for (int i = 0; i < this.stripes.length; i++) {
+      EvictionNode evictionNode =
+          this.stripes[(start + i) & (this.stripes.length - 1)].sample(random);
+      if (evictionNode != null) {
+        return evictionNode;
+      }
+    }
+    return null;
+  }
+
+  private boolean isEvictable(EvictionNode evictionNode) {
+    if (evictionNode.isEvicted()) {
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+        logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "discarding evicted entry");
+      }
+      return false;
+    }
+
+    // If this Entry is part of a transaction, skip it since
+    // eviction should not cause commit conflicts
+    synchronized (evictionNode) {
+      if (evictionNode.isInUseByTransaction()) {
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE,
+              "removing transactional entry from consideration");
+        }
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
+    if (regionVersionVector != null) {
+      return; // when concurrency checks are enabled the clear operation removes entries iteratively
+    }
+
+    synchronized (this) {
+      if (bucketRegion != null) {
+        getStatistics().decrementCounter(bucketRegion.getCounter());
+        bucketRegion.resetCounter();
+      } else {
+        getStatistics().resetCounter();
+      }
+      for (Stripe stripe : this.stripes) {
+        stripe.clear();
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : this.stripes) {
+      size += stripe.size;
+    }
+    return size;
+  }
+
+  /**
+   * Nothing to do, since the recently used bits are only read when sampling
+   */
+  @Override
+  public void incrementRecentlyUsed() {
+    // nothing
+  }
+
+  /**
+   * An array of entries, each of which knows its position from the {@link Slot} it is linked to.
+   * A removed entry is replaced by the last entry of the array, so the entries are always packed at
+   * the start of the array and can be sampled by index.
+   */
+  private static class Stripe {
+
+    private EvictionNode[] nodes = new EvictionNode[INITIAL_STRIPE_CAPACITY];
+
+    private volatile int size;
+
+    synchronized void add(EvictionNode evictionNode) {
+      if (evictionNode.next() != null) {
+        // already in the list
+        return;
+      }
+      if (this.size == this.nodes.length) {
+        this.nodes = Arrays.copyOf(this.nodes, this.nodes.length * 2);
+      }
+      this.nodes[this.size] = evictionNode;
+      evictionNode.setNext(new Slot(this, this.size));
+      evictionNode.setPrevious(null);
+      this.size++;
+    }
+
+    synchronized boolean remove(EvictionNode evictionNode) {
+      EvictionNode next = evictionNode.next();
+      if (!(next instanceof Slot) || ((Slot) next).stripe != this) {
+        // removed, or moved to another stripe, since it was looked up
+        return false;
+      }
+      int index = ((Slot) next).index;
+      if (this.nodes[index] != evictionNode) {
+        // left over from before the list was cleared
+        return false;
+      }
+      int last = this.size - 1;
+      if (index != last) {
+        EvictionNode lastNode = this.nodes[last];
+        this.nodes[index] = lastNode;
+        ((Slot) lastNode.next()).index = index;
+      }
+      this.nodes[last] = null;
+      this.size = last;
+      evictionNode.setNext(null);
+      return true;
+    }
+
+    synchronized EvictionNode sample(ThreadLocalRandom random) {
+      if (this.size == 0) {
+        return null;
+      }
+      return this.nodes[random.nextInt(this.size)];
+    }
+
+    synchronized void clear() {
+      for (int i = 0; i < this.size; i++) {
+        this.nodes[i].setNext(null);
+      }
+      this.nodes = new EvictionNode[INITIAL_STRIPE_CAPACITY];
+      this.size = 0;
+    }
+  }
+
+  /**
+   * Records the stripe and position of an entry in the list. It is linked to the entry as its next
+   * node.
+   */
+  static class Slot extends GuardNode {
+
+    private final Stripe stripe;
+
+    private int index;
+
+    private Slot(Stripe stripe, int index) {
+      this.stripe = stripe;
+      this.index = index;
+    }
+  }
+}
@@ -0,0 +1,367 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * TinyLFUEvictionList keeps a small admission window in front of the main LRU list, and only lets
+ * an entry leave the window for the main list if its key has been used more often than the entry
+ * it would replace, as W-TinyLFU does. New entries are added to the end of the window. When an
+ * entry is evicted while the window holds more than its share of the entries, the least recently
+ * used entry of the window is compared with the least recently used entry of the main list, and
+ * whichever key has been used less often, according to a {@link FrequencySketch}, is evicted. A
+ * rejected window entry is counted as an admission rejection. Otherwise, entries are evicted from
+ * the head of the main list, which is kept in order the same way {@link LRUListWithSyncSorting}
+ * does.
+ * <p>
+ * Every use of an entry is recorded, including its creation, so a key that is not used again, such
+ * as one read by a query or a getAll of cold keys, is counted once, and so does not displace an
+ * entry whose key has been counted more often. This keeps such a scan from flushing the frequently
+ * used entries out of the main list. The uses are recorded by the threads reading and writing the
+ * entries in a buffer that does not need the list's lock, and are added to the sketch when an entry
+ * is next evicted. The buffer keeps only the latest {@link #ACCESS_BUFFER_SIZE} uses, so when there
+ * are more between evictions only a sample of them is counted.
+ */
+public class TinyLFUEvictionList extends AbstractEvictionList {
+
+  private static final Logger logger = LogService.getLogger();
+
+  private static final int DEFAULT_WINDOW_PERCENT = 1;
+
+  private static final int DEFAULT_MAX_EVICTION_ATTEMPTS = 10;
+
+  /**
+   * The sketch is sized for this many keys per entry, since it ages its frequencies after a number
+   * of uses proportional to its size, and every use of an entry is counted
+   */
+  private static final int SKETCH_KEYS_PER_ENTRY = 2;
+
+  /** The number of uses kept until they are added to the sketch, which is a power of two */
+  static final int ACCESS_BUFFER_SIZE = 1024;
+
+  /** Marks a slot of the access buffer holding a hash code that has not been added to the sketch */
+  private static final long RECORDED = 1L << 32;
+
+  /** The last node in the admission window after which all new nodes are added */
+  private final EvictionNode windowTail = new GuardNode();
+
+  /** The starting point in the admission window for searching for the LRU node */
+  private final EvictionNode windowHead = new GuardNode();
+
+  /** The nodes in the admission window, as opposed to the main list */
+  private final Set<EvictionNode> window =
+      Collections.newSetFromMap(new IdentityHashMap<EvictionNode, Boolean>());
+
+  private final FrequencySketch sketch = new FrequencySketch();
+
+  /**
+   * The hash codes of the keys used, each with the {@link #RECORDED} bit set, in a ring that is
+   * overwritten once it is full
+   */
+  private final AtomicLongArray accesses = new AtomicLongArray(ACCESS_BUFFER_SIZE);
+
+  /** The number of uses ever recorded, the last of which is in the slot before this one */
+  private final AtomicLong accessesRecorded = new AtomicLong();
+
+  /** The number of uses recorded when the buffer was last drained */
+  private long accessesDrained;
+
+  private final int windowPercent;
+
+  private final int maxEvictionAttempts;
+
+  /**
+   * Whether an entry has been evicted since the list was created or cleared. Until then there was
+   * room in the main list for every entry that left the window.
+   */
+  private boolean mainListFilled;
+
+  TinyLFUEvictionList(EvictionController controller) {
+    this(controller, getConfiguredWindowPercent(), DEFAULT_MAX_EVICTION_ATTEMPTS);
+  }
+
+  TinyLFUEvictionList(EvictionController controller, int windowPercent,
+      int maxEvictionAttempts) {
+    super(controller);
+    this.windowPercent = windowPercent;
+    this.maxEvictionAttempts = maxEvictionAttempts;
+    initEmptyWindow();
+  }
+
+  private static int getConfiguredWindowPercent() {
+    Optional<Integer> configuredWindowPercent = SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_WINDOW_PERCENT);
+
+    int windowPercent = configuredWindowPercent.orElse(DEFAULT_WINDOW_PERCENT);
+    if (windowPercent < 0 || windowPercent > 100) {
+      windowPercent = DEFAULT_WINDOW_PERCENT;
+    }
+    return windowPercent;
+  }
+
+  @Override
+  public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
+    super.clear(regionVersionVector, bucketRegion);
+    if (regionVersionVector == null) {
+      initEmptyWindow();
+    }
+  }
+
+  private synchronized void initEmptyWindow() {
+    mainListFilled = false;
+    window.clear();
+    windowHead.setNext(windowTail);
+    windowTail.setPrevious(windowHead);
+  }
+
+  /**
+   * Adds an lru node to the tail of the admission window.
+   */
+  @Override
+  public synchronized void appendEntry(final EvictionNode evictionNode) {
+    if (evictionNode.next() != null) {
+      // already in the list
+      return;
+    }
+
+    if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+      logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "adding a Node to lru window: {}", evictionNode);
+    }
+
+    evictionNode.setNext(windowTail);
+    windowTail.previous().setNext(evictionNode);
+    evictionNode.setPrevious(windowTail.previous());
+    windowTail.setPrevious(evictionNode);
+    window.add(evictionNode);
+
+    incrementSize();
+  }
+
+  @Override
+  protected synchronized boolean removeEntry(EvictionNode evictionNode) {
+    if (evictionNode.next() == null) {
+      // not in the list anymore.
+      return false;
+    }
+
+    window.remove(evictionNode);
+    unlinkEntry(evictionNode);
+    return true;
+  }
+
+  /**
+   * Remove and return the entry that is least recently used in the main list, unless the window
+   * holds more than its share of the entries and its least recently used entry has been used less
+   * often than that, in which case the window entry is returned.
+   */
+  @Override
+  public synchronized EvictableEntry getEvictableEntry() {
+    sketch.ensureCapacity((int) Math.min((long) SKETCH_KEYS_PER_ENTRY * size(), Integer.MAX_VALUE));
+    drainAccesses();
+    if (!mainListFilled) {
+      admitWindowOverflow();
+      mainListFilled = size() > 0;
+    }
+    long numEvals = 0;
+    for (;;) {
+      if (window.size() > getMaxWindowSize()) {
+        EvictionNode candidate = unlinkWindowHeadEntry();
+        numEvals++;
+        if (!isEvictable(candidate)) {
+          continue;
+        }
+
+        EvictionNode victim = findMainVictim();
+        if (victim == null) {
+          // nothing to compare with, so admit the candidate
+          super.appendEntry(candidate);
+          continue;
+        }
+        numEvals++;
+
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "lru comparing {} with {}", candidate,
+              victim);
+        }
+        if (sketch.frequency(hashOf(candidate)) > sketch.frequency(hashOf(victim))) {
+          unlinkEntry(victim);
+          super.appendEntry(candidate);
+          getStatistics().incEvaluations(numEvals);
+          return (EvictableEntry) victim;
+        }
+
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "rejecting admission of {}", candidate);
+        }
+        getStatistics().incAdmissionRejections();
+        getStatistics().incEvaluations(numEvals);
+        return (EvictableEntry) candidate;
+      }
+
+      EvictionNode victim = findMainVictim();
+      if (victim == null) {
+        // the main list is empty, so evict from the window
+        victim = unlinkWindowHeadEntry();
+        if (victim == null) {
+          getStatistics().incEvaluations(numEvals);
+          return null;
+        }
+        numEvals++;
+        if (!isEvictable(victim)) {
+          continue;
+        }
+      } else {
+        numEvals++;
+        unlinkEntry(victim);
+      }
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+        logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "returning entry: {}", victim);
+      }
+      getStatistics().incEvaluations(numEvals);
+      return (EvictableEntry) victim;
+    }
+  }
+
+  /**
+   * Returns the least recently used entry of the main list, leaving it in the list. Recently used
+   * entries found at the head have their bit cleared and are moved to the tail, up to the maximum
+   * eviction attempts, after which a recently used entry is returned.
+   */
+  private EvictionNode findMainVictim() {
+    int evictionAttempts = 0;
+    for (;;) {
+      EvictionNode evictionNode = head.next();
+      if (evictionNode == tail) {
+        return null;
+      }
+
+      if (!isEvictable(evictionNode)) {
+        unlinkEntry(evictionNode);
+        continue;
+      }
+
+      if (evictionNode.isRecentlyUsed()) {
+        if (evictionAttempts < maxEvictionAttempts) {
+          evictionAttempts++;
+          evictionNode.unsetRecentlyUsed();
+          unlinkEntry(evictionNode);
+          super.appendEntry(evictionNode);
+          continue;
+        }
+        getStatistics().incGreedyReturns(1);
+      }
+      return evictionNode;
+    }
+  }
+
+  /**
+   * Moves the entries beyond the window's share from the window to the tail of the main list,
+   * without comparing them with anything. The window is spliced rather than unlinked node by node,
+   * since before the first eviction it may hold nearly every entry.
+   */
+  private void admitWindowOverflow() {
+    int maxWindowSize = getMaxWindowSize();
+    if (window.size() <= maxWindowSize) {
+      return;
+    }
+
+    window.clear();
+    EvictionNode firstKept = windowTail;
+    for (int i = 0; i < maxWindowSize; i++) {
+      firstKept = firstKept.previous();
+      window.add(firstKept);
+    }
+    EvictionNode firstAdmitted = windowHead.next();
+    EvictionNode lastAdmitted = firstKept.previous();
+
+    windowHead.setNext(firstKept);
+    firstKept.setPrevious(windowHead);
+    EvictionNode mainLast = tail.previous();
+    mainLast.setNext(firstAdmitted);
+    firstAdmitted.setPrevious(mainLast);
+    lastAdmitted.setNext(tail);
+    tail.setPrevious(lastAdmitted);
+  }
+
+  private EvictionNode unlinkWindowHeadEntry() {
+    EvictionNode evictionNode = windowHead.next();
+    if (evictionNode == windowTail) {
+      return null;
+    }
+
+    window.remove(evictionNode);
+    unlinkEntry(evictionNode);
+    return evictionNode;
+  }
+
+  /**
+   * Adds the uses recorded since the buffer was last drained to the sketch, skipping those that
+   * have been overwritten and those whose hash code has not been written yet
+   */
+  private void drainAccesses() {
+    long recorded = accessesRecorded.get();
+    for (long i = Math.max(accessesDrained, recorded - ACCESS_BUFFER_SIZE); i < recorded; i++) {
+      long access = accesses.getAndSet((int) i & (ACCESS_BUFFER_SIZE - 1), 0);
+      if (access != 0) {
+        sketch.increment((int) access);
+      }
+    }
+    accessesDrained = recorded;
+  }
+
+  private int getMaxWindowSize() {
+    return Math.max(1, (int) ((long) size() * windowPercent / 100));
+  }
+
+  int getWindowSize() {
+    return window.size();
+  }
+
+  private static int hashOf(EvictionNode evictionNode) {
+    Object key = evictionNode instanceof RegionEntry ? ((RegionEntry) evictionNode).getKey() : null;
+    return key == null ? System.identityHashCode(evictionNode) : key.hashCode();
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // nothing needed
+  }
+
+  /**
+   * Records a use of the entry's key, without taking the list's lock
+   */
+  @Override
+  public void recordUse(EvictionNode evictionNode) {
+    long index = accessesRecorded.getAndIncrement();
+    accesses.lazySet((int) index & (ACCESS_BUFFER_SIZE - 1),
+        RECORDED | (hashOf(evictionNode) & 0xffffffffL));
+  }
+}
@@ -126,6 +126,14 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
    */
   private final ExecutorService clientQueueInitPool;
 
+  /**
+   * A pool used by a gateway receiver to apply the events of a batch on more than one thread.
+   * Created the first time it is needed.
+   */
+  private ExecutorService batchApplyPool;
+
+  private final Object batchApplyPoolLock = new Object();
+
   /**
    * The port on which this acceptor listens for client connections
    */
@@ -1646,6 +1654,11 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     }
     this.clientQueueInitPool.shutdown();
     this.hsPool.shutdown();
+    synchronized (this.batchApplyPoolLock) {
+      if (this.batchApplyPool != null) {
+        this.batchApplyPool.shutdown();
+      }
+    }
   }
 
   private void shutdownSCs() {
@@ -1765,6 +1778,26 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     return this.isGatewayReceiver;
   }
 
+  /**
+   * Returns the pool used to apply the events of a gateway batch on more than one thread, creating
+   * it with the given number of threads if it does not exist yet. The pool is shut down when this
+   * acceptor is closed.
+   *
+   * @return the pool, or null if this acceptor is closed
+   */
+  public ExecutorService getBatchApplyPool(int threads) {
+    synchronized (this.batchApplyPoolLock) {
+      if (!isRunning()) {
+        return null;
+      }
+      if (this.batchApplyPool == null) {
+        this.batchApplyPool = LoggingExecutors.newFixedThreadPoolWithTimeout(
+            "GatewayReceiver Batch Apply on port " + this.localPort + " Thread ", threads, 60);
+      }
+      return this.batchApplyPool;
+    }
+  }
+
   public List<GatewayTransportFilter> getGatewayTransportFilters() {
     return this.gatewayTransportFilters;
   }
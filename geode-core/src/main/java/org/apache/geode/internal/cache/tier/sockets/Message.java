@@ -32,6 +32,7 @@ import org.apache.geode.SerializationException;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.PooledHeapDataOutputStream;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.tier.MessageType;
@@ -391,11 +392,12 @@ public class Message {
       v = null;
     }
 
-    // do NOT close the HeapDataOutputStream
-    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v);
+    // do NOT close the HeapDataOutputStream; the part gives it back when it is cleared
+    HeapDataOutputStream hdos = PooledHeapDataOutputStream.acquire(v);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
+      hdos.close();
       throw new SerializationException("failed serializing object", ex);
     }
     this.messageModified = true;
@@ -15,16 +15,29 @@
 package org.apache.geode.internal.cache.tier.sockets.command;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
+import org.apache.shiro.util.ThreadState;
 
 import org.apache.geode.CancelException;
+import org.apache.geode.InternalGemFireException;
 import org.apache.geode.cache.EntryNotFoundException;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.operations.DestroyOperationContext;
 import org.apache.geode.cache.operations.PutOperationContext;
 import org.apache.geode.cache.wan.GatewayReceiver;
 import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.DistributionStats;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.Version;
@@ -42,6 +55,7 @@ import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.GatewayBatchCompressor;
 import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
 import org.apache.geode.internal.security.AuthorizeRequest;
 import org.apache.geode.internal.security.SecurityService;
@@ -61,6 +75,20 @@ public class GatewayReceiverCommand extends BaseCommand {
     return singleton;
   }
 
+  /**
+   * The number of threads applying the events of a batch. Events for the same key are always
+   * applied in order by the same thread. A value of 1 (the default) applies all events on the
+   * server connection thread.
+   */
+  static int BATCH_APPLY_THREADS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "GatewayReceiver.BatchApplyThreads", 1);
+
+  /**
+   * The minimum number of events a batch must contain to be applied by more than one thread.
+   */
+  static int MINIMUM_PARALLEL_BATCH_SIZE = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "GatewayReceiver.MinimumParallelBatchSize", 10);
+
   private GatewayReceiverCommand() {}
 
   private void handleRegionNull(ServerConnection servConn, String regionName, int batchId) {
@@ -77,24 +105,15 @@ public class GatewayReceiverCommand extends BaseCommand {
   @Override
   public void cmdExecute(final Message clientMessage, final ServerConnection serverConnection,
       final SecurityService securityService, long start) throws IOException, InterruptedException {
-    Part regionNamePart = null, keyPart = null, valuePart = null, callbackArgPart = null;
-    String regionName = null;
-    Object callbackArg = null, key = null;
     int partNumber = 0;
     CachedRegionHelper crHelper = serverConnection.getCachedRegionHelper();
     GatewayReceiverStats stats = (GatewayReceiverStats) serverConnection.getCacheServerStats();
-    EventID eventId = null;
-    LocalRegion region = null;
-    List<BatchException70> exceptions = new ArrayList<BatchException70>();
-    Throwable fatalException = null;
     // requiresResponse = true;// let PROCESS_BATCH deal with this itself
     {
       long oldStart = start;
       start = DistributionStats.getStatTime();
       stats.incReadProcessBatchRequestTime(start - oldStart);
     }
-    Part callbackArgExistsPart;
-
     stats.incBatchSize(clientMessage.getPayloadLength());
 
     // Retrieve the number of events
@@ -160,396 +179,568 @@ public class GatewayReceiverCommand extends BaseCommand {
     partNumber = 2;
     int dsid = clientMessage.getPart(partNumber++).getInt();
 
+    byte flags = clientMessage.getPart(partNumber++).getSerializedForm()[0];
     boolean removeOnException =
-        clientMessage.getPart(partNumber++).getSerializedForm()[0] == 1 ? true : false;
+        (flags & GatewayBatchCompressor.REMOVE_FROM_QUEUE_ON_EXCEPTION) != 0;
 
-    // event received in batch also have PDX events at the start of the batch,to
-    // represent correct index on which the exception occurred, number of PDX
-    // events need to be subtracted.
-    int indexWithoutPDXEvent = -1; //
-    for (int i = 0; i < numberOfEvents; i++) {
-      boolean retry = true;
-      boolean isPdxEvent = false;
-      indexWithoutPDXEvent++;
-      // System.out.println("Processing event " + i + " in batch " + batchId + "
-      // starting with part number " + partNumber);
-      Part actionTypePart = clientMessage.getPart(partNumber);
-      int actionType = actionTypePart.getInt();
-
-      long versionTimeStamp = VersionTag.ILLEGAL_VERSION_TIMESTAMP;
-      EventIDHolder clientEvent = null;
-
-      boolean callbackArgExists = false;
-
-      try {
-        do {
-          if (isPdxEvent) {
-            // This is a retried event. Reset the PDX event index.
-            indexWithoutPDXEvent++;
-          }
-          isPdxEvent = false;
-          Part possibleDuplicatePart = clientMessage.getPart(partNumber + 1);
-          byte[] possibleDuplicatePartBytes;
-          try {
-            possibleDuplicatePartBytes = (byte[]) possibleDuplicatePart.getObject();
-          } catch (Exception e) {
-            logger.warn(String.format(
-                "%s: Caught exception processing batch request %s containing %s events",
-                new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
-                    Integer.valueOf(numberOfEvents)}),
-                e);
-            handleException(removeOnException, stats, e);
-            break;
-          }
-          boolean possibleDuplicate = possibleDuplicatePartBytes[0] == 0x01;
-
-          // Make sure instance variables are null before each iteration
-          regionName = null;
-          key = null;
-          callbackArg = null;
-
-          // Retrieve the region name from the message parts
-          regionNamePart = clientMessage.getPart(partNumber + 2);
-          regionName = regionNamePart.getString();
-          if (regionName.equals(PeerTypeRegistration.REGION_FULL_PATH)) {
-            indexWithoutPDXEvent--;
-            isPdxEvent = true;
-          }
+    // A compressed batch carries all of its event parts in the part following the flags. Inflate
+    // them into a message numbered like an uncompressed batch.
+    Message batchMessage = clientMessage;
+    if ((flags & GatewayBatchCompressor.COMPRESSED) != 0) {
+      long decompressionStart = stats.startTime();
+      batchMessage = GatewayBatchCompressor.decompress(clientMessage, partNumber,
+          serverConnection.getClientVersion());
+      stats.endBatchDecompression(decompressionStart);
+    }
 
-          // Retrieve the event id from the message parts
-          // This was going to be used to determine possible
-          // duplication of events, but it is unused now. In
-          // fact the event id is overridden by the FROM_GATEWAY
-          // token.
-          Part eventIdPart = clientMessage.getPart(partNumber + 3);
-          eventIdPart.setVersion(serverConnection.getClientVersion());
-          // String eventId = eventIdPart.getString();
-          try {
-            eventId = (EventID) eventIdPart.getObject();
-          } catch (Exception e) {
-            logger.warn(String.format(
-                "%s: Caught exception processing batch request %s containing %s events",
-                new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
-                    Integer.valueOf(numberOfEvents)}),
-                e);
-            handleException(removeOnException, stats, e);
-            break;
-          }
+    BatchContext context = new BatchContext(batchMessage, serverConnection, securityService,
+        stats, batchId, numberOfEvents, dsid, removeOnException);
+    List<BatchEvent> events = getBatchEvents(batchMessage, partNumber, numberOfEvents);
+    try {
+      long applyStart = stats.startTime();
+      int threads = applyEvents(context, events);
+      stats.endBatchApply(applyStart, threads);
+    } finally {
+      context.stop();
+      context.applyModificationInfo();
+    }
 
-          // Retrieve the key from the message parts
-          keyPart = clientMessage.getPart(partNumber + 4);
-          try {
-            key = keyPart.getStringOrObject();
-          } catch (Exception e) {
-            logger.warn(String.format(
-                "%s: Caught exception processing batch request %s containing %s events",
-                new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
-                    Integer.valueOf(numberOfEvents)}),
-                e);
-            handleException(removeOnException, stats, e);
-            break;
-          }
-          int index = -1;
-          switch (actionType) {
-            case 0: // Create
-              try {
-
-                /*
-                 * CLIENT EXCEPTION HANDLING TESTING CODE String keySt = (String) key;
-                 * System.out.println("Processing new key: " + key); if
-                 * (keySt.startsWith("failure")) { throw new Exception(LocalizedStrings
-                 * .ProcessBatch_THIS_EXCEPTION_REPRESENTS_A_FAILURE_ON_THE_SERVER
-                 * )); }
-                 */
-
-                // Retrieve the value from the message parts (do not deserialize it)
-                valuePart = clientMessage.getPart(partNumber + 5);
-                // try {
-                // logger.warn(getName() + ": Creating key " + key + " value " +
-                // valuePart.getObject());
-                // } catch (Exception e) {}
-
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 6;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-                {
-                  byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                  callbackArgExists = partBytes[0] == 0x01;
+    if (context.cancelException != null) {
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "{} ignoring message of type {} from client {} because shutdown occurred during message processing.",
+            serverConnection.getName(), MessageType.getString(clientMessage.getMessageType()),
+            serverConnection.getProxyID());
+      }
+      serverConnection.setFlagProcessMessagesAsFalse();
+      serverConnection.setClientDisconnectedException(context.cancelException);
+      return;
+    }
+    Throwable fatalException = context.fatalException;
+    List<BatchException70> exceptions = context.getExceptions();
+
+    {
+      long oldStart = start;
+      start = DistributionStats.getStatTime();
+      stats.incProcessBatchTime(start - oldStart);
+    }
+    if (fatalException != null) {
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+      writeFatalException(clientMessage, fatalException, serverConnection, batchId);
+      serverConnection.setAsTrue(RESPONDED);
+    } else if (!exceptions.isEmpty()) {
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+      writeBatchException(clientMessage, exceptions, serverConnection, batchId);
+      serverConnection.setAsTrue(RESPONDED);
+    } else {
+      // Increment the batch id unless the received batch id is -1 (a failover
+      // batch)
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+
+      writeReply(clientMessage, serverConnection, batchId, numberOfEvents);
+      serverConnection.setAsTrue(RESPONDED);
+      stats.incWriteProcessBatchResponseTime(DistributionStats.getStatTime() - start);
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "{}: Sent process batch normal response for batch {} containing {} events ({} bytes) with {} acknowledgement on {}",
+            serverConnection.getName(), batchId, numberOfEvents, clientMessage.getPayloadLength(),
+            "normal", serverConnection.getSocketString());
+      }
+    }
+  }
+
+  /**
+   * Applies one event of a batch, retrying it until it succeeds unless failed events are to be
+   * removed from the sender's queue.
+   *
+   * @return false if no further events of the batch are to be applied
+   */
+  private boolean applyEvent(BatchContext context, BatchEvent event)
+      throws IOException, InterruptedException {
+    final Message batchMessage = context.batchMessage;
+    final ServerConnection serverConnection = context.serverConnection;
+    final CachedRegionHelper crHelper = serverConnection.getCachedRegionHelper();
+    final GatewayReceiverStats stats = context.stats;
+    final int batchId = context.batchId;
+    final int numberOfEvents = context.numberOfEvents;
+    final int dsid = context.dsid;
+    final boolean removeOnException = context.removeOnException;
+    final int partNumber = event.partNumber;
+    final int actionType = event.actionType;
+    int indexWithoutPDXEvent = event.indexWithoutPDXEvent;
+    Part regionNamePart = null, keyPart = null, valuePart = null, callbackArgPart = null;
+    String regionName = null;
+    Object callbackArg = null, key = null;
+    EventID eventId = null;
+    LocalRegion region = null;
+    Part callbackArgExistsPart;
+
+    boolean retry = true;
+    boolean isPdxEvent = false;
+    long versionTimeStamp = VersionTag.ILLEGAL_VERSION_TIMESTAMP;
+    EventIDHolder clientEvent = null;
+
+    boolean callbackArgExists = false;
+
+    try {
+      do {
+        if (isPdxEvent) {
+          // This is a retried event. Reset the PDX event index.
+          indexWithoutPDXEvent++;
+        }
+        isPdxEvent = false;
+        Part possibleDuplicatePart = batchMessage.getPart(partNumber + 1);
+        byte[] possibleDuplicatePartBytes;
+        try {
+          possibleDuplicatePartBytes = (byte[]) possibleDuplicatePart.getObject();
+        } catch (Exception e) {
+          logger.warn(String.format(
+              "%s: Caught exception processing batch request %s containing %s events",
+              new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
+                  Integer.valueOf(numberOfEvents)}),
+              e);
+          handleException(removeOnException, stats, e);
+          break;
+        }
+        boolean possibleDuplicate = possibleDuplicatePartBytes[0] == 0x01;
+
+        // Make sure instance variables are null before each iteration
+        regionName = null;
+        key = null;
+        callbackArg = null;
+
+        // Retrieve the region name from the message parts
+        regionNamePart = batchMessage.getPart(partNumber + 2);
+        regionName = regionNamePart.getString();
+        if (regionName.equals(PeerTypeRegistration.REGION_FULL_PATH)) {
+          indexWithoutPDXEvent--;
+          isPdxEvent = true;
+        }
+
+        // Retrieve the event id from the message parts
+        // This was going to be used to determine possible
+        // duplication of events, but it is unused now. In
+        // fact the event id is overridden by the FROM_GATEWAY
+        // token.
+        Part eventIdPart = batchMessage.getPart(partNumber + 3);
+        eventIdPart.setVersion(serverConnection.getClientVersion());
+        // String eventId = eventIdPart.getString();
+        try {
+          eventId = (EventID) eventIdPart.getObject();
+        } catch (Exception e) {
+          logger.warn(String.format(
+              "%s: Caught exception processing batch request %s containing %s events",
+              new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
+                  Integer.valueOf(numberOfEvents)}),
+              e);
+          handleException(removeOnException, stats, e);
+          break;
+        }
+
+        // Retrieve the key from the message parts
+        keyPart = batchMessage.getPart(partNumber + 4);
+        try {
+          key = keyPart.getStringOrObject();
+        } catch (Exception e) {
+          logger.warn(String.format(
+              "%s: Caught exception processing batch request %s containing %s events",
+              new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
+                  Integer.valueOf(numberOfEvents)}),
+              e);
+          handleException(removeOnException, stats, e);
+          break;
+        }
+        int index = -1;
+        switch (actionType) {
+          case 0: // Create
+            try {
+
+              /*
+               * CLIENT EXCEPTION HANDLING TESTING CODE String keySt = (String) key;
+               * System.out.println("Processing new key: " + key); if
+               * (keySt.startsWith("failure")) { throw new Exception(LocalizedStrings
+               * .ProcessBatch_THIS_EXCEPTION_REPRESENTS_A_FAILURE_ON_THE_SERVER
+               * )); }
+               */
+
+              // Retrieve the value from the message parts (do not deserialize it)
+              valuePart = batchMessage.getPart(partNumber + 5);
+              // try {
+              // logger.warn(getName() + ": Creating key " + key + " value " +
+              // valuePart.getObject());
+              // } catch (Exception e) {}
+
+              // Retrieve the callbackArg from the message parts if necessary
+              index = partNumber + 6;
+              callbackArgExistsPart = batchMessage.getPart(index++);
+              {
+                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+                callbackArgExists = partBytes[0] == 0x01;
+              }
+              if (callbackArgExists) {
+                callbackArgPart = batchMessage.getPart(index++);
+                try {
+                  callbackArg = callbackArgPart.getObject();
+                } catch (Exception e) {
+                  logger
+                      .warn(String.format(
+                          "%s: Caught exception processing batch create request %s for %s events",
+                          new Object[] {serverConnection.getName(),
+                              Integer.valueOf(batchId),
+                              Integer.valueOf(numberOfEvents)}),
+                          e);
+                  throw e;
                 }
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  try {
-                    callbackArg = callbackArgPart.getObject();
-                  } catch (Exception e) {
-                    logger
-                        .warn(String.format(
-                            "%s: Caught exception processing batch create request %s for %s events",
-                            new Object[] {serverConnection.getName(),
-                                Integer.valueOf(batchId),
-                                Integer.valueOf(numberOfEvents)}),
-                            e);
-                    throw e;
-                  }
+              }
+              if (logger.isDebugEnabled()) {
+                logger.debug(
+                    "{}: Processing batch create request {} on {} for region {} key {} value {} callbackArg {}, eventId={}",
+                    serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                    regionName, key, valuePart, callbackArg, eventId);
+              }
+              versionTimeStamp = batchMessage.getPart(index++).getLong();
+              // Process the create request
+              if (key == null || regionName == null) {
+                String message = null;
+                Object[] messageArgs =
+                    new Object[] {serverConnection.getName(), Integer.valueOf(batchId)};
+                if (key == null) {
+                  message =
+                      "%s: The input region name for the batch create request %s is null";
                 }
-                if (logger.isDebugEnabled()) {
-                  logger.debug(
-                      "{}: Processing batch create request {} on {} for region {} key {} value {} callbackArg {}, eventId={}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key, valuePart, callbackArg, eventId);
+                if (regionName == null) {
+                  message =
+                      "%s: The input region name for the batch create request %s is null";
                 }
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                // Process the create request
-                if (key == null || regionName == null) {
-                  String message = null;
-                  Object[] messageArgs =
-                      new Object[] {serverConnection.getName(), Integer.valueOf(batchId)};
-                  if (key == null) {
-                    message =
-                        "%s: The input region name for the batch create request %s is null";
-                  }
-                  if (regionName == null) {
-                    message =
-                        "%s: The input region name for the batch create request %s is null";
-                  }
-                  String s = String.format(message, messageArgs);
-                  logger.warn(s);
-                  throw new Exception(s);
+                String s = String.format(message, messageArgs);
+                logger.warn(s);
+                throw new Exception(s);
+              }
+              region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+              if (region == null) {
+                handleRegionNull(serverConnection, regionName, batchId);
+              } else {
+                clientEvent = new EventIDHolder(eventId);
+                if (versionTimeStamp > 0) {
+                  VersionTag tag = VersionTag.create(region.getVersionMember());
+                  tag.setIsGatewayTag(true);
+                  tag.setVersionTimeStamp(versionTimeStamp);
+                  tag.setDistributedSystemId(dsid);
+                  clientEvent.setVersionTag(tag);
                 }
-                region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-                if (region == null) {
-                  handleRegionNull(serverConnection, regionName, batchId);
+                clientEvent.setPossibleDuplicate(possibleDuplicate);
+                handleMessageRetry(region, clientEvent);
+                byte[] value = valuePart.getSerializedForm();
+                boolean isObject = valuePart.isObject();
+                // [sumedh] This should be done on client while sending
+                // since that is the WAN gateway
+                AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
+                if (authzRequest != null) {
+                  PutOperationContext putContext =
+                      authzRequest.putAuthorize(regionName, key, value, isObject, callbackArg);
+                  value = putContext.getSerializedValue();
+                  isObject = putContext.isObject();
+                }
+                // Attempt to create the entry
+                boolean result = false;
+                if (isPdxEvent) {
+                  result = addPdxType(crHelper, key, value);
                 } else {
-                  clientEvent = new EventIDHolder(eventId);
-                  if (versionTimeStamp > 0) {
-                    VersionTag tag = VersionTag.create(region.getVersionMember());
-                    tag.setIsGatewayTag(true);
-                    tag.setVersionTimeStamp(versionTimeStamp);
-                    tag.setDistributedSystemId(dsid);
-                    clientEvent.setVersionTag(tag);
-                  }
-                  clientEvent.setPossibleDuplicate(possibleDuplicate);
-                  handleMessageRetry(region, clientEvent);
-                  byte[] value = valuePart.getSerializedForm();
-                  boolean isObject = valuePart.isObject();
-                  // [sumedh] This should be done on client while sending
-                  // since that is the WAN gateway
-                  AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
-                  if (authzRequest != null) {
-                    PutOperationContext putContext =
-                        authzRequest.putAuthorize(regionName, key, value, isObject, callbackArg);
-                    value = putContext.getSerializedValue();
-                    isObject = putContext.isObject();
-                  }
-                  // Attempt to create the entry
-                  boolean result = false;
-                  if (isPdxEvent) {
-                    result = addPdxType(crHelper, key, value);
-                  } else {
-                    result = region.basicBridgeCreate(key, value, isObject, callbackArg,
-                        serverConnection.getProxyID(), false, clientEvent, false);
-                    // If the create fails (presumably because it already exists),
-                    // attempt to update the entry
-                    if (!result) {
-                      result = region.basicBridgePut(key, value, null, isObject, callbackArg,
-                          serverConnection.getProxyID(), false, clientEvent);
-                    }
+                  result = region.basicBridgeCreate(key, value, isObject, callbackArg,
+                      serverConnection.getProxyID(), false, clientEvent, false);
+                  // If the create fails (presumably because it already exists),
+                  // attempt to update the entry
+                  if (!result) {
+                    result = region.basicBridgePut(key, value, null, isObject, callbackArg,
+                        serverConnection.getProxyID(), false, clientEvent);
                   }
+                }
 
-                  if (result || clientEvent.isConcurrencyConflict()) {
-                    serverConnection.setModificationInfo(true, regionName, key);
-                    stats.incCreateRequest();
-                    retry = false;
-                  } else {
-                    // This exception will be logged in the catch block below
-                    throw new Exception(
-                        String.format(
-                            "%s: Failed to create or update entry for region %s key %s value %s callbackArg %s",
-                            new Object[] {serverConnection.getName(), regionName,
-                                key, valuePart, callbackArg}));
-                  }
+                if (result || clientEvent.isConcurrencyConflict()) {
+                  context.setModificationInfo(partNumber, regionName, key);
+                  stats.incCreateRequest();
+                  retry = false;
+                } else {
+                  // This exception will be logged in the catch block below
+                  throw new Exception(
+                      String.format(
+                          "%s: Failed to create or update entry for region %s key %s value %s callbackArg %s",
+                          new Object[] {serverConnection.getName(), regionName,
+                              key, valuePart, callbackArg}));
+                }
+              }
+            } catch (Exception e) {
+              logger.warn(String.format(
+                  "%s: Caught exception processing batch create request %s for %s events",
+                  new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
+                      Integer.valueOf(numberOfEvents)}),
+                  e);
+              handleException(removeOnException, stats, e);
+            }
+            break;
+          case 1: // Update
+            try {
+              /*
+               * CLIENT EXCEPTION HANDLING TESTING CODE keySt = (String) key;
+               * System.out.println("Processing updated key: " + key); if
+               * (keySt.startsWith("failure")) { throw new Exception(LocalizedStrings
+               * .ProcessBatch_THIS_EXCEPTION_REPRESENTS_A_FAILURE_ON_THE_SERVER
+               * )); }
+               */
+
+              // Retrieve the value from the message parts (do not deserialize it)
+              valuePart = batchMessage.getPart(partNumber + 5);
+              // try {
+              // logger.warn(getName() + ": Updating key " + key + " value " +
+              // valuePart.getObject());
+              // } catch (Exception e) {}
+
+              // Retrieve the callbackArg from the message parts if necessary
+              index = partNumber + 6;
+              callbackArgExistsPart = batchMessage.getPart(index++);
+              {
+                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+                callbackArgExists = partBytes[0] == 0x01;
+              }
+              if (callbackArgExists) {
+                callbackArgPart = batchMessage.getPart(index++);
+                try {
+                  callbackArg = callbackArgPart.getObject();
+                } catch (Exception e) {
+                  logger
+                      .warn(
+                          String.format(
+                              "%s: Caught exception processing batch update request %s containing %s events",
+                              new Object[] {serverConnection.getName(),
+                                  Integer.valueOf(batchId),
+                                  Integer.valueOf(numberOfEvents)}),
+                          e);
+                  throw e;
                 }
-              } catch (Exception e) {
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch create request %s for %s events",
-                    new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
-                        Integer.valueOf(numberOfEvents)}),
-                    e);
-                handleException(removeOnException, stats, e);
               }
-              break;
-            case 1: // Update
-              try {
-                /*
-                 * CLIENT EXCEPTION HANDLING TESTING CODE keySt = (String) key;
-                 * System.out.println("Processing updated key: " + key); if
-                 * (keySt.startsWith("failure")) { throw new Exception(LocalizedStrings
-                 * .ProcessBatch_THIS_EXCEPTION_REPRESENTS_A_FAILURE_ON_THE_SERVER
-                 * )); }
-                 */
-
-                // Retrieve the value from the message parts (do not deserialize it)
-                valuePart = clientMessage.getPart(partNumber + 5);
-                // try {
-                // logger.warn(getName() + ": Updating key " + key + " value " +
-                // valuePart.getObject());
-                // } catch (Exception e) {}
-
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 6;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-                {
-                  byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                  callbackArgExists = partBytes[0] == 0x01;
+              versionTimeStamp = batchMessage.getPart(index++).getLong();
+              if (logger.isDebugEnabled()) {
+                logger.debug(
+                    "{}: Processing batch update request {} on {} for region {} key {} value {} callbackArg {}",
+                    serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                    regionName, key, valuePart, callbackArg);
+              }
+              // Process the update request
+              if (key == null || regionName == null) {
+                String message = null;
+                Object[] messageArgs =
+                    new Object[] {serverConnection.getName(), Integer.valueOf(batchId)};
+                if (key == null) {
+                  message =
+                      "%s: The input key for the batch update request %s is null";
                 }
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  try {
-                    callbackArg = callbackArgPart.getObject();
-                  } catch (Exception e) {
-                    logger
-                        .warn(
-                            String.format(
-                                "%s: Caught exception processing batch update request %s containing %s events",
-                                new Object[] {serverConnection.getName(),
-                                    Integer.valueOf(batchId),
-                                    Integer.valueOf(numberOfEvents)}),
-                            e);
-                    throw e;
-                  }
+                if (regionName == null) {
+                  message =
+                      "%s: The input region name for the batch update request %s is null";
                 }
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                if (logger.isDebugEnabled()) {
-                  logger.debug(
-                      "{}: Processing batch update request {} on {} for region {} key {} value {} callbackArg {}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key, valuePart, callbackArg);
+                String s = String.format(message, messageArgs);
+                logger.warn(s);
+                throw new Exception(s);
+              }
+              region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+              if (region == null) {
+                handleRegionNull(serverConnection, regionName, batchId);
+              } else {
+                clientEvent = new EventIDHolder(eventId);
+                if (versionTimeStamp > 0) {
+                  VersionTag tag = VersionTag.create(region.getVersionMember());
+                  tag.setIsGatewayTag(true);
+                  tag.setVersionTimeStamp(versionTimeStamp);
+                  tag.setDistributedSystemId(dsid);
+                  clientEvent.setVersionTag(tag);
                 }
-                // Process the update request
-                if (key == null || regionName == null) {
-                  String message = null;
-                  Object[] messageArgs =
-                      new Object[] {serverConnection.getName(), Integer.valueOf(batchId)};
-                  if (key == null) {
-                    message =
-                        "%s: The input key for the batch update request %s is null";
-                  }
-                  if (regionName == null) {
-                    message =
-                        "%s: The input region name for the batch update request %s is null";
-                  }
-                  String s = String.format(message, messageArgs);
-                  logger.warn(s);
-                  throw new Exception(s);
+                clientEvent.setPossibleDuplicate(possibleDuplicate);
+                handleMessageRetry(region, clientEvent);
+                byte[] value = valuePart.getSerializedForm();
+                boolean isObject = valuePart.isObject();
+                AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
+                if (authzRequest != null) {
+                  PutOperationContext putContext = authzRequest.putAuthorize(regionName, key,
+                      value, isObject, callbackArg, PutOperationContext.UPDATE);
+                  value = putContext.getSerializedValue();
+                  isObject = putContext.isObject();
                 }
-                region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-                if (region == null) {
-                  handleRegionNull(serverConnection, regionName, batchId);
+                boolean result = false;
+                if (isPdxEvent) {
+                  result = addPdxType(crHelper, key, value);
                 } else {
-                  clientEvent = new EventIDHolder(eventId);
-                  if (versionTimeStamp > 0) {
-                    VersionTag tag = VersionTag.create(region.getVersionMember());
-                    tag.setIsGatewayTag(true);
-                    tag.setVersionTimeStamp(versionTimeStamp);
-                    tag.setDistributedSystemId(dsid);
-                    clientEvent.setVersionTag(tag);
-                  }
-                  clientEvent.setPossibleDuplicate(possibleDuplicate);
-                  handleMessageRetry(region, clientEvent);
-                  byte[] value = valuePart.getSerializedForm();
-                  boolean isObject = valuePart.isObject();
-                  AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
-                  if (authzRequest != null) {
-                    PutOperationContext putContext = authzRequest.putAuthorize(regionName, key,
-                        value, isObject, callbackArg, PutOperationContext.UPDATE);
-                    value = putContext.getSerializedValue();
-                    isObject = putContext.isObject();
-                  }
-                  boolean result = false;
-                  if (isPdxEvent) {
-                    result = addPdxType(crHelper, key, value);
-                  } else {
-                    result = region.basicBridgePut(key, value, null, isObject, callbackArg,
-                        serverConnection.getProxyID(), false, clientEvent);
-                  }
-                  if (result || clientEvent.isConcurrencyConflict()) {
-                    serverConnection.setModificationInfo(true, regionName, key);
-                    stats.incUpdateRequest();
-                    retry = false;
-                  } else {
-                    final Object[] msgArgs = new Object[] {serverConnection.getName(), regionName,
-                        key, valuePart, callbackArg};
-                    final String message =
-                        "%s: Failed to update entry for region %s, key %s, value %s, and callbackArg %s";
-                    String s = String.format(message, msgArgs);
-                    logger.info(s);
-                    throw new Exception(s);
-                  }
+                  result = region.basicBridgePut(key, value, null, isObject, callbackArg,
+                      serverConnection.getProxyID(), false, clientEvent);
                 }
-              } catch (Exception e) {
-                // Preserve the connection under all circumstances
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch update request %s containing %s events",
-                    new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
-                        Integer.valueOf(numberOfEvents)}),
-                    e);
-                handleException(removeOnException, stats, e);
-              }
-              break;
-            case 2: // Destroy
-              try {
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 5;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-                {
-                  byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                  callbackArgExists = partBytes[0] == 0x01;
+                if (result || clientEvent.isConcurrencyConflict()) {
+                  context.setModificationInfo(partNumber, regionName, key);
+                  stats.incUpdateRequest();
+                  retry = false;
+                } else {
+                  final Object[] msgArgs = new Object[] {serverConnection.getName(), regionName,
+                      key, valuePart, callbackArg};
+                  final String message =
+                      "%s: Failed to update entry for region %s, key %s, value %s, and callbackArg %s";
+                  String s = String.format(message, msgArgs);
+                  logger.info(s);
+                  throw new Exception(s);
                 }
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  try {
-                    callbackArg = callbackArgPart.getObject();
-                  } catch (Exception e) {
-                    logger
-                        .warn(
-                            String.format(
-                                "%s: Caught exception processing batch destroy request %s containing %s events",
-                                new Object[] {serverConnection.getName(),
-                                    Integer.valueOf(batchId),
-                                    Integer.valueOf(numberOfEvents)}),
-                            e);
-                    throw e;
-                  }
+              }
+            } catch (Exception e) {
+              // Preserve the connection under all circumstances
+              logger.warn(String.format(
+                  "%s: Caught exception processing batch update request %s containing %s events",
+                  new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
+                      Integer.valueOf(numberOfEvents)}),
+                  e);
+              handleException(removeOnException, stats, e);
+            }
+            break;
+          case 2: // Destroy
+            try {
+              // Retrieve the callbackArg from the message parts if necessary
+              index = partNumber + 5;
+              callbackArgExistsPart = batchMessage.getPart(index++);
+              {
+                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+                callbackArgExists = partBytes[0] == 0x01;
+              }
+              if (callbackArgExists) {
+                callbackArgPart = batchMessage.getPart(index++);
+                try {
+                  callbackArg = callbackArgPart.getObject();
+                } catch (Exception e) {
+                  logger
+                      .warn(
+                          String.format(
+                              "%s: Caught exception processing batch destroy request %s containing %s events",
+                              new Object[] {serverConnection.getName(),
+                                  Integer.valueOf(batchId),
+                                  Integer.valueOf(numberOfEvents)}),
+                          e);
+                  throw e;
                 }
+              }
 
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                if (logger.isDebugEnabled()) {
-                  logger.debug("{}: Processing batch destroy request {} on {} for region {} key {}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key);
-                }
+              versionTimeStamp = batchMessage.getPart(index++).getLong();
+              if (logger.isDebugEnabled()) {
+                logger.debug("{}: Processing batch destroy request {} on {} for region {} key {}",
+                    serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                    regionName, key);
+              }
 
-                // Process the destroy request
-                if (key == null || regionName == null) {
-                  String message = null;
-                  if (key == null) {
-                    message =
-                        "%s: The input key for the batch destroy request %s is null";
-                  }
-                  if (regionName == null) {
-                    message =
-                        "%s: The input region name for the batch destroy request %s is null";
-                  }
-                  Object[] messageArgs =
-                      new Object[] {serverConnection.getName(), Integer.valueOf(batchId)};
-                  String s = String.format(message, messageArgs);
-                  logger.warn(s);
-                  throw new Exception(s);
+              // Process the destroy request
+              if (key == null || regionName == null) {
+                String message = null;
+                if (key == null) {
+                  message =
+                      "%s: The input key for the batch destroy request %s is null";
+                }
+                if (regionName == null) {
+                  message =
+                      "%s: The input region name for the batch destroy request %s is null";
+                }
+                Object[] messageArgs =
+                    new Object[] {serverConnection.getName(), Integer.valueOf(batchId)};
+                String s = String.format(message, messageArgs);
+                logger.warn(s);
+                throw new Exception(s);
+              }
+              region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+              if (region == null) {
+                handleRegionNull(serverConnection, regionName, batchId);
+              } else {
+                clientEvent = new EventIDHolder(eventId);
+                if (versionTimeStamp > 0) {
+                  VersionTag tag = VersionTag.create(region.getVersionMember());
+                  tag.setIsGatewayTag(true);
+                  tag.setVersionTimeStamp(versionTimeStamp);
+                  tag.setDistributedSystemId(dsid);
+                  clientEvent.setVersionTag(tag);
                 }
+                handleMessageRetry(region, clientEvent);
+                // Destroy the entry
+                AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
+                if (authzRequest != null) {
+                  DestroyOperationContext destroyContext =
+                      authzRequest.destroyAuthorize(regionName, key, callbackArg);
+                  callbackArg = destroyContext.getCallbackArg();
+                }
+                try {
+                  region.basicBridgeDestroy(key, callbackArg, serverConnection.getProxyID(),
+                      false, clientEvent);
+                  context.setModificationInfo(partNumber, regionName, key);
+                } catch (EntryNotFoundException e) {
+                  logger.info("{}: during batch destroy no entry was found for key {}",
+                      new Object[] {serverConnection.getName(), key});
+                  // throw new Exception(e);
+                }
+                stats.incDestroyRequest();
+                retry = false;
+              }
+            } catch (Exception e) {
+              logger.warn(String.format(
+                  "%s: Caught exception processing batch destroy request %s containing %s events",
+                  new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
+                      Integer.valueOf(numberOfEvents)}),
+                  e);
+              handleException(removeOnException, stats, e);
+            }
+            break;
+          case 3: // Update Time-stamp for a RegionEntry
+
+            try {
+              // Region name
+              regionNamePart = batchMessage.getPart(partNumber + 2);
+              regionName = regionNamePart.getString();
+
+              // Retrieve the event id from the message parts
+              eventIdPart = batchMessage.getPart(partNumber + 3);
+              eventId = (EventID) eventIdPart.getObject();
+
+              // Retrieve the key from the message parts
+              keyPart = batchMessage.getPart(partNumber + 4);
+              key = keyPart.getStringOrObject();
+
+              // Retrieve the callbackArg from the message parts if necessary
+              index = partNumber + 5;
+              callbackArgExistsPart = batchMessage.getPart(index++);
+
+              byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+              callbackArgExists = partBytes[0] == 0x01;
+
+              if (callbackArgExists) {
+                callbackArgPart = batchMessage.getPart(index++);
+                callbackArg = callbackArgPart.getObject();
+              }
+
+              versionTimeStamp = batchMessage.getPart(index++).getLong();
+              if (logger.isDebugEnabled()) {
+                logger.debug(
+                    "{}: Processing batch update-version request {} on {} for region {} key {} value {} callbackArg {}",
+                    serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                    regionName, key, valuePart, callbackArg);
+              }
+              // Process the update time-stamp request
+              if (key == null || regionName == null) {
+                String message =
+                    "%s: Caught exception processing batch update version request request %s containing %s events";
+
+                Object[] messageArgs = new Object[] {serverConnection.getName(),
+                    Integer.valueOf(batchId), Integer.valueOf(numberOfEvents)};
+                String s = String.format(message, messageArgs);
+                logger.warn(s);
+                throw new Exception(s);
+
+              } else {
                 region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+
                 if (region == null) {
                   handleRegionNull(serverConnection, regionName, batchId);
                 } else {
+
                   clientEvent = new EventIDHolder(eventId);
+
                   if (versionTimeStamp > 0) {
                     VersionTag tag = VersionTag.create(region.getVersionMember());
                     tag.setIsGatewayTag(true);
@@ -557,212 +748,390 @@ public class GatewayReceiverCommand extends BaseCommand {
                     tag.setDistributedSystemId(dsid);
                     clientEvent.setVersionTag(tag);
                   }
-                  handleMessageRetry(region, clientEvent);
-                  // Destroy the entry
-                  AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
-                  if (authzRequest != null) {
-                    DestroyOperationContext destroyContext =
-                        authzRequest.destroyAuthorize(regionName, key, callbackArg);
-                    callbackArg = destroyContext.getCallbackArg();
-                  }
+
+                  // Update the version tag
                   try {
-                    region.basicBridgeDestroy(key, callbackArg, serverConnection.getProxyID(),
-                        false, clientEvent);
-                    serverConnection.setModificationInfo(true, regionName, key);
+                    region.basicBridgeUpdateVersionStamp(key, callbackArg,
+                        serverConnection.getProxyID(), false, clientEvent);
                   } catch (EntryNotFoundException e) {
-                    logger.info("{}: during batch destroy no entry was found for key {}",
+                    logger.info(
+                        "Entry for key {} was not found in Region {} during ProcessBatch for Update Entry Version",
                         new Object[] {serverConnection.getName(), key});
-                    // throw new Exception(e);
                   }
-                  stats.incDestroyRequest();
                   retry = false;
                 }
-              } catch (Exception e) {
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch destroy request %s containing %s events",
-                    new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
-                        Integer.valueOf(numberOfEvents)}),
-                    e);
-                handleException(removeOnException, stats, e);
               }
-              break;
-            case 3: // Update Time-stamp for a RegionEntry
-
-              try {
-                // Region name
-                regionNamePart = clientMessage.getPart(partNumber + 2);
-                regionName = regionNamePart.getString();
-
-                // Retrieve the event id from the message parts
-                eventIdPart = clientMessage.getPart(partNumber + 3);
-                eventId = (EventID) eventIdPart.getObject();
+            } catch (Exception e) {
+              logger.warn(String.format(
+                  "%s: Caught exception processing batch update version request request %s containing %s events",
+                  new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
+                      Integer.valueOf(numberOfEvents)}),
+                  e);
+              handleException(removeOnException, stats, e);
+            }
 
-                // Retrieve the key from the message parts
-                keyPart = clientMessage.getPart(partNumber + 4);
-                key = keyPart.getStringOrObject();
+            break;
+          default:
+            logger.fatal("{}: Unknown action type ({}) for batch from {}",
+                new Object[] {serverConnection.getName(), Integer.valueOf(actionType),
+                    serverConnection.getSocketString()});
+            stats.incUnknowsOperationsReceived();
+        }
+      } while (retry);
+    } catch (CancelException e) {
+      context.cancel(e);
+      return false;
+    } catch (Exception e) {
+      // If an interrupted exception is thrown , rethrow it
+      if (context.isServerConnectionThread()) {
+        checkForInterrupt(serverConnection, e);
+      } else if (e instanceof InterruptedException || e instanceof InterruptedIOException
+          || crHelper.getCacheForGatewayCommand().getCancelCriterion().isCancelInProgress()) {
+        // The server connection thread rethrows it once the other threads are done
+        context.interrupt(e);
+        return false;
+      }
 
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 5;
-                callbackArgExistsPart = clientMessage.getPart(index++);
+      // If we have an issue with the PDX registry, stop processing more data
+      if (e.getCause() instanceof PdxRegistryMismatchException) {
+        context.fatalException = e.getCause();
+        logger.fatal(String.format(
+            "This gateway receiver has received a PDX type from %s that does match the existing PDX type. This gateway receiver will not process any more events, in order to prevent receiving objects which may not be deserializable.",
+            new Object[] {serverConnection.getMembershipID()}), e.getCause());
+        context.stop();
+        return false;
+      }
 
-                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                callbackArgExists = partBytes[0] == 0x01;
+      // Increment the batch id unless the received batch id is -1 (a
+      // failover batch)
+      DistributedSystem ds = crHelper.getCacheForGatewayCommand().getDistributedSystem();
+      String exceptionMessage = String.format(
+          "Exception occurred while processing a batch on the receiver running on DistributedSystem with Id: %s, DistributedMember on which the receiver is running: %s",
+          new Object[] {
+              ((InternalDistributedSystem) ds).getDistributionManager().getDistributedSystemId(),
+              ds.getDistributedMember()});
+      BatchException70 be =
+          new BatchException70(exceptionMessage, e, indexWithoutPDXEvent, batchId);
+      context.exceptions.add(be);
+    }
+    return true;
+  }
 
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  callbackArg = callbackArgPart.getObject();
-                }
+  /**
+   * Applies the events of a batch. Unless parallel application is enabled, the events are applied
+   * in order on the calling thread. Otherwise PDX types are registered first and the remaining
+   * events are partitioned by key, so that the events for one key are applied in order by the same
+   * thread.
+   *
+   * @return the number of threads the events were applied by
+   */
+  private int applyEvents(BatchContext context, List<BatchEvent> events)
+      throws IOException, InterruptedException {
+    int threads = Math.min(BATCH_APPLY_THREADS, events.size());
+    ExecutorService executor = null;
+    if (threads > 1 && events.size() >= MINIMUM_PARALLEL_BATCH_SIZE) {
+      executor = context.serverConnection.getAcceptor().getBatchApplyPool(BATCH_APPLY_THREADS);
+    }
+    if (executor == null) {
+      applyEventsInOrder(context, events);
+      return 1;
+    }
 
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                if (logger.isDebugEnabled()) {
-                  logger.debug(
-                      "{}: Processing batch update-version request {} on {} for region {} key {} value {} callbackArg {}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key, valuePart, callbackArg);
-                }
-                // Process the update time-stamp request
-                if (key == null || regionName == null) {
-                  String message =
-                      "%s: Caught exception processing batch update version request request %s containing %s events";
-
-                  Object[] messageArgs = new Object[] {serverConnection.getName(),
-                      Integer.valueOf(batchId), Integer.valueOf(numberOfEvents)};
-                  String s = String.format(message, messageArgs);
-                  logger.warn(s);
-                  throw new Exception(s);
+    List<List<BatchEvent>> partitions = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      partitions.add(new ArrayList<>());
+    }
+    for (BatchEvent event : events) {
+      if (event.isPdxEvent) {
+        // The types must be known before the events using them are applied
+        if (!applyEvent(context, event)) {
+          return 1;
+        }
+      } else {
+        partitions.get((event.keyHash & Integer.MAX_VALUE) % threads).add(event);
+      }
+    }
 
-                } else {
-                  region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-
-                  if (region == null) {
-                    handleRegionNull(serverConnection, regionName, batchId);
-                  } else {
-
-                    clientEvent = new EventIDHolder(eventId);
-
-                    if (versionTimeStamp > 0) {
-                      VersionTag tag = VersionTag.create(region.getVersionMember());
-                      tag.setIsGatewayTag(true);
-                      tag.setVersionTimeStamp(versionTimeStamp);
-                      tag.setDistributedSystemId(dsid);
-                      clientEvent.setVersionTag(tag);
-                    }
-
-                    // Update the version tag
-                    try {
-                      region.basicBridgeUpdateVersionStamp(key, callbackArg,
-                          serverConnection.getProxyID(), false, clientEvent);
-                    } catch (EntryNotFoundException e) {
-                      logger.info(
-                          "Entry for key {} was not found in Region {} during ProcessBatch for Update Entry Version",
-                          new Object[] {serverConnection.getName(), key});
-                    }
-                    retry = false;
-                  }
-                }
-              } catch (Exception e) {
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch update version request request %s containing %s events",
-                    new Object[] {serverConnection.getName(), Integer.valueOf(batchId),
-                        Integer.valueOf(numberOfEvents)}),
-                    e);
-                handleException(removeOnException, stats, e);
-              }
+    // Apply one partition on this thread and hand the others to the executor
+    List<BatchEvent> localPartition = null;
+    List<Future<?>> futures = new ArrayList<>(threads - 1);
+    for (List<BatchEvent> partition : partitions) {
+      if (partition.isEmpty()) {
+        continue;
+      }
+      if (localPartition == null) {
+        localPartition = partition;
+      } else {
+        futures.add(executor.submit(() -> {
+          // Authorize the events as the subject bound to the server connection thread
+          ThreadState threadState =
+              context.subject == null ? null : context.securityService.bindSubject(context.subject);
+          try {
+            applyEventsInOrder(context, partition);
+          } finally {
+            if (threadState != null) {
+              threadState.clear();
+            }
+          }
+          return null;
+        }));
+      }
+    }
+    Throwable failure = null;
+    try {
+      if (localPartition != null) {
+        applyEventsInOrder(context, localPartition);
+      }
+    } catch (IOException | InterruptedException | RuntimeException | Error e) {
+      failure = e;
+      context.stop();
+    } finally {
+      // No reply may be sent while other threads are still applying events of the batch
+      failure = awaitPartitions(context, futures, failure);
+    }
+    if (failure != null) {
+      if (failure instanceof IOException) {
+        throw (IOException) failure;
+      } else if (failure instanceof InterruptedException) {
+        throw (InterruptedException) failure;
+      } else if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      } else if (failure instanceof Error) {
+        throw (Error) failure;
+      }
+      throw new InternalGemFireException(failure);
+    }
+    if (context.interruptException != null) {
+      checkForInterrupt(context.serverConnection, context.interruptException);
+    }
+    return futures.size() + (localPartition == null ? 0 : 1);
+  }
 
-              break;
-            default:
-              logger.fatal("{}: Unknown action type ({}) for batch from {}",
-                  new Object[] {serverConnection.getName(), Integer.valueOf(actionType),
-                      serverConnection.getSocketString()});
-              stats.incUnknowsOperationsReceived();
+  /**
+   * Waits for every partition handed to the executor to be applied, even once one of them has
+   * failed, or this thread has been interrupted.
+   *
+   * @param failure the first failure seen so far, if any
+   * @return the first failure seen, if any
+   */
+  private Throwable awaitPartitions(BatchContext context, List<Future<?>> futures,
+      Throwable failure) {
+    for (Future<?> future : futures) {
+      boolean done = false;
+      while (!done) {
+        try {
+          future.get();
+          done = true;
+        } catch (InterruptedException e) {
+          // Keep waiting, the interrupt is rethrown once all the partitions are done
+          if (failure == null) {
+            failure = e;
           }
-        } while (retry);
-      } catch (CancelException e) {
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              "{} ignoring message of type {} from client {} because shutdown occurred during message processing.",
-              serverConnection.getName(), MessageType.getString(clientMessage.getMessageType()),
-              serverConnection.getProxyID());
+          context.stop();
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+          context.stop();
+          done = true;
         }
-        serverConnection.setFlagProcessMessagesAsFalse();
-        serverConnection.setClientDisconnectedException(e);
+      }
+    }
+    return failure;
+  }
+
+  private void applyEventsInOrder(BatchContext context, List<BatchEvent> events)
+      throws IOException, InterruptedException {
+    for (BatchEvent event : events) {
+      if (context.isStopped() || !applyEvent(context, event)) {
         return;
-      } catch (Exception e) {
-        // If an interrupted exception is thrown , rethrow it
-        checkForInterrupt(serverConnection, e);
+      }
+    }
+  }
 
-        // If we have an issue with the PDX registry, stop processing more data
-        if (e.getCause() instanceof PdxRegistryMismatchException) {
-          fatalException = e.getCause();
-          logger.fatal(String.format(
-              "This gateway receiver has received a PDX type from %s that does match the existing PDX type. This gateway receiver will not process any more events, in order to prevent receiving objects which may not be deserializable.",
-              new Object[] {serverConnection.getMembershipID()}), e.getCause());
-          break;
+  /**
+   * Locates the events of a batch without deserializing them.
+   *
+   * @param batchMessage the message containing the event parts
+   * @param partNumber the number of the first part of the first event
+   * @param numberOfEvents the number of events in the batch
+   */
+  private static List<BatchEvent> getBatchEvents(Message batchMessage, int partNumber,
+      int numberOfEvents) {
+    List<BatchEvent> events = new ArrayList<>(numberOfEvents);
+    // event received in batch also have PDX events at the start of the batch,to
+    // represent correct index on which the exception occurred, number of PDX
+    // events need to be subtracted.
+    int numberOfPdxEvents = 0;
+    for (int i = 0; i < numberOfEvents; i++) {
+      int actionType = batchMessage.getPart(partNumber).getInt();
+      BatchEvent event = new BatchEvent(partNumber, actionType, i - numberOfPdxEvents);
+      if (actionType >= 0 && actionType <= 3) {
+        event.isPdxEvent = PeerTypeRegistration.REGION_FULL_PATH
+            .equals(batchMessage.getPart(partNumber + 2).getString());
+        event.keyHash = Arrays.hashCode(batchMessage.getPart(partNumber + 4).getSerializedForm());
+        if (event.isPdxEvent) {
+          numberOfPdxEvents++;
         }
+      }
+      events.add(event);
 
-        // Increment the batch id unless the received batch id is -1 (a
-        // failover batch)
-        DistributedSystem ds = crHelper.getCacheForGatewayCommand().getDistributedSystem();
-        String exceptionMessage = String.format(
-            "Exception occurred while processing a batch on the receiver running on DistributedSystem with Id: %s, DistributedMember on which the receiver is running: %s",
-            new Object[] {
-                ((InternalDistributedSystem) ds).getDistributionManager().getDistributedSystemId(),
-                ds.getDistributedMember()});
-        BatchException70 be =
-            new BatchException70(exceptionMessage, e, indexWithoutPDXEvent, batchId);
-        exceptions.add(be);
-      } finally {
-        // Increment the partNumber
-        if (actionType == 0 /* create */ || actionType == 1 /* update */) {
-          if (callbackArgExists) {
-            partNumber += 9;
-          } else {
-            partNumber += 8;
-          }
-        } else if (actionType == 2 /* destroy */) {
-          if (callbackArgExists) {
-            partNumber += 8;
-          } else {
-            partNumber += 7;
-          }
-        } else if (actionType == 3 /* update-version */) {
-          if (callbackArgExists) {
-            partNumber += 8;
-          } else {
-            partNumber += 7;
-          }
-        }
+      // Increment the partNumber
+      if (actionType == 0 /* create */ || actionType == 1 /* update */) {
+        partNumber += callbackArgExists(batchMessage, partNumber + 6) ? 9 : 8;
+      } else if (actionType == 2 /* destroy */ || actionType == 3 /* update-version */) {
+        partNumber += callbackArgExists(batchMessage, partNumber + 5) ? 8 : 7;
       }
     }
+    return events;
+  }
 
-    {
-      long oldStart = start;
-      start = DistributionStats.getStatTime();
-      stats.incProcessBatchTime(start - oldStart);
+  private static boolean callbackArgExists(Message batchMessage, int partNumber) {
+    return batchMessage.getPart(partNumber).getSerializedForm()[0] == 0x01;
+  }
+
+  /**
+   * An event of a batch and the number of its first part in the batch message.
+   */
+  private static class BatchEvent {
+
+    private final int partNumber;
+
+    private final int actionType;
+
+    /** The index of this event not counting the PDX events preceding it */
+    private final int indexWithoutPDXEvent;
+
+    private boolean isPdxEvent;
+
+    /** The hash of the serialized key, used to apply the events for one key on one thread */
+    private int keyHash;
+
+    BatchEvent(int partNumber, int actionType, int indexWithoutPDXEvent) {
+      this.partNumber = partNumber;
+      this.actionType = actionType;
+      this.indexWithoutPDXEvent = indexWithoutPDXEvent;
     }
-    if (fatalException != null) {
-      serverConnection.incrementLatestBatchIdReplied(batchId);
-      writeFatalException(clientMessage, fatalException, serverConnection, batchId);
-      serverConnection.setAsTrue(RESPONDED);
-    } else if (!exceptions.isEmpty()) {
-      serverConnection.incrementLatestBatchIdReplied(batchId);
-      writeBatchException(clientMessage, exceptions, serverConnection, batchId);
-      serverConnection.setAsTrue(RESPONDED);
-    } else {
-      // Increment the batch id unless the received batch id is -1 (a failover
-      // batch)
-      serverConnection.incrementLatestBatchIdReplied(batchId);
+  }
 
-      writeReply(clientMessage, serverConnection, batchId, numberOfEvents);
-      serverConnection.setAsTrue(RESPONDED);
-      stats.incWriteProcessBatchResponseTime(DistributionStats.getStatTime() - start);
-      if (logger.isDebugEnabled()) {
-        logger.debug(
-            "{}: Sent process batch normal response for batch {} containing {} events ({} bytes) with {} acknowledgement on {}",
-            serverConnection.getName(), batchId, numberOfEvents, clientMessage.getPayloadLength(),
-            "normal", serverConnection.getSocketString());
+  /**
+   * The state shared by the threads applying the events of one batch. The server connection is not
+   * thread safe, so the other threads only read from it, and leave anything to be set on it to the
+   * server connection thread.
+   */
+  private static class BatchContext {
+
+    private final Message batchMessage;
+
+    private final ServerConnection serverConnection;
+
+    private final Thread serverConnectionThread = Thread.currentThread();
+
+    private final SecurityService securityService;
+
+    /** The subject bound to the server connection thread, if any */
+    private final Subject subject;
+
+    private final GatewayReceiverStats stats;
+
+    private final int batchId;
+
+    private final int numberOfEvents;
+
+    private final int dsid;
+
+    private final boolean removeOnException;
+
+    private final List<BatchException70> exceptions =
+        Collections.synchronizedList(new ArrayList<>());
+
+    private volatile Throwable fatalException;
+
+    private volatile CancelException cancelException;
+
+    private volatile Exception interruptException;
+
+    private volatile boolean stopped;
+
+    /** The part number of the last event that modified an entry, and the entry it modified */
+    private int modPartNumber = -1;
+
+    private String modRegion;
+
+    private Object modKey;
+
+    BatchContext(Message batchMessage, ServerConnection serverConnection,
+        SecurityService securityService, GatewayReceiverStats stats, int batchId,
+        int numberOfEvents, int dsid, boolean removeOnException) {
+      this.batchMessage = batchMessage;
+      this.serverConnection = serverConnection;
+      this.securityService = securityService;
+      this.subject = securityService.isIntegratedSecurity() ? ThreadContext.getSubject() : null;
+      this.stats = stats;
+      this.batchId = batchId;
+      this.numberOfEvents = numberOfEvents;
+      this.dsid = dsid;
+      this.removeOnException = removeOnException;
+    }
+
+    void cancel(CancelException e) {
+      this.cancelException = e;
+      stop();
+    }
+
+    /**
+     * Records an interrupt or cancellation seen by a thread other than the server connection
+     * thread, and stops the batch.
+     */
+    void interrupt(Exception e) {
+      if (this.interruptException == null) {
+        this.interruptException = e;
+      }
+      stop();
+    }
+
+    void stop() {
+      this.stopped = true;
+    }
+
+    boolean isServerConnectionThread() {
+      return Thread.currentThread() == this.serverConnectionThread;
+    }
+
+    /**
+     * Records that the event with the given part number modified an entry, unless a later event of
+     * the batch already did.
+     */
+    synchronized void setModificationInfo(int partNumber, String regionName, Object key) {
+      if (partNumber > this.modPartNumber) {
+        this.modPartNumber = partNumber;
+        this.modRegion = regionName;
+        this.modKey = key;
+      }
+    }
+
+    /**
+     * Sets the entry modified by the last event of the batch that modified one on the server
+     * connection. Called by the server connection thread once the batch is applied.
+     */
+    synchronized void applyModificationInfo() {
+      if (this.modPartNumber >= 0) {
+        this.serverConnection.setModificationInfo(true, this.modRegion, this.modKey);
       }
     }
+
+    boolean isStopped() {
+      return this.stopped;
+    }
+
+    /**
+     * Returns the exceptions that occurred, ordered by the index of the failed event.
+     */
+    List<BatchException70> getExceptions() {
+      List<BatchException70> result = new ArrayList<>(this.exceptions);
+      result.sort(Comparator.comparingInt(BatchException70::getIndex));
+      return result;
+    }
   }
 
   private boolean addPdxType(CachedRegionHelper crHelper, Object key, Object value)
@@ -192,6 +192,48 @@ public abstract class AbstractGatewaySender implements InternalGatewaySender, Di
   public static int TOKEN_TIMEOUT =
       Integer.getInteger("GatewaySender.TOKEN_TIMEOUT", 120000).intValue();
 
+  /**
+   * The maximum number of batches a dispatcher may have sent to the remote site without having
+   * received their acknowledgements. Once reached, the dispatcher stops peeking new batches until
+   * an acknowledgement arrives. A value of 0 or less (the default) means no limit.
+   */
+  public static int MAXIMUM_IN_FLIGHT_BATCHES =
+      Integer.getInteger("GatewaySender.MAXIMUM_IN_FLIGHT_BATCHES", 0).intValue();
+
+  /**
+   * Whether batches sent to remote sites are compressed as a whole. Only used when the remote site
+   * is able to decompress them.
+   */
+  public static boolean COMPRESS_BATCHES = Boolean.getBoolean("GatewaySender.COMPRESS_BATCHES");
+
+  /**
+   * Whether the number of events peeked per batch is adapted to the load. The configured batch size
+   * is the upper bound of the adapted batch size.
+   */
+  public static boolean ADAPTIVE_BATCH_SIZE =
+      Boolean.getBoolean("GatewaySender.ADAPTIVE_BATCH_SIZE");
+
+  /**
+   * The lower bound of the adapted batch size.
+   */
+  public static int MINIMUM_ADAPTIVE_BATCH_SIZE =
+      Integer.getInteger("GatewaySender.MINIMUM_ADAPTIVE_BATCH_SIZE", 1).intValue();
+
+  /**
+   * The time in milliseconds the remote site (or the listener) should take at most to process a
+   * batch. The adapted batch size is decreased while batches take longer.
+   */
+  public static int ADAPTIVE_BATCH_TARGET_LATENCY =
+      Integer.getInteger("GatewaySender.ADAPTIVE_BATCH_TARGET_LATENCY", 1000).intValue();
+
+  /**
+   * The number of threads invoking the <code>AsyncEventListener</code>s of a dispatcher
+   * concurrently. If greater than one, each batch is partitioned by key, so that the events for one
+   * key are still processed in order, and the listeners must be thread safe.
+   */
+  public static int LISTENER_THREADS =
+      Integer.getInteger("GatewaySender.LISTENER_THREADS", 1).intValue();
+
   /**
    * The name of the DistributedLockService used when accessing the GatewaySender's meta data
    * region.
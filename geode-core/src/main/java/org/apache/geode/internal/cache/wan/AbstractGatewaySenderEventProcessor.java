@@ -18,10 +18,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
@@ -118,10 +120,26 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   /*
    * The batchIdToEventsMap contains a mapping between batch id and an array of events. The first
    * element of the array is the list of events peeked from the queue. The second element of the
-   * array is the list of filtered events. These are the events actually sent.
+   * array is the list of filtered events. These are the events actually sent. The map is ordered by
+   * dispatch, so its first entry is always the oldest batch awaiting acknowledgement.
    */
   private Map<Integer, List<GatewaySenderEventImpl>[]> batchIdToEventsMap =
-      Collections.synchronizedMap(new HashMap<Integer, List<GatewaySenderEventImpl>[]>());
+      Collections.synchronizedMap(new LinkedHashMap<Integer, List<GatewaySenderEventImpl>[]>());
+
+  /*
+   * The ids of the batches that have been acknowledged but are still waiting for an older batch to
+   * be acknowledged. The queue removes events from the head of its peeked events, so batches are
+   * only removed from the queue in the order in which they were dispatched. Guarded by the
+   * batchIdToEventsMap.
+   */
+  private final Set<Integer> acknowledgedBatchIds = new HashSet<Integer>();
+
+  /**
+   * The interval in milliseconds between checks of the stopped and reset state while waiting for
+   * the number of in flight batches to drop below {@link
+   * AbstractGatewaySender#MAXIMUM_IN_FLIGHT_BATCHES}.
+   */
+  private static final long IN_FLIGHT_BATCHES_WAIT_INTERVAL = 100;
   private Map<Integer, List<GatewaySenderEventImpl>> batchIdToPDXEventsMap =
       Collections.synchronizedMap(new HashMap<Integer, List<GatewaySenderEventImpl>>());
 
@@ -141,16 +159,26 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   /**
    * The batchSize is the batch size being used by this processor. By default, it is the configured
    * batch size of the GatewaySender. It may be automatically reduced if a MessageTooLargeException
-   * occurs.
+   * occurs, and is adapted to the load if adaptive batching is enabled.
    */
   private int batchSize;
 
+  /**
+   * Adapts the batch size to the load. Null unless adaptive batching is enabled.
+   */
+  private AdaptiveBatchSizeController batchSizeController;
+
   public AbstractGatewaySenderEventProcessor(String string,
       GatewaySender sender, ThreadsMonitoring tMonitoring) {
     super(string);
     this.sender = (AbstractGatewaySender) sender;
     this.batchSize = sender.getBatchSize();
     this.threadMonitoring = tMonitoring;
+    if (AbstractGatewaySender.ADAPTIVE_BATCH_SIZE) {
+      this.batchSizeController = new AdaptiveBatchSizeController(this.sender.getStatistics(),
+          AbstractGatewaySender.MINIMUM_ADAPTIVE_BATCH_SIZE, this.batchSize,
+          AbstractGatewaySender.ADAPTIVE_BATCH_TARGET_LATENCY);
+    }
   }
 
   @Override
@@ -231,6 +259,26 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
       logger.info("Set the batch size from {} to {} events",
           new Object[] {currentBatchSize, this.batchSize});
     }
+    if (this.batchSizeController != null) {
+      this.batchSizeController.setMaximumBatchSize(this.batchSize);
+    }
+  }
+
+  /**
+   * Records the time between dispatching a batch and its successful processing by the remote site
+   * or the listener, which adaptive batching bases the batch size on.
+   */
+  public void recordBatchLatency(long latencyNanos) {
+    if (this.batchSizeController != null) {
+      this.batchSizeController.recordLatency(latencyNanos);
+    }
+  }
+
+  private int getNextBatchSize(GatewaySenderStats statistics) {
+    if (this.batchSizeController == null) {
+      return this.batchSize;
+    }
+    return this.batchSizeController.getNextBatchSize(statistics.getEventQueueSize());
   }
 
   /**
@@ -492,7 +540,8 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
                * Thread.currentThread().interrupt(); } } }
                */
             }
-            events = this.queue.peek(this.batchSize, batchTimeInterval);
+            waitForInFlightBatchesBelowMaximum();
+            events = this.queue.peek(getNextBatchSize(statistics), batchTimeInterval);
           } catch (InterruptedException e) {
             interrupted = true;
             this.sender.getCancelCriterion().checkCancelInProgress(e);
@@ -617,7 +666,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
                   (List<GatewaySenderEventImpl>[]) new List[2];
               eventsArr[0] = events;
               eventsArr[1] = filteredList;
-              this.batchIdToEventsMap.put(getBatchId(), eventsArr);
+              addInFlightBatch(getBatchId(), eventsArr);
               // find out PDX event and append it in front of the list
               pdxEventsToBeDispatched = addPDXEvent();
               eventsToBeDispatched.addAll(pdxEventsToBeDispatched);
@@ -640,9 +689,14 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
                   conflatedEventsToBeDispatched);
             }
 
+            long dispatchStart = System.nanoTime();
             boolean success = this.dispatcher.dispatchBatch(conflatedEventsToBeDispatched,
                 sender.isRemoveFromQueueOnException(), false);
             if (success) {
+              if (this.dispatcher instanceof GatewaySenderEventCallbackDispatcher) {
+                // The listener has processed the batch. Remote batches are measured on their ack.
+                recordBatchLatency(System.nanoTime() - dispatchStart);
+              }
               if (isDebugEnabled) {
                 logger.debug(
                     "During normal processing, successfully dispatched {} events (batch #{})",
@@ -899,7 +953,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   }
 
   private void resetLastPeekedEvents() {
-    this.batchIdToEventsMap.clear();
+    clearInFlightBatches();
     // make sure that when there is problem while receiving ack, pdx gateway
     // sender events isDispatched is set to false so that same events will be
     // dispatched in next batch
@@ -1007,8 +1061,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
       }
     }
 
-    List<GatewaySenderEventImpl>[] eventsArr = this.batchIdToEventsMap.remove(batchId);
-    if (eventsArr != null) {
+    for (List<GatewaySenderEventImpl>[] eventsArr : removeAcknowledgedInFlightBatches(batchId)) {
       List<GatewaySenderEventImpl> filteredEvents = eventsArr[1];
       for (GatewayEventFilter filter : sender.getGatewayEventFilters()) {
         for (GatewaySenderEventImpl event : filteredEvents) {
@@ -1030,6 +1083,88 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
     }
   }
 
+  /**
+   * Records the acknowledgement of the given batch and removes from the in flight batches every
+   * acknowledged batch that is no longer preceded by an unacknowledged one.
+   *
+   * @return the removed batches in the order in which they were dispatched
+   */
+  private List<List<GatewaySenderEventImpl>[]> removeAcknowledgedInFlightBatches(int batchId) {
+    List<List<GatewaySenderEventImpl>[]> acknowledgedBatches =
+        new ArrayList<List<GatewaySenderEventImpl>[]>();
+    synchronized (this.batchIdToEventsMap) {
+      if (!this.batchIdToEventsMap.containsKey(batchId)) {
+        return acknowledgedBatches;
+      }
+      this.acknowledgedBatchIds.add(batchId);
+      Iterator<Map.Entry<Integer, List<GatewaySenderEventImpl>[]>> iterator =
+          this.batchIdToEventsMap.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<Integer, List<GatewaySenderEventImpl>[]> entry = iterator.next();
+        if (!this.acknowledgedBatchIds.remove(entry.getKey())) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Batch #{} was acknowledged before batch #{}", batchId, entry.getKey());
+          }
+          break;
+        }
+        iterator.remove();
+        acknowledgedBatches.add(entry.getValue());
+      }
+      if (!acknowledgedBatches.isEmpty()) {
+        this.sender.getStatistics().decBatchesInFlight(acknowledgedBatches.size());
+        this.batchIdToEventsMap.notifyAll();
+      }
+    }
+    return acknowledgedBatches;
+  }
+
+  private void addInFlightBatch(int batchId, List<GatewaySenderEventImpl>[] eventsArr) {
+    if (this.batchIdToEventsMap.put(batchId, eventsArr) == null) {
+      this.sender.getStatistics().incBatchesInFlight();
+    }
+  }
+
+  private void clearInFlightBatches() {
+    synchronized (this.batchIdToEventsMap) {
+      int inFlightBatches = this.batchIdToEventsMap.size();
+      this.batchIdToEventsMap.clear();
+      this.acknowledgedBatchIds.clear();
+      if (inFlightBatches > 0) {
+        this.sender.getStatistics().decBatchesInFlight(inFlightBatches);
+      }
+      this.batchIdToEventsMap.notifyAll();
+    }
+  }
+
+  /**
+   * Blocks while the number of batches awaiting acknowledgement from the remote site has reached
+   * {@link AbstractGatewaySender#MAXIMUM_IN_FLIGHT_BATCHES}. Returns early if this processor is
+   * stopped or the last peeked events need to be reset.
+   */
+  private void waitForInFlightBatchesBelowMaximum() throws InterruptedException {
+    final int maximumInFlightBatches = AbstractGatewaySender.MAXIMUM_IN_FLIGHT_BATCHES;
+    if (maximumInFlightBatches <= 0
+        || this.dispatcher instanceof GatewaySenderEventCallbackDispatcher) {
+      return;
+    }
+    synchronized (this.batchIdToEventsMap) {
+      if (this.batchIdToEventsMap.size() < maximumInFlightBatches) {
+        return;
+      }
+      final GatewaySenderStats statistics = this.sender.getStatistics();
+      long start = statistics.startTime();
+      if (logger.isDebugEnabled()) {
+        logger.debug("{}: Waiting for one of {} in flight batches to be acknowledged", this,
+            this.batchIdToEventsMap.size());
+      }
+      while (this.batchIdToEventsMap.size() >= maximumInFlightBatches && !stopped()
+          && !this.resetLastPeekedEvents) {
+        this.batchIdToEventsMap.wait(IN_FLIGHT_BATCHES_WAIT_INTERVAL);
+      }
+      statistics.endInFlightBatchesWait(start);
+    }
+  }
+
   public void handleUnSuccessBatchAck(int bId) {
     this.sender.getStatistics().incBatchesRedistributed();
     // Set posDup flag on each event in the batch
@@ -1195,7 +1330,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
           // the connections later
           // try to stop it again
           dispatcher.stop();
-          this.batchIdToEventsMap.clear();
+          clearInFlightBatches();
         }
       } catch (InterruptedException ex) {
         Thread.currentThread().interrupt();
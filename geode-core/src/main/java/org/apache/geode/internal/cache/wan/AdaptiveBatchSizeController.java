@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adjusts the number of events a gateway sender event processor peeks per batch between a minimum
+ * and the configured batch size.
+ *
+ * <p>
+ * The batch size is decreased whenever the average time it takes the remote site to acknowledge a
+ * batch (or the listener to process it) exceeds the target latency. Otherwise it grows while the
+ * queue holds more events than fit into a batch, favoring throughput, and shrinks toward the queue
+ * depth while the load is low, so that batches are dispatched without waiting for the batch time
+ * interval to expire.
+ */
+public class AdaptiveBatchSizeController {
+
+  /** The weight of a new sample in the average batch latency */
+  private static final double LATENCY_SMOOTHING_FACTOR = 0.25;
+
+  private final GatewaySenderStats statistics;
+
+  private final int minimumBatchSize;
+
+  private int maximumBatchSize;
+
+  private final long targetLatency;
+
+  private int batchSize;
+
+  /** The exponentially weighted average batch latency in nanoseconds */
+  private double averageLatency;
+
+  /** Whether a latency has been recorded since the last adjustment */
+  private boolean latencyRecorded;
+
+  /**
+   * @param statistics the statistics in which the effective batch size and the adjustments are
+   *        recorded
+   * @param minimumBatchSize the lower bound of the batch size
+   * @param maximumBatchSize the upper bound of the batch size, which is also the initial size
+   * @param targetLatencyMs the batch latency not to be exceeded
+   */
+  public AdaptiveBatchSizeController(GatewaySenderStats statistics, int minimumBatchSize,
+      int maximumBatchSize, long targetLatencyMs) {
+    this.statistics = statistics;
+    this.maximumBatchSize = Math.max(1, maximumBatchSize);
+    this.minimumBatchSize = Math.max(1, Math.min(minimumBatchSize, this.maximumBatchSize));
+    this.targetLatency = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+    this.batchSize = this.maximumBatchSize;
+    this.statistics.setEffectiveBatchSize(this.batchSize);
+  }
+
+  /**
+   * Records the time between dispatching a batch and its successful processing.
+   */
+  public synchronized void recordLatency(long latencyNanos) {
+    if (this.averageLatency == 0) {
+      this.averageLatency = latencyNanos;
+    } else {
+      this.averageLatency += LATENCY_SMOOTHING_FACTOR * (latencyNanos - this.averageLatency);
+    }
+    this.latencyRecorded = true;
+  }
+
+  /**
+   * Returns the batch size to use for the next batch.
+   *
+   * @param queueSize the number of events currently in the queue
+   */
+  public synchronized int getNextBatchSize(int queueSize) {
+    int newBatchSize = this.batchSize;
+    if (this.latencyRecorded && this.averageLatency > this.targetLatency) {
+      newBatchSize = this.batchSize - Math.max(1, this.batchSize / 4);
+    } else if (queueSize > this.batchSize) {
+      newBatchSize = this.batchSize + Math.max(1, this.batchSize / 4);
+    } else if (queueSize < this.batchSize / 2) {
+      newBatchSize = Math.max(queueSize, this.batchSize / 2);
+    }
+    this.latencyRecorded = false;
+    return setBatchSize(newBatchSize);
+  }
+
+  /**
+   * Lowers the upper bound of the batch size, for example once a batch turned out to be too large
+   * to be sent.
+   */
+  public synchronized void setMaximumBatchSize(int maximumBatchSize) {
+    this.maximumBatchSize = Math.max(this.minimumBatchSize, maximumBatchSize);
+    setBatchSize(this.batchSize);
+  }
+
+  public synchronized int getBatchSize() {
+    return this.batchSize;
+  }
+
+  private int setBatchSize(int newBatchSize) {
+    newBatchSize = Math.max(this.minimumBatchSize, Math.min(this.maximumBatchSize, newBatchSize));
+    if (newBatchSize > this.batchSize) {
+      this.statistics.incBatchSizeIncreases();
+    } else if (newBatchSize < this.batchSize) {
+      this.statistics.incBatchSizeDecreases();
+    } else {
+      return this.batchSize;
+    }
+    this.batchSize = newBatchSize;
+    this.statistics.setEffectiveBatchSize(newBatchSize);
+    return newBatchSize;
+  }
+}
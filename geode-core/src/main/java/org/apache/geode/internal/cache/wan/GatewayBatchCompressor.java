@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.Part;
+
+/**
+ * Compresses the event parts of a gateway sender batch into a single part and restores them on
+ * the receiving side. The batch is deflated as a whole so that the redundancy between its events
+ * (region names, event ids, keys and similar values) is exploited.
+ *
+ * <p>
+ * A compressed batch consists of the usual leading parts (number of events, batch id, distributed
+ * system id and flags) followed by one bytes part holding the deflated event parts. Each event part
+ * is written as its type code, its length and its payload.
+ */
+public class GatewayBatchCompressor {
+
+  /** Flag set in the flags part if the receiver should remove failed events from the queue */
+  public static final byte REMOVE_FROM_QUEUE_ON_EXCEPTION = 0x01;
+
+  /** Flag set in the flags part if the event parts of the batch are compressed */
+  public static final byte COMPRESSED = 0x02;
+
+  /** The number of parts preceding the event parts of a batch */
+  public static final int NUMBER_OF_LEADING_PARTS = 4;
+
+  /** 4 bytes for the length and 1 byte for the type code of each part */
+  private static final int PART_HEADER_SIZE = 5;
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private static final int COMPRESSION_LEVEL =
+      Integer.getInteger("GatewaySender.BATCH_COMPRESSION_LEVEL", Deflater.BEST_SPEED).intValue();
+
+  private GatewayBatchCompressor() {
+    // no instances allowed
+  }
+
+  /**
+   * Returns the flags part value of a batch.
+   */
+  public static byte getFlags(boolean removeFromQueueOnException, boolean compressed) {
+    byte flags = 0;
+    if (removeFromQueueOnException) {
+      flags |= REMOVE_FROM_QUEUE_ON_EXCEPTION;
+    }
+    if (compressed) {
+      flags |= COMPRESSED;
+    }
+    return flags;
+  }
+
+  /**
+   * Returns the number of bytes the given parts occupy on the wire when sent uncompressed.
+   */
+  public static int getUncompressedLength(Message eventParts) {
+    int length = 0;
+    for (int i = 0; i < eventParts.getNumberOfParts(); i++) {
+      length += PART_HEADER_SIZE + eventParts.getPart(i).getLength();
+    }
+    return length;
+  }
+
+  /**
+   * Deflates all parts of the given message into a single byte array.
+   */
+  public static byte[] compress(Message eventParts) throws IOException {
+    Deflater deflater = new Deflater(COMPRESSION_LEVEL);
+    try {
+      HeapDataOutputStream hdos = new HeapDataOutputStream(BUFFER_SIZE, Version.CURRENT);
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      DataOutputStream out =
+          new DataOutputStream(new DeflaterOutputStream(hdos, deflater, BUFFER_SIZE));
+      out.writeInt(eventParts.getNumberOfParts());
+      for (int i = 0; i < eventParts.getNumberOfParts(); i++) {
+        Part part = eventParts.getPart(i);
+        out.writeByte(part.getTypeCode());
+        out.writeInt(part.getLength());
+        part.writeTo(out, buffer);
+        HeapDataOutputStream.flushStream(out, buffer);
+      }
+      out.close();
+      return hdos.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Returns a message containing the leading parts of the given batch followed by its inflated
+   * event parts, so that the event parts are numbered exactly as in an uncompressed batch.
+   *
+   * @param batch the received batch
+   * @param compressedPartNumber the index of the part holding the deflated event parts
+   * @param version the version of the sender
+   */
+  public static Message decompress(Message batch, int compressedPartNumber, Version version)
+      throws IOException {
+    byte[] compressed = batch.getPart(compressedPartNumber).getSerializedForm();
+    Inflater inflater = new Inflater();
+    try {
+      DataInputStream in = new DataInputStream(new InflaterInputStream(
+          new ByteArrayInputStream(compressed), inflater, BUFFER_SIZE));
+      int numberOfEventParts = in.readInt();
+      Message result = new Message(compressedPartNumber + numberOfEventParts, version);
+      for (int i = 0; i < compressedPartNumber; i++) {
+        Part part = batch.getPart(i);
+        result.getPart(i).init(part.getSerializedForm(), part.getTypeCode());
+      }
+      for (int i = 0; i < numberOfEventParts; i++) {
+        byte typeCode = in.readByte();
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        result.getPart(compressedPartNumber + i).init(bytes, typeCode);
+      }
+      return result;
+    } finally {
+      inflater.end();
+    }
+  }
+}
@@ -59,6 +59,21 @@ public class GatewayReceiverStats extends CacheServerStats {
   /** Name of the events retried */
   private static final String EVENTS_RETRIED = "eventsRetried";
 
+  /** Name of the compressed batches received statistic */
+  private static final String COMPRESSED_BATCHES_RECEIVED = "compressedBatchesReceived";
+
+  /** Name of the batch decompression time statistic */
+  private static final String BATCH_DECOMPRESSION_TIME = "batchDecompressionTime";
+
+  /** Name of the batches applied statistic */
+  private static final String BATCHES_APPLIED = "batchesApplied";
+
+  /** Name of the batch apply time statistic */
+  private static final String BATCH_APPLY_TIME = "batchApplyTime";
+
+  /** Name of the batch apply threads statistic */
+  private static final String BATCH_APPLY_THREADS = "batchApplyThreads";
+
   // /** Id of the events queued statistic */
   // private int failoverBatchesReceivedId;
 
@@ -92,6 +107,21 @@ public class GatewayReceiverStats extends CacheServerStats {
   /** Id of the events retried statistic */
   private int eventsRetriedId;
 
+  /** Id of the compressed batches received statistic */
+  private int compressedBatchesReceivedId;
+
+  /** Id of the batch decompression time statistic */
+  private int batchDecompressionTimeId;
+
+  /** Id of the batches applied statistic */
+  private int batchesAppliedId;
+
+  /** Id of the batch apply time statistic */
+  private int batchApplyTimeId;
+
+  /** Id of the batch apply threads statistic */
+  private int batchApplyThreadsId;
+
   // ///////////////////// Constructors ///////////////////////
 
   public static GatewayReceiverStats createGatewayReceiverStats(String ownerName) {
@@ -118,7 +148,20 @@ public class GatewayReceiverStats extends CacheServerStats {
         f.createIntCounter(EXCEPTIONS_OCCURRED,
             "number of exceptions occurred while porcessing the batches", "operations"),
         f.createIntCounter(EVENTS_RETRIED,
-            "total number events retried by this GatewayReceiver due to exceptions", "operations")};
+            "total number events retried by this GatewayReceiver due to exceptions", "operations"),
+        f.createIntCounter(COMPRESSED_BATCHES_RECEIVED,
+            "number of compressed batches received by this GatewayReceiver", "operations"),
+        f.createLongCounter(BATCH_DECOMPRESSION_TIME,
+            "total time spent decompressing the batches received by this GatewayReceiver",
+            "nanoseconds"),
+        f.createIntCounter(BATCHES_APPLIED,
+            "number of batches whose events were applied by this GatewayReceiver", "operations"),
+        f.createLongCounter(BATCH_APPLY_TIME,
+            "total time spent applying the events of batches received by this GatewayReceiver",
+            "nanoseconds"),
+        f.createLongCounter(BATCH_APPLY_THREADS,
+            "total number of threads the batches were applied by. Divide by batchesApplied to get the average parallelism",
+            "threads")};
     return new GatewayReceiverStats(f, ownerName, typeName, descriptors);
 
   }
@@ -138,6 +181,11 @@ public class GatewayReceiverStats extends CacheServerStats {
     unknowsOperationsReceivedId = statType.nameToId(UNKNOWN_OPERATIONS_RECEIVED);
     exceptionsOccurredId = statType.nameToId(EXCEPTIONS_OCCURRED);
     eventsRetriedId = statType.nameToId(EVENTS_RETRIED);
+    compressedBatchesReceivedId = statType.nameToId(COMPRESSED_BATCHES_RECEIVED);
+    batchDecompressionTimeId = statType.nameToId(BATCH_DECOMPRESSION_TIME);
+    batchesAppliedId = statType.nameToId(BATCHES_APPLIED);
+    batchApplyTimeId = statType.nameToId(BATCH_APPLY_TIME);
+    batchApplyThreadsId = statType.nameToId(BATCH_APPLY_THREADS);
   }
 
   // /////////////////// Instance Methods /////////////////////
@@ -263,6 +311,44 @@ public class GatewayReceiverStats extends CacheServerStats {
     return this.stats.getInt(eventsRetriedId);
   }
 
+  /**
+   * Increments the number of compressed batches received by 1 and the batch decompression time.
+   */
+  public void endBatchDecompression(long start) {
+    this.stats.incInt(compressedBatchesReceivedId, 1);
+    this.stats.incLong(batchDecompressionTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  public int getCompressedBatchesReceived() {
+    return this.stats.getInt(compressedBatchesReceivedId);
+  }
+
+  public long getBatchDecompressionTime() {
+    return this.stats.getLong(batchDecompressionTimeId);
+  }
+
+  /**
+   * Increments the number of batches applied by 1, the batch apply time and the number of threads
+   * the batches were applied by.
+   */
+  public void endBatchApply(long start, int threads) {
+    this.stats.incInt(batchesAppliedId, 1);
+    this.stats.incLong(batchApplyTimeId, DistributionStats.getStatTime() - start);
+    this.stats.incLong(batchApplyThreadsId, threads);
+  }
+
+  public int getBatchesApplied() {
+    return this.stats.getInt(batchesAppliedId);
+  }
+
+  public long getBatchApplyTime() {
+    return this.stats.getLong(batchApplyTimeId);
+  }
+
+  public long getBatchApplyThreads() {
+    return this.stats.getLong(batchApplyThreadsId);
+  }
+
   /**
    * Returns the current time (ns).
    *
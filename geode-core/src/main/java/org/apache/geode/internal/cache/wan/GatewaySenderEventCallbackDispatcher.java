@@ -18,12 +18,18 @@ package org.apache.geode.internal.cache.wan;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.CancelException;
+import org.apache.geode.cache.asyncqueue.AsyncEvent;
 import org.apache.geode.cache.asyncqueue.AsyncEventListener;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingExecutors;
 
 /**
  * Class <code>SerialGatewayEventCallbackDispatcher</code> dispatches batches of
@@ -53,6 +59,12 @@ public class GatewaySenderEventCallbackDispatcher implements GatewaySenderEventD
    */
   private final Object eventLock = new Object();
 
+  /**
+   * The threads processing partitions of a batch in addition to the dispatching thread. Created on
+   * the first batch that is partitioned.
+   */
+  private ExecutorService listenerExecutor;
+
   public GatewaySenderEventCallbackDispatcher(AbstractGatewaySenderEventProcessor eventProcessor) {
     this.eventProcessor = eventProcessor;
     initializeEventListeners();
@@ -146,8 +158,10 @@ public class GatewaySenderEventCallbackDispatcher implements GatewaySenderEventD
     int batchId = this.eventProcessor.getBatchId();
     boolean successAll = true;
     try {
+      int threads = Math.min(AbstractGatewaySender.LISTENER_THREADS, events.size());
       for (AsyncEventListener listener : this.eventListeners) {
-        boolean successOne = listener.processEvents(events);
+        boolean successOne = threads > 1 ? processEventsInPartitions(listener, events, threads)
+            : listener.processEvents(events);
         if (!successOne) {
           successAll = false;
         }
@@ -164,6 +178,91 @@ public class GatewaySenderEventCallbackDispatcher implements GatewaySenderEventD
     return successAll;
   }
 
+  /**
+   * Splits a batch into partitions by key and has the listener process them concurrently, one on
+   * the calling thread and the others on the listener executor. The events for one key end up in
+   * the same partition in their original order. Returns once all partitions have been processed,
+   * so that the batch is only removed from the queue after the listener is done with all of its
+   * events.
+   *
+   * @return whether the listener processed all partitions successfully
+   */
+  private boolean processEventsInPartitions(AsyncEventListener listener, List events, int threads)
+      throws Exception {
+    List<List<AsyncEvent>> partitions = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      partitions.add(new ArrayList<>());
+    }
+    for (Object event : events) {
+      int hash = Objects.hashCode(((AsyncEvent) event).getKey());
+      partitions.get((hash & Integer.MAX_VALUE) % threads).add((AsyncEvent) event);
+    }
+
+    List<AsyncEvent> localPartition = null;
+    List<Future<Boolean>> futures = new ArrayList<>(threads - 1);
+    for (List<AsyncEvent> partition : partitions) {
+      if (partition.isEmpty()) {
+        continue;
+      }
+      if (localPartition == null) {
+        localPartition = partition;
+      } else {
+        futures.add(getListenerExecutor().submit(() -> processPartition(listener, partition)));
+      }
+    }
+
+    boolean success = true;
+    Exception exception = null;
+    try {
+      success = processPartition(listener, localPartition);
+    } catch (Exception e) {
+      exception = e;
+    }
+    // Wait for all partitions even if one of them failed, so that no listener invocation for this
+    // batch overlaps with the next batch
+    for (Future<Boolean> future : futures) {
+      try {
+        if (!future.get()) {
+          success = false;
+        }
+      } catch (ExecutionException e) {
+        if (exception == null) {
+          Throwable cause = e.getCause();
+          if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          exception = cause instanceof Exception ? (Exception) cause : e;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw e;
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+    return success;
+  }
+
+  private boolean processPartition(AsyncEventListener listener, List<AsyncEvent> partition) {
+    GatewaySenderStats statistics = this.eventProcessor.getSender().getStatistics();
+    long start = statistics.startListenerPartition();
+    try {
+      return listener.processEvents(partition);
+    } finally {
+      statistics.endListenerPartition(start);
+    }
+  }
+
+  private synchronized ExecutorService getListenerExecutor() {
+    if (this.listenerExecutor == null) {
+      this.listenerExecutor = LoggingExecutors.newFixedThreadPoolWithTimeout(
+          "AsyncEventListener Thread for " + this.eventProcessor.getSender().getId() + " ",
+          AbstractGatewaySender.LISTENER_THREADS - 1, 60);
+    }
+    return this.listenerExecutor;
+  }
+
   @Override
   public boolean isRemoteDispatcher() {
     return false;
@@ -175,9 +274,11 @@ public class GatewaySenderEventCallbackDispatcher implements GatewaySenderEventD
   }
 
   @Override
-  public void stop() {
-    // no op
-
+  public synchronized void stop() {
+    if (this.listenerExecutor != null) {
+      this.listenerExecutor.shutdown();
+      this.listenerExecutor = null;
+    }
   }
 
   @Override
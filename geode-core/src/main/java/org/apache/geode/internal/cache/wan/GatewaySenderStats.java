@@ -98,6 +98,35 @@ public class GatewaySenderStats {
   protected static final String SYNCHRONIZATION_EVENTS_ENQUEUED = "synchronizationEventsEnqueued";
   protected static final String SYNCHRONIZATION_EVENTS_PROVIDED = "synchronizationEventsProvided";
 
+  /** Name of the batches in flight statistic */
+  protected static final String BATCHES_IN_FLIGHT = "batchesInFlight";
+  /** Name of the batches acknowledged statistic */
+  protected static final String BATCHES_ACKNOWLEDGED = "batchesAcknowledged";
+  /** Name of the batch acknowledgement time statistic */
+  protected static final String BATCH_ACKNOWLEDGEMENT_TIME = "batchAcknowledgementTime";
+  /** Name of the in flight batches wait time statistic */
+  protected static final String IN_FLIGHT_BATCHES_WAIT_TIME = "inFlightBatchesWaitTime";
+  /** Name of the batches compressed statistic */
+  protected static final String BATCHES_COMPRESSED = "batchesCompressed";
+  /** Name of the uncompressed batch bytes statistic */
+  protected static final String UNCOMPRESSED_BATCH_BYTES = "uncompressedBatchBytes";
+  /** Name of the compressed batch bytes statistic */
+  protected static final String COMPRESSED_BATCH_BYTES = "compressedBatchBytes";
+  /** Name of the batch compression time statistic */
+  protected static final String BATCH_COMPRESSION_TIME = "batchCompressionTime";
+  /** Name of the effective batch size statistic */
+  protected static final String EFFECTIVE_BATCH_SIZE = "effectiveBatchSize";
+  /** Name of the batch size increases statistic */
+  protected static final String BATCH_SIZE_INCREASES = "batchSizeIncreases";
+  /** Name of the batch size decreases statistic */
+  protected static final String BATCH_SIZE_DECREASES = "batchSizeDecreases";
+  /** Name of the listener partitions in progress statistic */
+  protected static final String LISTENER_PARTITIONS_IN_PROGRESS = "listenerPartitionsInProgress";
+  /** Name of the listener partitions processed statistic */
+  protected static final String LISTENER_PARTITIONS_PROCESSED = "listenerPartitionsProcessed";
+  /** Name of the listener partition time statistic */
+  protected static final String LISTENER_PARTITION_TIME = "listenerPartitionTime";
+
   /** Id of the events queued statistic */
   protected static int eventsReceivedId;
   /** Id of the events queued statistic */
@@ -159,6 +188,34 @@ public class GatewaySenderStats {
   protected static int synchronizationEventsEnqueuedId;
   /** Id of synchronization events provided */
   protected static int synchronizationEventsProvidedId;
+  /** Id of the batches in flight statistic */
+  protected static int batchesInFlightId;
+  /** Id of the batches acknowledged statistic */
+  protected static int batchesAcknowledgedId;
+  /** Id of the batch acknowledgement time statistic */
+  protected static int batchAcknowledgementTimeId;
+  /** Id of the in flight batches wait time statistic */
+  protected static int inFlightBatchesWaitTimeId;
+  /** Id of the batches compressed statistic */
+  protected static int batchesCompressedId;
+  /** Id of the uncompressed batch bytes statistic */
+  protected static int uncompressedBatchBytesId;
+  /** Id of the compressed batch bytes statistic */
+  protected static int compressedBatchBytesId;
+  /** Id of the batch compression time statistic */
+  protected static int batchCompressionTimeId;
+  /** Id of the effective batch size statistic */
+  protected static int effectiveBatchSizeId;
+  /** Id of the batch size increases statistic */
+  protected static int batchSizeIncreasesId;
+  /** Id of the batch size decreases statistic */
+  protected static int batchSizeDecreasesId;
+  /** Id of the listener partitions in progress statistic */
+  protected static int listenerPartitionsInProgressId;
+  /** Id of the listener partitions processed statistic */
+  protected static int listenerPartitionsProcessedId;
+  /** Id of the listener partition time statistic */
+  protected static int listenerPartitionTimeId;
 
   /**
    * Static initializer to create and initialize the <code>StatisticsType</code>
@@ -244,7 +301,44 @@ public class GatewaySenderStats {
             f.createIntCounter(SYNCHRONIZATION_EVENTS_ENQUEUED,
                 "Number of synchronization events added to the event queue.", "operations"),
             f.createIntCounter(SYNCHRONIZATION_EVENTS_PROVIDED,
-                "Number of synchronization events provided to other members.", "operations"),});
+                "Number of synchronization events provided to other members.", "operations"),
+            f.createIntGauge(BATCHES_IN_FLIGHT,
+                "Number of batches sent to the remote site that are awaiting acknowledgement.",
+                "operations"),
+            f.createIntCounter(BATCHES_ACKNOWLEDGED,
+                "Number of batches acknowledged by the remote site.", "operations"),
+            f.createLongCounter(BATCH_ACKNOWLEDGEMENT_TIME,
+                "Total time between sending batches and receiving their acknowledgements.",
+                "nanoseconds"),
+            f.createLongCounter(IN_FLIGHT_BATCHES_WAIT_TIME,
+                "Total time spent waiting for the number of in flight batches to drop below the maximum.",
+                "nanoseconds"),
+            f.createIntCounter(BATCHES_COMPRESSED,
+                "Number of batches compressed before being sent to the remote site.",
+                "operations"),
+            f.createLongCounter(UNCOMPRESSED_BATCH_BYTES,
+                "Total size of the event data of compressed batches before compression.", "bytes"),
+            f.createLongCounter(COMPRESSED_BATCH_BYTES,
+                "Total size of the event data of compressed batches after compression.", "bytes"),
+            f.createLongCounter(BATCH_COMPRESSION_TIME, "Total time spent compressing batches.",
+                "nanoseconds"),
+            f.createIntGauge(EFFECTIVE_BATCH_SIZE,
+                "Number of events currently peeked per batch. Differs from the configured batch size if the batch size is adapted to the load or was reduced because a batch was too large.",
+                "operations"),
+            f.createIntCounter(BATCH_SIZE_INCREASES,
+                "Number of times the batch size was increased by adaptive batching.",
+                "operations"),
+            f.createIntCounter(BATCH_SIZE_DECREASES,
+                "Number of times the batch size was decreased by adaptive batching.",
+                "operations"),
+            f.createIntGauge(LISTENER_PARTITIONS_IN_PROGRESS,
+                "Number of partitions of batches currently being processed concurrently by the listeners.",
+                "operations"),
+            f.createIntCounter(LISTENER_PARTITIONS_PROCESSED,
+                "Number of partitions of batches processed by the listeners.", "operations"),
+            f.createLongCounter(LISTENER_PARTITION_TIME,
+                "Total time spent by the listeners processing partitions of batches.",
+                "nanoseconds"),});
 
     // Initialize id fields
     eventsReceivedId = type.nameToId(EVENTS_RECEIVED);
@@ -280,6 +374,20 @@ public class GatewaySenderStats {
     loadBalanceTimeId = type.nameToId(LOAD_BALANCE_TIME);
     synchronizationEventsEnqueuedId = type.nameToId(SYNCHRONIZATION_EVENTS_ENQUEUED);
     synchronizationEventsProvidedId = type.nameToId(SYNCHRONIZATION_EVENTS_PROVIDED);
+    batchesInFlightId = type.nameToId(BATCHES_IN_FLIGHT);
+    batchesAcknowledgedId = type.nameToId(BATCHES_ACKNOWLEDGED);
+    batchAcknowledgementTimeId = type.nameToId(BATCH_ACKNOWLEDGEMENT_TIME);
+    inFlightBatchesWaitTimeId = type.nameToId(IN_FLIGHT_BATCHES_WAIT_TIME);
+    batchesCompressedId = type.nameToId(BATCHES_COMPRESSED);
+    uncompressedBatchBytesId = type.nameToId(UNCOMPRESSED_BATCH_BYTES);
+    compressedBatchBytesId = type.nameToId(COMPRESSED_BATCH_BYTES);
+    batchCompressionTimeId = type.nameToId(BATCH_COMPRESSION_TIME);
+    effectiveBatchSizeId = type.nameToId(EFFECTIVE_BATCH_SIZE);
+    batchSizeIncreasesId = type.nameToId(BATCH_SIZE_INCREASES);
+    batchSizeDecreasesId = type.nameToId(BATCH_SIZE_DECREASES);
+    listenerPartitionsInProgressId = type.nameToId(LISTENER_PARTITIONS_IN_PROGRESS);
+    listenerPartitionsProcessedId = type.nameToId(LISTENER_PARTITIONS_PROCESSED);
+    listenerPartitionTimeId = type.nameToId(LISTENER_PARTITION_TIME);
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -884,6 +992,214 @@ public class GatewaySenderStats {
     this.stats.incInt(synchronizationEventsProvidedId, 1);
   }
 
+  /**
+   * Increments the "batchesInFlight" stat by 1.
+   */
+  public void incBatchesInFlight() {
+    this.stats.incInt(batchesInFlightId, 1);
+  }
+
+  /**
+   * Decrements the "batchesInFlight" stat by given delta.
+   *
+   * @param delta an integer by which the batches in flight are to be decreased
+   */
+  public void decBatchesInFlight(int delta) {
+    this.stats.incInt(batchesInFlightId, -delta);
+  }
+
+  /**
+   * Returns the current value of the "batchesInFlight" stat.
+   *
+   * @return the current value of the "batchesInFlight" stat
+   */
+  public int getBatchesInFlight() {
+    return this.stats.getInt(batchesInFlightId);
+  }
+
+  /**
+   * Increments the "batchesAcknowledged" and "batchAcknowledgementTime" stats.
+   *
+   * @param latency The nanoseconds between sending the acknowledged batch and receiving its
+   *        acknowledgement. It is measured for batch sizing whether or not time statistics are
+   *        enabled, so it is always recorded.
+   */
+  public void endBatchAcknowledgement(long latency) {
+    this.stats.incInt(batchesAcknowledgedId, 1);
+    this.stats.incLong(batchAcknowledgementTimeId, latency);
+  }
+
+  /**
+   * Returns the current value of the "batchesAcknowledged" stat.
+   *
+   * @return the current value of the "batchesAcknowledged" stat
+   */
+  public int getBatchesAcknowledged() {
+    return this.stats.getInt(batchesAcknowledgedId);
+  }
+
+  /**
+   * Returns the current value of the "batchAcknowledgementTime" stat.
+   *
+   * @return the current value of the "batchAcknowledgementTime" stat
+   */
+  public long getBatchAcknowledgementTime() {
+    return this.stats.getLong(batchAcknowledgementTimeId);
+  }
+
+  /**
+   * Increments the "inFlightBatchesWaitTime" stat.
+   *
+   * @param start The start of the wait (which is decremented from the current time to determine
+   *        the wait time).
+   */
+  public void endInFlightBatchesWait(long start) {
+    this.stats.incLong(inFlightBatchesWaitTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  /**
+   * Increments the "batchesCompressed", "uncompressedBatchBytes", "compressedBatchBytes" and
+   * "batchCompressionTime" stats.
+   *
+   * @param start The start of the compression (which is decremented from the current time to
+   *        determine the compression time).
+   * @param uncompressedBytes The size of the event data before compression
+   * @param compressedBytes The size of the event data after compression
+   */
+  public void endBatchCompression(long start, long uncompressedBytes, long compressedBytes) {
+    this.stats.incLong(batchCompressionTimeId, DistributionStats.getStatTime() - start);
+    this.stats.incInt(batchesCompressedId, 1);
+    this.stats.incLong(uncompressedBatchBytesId, uncompressedBytes);
+    this.stats.incLong(compressedBatchBytesId, compressedBytes);
+  }
+
+  /**
+   * Returns the current value of the "batchesCompressed" stat.
+   *
+   * @return the current value of the "batchesCompressed" stat
+   */
+  public int getBatchesCompressed() {
+    return this.stats.getInt(batchesCompressedId);
+  }
+
+  /**
+   * Returns the current value of the "uncompressedBatchBytes" stat.
+   *
+   * @return the current value of the "uncompressedBatchBytes" stat
+   */
+  public long getUncompressedBatchBytes() {
+    return this.stats.getLong(uncompressedBatchBytesId);
+  }
+
+  /**
+   * Returns the current value of the "compressedBatchBytes" stat.
+   *
+   * @return the current value of the "compressedBatchBytes" stat
+   */
+  public long getCompressedBatchBytes() {
+    return this.stats.getLong(compressedBatchBytesId);
+  }
+
+  /**
+   * Sets the "effectiveBatchSize" stat.
+   *
+   * @param batchSize The number of events currently peeked per batch
+   */
+  public void setEffectiveBatchSize(int batchSize) {
+    this.stats.setInt(effectiveBatchSizeId, batchSize);
+  }
+
+  /**
+   * Returns the current value of the "effectiveBatchSize" stat.
+   *
+   * @return the current value of the "effectiveBatchSize" stat
+   */
+  public int getEffectiveBatchSize() {
+    return this.stats.getInt(effectiveBatchSizeId);
+  }
+
+  /**
+   * Increments the "batchSizeIncreases" stat.
+   */
+  public void incBatchSizeIncreases() {
+    this.stats.incInt(batchSizeIncreasesId, 1);
+  }
+
+  /**
+   * Returns the current value of the "batchSizeIncreases" stat.
+   *
+   * @return the current value of the "batchSizeIncreases" stat
+   */
+  public int getBatchSizeIncreases() {
+    return this.stats.getInt(batchSizeIncreasesId);
+  }
+
+  /**
+   * Increments the "batchSizeDecreases" stat.
+   */
+  public void incBatchSizeDecreases() {
+    this.stats.incInt(batchSizeDecreasesId, 1);
+  }
+
+  /**
+   * Returns the current value of the "batchSizeDecreases" stat.
+   *
+   * @return the current value of the "batchSizeDecreases" stat
+   */
+  public int getBatchSizeDecreases() {
+    return this.stats.getInt(batchSizeDecreasesId);
+  }
+
+  /**
+   * Increments the "listenerPartitionsInProgress" stat.
+   *
+   * @return The start of the processing of the partition
+   */
+  public long startListenerPartition() {
+    this.stats.incInt(listenerPartitionsInProgressId, 1);
+    return DistributionStats.getStatTime();
+  }
+
+  /**
+   * Decrements the "listenerPartitionsInProgress" stat and increments the
+   * "listenerPartitionsProcessed" and "listenerPartitionTime" stats.
+   *
+   * @param start The start of the processing of the partition (which is decremented from the
+   *        current time to determine the processing time).
+   */
+  public void endListenerPartition(long start) {
+    this.stats.incLong(listenerPartitionTimeId, DistributionStats.getStatTime() - start);
+    this.stats.incInt(listenerPartitionsProcessedId, 1);
+    this.stats.incInt(listenerPartitionsInProgressId, -1);
+  }
+
+  /**
+   * Returns the current value of the "listenerPartitionsInProgress" stat.
+   *
+   * @return the current value of the "listenerPartitionsInProgress" stat
+   */
+  public int getListenerPartitionsInProgress() {
+    return this.stats.getInt(listenerPartitionsInProgressId);
+  }
+
+  /**
+   * Returns the current value of the "listenerPartitionsProcessed" stat.
+   *
+   * @return the current value of the "listenerPartitionsProcessed" stat
+   */
+  public int getListenerPartitionsProcessed() {
+    return this.stats.getInt(listenerPartitionsProcessedId);
+  }
+
+  /**
+   * Returns the current value of the "listenerPartitionTime" stat.
+   *
+   * @return the current value of the "listenerPartitionTime" stat
+   */
+  public long getListenerPartitionTime() {
+    return this.stats.getLong(listenerPartitionTimeId);
+  }
+
   public Statistics getStats() {
     return stats;
   }
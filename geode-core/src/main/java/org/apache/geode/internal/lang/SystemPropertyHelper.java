@@ -56,6 +56,45 @@ public class SystemPropertyHelper {
    */
   public static final String EVICTION_SCAN_THRESHOLD_PERCENT = "EvictionScanThresholdPercent";
 
+  /**
+   * When set to "true" enables the sampled eviction algorithm for LRU regions (defaults to false),
+   * which takes precedence over {@link #EVICTION_SCAN_ASYNC}. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.SampledEvictionList}.
+   *
+   * @since Geode 1.9.0
+   */
+  public static final String EVICTION_SAMPLING = "EvictionSampling";
+
+  /**
+   * This property allows configuration of the number of entries sampled each time the sampled
+   * eviction algorithm looks for an entry to evict. The default sample size is 5. For more details
+   * see {@link org.apache.geode.internal.cache.eviction.SampledEvictionList}.
+   *
+   * @since Geode 1.9.0
+   */
+  public static final String EVICTION_SAMPLE_SIZE = "EvictionSampleSize";
+
+  /**
+   * When set to "true" enables TinyLFU admission for LRU regions (defaults to false), which takes
+   * precedence over {@link #EVICTION_SAMPLING} and {@link #EVICTION_SCAN_ASYNC}. New entries must
+   * have been used more often than the least recently used entry to stay in the region once they
+   * leave a small admission window. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.TinyLFUEvictionList}.
+   *
+   * @since Geode 1.9.0
+   */
+  public static final String EVICTION_TINY_LFU = "EvictionTinyLFU";
+
+  /**
+   * This property allows configuration of the percentage of the entries kept in the admission
+   * window when TinyLFU admission is enabled. The default is 1. If the percentage is less than 0 or
+   * greater than 100 then the default is used. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.TinyLFUEvictionList}.
+   *
+   * @since Geode 1.9.0
+   */
+  public static final String EVICTION_WINDOW_PERCENT = "EvictionWindowPercent";
+
   public static final String EVICTION_SEARCH_MAX_ENTRIES = "lru.maxSearchEntries";
 
   public static final String EARLY_ENTRY_EVENT_SERIALIZATION = "earlyEntryEventSerialization";
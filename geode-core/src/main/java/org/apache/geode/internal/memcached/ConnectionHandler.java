@@ -41,12 +41,19 @@ public class ConnectionHandler implements Runnable {
 
   private final Protocol protocol;
 
+  private final MemcachedStats stats;
+
   private static LogWriter logger;
 
   public ConnectionHandler(Socket socket, Cache cache, Protocol protocol) {
+    this(socket, cache, protocol, null);
+  }
+
+  public ConnectionHandler(Socket socket, Cache cache, Protocol protocol, MemcachedStats stats) {
     this.socket = socket;
     this.cache = cache;
     this.protocol = protocol;
+    this.stats = stats;
     if (logger == null) {
       logger = this.cache.getLogger();
     }
@@ -54,7 +61,21 @@ public class ConnectionHandler implements Runnable {
 
   @Override
   public void run() {
-    RequestReader request = new RequestReader(this.socket, this.protocol);
+    if (this.stats != null) {
+      this.stats.incConnections(1);
+    }
+    try {
+      processRequests();
+    } finally {
+      if (this.stats != null) {
+        this.stats.incConnections(-1);
+      }
+    }
+    logger.fine("Connection handler " + Thread.currentThread().getName() + " terminating");
+  }
+
+  private void processRequests() {
+    RequestReader request = new RequestReader(this.socket, this.protocol, this.stats);
     while (!Thread.currentThread().isInterrupted()) {
       try {
         Command command = request.readCommand();
@@ -67,6 +88,7 @@ public class ConnectionHandler implements Runnable {
           request.sendReply(reply);
         }
         if (command == Command.QUIT || command == Command.QUITQ) {
+          request.flush();
           socket.close();
           break;
         }
@@ -81,7 +103,6 @@ public class ConnectionHandler implements Runnable {
         Thread.currentThread().interrupt();
       }
     }
-    logger.fine("Connection handler " + Thread.currentThread().getName() + " terminating");
   }
 
   protected static LogWriter getLogger() {
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.memcached;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * Statistics about the requests processed by a GemFireMemcachedServer
+ */
+public class MemcachedStats {
+
+  private static final StatisticsType type;
+
+  private static final int connectionsId;
+  private static final int requestsId;
+  private static final int pipelinedRequestsId;
+  private static final int replyWritesId;
+  private static final int batchedGetsId;
+  private static final int getAllsId;
+
+  static {
+    StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+
+    type = f.createType("GemcachedStats", "Statistics about a memcached server",
+        new StatisticDescriptor[] {
+            f.createIntGauge("connections", "The number of client connections currently open.",
+                "connections"),
+            f.createLongCounter("requests", "The total number of requests processed.",
+                "operations"),
+            f.createLongCounter("pipelinedRequests",
+                "The total number of binary requests that had already been received when the previous request completed, and so were processed without reading from the socket.",
+                "operations"),
+            f.createLongCounter("replyWrites",
+                "The total number of socket writes done to send replies. The replies to pipelined binary requests are sent together.",
+                "operations"),
+            f.createLongCounter("batchedGets",
+                "The total number of binary get requests whose values were read by a getAll of a sequence of pipelined gets.",
+                "operations"),
+            f.createLongCounter("getAlls",
+                "The total number of getAll operations done for sequences of pipelined binary gets.",
+                "operations")});
+
+    connectionsId = type.nameToId("connections");
+    requestsId = type.nameToId("requests");
+    pipelinedRequestsId = type.nameToId("pipelinedRequests");
+    replyWritesId = type.nameToId("replyWrites");
+    batchedGetsId = type.nameToId("batchedGets");
+    getAllsId = type.nameToId("getAlls");
+  }
+
+  private final Statistics stats;
+
+  public MemcachedStats(StatisticsFactory f, String name) {
+    this.stats = f.createAtomicStatistics(type, name);
+  }
+
+  public void close() {
+    this.stats.close();
+  }
+
+  public void incConnections(int delta) {
+    this.stats.incInt(connectionsId, delta);
+  }
+
+  public void incRequests(boolean pipelined) {
+    this.stats.incLong(requestsId, 1);
+    if (pipelined) {
+      this.stats.incLong(pipelinedRequestsId, 1);
+    }
+  }
+
+  public void incReplyWrites() {
+    this.stats.incLong(replyWritesId, 1);
+  }
+
+  public void incBatchedGets(int gets) {
+    this.stats.incLong(getAllsId, 1);
+    this.stats.incLong(batchedGetsId, gets);
+  }
+
+  public long getRequests() {
+    return this.stats.getLong(requestsId);
+  }
+
+  public long getPipelinedRequests() {
+    return this.stats.getLong(pipelinedRequestsId);
+  }
+
+  public long getReplyWrites() {
+    return this.stats.getLong(replyWritesId);
+  }
+
+  public long getBatchedGets() {
+    return this.stats.getLong(batchedGetsId);
+  }
+}
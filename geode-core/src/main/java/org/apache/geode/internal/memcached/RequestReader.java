@@ -23,6 +23,9 @@ import java.nio.channels.SocketChannel;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.geode.internal.memcached.commands.AbstractCommand;
 import org.apache.geode.internal.memcached.commands.ClientError;
@@ -68,13 +71,38 @@ public class RequestReader {
 
   private CharBuffer commandBuffer = CharBuffer.allocate(11); // no command exceeds 9 chars
 
+  private final MemcachedStats stats;
+
+  /**
+   * The number of bytes in the buffer, starting with the current binary request
+   */
+  private int bufferedLength;
+
+  /**
+   * The length of the current binary request
+   */
+  private int requestLength;
+
+  /**
+   * Replies to binary requests that have not been sent yet
+   */
+  private final ByteBuffer pendingReplies;
+
+  private Map<Object, ValueWrapper> batchedValues;
+
+  private int batchedRequests;
+
   public RequestReader(Socket socket, Protocol protocol) {
+    this(socket, protocol, null);
+  }
+
+  public RequestReader(Socket socket, Protocol protocol, MemcachedStats stats) {
     buffer = ByteBuffer.allocate(getBufferSize(socket.getChannel()));
-    // set position to limit so that first read attempt
-    // returns hasRemaining() false
-    buffer.position(buffer.limit());
     this.socket = socket;
     this.protocol = protocol;
+    this.stats = stats;
+    this.pendingReplies =
+        ByteBuffer.allocate(protocol == Protocol.BINARY ? getSendBufferSize(socket) : 0);
   }
 
   public Command readCommand() throws IOException {
@@ -89,63 +117,56 @@ public class RequestReader {
     if (channel == null || !channel.isOpen()) {
       throw new IllegalStateException("cannot read from channel");
     }
-    Command cmd = null;
-    boolean done = false;
-    boolean read = false;
-    while (!done) {
-      if (!buffer.hasRemaining()) {
-        buffer.clear();
-        read = true;
-      } else if (!read) {
-        // compact is meant for partial writes, but we want to use
-        // it partial reads, so the new limit should be the position
-        // after the compact operation and we want to start reading
-        // from the beginning
-        buffer.compact();
-        buffer.limit(buffer.position());
-        buffer.position(0);
-      }
-      if (read) {
-        int bytesRead = channel.read(buffer);
-        if (bytesRead == -1) {
-          throw new IOException("EOF");
+    // discard the previous request, so that the next one starts at the beginning of the buffer
+    buffer.limit(this.bufferedLength);
+    buffer.position(this.requestLength);
+    buffer.compact();
+    this.bufferedLength = buffer.position();
+    this.requestLength = 0;
+    if (this.batchedRequests > 0 && --this.batchedRequests == 0) {
+      this.batchedValues = null;
+    }
+
+    boolean pipelined = true;
+    for (;;) {
+      if (this.bufferedLength >= HEADER_LENGTH) {
+        if (buffer.get(0) != REQUEST_MAGIC) {
+          throw new IllegalStateException("Not a valid request, magic byte incorrect");
         }
-        buffer.flip();
-      }
-      // read again if we did not read enough bytes
-      if (buffer.limit() < HEADER_LENGTH) {
-        buffer.compact();
-        read = true;
-        continue;
-      }
-      int requestLength = buffer.remaining();
-      byte magic = buffer.get();
-      if (magic != REQUEST_MAGIC) {
-        throw new IllegalStateException("Not a valid request, magic byte incorrect");
-      }
-      byte opCode = buffer.get();
-      if (ConnectionHandler.getLogger().finerEnabled()) {
-        String str = Command.buffertoString(buffer);
-        ConnectionHandler.getLogger().finer("Request:" + buffer + str.toString());
-      }
-      int bodyLength = buffer.getInt(AbstractCommand.TOTAL_BODY_LENGTH_INDEX);
-      if ((HEADER_LENGTH + bodyLength) > requestLength) {
-        // set the position back to the start of the request
-        buffer.position(buffer.position() - 2 /* since we read two bytes */);
-        buffer.compact();
-        // ensure that the buffer is big enough
-        if (buffer.capacity() < (HEADER_LENGTH + bodyLength)) {
+        int length = HEADER_LENGTH + buffer.getInt(AbstractCommand.TOTAL_BODY_LENGTH_INDEX);
+        if (length <= this.bufferedLength) {
+          this.requestLength = length;
+          break;
+        }
+        if (buffer.capacity() < length) {
           // allocate bigger buffer and copy the bytes to the bigger buffer
           ByteBuffer oldBuffer = buffer;
           oldBuffer.position(0);
-          buffer = ByteBuffer.allocate(HEADER_LENGTH + bodyLength);
+          oldBuffer.limit(this.bufferedLength);
+          buffer = ByteBuffer.allocate(length);
           buffer.put(oldBuffer);
         }
-        read = true;
-        continue;
       }
-      cmd = Command.getCommandFromOpCode(opCode);
-      done = true;
+      // the replies to the requests read so far must be sent before waiting for more
+      flush();
+      pipelined = false;
+      buffer.limit(buffer.capacity());
+      buffer.position(this.bufferedLength);
+      int bytesRead = channel.read(buffer);
+      if (bytesRead == -1) {
+        throw new IOException("EOF");
+      }
+      this.bufferedLength = buffer.position();
+    }
+    buffer.limit(this.bufferedLength);
+    buffer.position(0);
+    if (ConnectionHandler.getLogger().finerEnabled()) {
+      String str = Command.buffertoString(buffer);
+      ConnectionHandler.getLogger().finer("Request:" + buffer + str);
+    }
+    Command cmd = Command.getCommandFromOpCode(buffer.get(POSITION_OPCODE));
+    if (this.stats != null) {
+      this.stats.incRequests(pipelined);
     }
     if (ConnectionHandler.getLogger().fineEnabled()) {
       ConnectionHandler.getLogger().fine("read command " + cmd);
@@ -153,6 +174,60 @@ public class RequestReader {
     return cmd;
   }
 
+  /**
+   * Returns the keys of the current binary request and of the get requests that follow it in the
+   * buffer, up to the first request that is not a get or has not been completely received.
+   */
+  public List<KeyWrapper> getBufferedGetKeys() {
+    List<KeyWrapper> keys = new ArrayList<KeyWrapper>();
+    int offset = 0;
+    while (offset + HEADER_LENGTH <= this.bufferedLength) {
+      int bodyLength = buffer.getInt(offset + AbstractCommand.TOTAL_BODY_LENGTH_INDEX);
+      if (buffer.get(offset) != REQUEST_MAGIC || !isGet(buffer.get(offset + POSITION_OPCODE))
+          || offset + HEADER_LENGTH + bodyLength > this.bufferedLength) {
+        break;
+      }
+      int keyStart =
+          offset + HEADER_LENGTH + buffer.get(offset + AbstractCommand.EXTRAS_LENGTH_INDEX);
+      byte[] key = new byte[buffer.getShort(offset + AbstractCommand.KEY_LENGTH_INDEX)];
+      for (int i = 0; i < key.length; i++) {
+        key[i] = buffer.get(keyStart + i);
+      }
+      keys.add(KeyWrapper.getWrappedKey(key));
+      offset += HEADER_LENGTH + bodyLength;
+    }
+    return keys;
+  }
+
+  private static boolean isGet(byte opCode) {
+    Command command = Command.getCommandFromOpCode(opCode);
+    return command == Command.GET || command == Command.GETQ || command == Command.GETK
+        || command == Command.GETKQ;
+  }
+
+  /**
+   * Remembers the values read for the keys returned by {@link #getBufferedGetKeys()}, so that
+   * they are used by the get requests that follow instead of each reading its own value.
+   *
+   * @param requests the number of requests, starting with the current one, the values were read
+   *        for
+   */
+  public void setBatchedValues(Map<Object, ValueWrapper> values, int requests) {
+    this.batchedValues = values;
+    this.batchedRequests = requests;
+    if (this.stats != null) {
+      this.stats.incBatchedGets(requests);
+    }
+  }
+
+  /**
+   * Returns the values read for the current request by a batch of gets, or null if the current
+   * request is not part of a batch.
+   */
+  public Map<Object, ValueWrapper> getBatchedValues() {
+    return this.batchedValues;
+  }
+
   private Command readAsciiCommand() throws IOException {
     SocketChannel channel = this.socket.getChannel();
     if (channel == null || !channel.isOpen()) {
@@ -204,6 +279,16 @@ public class RequestReader {
     return size;
   }
 
+  private int getSendBufferSize(Socket socket) {
+    int size = 1024;
+    try {
+      size = socket.getSendBufferSize();
+    } catch (SocketException e) {
+      // use default size
+    }
+    return size;
+  }
+
   public ByteBuffer getRequest() {
     this.buffer.rewind();
     return this.buffer;
@@ -266,12 +351,44 @@ public class RequestReader {
         ConnectionHandler.getLogger()
             .finer("sending reply:" + reply + " " + Command.buffertoString(reply));
       }
+      // hold the reply until there are no more requests to process, so that the replies to
+      // pipelined requests are sent together
+      if (this.pendingReplies.position() + reply.remaining() > this.pendingReplies.capacity()) {
+        flush();
+      }
+      if (reply.remaining() <= this.pendingReplies.capacity()) {
+        this.pendingReplies.put(reply);
+        return;
+      }
+    }
+    write(reply);
+  }
+
+  /**
+   * Sends the replies that are being held for pipelined requests.
+   */
+  public void flush() throws IOException {
+    if (this.pendingReplies.position() > 0) {
+      this.pendingReplies.flip();
+      try {
+        write(this.pendingReplies);
+      } finally {
+        this.pendingReplies.clear();
+      }
     }
+  }
+
+  private void write(ByteBuffer reply) throws IOException {
     SocketChannel channel = this.socket.getChannel();
     if (channel == null || !channel.isOpen()) {
       throw new IllegalStateException("cannot write to channel");
     }
-    channel.write(reply);
+    while (reply.hasRemaining()) {
+      channel.write(reply);
+    }
+    if (this.stats != null) {
+      this.stats.incReplyWrites();
+    }
   }
 
   public void sendException(Exception e) {
@@ -280,6 +397,7 @@ public class RequestReader {
       throw new IllegalStateException("cannot write to channel");
     }
     try {
+      flush();
       if (e instanceof ClientError) {
         channel.write(charsetASCII.encode(Reply.CLIENT_ERROR.toString()));
       } else {
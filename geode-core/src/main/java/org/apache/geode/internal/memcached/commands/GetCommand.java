@@ -18,6 +18,7 @@ import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -88,7 +89,7 @@ public class GetCommand extends AbstractCommand {
     KeyWrapper key = getKey(buffer, HEADER_LENGTH);
     ValueWrapper val = null;
     try {
-      val = r.get(key);
+      val = getValue(r, key, request);
     } catch (Exception e) {
       return handleBinaryException(key, request, response, "get", e);
     }
@@ -128,6 +129,27 @@ public class GetCommand extends AbstractCommand {
     return response;
   }
 
+  /**
+   * Returns the value of the given key. Clients send a multi-get as a sequence of quiet gets, so
+   * when a quiet get is followed by other gets that have already been received, the values of all
+   * of their keys are read with one getAll.
+   */
+  private ValueWrapper getValue(Region<Object, ValueWrapper> r, KeyWrapper key,
+      RequestReader request) {
+    Map<Object, ValueWrapper> batchedValues = request.getBatchedValues();
+    if (batchedValues == null && isQuiet()) {
+      List<KeyWrapper> keys = request.getBufferedGetKeys();
+      if (keys.size() > 1) {
+        batchedValues = r.getAll(keys);
+        request.setBatchedValues(batchedValues, keys.size());
+      }
+    }
+    if (batchedValues != null) {
+      return batchedValues.get(key);
+    }
+    return r.get(key);
+  }
+
   /**
    * Overridden by GetQ and getKQ to not send reply on cache miss
    */
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Prepares the bytes written to and read from a NIO socket channel, for example by encrypting
+ * and decrypting them.
+ */
+public interface NioFilter {
+
+  /**
+   * Reads bytes from the channel and places the resulting bytes into the given buffer, like
+   * {@link SocketChannel#read(ByteBuffer)} does.
+   *
+   * @return the number of bytes placed into the buffer, or -1 if the channel has reached
+   *         end-of-stream
+   */
+  int read(SocketChannel channel, ByteBuffer buffer) throws IOException;
+
+  /**
+   * Consumes the remaining bytes of the given buffer and returns a buffer holding the bytes to be
+   * written to the channel instead. The returned buffer is only valid until the next invocation.
+   */
+  ByteBuffer wrap(ByteBuffer buffer) throws IOException;
+
+  /**
+   * Returns true if the bytes returned by {@link #wrap(ByteBuffer)} must be written to the
+   * channel in the order they were wrapped and can therefore not be queued or conflated.
+   */
+  boolean isStateful();
+}
@@ -12,28 +12,37 @@
  * or implied. See the License for the specific language governing permissions and limitations under
  * the License.
  */
-package org.apache.geode.redis.internal.executor;
+package org.apache.geode.internal.net;
 
-import org.apache.geode.redis.internal.ByteArrayWrapper;
-import org.apache.geode.redis.internal.RedisDataType;
-import org.apache.geode.redis.internal.RegionProvider;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 
+/**
+ * A {@link NioFilter} that passes bytes through unchanged.
+ */
+public class NioPlainEngine implements NioFilter {
 
-public class ExpirationExecutor implements Runnable {
-  private final ByteArrayWrapper key;
-  private final RedisDataType type;
-  private final RegionProvider rC;
+  private static final NioPlainEngine INSTANCE = new NioPlainEngine();
 
-  public ExpirationExecutor(ByteArrayWrapper k, RedisDataType type, RegionProvider rC) {
-    this.key = k;
-    this.type = type;
-    this.rC = rC;
+  public static NioPlainEngine getInstance() {
+    return INSTANCE;
   }
 
+  private NioPlainEngine() {}
+
   @Override
-  public void run() {
-    rC.removeKey(key, type, false);
+  public int read(SocketChannel channel, ByteBuffer buffer) throws IOException {
+    return channel.read(buffer);
   }
 
+  @Override
+  public ByteBuffer wrap(ByteBuffer buffer) {
+    return buffer;
+  }
 
+  @Override
+  public boolean isStateful() {
+    return false;
+  }
 }
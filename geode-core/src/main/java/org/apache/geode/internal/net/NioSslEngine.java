@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import static javax.net.ssl.SSLEngineResult.HandshakeStatus.FINISHED;
+import static javax.net.ssl.SSLEngineResult.HandshakeStatus.NEED_TASK;
+import static javax.net.ssl.SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLSession;
+
+/**
+ * A {@link NioFilter} that encrypts and decrypts the bytes of a socket channel with an
+ * {@link SSLEngine}.
+ *
+ * <p>
+ * Reads must be done by one thread at a time, and so must writes, but a read and a write may happen
+ * concurrently. The buffers holding encrypted data are direct buffers if requested, so that the
+ * channel can read and write them without copying.
+ */
+public class NioSslEngine implements NioFilter {
+
+  private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+
+  private final SSLEngine engine;
+
+  private final boolean useDirectBuffers;
+
+  /** Encrypted bytes to be written to the channel, in read mode after wrapping */
+  private ByteBuffer myNetData;
+
+  /** Encrypted bytes read from the channel but not yet decrypted, in write mode */
+  private ByteBuffer peerNetData;
+
+  /** Decrypted bytes not yet handed out by {@link #read}, in write mode */
+  private ByteBuffer peerAppData;
+
+  private final Object wrapLock = new Object();
+
+  /**
+   * @param engine the engine, which must already be configured for client or server mode
+   * @param useDirectBuffers whether to use direct buffers for the encrypted data
+   */
+  public NioSslEngine(SSLEngine engine, boolean useDirectBuffers) {
+    this.engine = engine;
+    this.useDirectBuffers = useDirectBuffers;
+    SSLSession session = engine.getSession();
+    this.myNetData = allocate(session.getPacketBufferSize());
+    this.peerNetData = allocate(session.getPacketBufferSize());
+    this.peerAppData = ByteBuffer.allocate(session.getApplicationBufferSize());
+  }
+
+  public SSLEngine getEngine() {
+    return this.engine;
+  }
+
+  /**
+   * Performs the SSL handshake over the given channel. If a timeout is given, the channel is put in
+   * non-blocking mode for the handshake and every read and write waits on a selector for no longer
+   * than the time left, so a peer that stops responding cannot hold the calling thread. The
+   * channel's blocking mode is restored afterwards.
+   *
+   * @param timeout the number of milliseconds allowed for the handshake, or zero for no limit
+   */
+  public void handshake(SocketChannel channel, int timeout) throws IOException {
+    if (timeout <= 0) {
+      handshake(channel, null, Long.MAX_VALUE, timeout);
+      return;
+    }
+    boolean blocking = channel.isBlocking();
+    try (Selector selector = Selector.open()) {
+      channel.configureBlocking(false);
+      handshake(channel, selector, System.currentTimeMillis() + timeout, timeout);
+    } finally {
+      // closing the selector deregisters the channel, so its mode can be changed back
+      if (channel.isOpen()) {
+        channel.configureBlocking(blocking);
+      }
+    }
+  }
+
+  /**
+   * @param selector the selector to wait on for the non-blocking channel, or null if the channel is
+   *        blocking
+   */
+  private void handshake(SocketChannel channel, Selector selector, long deadline, int timeout)
+      throws IOException {
+    this.engine.beginHandshake();
+    HandshakeStatus status = this.engine.getHandshakeStatus();
+    while (status != FINISHED && status != NOT_HANDSHAKING) {
+      checkDeadline(channel, deadline, timeout);
+      SSLEngineResult result;
+      switch (status) {
+        case NEED_UNWRAP:
+          this.peerNetData.flip();
+          result = this.engine.unwrap(this.peerNetData, this.peerAppData);
+          this.peerNetData.compact();
+          status = result.getHandshakeStatus();
+          switch (result.getStatus()) {
+            case BUFFER_UNDERFLOW:
+              this.peerNetData = ensureRemaining(this.peerNetData,
+                  this.engine.getSession().getPacketBufferSize(), this.useDirectBuffers);
+              if (readBeforeDeadline(channel, selector, deadline, timeout) < 0) {
+                throw new SSLHandshakeException(
+                    "The peer closed the connection during the SSL handshake");
+              }
+              break;
+            case BUFFER_OVERFLOW:
+              this.peerAppData = ensureRemaining(this.peerAppData,
+                  this.engine.getSession().getApplicationBufferSize(), false);
+              break;
+            case CLOSED:
+              throw new SSLHandshakeException("The SSL engine closed during the SSL handshake");
+            default:
+              break;
+          }
+          break;
+        case NEED_WRAP:
+          synchronized (this.wrapLock) {
+            this.myNetData.clear();
+            result = this.engine.wrap(EMPTY_BUFFER, this.myNetData);
+            status = result.getHandshakeStatus();
+            switch (result.getStatus()) {
+              case BUFFER_OVERFLOW:
+                this.myNetData = ensureRemaining(this.myNetData,
+                    this.engine.getSession().getPacketBufferSize(), this.useDirectBuffers);
+                break;
+              case CLOSED:
+                throw new SSLHandshakeException("The SSL engine closed during the SSL handshake");
+              default:
+                this.myNetData.flip();
+                writeBeforeDeadline(channel, selector, deadline, timeout);
+                break;
+            }
+          }
+          break;
+        case NEED_TASK:
+          status = runDelegatedTasks();
+          break;
+        default:
+          throw new SSLHandshakeException("Unexpected SSL handshake status " + status);
+      }
+    }
+  }
+
+  private int readBeforeDeadline(SocketChannel channel, Selector selector, long deadline,
+      int timeout) throws IOException {
+    int amountRead;
+    while ((amountRead = channel.read(this.peerNetData)) == 0 && selector != null) {
+      await(channel, selector, SelectionKey.OP_READ, deadline, timeout);
+    }
+    return amountRead;
+  }
+
+  private void writeBeforeDeadline(SocketChannel channel, Selector selector, long deadline,
+      int timeout) throws IOException {
+    while (this.myNetData.hasRemaining()) {
+      if (channel.write(this.myNetData) == 0 && selector != null) {
+        await(channel, selector, SelectionKey.OP_WRITE, deadline, timeout);
+      }
+    }
+  }
+
+  /**
+   * Waits until the channel is ready for the given operation or the deadline passes
+   */
+  private static void await(SocketChannel channel, Selector selector, int operation,
+      long deadline, int timeout) throws IOException {
+    long remaining = checkDeadline(channel, deadline, timeout);
+    channel.register(selector, operation);
+    selector.select(remaining);
+    selector.selectedKeys().clear();
+  }
+
+  /**
+   * Throws a SocketTimeoutException if the deadline has passed
+   *
+   * @return the number of milliseconds left
+   */
+  private static long checkDeadline(SocketChannel channel, long deadline, int timeout)
+      throws SocketTimeoutException {
+    long remaining = deadline - System.currentTimeMillis();
+    if (remaining <= 0) {
+      throw new SocketTimeoutException(
+          String.format("SSL handshake with %s timed out after %s milliseconds",
+              channel.socket().getRemoteSocketAddress(), timeout));
+    }
+    return remaining;
+  }
+
+  @Override
+  public int read(SocketChannel channel, ByteBuffer buffer) throws IOException {
+    while (this.peerAppData.position() == 0) {
+      SSLEngineResult result = null;
+      if (this.peerNetData.position() > 0) {
+        this.peerNetData.flip();
+        result = this.engine.unwrap(this.peerNetData, this.peerAppData);
+        this.peerNetData.compact();
+      }
+      if (result == null || result.getStatus() == SSLEngineResult.Status.BUFFER_UNDERFLOW) {
+        this.peerNetData = ensureRemaining(this.peerNetData,
+            this.engine.getSession().getPacketBufferSize(), this.useDirectBuffers);
+        int amountRead = channel.read(this.peerNetData);
+        if (amountRead <= 0) {
+          return amountRead;
+        }
+        continue;
+      }
+      switch (result.getStatus()) {
+        case BUFFER_OVERFLOW:
+          this.peerAppData = ensureRemaining(this.peerAppData,
+              this.engine.getSession().getApplicationBufferSize(), false);
+          break;
+        case CLOSED:
+          return -1;
+        default:
+          // post-handshake messages produce no data; a response to them is sent by the next wrap
+          if (result.getHandshakeStatus() == NEED_TASK) {
+            runDelegatedTasks();
+          }
+          break;
+      }
+    }
+
+    this.peerAppData.flip();
+    int amount = Math.min(buffer.remaining(), this.peerAppData.remaining());
+    int limit = this.peerAppData.limit();
+    this.peerAppData.limit(this.peerAppData.position() + amount);
+    buffer.put(this.peerAppData);
+    this.peerAppData.limit(limit);
+    this.peerAppData.compact();
+    return amount;
+  }
+
+  @Override
+  public ByteBuffer wrap(ByteBuffer buffer) throws IOException {
+    synchronized (this.wrapLock) {
+      // Release a buffer grown for a large write once the writes fit in a packet again, since
+      // each P2P connection would otherwise keep the largest message it ever sent
+      SSLSession session = this.engine.getSession();
+      if (this.myNetData.capacity() > session.getPacketBufferSize()
+          && buffer.remaining() <= session.getApplicationBufferSize()) {
+        this.myNetData = allocate(session.getPacketBufferSize());
+      }
+      this.myNetData.clear();
+      while (buffer.hasRemaining()) {
+        SSLEngineResult result = this.engine.wrap(buffer, this.myNetData);
+        switch (result.getStatus()) {
+          case BUFFER_OVERFLOW:
+            this.myNetData = ensureRemaining(this.myNetData,
+                Math.max(this.engine.getSession().getPacketBufferSize(), buffer.remaining()),
+                this.useDirectBuffers);
+            break;
+          case CLOSED:
+            throw new SSLException("The SSL engine is closed");
+          default:
+            if (result.getHandshakeStatus() == NEED_TASK) {
+              runDelegatedTasks();
+            }
+            break;
+        }
+      }
+      this.myNetData.flip();
+      return this.myNetData;
+    }
+  }
+
+  @Override
+  public boolean isStateful() {
+    return true;
+  }
+
+  private HandshakeStatus runDelegatedTasks() {
+    Runnable task;
+    while ((task = this.engine.getDelegatedTask()) != null) {
+      task.run();
+    }
+    return this.engine.getHandshakeStatus();
+  }
+
+  private ByteBuffer allocate(int size) {
+    return this.useDirectBuffers ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+  }
+
+  /**
+   * Returns the given buffer, which must be in write mode, if it has the given number of bytes
+   * remaining, or otherwise a larger copy of it.
+   */
+  private static ByteBuffer ensureRemaining(ByteBuffer buffer, int remaining, boolean direct) {
+    if (buffer.remaining() >= remaining) {
+      return buffer;
+    }
+    int capacity = Math.max(buffer.capacity() * 2, buffer.position() + remaining);
+    ByteBuffer newBuffer =
+        direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    buffer.flip();
+    newBuffer.put(buffer);
+    return newBuffer;
+  }
+}
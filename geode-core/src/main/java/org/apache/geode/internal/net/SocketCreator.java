@@ -30,6 +30,7 @@ import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
@@ -338,9 +339,8 @@ public class SocketCreator {
       if (SecurableCommunicationChannel.CLUSTER
           .equals(sslConfig.getSecuredCommunicationChannel())) {
         if (this.sslConfig.isEnabled()) {
+          // connections stay on nio and use an SSLEngine unless p2p.oldIO is set
           System.setProperty("p2p.useSSL", "true");
-          System.setProperty("p2p.oldIO", "true");
-          System.setProperty("p2p.nodirectBuffers", "true");
         } else {
           System.setProperty("p2p.useSSL", "false");
         }
@@ -1003,6 +1003,70 @@ public class SocketCreator {
     }
   }
 
+  /**
+   * Creates an SSLEngine for a NIO connection with the given peer, configured like the SSL
+   * sockets created by this SocketCreator.
+   *
+   * @param clientMode true if this side initiated the connection
+   */
+  public SSLEngine createSSLEngine(String hostName, int port, boolean clientMode) {
+    if (this.sslContext == null) {
+      throw new GemFireConfigException(
+          "SSL not configured correctly, Please look at previous error");
+    }
+    SSLEngine engine = this.sslContext.createSSLEngine(hostName, port);
+    engine.setUseClientMode(clientMode);
+    engine.setEnableSessionCreation(true);
+    if (clientMode) {
+      if (this.sslConfig.doEndpointIdentification()) {
+        SSLParameters sslParameters = engine.getSSLParameters();
+        sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
+        engine.setSSLParameters(sslParameters);
+      }
+    } else if (this.sslConfig.isRequireAuth()) {
+      engine.setNeedClientAuth(true);
+    }
+
+    // restrict protocols
+    String[] protocols = this.sslConfig.getProtocolsAsStringArray();
+    if (protocols != null && !"any".equalsIgnoreCase(protocols[0])) {
+      engine.setEnabledProtocols(protocols);
+    }
+    // restrict ciphers
+    String[] ciphers = this.sslConfig.getCiphersAsStringArray();
+    if (ciphers != null && !"any".equalsIgnoreCase(ciphers[0])) {
+      engine.setEnabledCipherSuites(ciphers);
+    }
+    return engine;
+  }
+
+  /**
+   * Performs the SSL handshake on a connected socket channel in blocking mode and returns the
+   * filter that encrypts and decrypts the data subsequently sent over the channel.
+   *
+   * @param timeout the number of milliseconds allowed for the handshake to complete
+   * @param useDirectBuffers whether the encrypted data is held in direct buffers
+   */
+  public NioSslEngine handshakeSSLSocketChannel(SocketChannel channel, SSLEngine engine,
+      int timeout, boolean useDirectBuffers) throws IOException {
+    NioSslEngine nioSslEngine = new NioSslEngine(engine, useDirectBuffers);
+    try {
+      nioSslEngine.handshake(channel, timeout);
+    } catch (SSLHandshakeException ex) {
+      logger.fatal(String.format("SSL Error in connecting to peer %s[%s].",
+          new Object[] {channel.socket().getInetAddress(),
+              Integer.valueOf(channel.socket().getPort())}),
+          ex);
+      throw ex;
+    } catch (SSLPeerUnverifiedException ex) {
+      if (this.sslConfig.isRequireAuth()) {
+        logger.fatal("SSL Error in authenticating peer.", ex);
+        throw ex;
+      }
+    }
+    return nioSslEngine;
+  }
+
   // -------------------------------------------------------------------------
   // Private implementation methods
   // -------------------------------------------------------------------------
@@ -42,8 +42,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.net.ssl.SSLEngine;
 
 import org.apache.logging.log4j.Logger;
 
@@ -76,8 +80,11 @@ import org.apache.geode.internal.SystemTimer;
 import org.apache.geode.internal.SystemTimer.SystemTimerTask;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.alerting.AlertingAction;
+import org.apache.geode.internal.cache.DirectReplyMessage;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.LoggingThread;
+import org.apache.geode.internal.net.NioFilter;
+import org.apache.geode.internal.net.NioPlainEngine;
 import org.apache.geode.internal.net.SocketCreator;
 import org.apache.geode.internal.tcp.MsgReader.Header;
 import org.apache.geode.internal.util.concurrent.ReentrantSemaphore;
@@ -138,6 +145,20 @@ public class Connection implements Runnable {
     return this.sharedResource;
   }
 
+  /**
+   * the index of the ConnectionTable map holding this connection if it carries the ordered
+   * messages of many threads, or -1
+   */
+  private volatile int multiplexedSlot = -1;
+
+  int getMultiplexedSlot() {
+    return this.multiplexedSlot;
+  }
+
+  void setMultiplexedSlot(int slot) {
+    this.multiplexedSlot = slot;
+  }
+
   /** The idle timeout timer task for this connection */
   private SystemTimerTask idleTask;
 
@@ -366,6 +387,9 @@ public class Connection implements Runnable {
   /** the buffer used for NIO message receipt */
   ByteBuffer nioInputBuffer;
 
+  /** encrypts and decrypts the bytes of an NIO connection if SSL is enabled */
+  private volatile NioFilter ioFilter = NioPlainEngine.getInstance();
+
   /** the length of the next message to be dispatched */
   int nioMessageLength;
 
@@ -561,6 +585,14 @@ public class Connection implements Runnable {
         t.getSocketCloser().asyncClose(socket, this.remoteAddr.toString(), null);
         throw io;
       }
+    } else {
+      try {
+        initIoFilter(socket.getChannel(), false, this.conduit.idleConnectionTimeout);
+      } catch (IOException io) {
+        t.getSocketCloser().asyncClose(socket, String.valueOf(socket.getRemoteSocketAddress()),
+            null);
+        throw io;
+      }
     }
   }
 
@@ -1257,6 +1289,12 @@ public class Connection implements Runnable {
         this.owner.removeConnectingSocket(channel.socket());
       }
       this.socket = channel.socket();
+      try {
+        initIoFilter(channel, true, getP2PConnectTimeout());
+      } catch (IOException e) {
+        channel.close();
+        throw e;
+      }
     } else {
       if (TCPConduit.useSSL) {
         int socketBufferSize =
@@ -1286,18 +1324,29 @@ public class Connection implements Runnable {
   }
 
   /**
-   * Batch sends currently should not be turned on because: 1. They will be used for all sends
-   * (instead of just no-ack) and thus will break messages that wait for a response (or kill perf).
-   * 2. The buffer is not properly flushed and closed on shutdown. The code attempts to do this but
-   * must not be doing it correctly.
+   * Batch sends coalesce the small messages sent on an ordered connection into fewer, larger socket
+   * writes. A message is copied into the fill buffer and the BatchBufferFlusher thread writes the
+   * buffer once its first message has waited p2p.batchFlushMicros, once it holds
+   * p2p.batchFlushSize bytes, or as soon as it holds a message whose sender will wait for a reply.
+   * The messages are written back to back, just as they would be one at a time, so the receiving
+   * side reads them without knowing that they were batched.
    */
   private static final boolean BATCH_SENDS = Boolean.getBoolean("p2p.batchSends");
   private static final int BATCH_BUFFER_SIZE =
       Integer.getInteger("p2p.batchBufferSize", 1024 * 1024).intValue();
-  private static final int BATCH_FLUSH_MS = Integer.getInteger("p2p.batchFlushTime", 50).intValue();
+  private static final int BATCH_FLUSH_SIZE =
+      Integer.getInteger("p2p.batchFlushSize", 32 * 1024).intValue();
+  /** p2p.batchFlushTime is the original, millisecond, form of the setting */
+  private static final long BATCH_FLUSH_NANOS = Integer.getInteger("p2p.batchFlushTime") != null
+      ? TimeUnit.MILLISECONDS.toNanos(Integer.getInteger("p2p.batchFlushTime"))
+      : TimeUnit.MICROSECONDS.toNanos(Integer.getInteger("p2p.batchFlushMicros", 100));
   private Object batchLock;
   private ByteBuffer fillBatchBuffer;
   private ByteBuffer sendBatchBuffer;
+  /** the number of messages in fillBatchBuffer; guarded by batchLock */
+  private int fillBatchMessages;
+  /** the System.nanoTime when the first message was put in fillBatchBuffer; guarded by batchLock */
+  private long fillBatchStart;
   private BatchBufferFlusher batchFlusher;
 
   private void createBatchSendBuffer() {
@@ -1336,26 +1385,40 @@ public class Connection implements Runnable {
       this.stats = owner.getConduit().getStats();
     }
 
+    /**
+     * Called when a message writer wants the fillBatchBuffer written without waiting for the flush
+     * time
+     */
+    public void requestFlush() {
+      this.flushNeeded = true;
+      LockSupport.unpark(this);
+    }
+
+    /**
+     * Called when a message writer put the first message in the fillBatchBuffer, so that its flush
+     * time is started
+     */
+    public void messagesPending() {
+      LockSupport.unpark(this);
+    }
+
     /**
      * Called when a message writer needs the current fillBatchBuffer flushed
      */
     public void flushBuffer(ByteBuffer bb) {
       final long start = DistributionStats.getStatTime();
       try {
-        synchronized (this) {
-          synchronized (batchLock) {
-            if (bb != fillBatchBuffer) {
-              // it must have already been flushed. So just return
-              // and use the new fillBatchBuffer
-              return;
-            }
+        synchronized (batchLock) {
+          if (bb != fillBatchBuffer) {
+            // it must have already been flushed. So just return
+            // and use the new fillBatchBuffer
+            return;
           }
-          this.flushNeeded = true;
-          this.notify();
         }
+        requestFlush();
         synchronized (batchLock) {
           // Wait for the flusher thread
-          while (bb == fillBatchBuffer) {
+          while (bb == fillBatchBuffer && !this.timeToStop) {
             Connection.this.owner.getConduit().getCancelCriterion().checkCancelInProgress(null);
             boolean interrupted = Thread.interrupted();
             try {
@@ -1375,59 +1438,80 @@ public class Connection implements Runnable {
     }
 
     public void close() {
-      synchronized (this) {
-        this.timeToStop = true;
-        this.flushNeeded = true;
-        this.notify();
+      this.timeToStop = true;
+      requestFlush();
+      synchronized (batchLock) {
+        batchLock.notifyAll();
       }
     }
 
     @Override
     public void run() {
-      try {
-        synchronized (this) {
-          while (!timeToStop) {
-            if (!this.flushNeeded && fillBatchBuffer.position() <= (BATCH_BUFFER_SIZE / 2)) {
-              wait(BATCH_FLUSH_MS); // spurious wakeup ok
+      while (!this.timeToStop) {
+        if (!this.flushNeeded) {
+          long waitTime;
+          synchronized (batchLock) {
+            waitTime = fillBatchMessages == 0 ? Long.MAX_VALUE
+                : fillBatchStart + BATCH_FLUSH_NANOS - System.nanoTime();
+          }
+          if (waitTime > 0) {
+            if (waitTime == Long.MAX_VALUE) {
+              LockSupport.park(this);
+            } else {
+              LockSupport.parkNanos(this, waitTime);
             }
-            if (this.flushNeeded || fillBatchBuffer.position() > (BATCH_BUFFER_SIZE / 2)) {
-              final long start = DistributionStats.getStatTime();
-              synchronized (batchLock) {
-                // This is the only block of code that will swap
-                // the buffer references
-                this.flushNeeded = false;
-                ByteBuffer tmp = fillBatchBuffer;
-                fillBatchBuffer = sendBatchBuffer;
-                sendBatchBuffer = tmp;
-                batchLock.notifyAll();
-              }
-              // We now own the sendBatchBuffer
-              if (sendBatchBuffer.position() > 0) {
-                final boolean origSocketInUse = socketInUse;
-                socketInUse = true;
-                try {
-                  sendBatchBuffer.flip();
-                  SocketChannel channel = getSocket().getChannel();
-                  nioWriteFully(channel, sendBatchBuffer, false, null);
-                  sendBatchBuffer.clear();
-                } catch (IOException | ConnectionException ex) {
-                  logger.fatal("Exception flushing batch send buffer: %s", ex);
-                  readerShuttingDown = true;
-                  requestClose(String.format("Exception flushing batch send buffer: %s",
-                      ex));
-                } finally {
-                  accessed();
-                  socketInUse = origSocketInUse;
-                }
-              }
-              this.stats.incBatchFlushTime(start);
+            if (isInterrupted()) {
+              // time for this thread to shutdown
+              return;
             }
+            continue; // spurious wakeup ok
+          }
+        }
+        flush();
+      }
+    }
+
+    private void flush() {
+      final long start = DistributionStats.getStatTime();
+      // holding outLock keeps a message that batchSend writes directly, because it is too large for
+      // the fillBatchBuffer, from being written before the messages batched ahead of it
+      synchronized (outLock) {
+        int messages;
+        long batchStart;
+        synchronized (batchLock) {
+          // This is the only block of code that will swap
+          // the buffer references
+          this.flushNeeded = false;
+          ByteBuffer tmp = fillBatchBuffer;
+          fillBatchBuffer = sendBatchBuffer;
+          sendBatchBuffer = tmp;
+          messages = fillBatchMessages;
+          batchStart = fillBatchStart;
+          fillBatchMessages = 0;
+          batchLock.notifyAll();
+        }
+        // We now own the sendBatchBuffer
+        if (sendBatchBuffer.position() > 0) {
+          this.stats.incBatchFrames(messages, System.nanoTime() - batchStart);
+          final boolean origSocketInUse = socketInUse;
+          socketInUse = true;
+          try {
+            sendBatchBuffer.flip();
+            SocketChannel channel = getSocket().getChannel();
+            nioWriteFully(channel, sendBatchBuffer, false, null);
+            sendBatchBuffer.clear();
+          } catch (IOException | ConnectionException ex) {
+            logger.fatal("Exception flushing batch send buffer: %s", ex);
+            readerShuttingDown = true;
+            requestClose(String.format("Exception flushing batch send buffer: %s",
+                ex));
+          } finally {
+            accessed();
+            socketInUse = origSocketInUse;
           }
         }
-      } catch (InterruptedException ex) {
-        // time for this thread to shutdown
-        // Thread.currentThread().interrupt();
       }
+      this.stats.incBatchFlushTime(start);
     }
   }
 
@@ -1443,24 +1527,55 @@ public class Connection implements Runnable {
    */
   private static final boolean SOCKET_WRITE_DISABLED = Boolean.getBoolean("p2p.disableSocketWrite");
 
-  private void batchSend(ByteBuffer src) throws IOException {
+  private void batchSend(ByteBuffer src, DistributionMessage msg) throws IOException {
     if (SOCKET_WRITE_DISABLED) {
       return;
     }
     final long start = DistributionStats.getStatTime();
     try {
       ByteBuffer dst = null;
-      Assert.assertTrue(src.remaining() <= BATCH_BUFFER_SIZE, "Message size(" + src.remaining()
-          + ") exceeded BATCH_BUFFER_SIZE(" + BATCH_BUFFER_SIZE + ")");
+      if (src.remaining() > BATCH_BUFFER_SIZE) {
+        // write the messages batched ahead of this one and then this one directly
+        synchronized (this.batchLock) {
+          dst = this.fillBatchBuffer;
+        }
+        if (dst.position() > 0) {
+          this.batchFlusher.flushBuffer(dst);
+        }
+        nioWriteFully(getSocket().getChannel(), src, false, msg);
+        return;
+      }
+      // don't hold back a message that someone will wait for a reply to
+      final boolean flushNow =
+          msg == null || msg instanceof DirectReplyMessage || msg.getProcessorId() > 0;
       do {
+        if (!this.connected) {
+          throw new ConnectionException(
+              String.format("Not connected to %s", this.remoteAddr));
+        }
+        boolean firstMessage = false;
+        boolean full = false;
         synchronized (this.batchLock) {
           dst = this.fillBatchBuffer;
           if (src.remaining() <= dst.remaining()) {
             final long copyStart = DistributionStats.getStatTime();
             dst.put(src);
             this.owner.getConduit().getStats().incBatchCopyTime(copyStart);
-            return;
+            if (this.fillBatchMessages++ == 0) {
+              this.fillBatchStart = System.nanoTime();
+              firstMessage = true;
+            }
+            full = dst.position() >= BATCH_FLUSH_SIZE;
+            dst = null;
+          }
+        }
+        if (dst == null) {
+          if (flushNow || full) {
+            this.batchFlusher.requestFlush();
+          } else if (firstMessage) {
+            this.batchFlusher.messagesPending();
           }
+          return;
         }
         // If we got this far then we do not have room in the current
         // buffer and need the flusher thread to flush before we can fill it
@@ -1545,6 +1660,9 @@ public class Connection implements Runnable {
                 stats.decReceivers();
               } else {
                 stats.decSenders(this.sharedResource, this.preserveOrder);
+                if (this.multiplexedSlot >= 0) {
+                  stats.decMultiplexedSenders();
+                }
               }
             }
           }
@@ -1793,7 +1911,7 @@ public class Connection implements Runnable {
           synchronized (stateLock) {
             connectionState = STATE_READING;
           }
-          int amt = channel.read(buff);
+          int amt = this.ioFilter.read(channel, buff);
           synchronized (stateLock) {
             connectionState = STATE_IDLE;
           }
@@ -2502,7 +2620,7 @@ public class Connection implements Runnable {
           String.format("Not connected to %s", this.remoteAddr));
     }
     if (this.batchFlusher != null) {
-      batchSend(buffer);
+      batchSend(buffer, msg);
       return;
     }
     final boolean origSocketInUse = this.socketInUse;
@@ -3079,6 +3197,11 @@ public class Connection implements Runnable {
     if (this.asyncDistributionTimeout == 0) {
       return true;
     }
+    // or the bytes are encrypted, so that queued bytes could be neither conflated nor written
+    // after bytes encrypted later
+    if (this.ioFilter.isStateful()) {
+      return true;
+    }
     // OTHERWISE return false and let caller send async
     return false;
   }
@@ -3257,39 +3380,78 @@ public class Connection implements Runnable {
     if (!this.sharedResource) {
       stats.incTOSentMsg();
     }
-    if (useSyncWrites(forceAsync)) {
-      if (this.asyncQueuingInProgress) {
-        if (addToQueue(buffer, msg, false)) {
-          return;
-        }
-        // fall through
-      }
-      long startLock = stats.startSocketLock();
-      synchronized (this.outLock) {
-        stats.endSocketLock(startLock);
+    final boolean multiplexed = this.multiplexedSlot >= 0;
+    final long startFrame = multiplexed ? stats.startMultiplexedFrame() : 0;
+    try {
+      if (useSyncWrites(forceAsync)) {
         if (this.asyncQueuingInProgress) {
           if (addToQueue(buffer, msg, false)) {
             return;
           }
           // fall through
         }
-        do {
-          int amtWritten = 0;
-          long start = stats.startSocketWrite(true);
-          try {
-            // this.writerThread = Thread.currentThread();
-            amtWritten = channel.write(buffer);
-          } finally {
-            stats.endSocketWrite(true, start, amtWritten, 0);
-            // this.writerThread = null;
+        long startLock = stats.startSocketLock();
+        synchronized (this.outLock) {
+          stats.endSocketLock(startLock);
+          if (multiplexed) {
+            // time spent behind the messages of the other threads sharing this connection
+            stats.endMultiplexedFrameBlocking(startFrame);
           }
-        } while (buffer.remaining() > 0);
-      } // synchronized
-    } else {
-      writeAsync(channel, buffer, forceAsync, msg, stats);
+          if (this.asyncQueuingInProgress) {
+            if (addToQueue(buffer, msg, false)) {
+              return;
+            }
+            // fall through
+          }
+          ByteBuffer wrappedBuffer = this.ioFilter.wrap(buffer);
+          do {
+            int amtWritten = 0;
+            long start = stats.startSocketWrite(true);
+            try {
+              // this.writerThread = Thread.currentThread();
+              amtWritten = channel.write(wrappedBuffer);
+            } finally {
+              stats.endSocketWrite(true, start, amtWritten, 0);
+              // this.writerThread = null;
+            }
+          } while (wrappedBuffer.remaining() > 0);
+        } // synchronized
+      } else {
+        writeAsync(channel, buffer, forceAsync, msg, stats);
+      }
+    } finally {
+      if (multiplexed) {
+        stats.endMultiplexedFrame();
+      }
     }
   }
 
+  /**
+   * Performs the SSL handshake on a newly connected or accepted channel if SSL is enabled.
+   *
+   * @param clientSocket true if this side initiated the connection
+   * @param timeout the number of milliseconds allowed for the handshake
+   */
+  private void initIoFilter(SocketChannel channel, boolean clientSocket, int timeout)
+      throws IOException {
+    if (!TCPConduit.useSSL) {
+      return;
+    }
+    SocketCreator socketCreator = this.conduit.getSocketCreator();
+    InetSocketAddress address = (InetSocketAddress) channel.socket().getRemoteSocketAddress();
+    SSLEngine engine =
+        socketCreator.createSSLEngine(address.getHostString(), address.getPort(), clientSocket);
+    this.ioFilter = socketCreator.handshakeSSLSocketChannel(channel, engine, timeout,
+        TCPConduit.useDirectBuffers);
+  }
+
+  /**
+   * Returns the filter the bytes read from and written to the channel of this connection pass.
+   */
+  NioFilter getIoFilter() {
+    return this.ioFilter;
+  }
+
   /** gets the buffer for receiving message length bytes */
   protected ByteBuffer getNIOBuffer() {
     final DMStats stats = this.owner.getConduit().getStats();
@@ -4052,9 +4214,6 @@ public class Connection implements Runnable {
   boolean useNIO;
 
   private boolean useNIO() {
-    if (TCPConduit.useSSL) {
-      return false;
-    }
     if (this.nioChecked) {
       return this.useNIO;
     }
@@ -35,6 +35,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.SystemFailure;
+import org.apache.geode.annotations.VisibleForTesting;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.DistributedSystemDisconnectedException;
 import org.apache.geode.distributed.internal.DistributionManager;
@@ -108,6 +109,14 @@ public class ConnectionTable {
    */
   protected final Map unorderedConnectionMap = new ConcurrentHashMap();
 
+  /**
+   * Ordered connections shared by the threads that would otherwise own a connection, used when
+   * p2p.multiplexedConnections is set. A thread always uses the map at the same index so that the
+   * messages it sends to a member arrive in order. Only connections used for sending messages, and
+   * receiving acks, will be put in these maps.
+   */
+  private final Map[] multiplexedConnectionMaps;
+
   /**
    * Used for all accepted connections. These connections are read only; we never send messages,
    * except for acks; only receive.
@@ -193,6 +202,10 @@ public class ConnectionTable {
     this.threadOrderedConnMap = new ThreadLocal();
     this.threadConnMaps = new ArrayList();
     this.threadConnectionMap = new ConcurrentHashMap();
+    this.multiplexedConnectionMaps = new Map[Math.max(0, TCPConduit.multiplexedConnections)];
+    for (int i = 0; i < this.multiplexedConnectionMaps.length; i++) {
+      this.multiplexedConnectionMaps[i] = new ConcurrentHashMap();
+    }
     this.p2pReaderThreadPool = createThreadPoolForIO(conduit.getDM().getSystem().isShareSockets());
     this.socketCloser = new SocketCloser();
   }
@@ -273,6 +286,7 @@ public class ConnectionTable {
    * @param sharedResource whether the connection is used by multiple threads
    * @param preserveOrder whether to preserve order
    * @param m map to add the connection to
+   * @param multiplexedSlot the index of m in multiplexedConnectionMaps, or -1
    * @param pc the PendingConnection to process
    * @param startTime the ms clock start time for the operation
    * @param ackThreshold the ms ack-wait-threshold, or zero
@@ -281,14 +295,19 @@ public class ConnectionTable {
    * @throws IOException if unable to connect
    */
   private Connection handleNewPendingConnection(DistributedMember id, boolean sharedResource,
-      boolean preserveOrder, Map m, PendingConnection pc, long startTime, long ackThreshold,
-      long ackSAThreshold) throws IOException, DistributedSystemDisconnectedException {
+      boolean preserveOrder, Map m, int multiplexedSlot, PendingConnection pc, long startTime,
+      long ackThreshold, long ackSAThreshold)
+      throws IOException, DistributedSystemDisconnectedException {
     // handle new pending connection
     Connection con = null;
     try {
       con = Connection.createSender(owner.getMembershipManager(), this, preserveOrder, id,
           sharedResource, startTime, ackThreshold, ackSAThreshold);
       this.owner.getStats().incSenders(sharedResource, preserveOrder);
+      if (multiplexedSlot >= 0) {
+        con.setMultiplexedSlot(multiplexedSlot);
+        this.owner.getStats().incMultiplexedSenders();
+      }
     } finally {
       // our connection failed to notify anyone waiting for our pending con
       if (con == null) {
@@ -371,9 +390,35 @@ public class ConnectionTable {
   private Connection getSharedConnection(DistributedMember id, boolean scheduleTimeout,
       boolean preserveOrder, long startTime, long ackTimeout, long ackSATimeout)
       throws IOException, DistributedSystemDisconnectedException {
-    Connection result = null;
-
     final Map m = preserveOrder ? this.orderedConnectionMap : this.unorderedConnectionMap;
+    return getSharedConnection(id, m, -1, scheduleTimeout, preserveOrder, startTime, ackTimeout,
+        ackSATimeout);
+  }
+
+  /**
+   * An ordered connection that this thread shares with the other threads mapped to the same slot.
+   * Each thread always uses the same slot, so the messages it sends arrive in order even though
+   * they are interleaved with those of other threads.
+   *
+   * @param id the DistributedMember on which we are creating a connection
+   * @param startTime the ms clock start time for the operation
+   * @param ackTimeout the ms ack-wait-threshold, or zero
+   * @param ackSATimeout the ms ack-severe-alert-threshold, or zero
+   * @return the connection, or null if an error
+   * @throws IOException if unable to create the connection
+   */
+  private Connection getMultiplexedConnection(DistributedMember id, long startTime,
+      long ackTimeout, long ackSATimeout)
+      throws IOException, DistributedSystemDisconnectedException {
+    int slot = (int) (Thread.currentThread().getId() % this.multiplexedConnectionMaps.length);
+    return getSharedConnection(id, this.multiplexedConnectionMaps[slot], slot, false, true,
+        startTime, ackTimeout, ackSATimeout);
+  }
+
+  private Connection getSharedConnection(DistributedMember id, Map m, int multiplexedSlot,
+      boolean scheduleTimeout, boolean preserveOrder, long startTime, long ackTimeout,
+      long ackSATimeout) throws IOException, DistributedSystemDisconnectedException {
+    Connection result = null;
 
     PendingConnection pc = null; // new connection, if needed
     Object mEntry = null; // existing connection (if we don't create a new one)
@@ -388,14 +433,14 @@ public class ConnectionTable {
         }
       }
       if (mEntry == null) {
-        pc = new PendingConnection(preserveOrder, id);
+        pc = new PendingConnection(preserveOrder, id, m);
         m.put(id, pc);
       }
     } // synchronized
 
     if (pc != null) {
-      result = handleNewPendingConnection(id, true /* fixes bug 43386 */, preserveOrder, m, pc,
-          startTime, ackTimeout, ackSATimeout);
+      result = handleNewPendingConnection(id, true /* fixes bug 43386 */, preserveOrder, m,
+          multiplexedSlot, pc, startTime, ackTimeout, ackSATimeout);
       if (!preserveOrder && scheduleTimeout) {
         scheduleIdleTimeout(result);
       }
@@ -581,6 +626,8 @@ public class ConnectionTable {
     if (!preserveOrder || !threadOwnsResources) {
       result = getSharedConnection(id, threadOwnsResources, preserveOrder, startTime, ackTimeout,
           ackSATimeout);
+    } else if (this.multiplexedConnectionMaps.length > 0) {
+      result = getMultiplexedConnection(id, startTime, ackTimeout, ackSATimeout);
     } else {
       result = getThreadOwnedConnection(id, startTime, ackTimeout, ackSATimeout);
     }
@@ -666,6 +713,14 @@ public class ConnectionTable {
       }
       this.unorderedConnectionMap.clear();
     }
+    for (Map m : this.multiplexedConnectionMaps) {
+      synchronized (m) {
+        for (Iterator it = m.values().iterator(); it.hasNext();) {
+          closeCon("Connection table being destroyed", it.next());
+        }
+        m.clear();
+      }
+    }
     if (this.threadConnectionMap != null) {
       this.threadConnectionMap = null;
     }
@@ -751,6 +806,13 @@ public class ConnectionTable {
     }
   }
 
+  @VisibleForTesting
+  List<Connection> getReceivers() {
+    synchronized (this.receivers) {
+      return new ArrayList<>(this.receivers);
+    }
+  }
+
   /**
    * Return true if our owner already knows that this endpoint is departing
    */
@@ -783,6 +845,9 @@ public class ConnectionTable {
           needsRemoval = true;
       }
     }
+    for (int i = 0; !needsRemoval && i < this.multiplexedConnectionMaps.length; i++) {
+      needsRemoval = this.multiplexedConnectionMaps[i].get(memberID) != null;
+    }
     if (!needsRemoval) {
       ConcurrentMap cm = this.threadConnectionMap;
       if (cm != null) {
@@ -807,6 +872,15 @@ public class ConnectionTable {
         }
         closeCon(reason, c);
       }
+      for (Map m : this.multiplexedConnectionMaps) {
+        synchronized (m) {
+          Object c = m.remove(memberID);
+          if (remoteAddress == null && (c instanceof Connection)) {
+            remoteAddress = ((Connection) c).getRemoteAddress();
+          }
+          closeCon(reason, c);
+        }
+      }
 
       {
         ConcurrentMap cm = this.threadConnectionMap;
@@ -934,7 +1008,14 @@ public class ConnectionTable {
     if (this.closed) {
       return;
     }
-    if (ordered) {
+    if (c.getMultiplexedSlot() >= 0) {
+      Map m = this.multiplexedConnectionMaps[c.getMultiplexedSlot()];
+      synchronized (m) {
+        if (m.get(stub) == c) {
+          closeCon(reason, m.remove(stub));
+        }
+      }
+    } else if (ordered) {
       synchronized (this.orderedConnectionMap) {
         if (this.orderedConnectionMap.get(stub) == c) {
           closeCon(reason, this.orderedConnectionMap.remove(stub));
@@ -1129,9 +1210,15 @@ public class ConnectionTable {
 
     private final Thread connectingThread;
 
-    public PendingConnection(boolean preserveOrder, DistributedMember id) {
+    /**
+     * the map holding this pending connection
+     */
+    private final Map map;
+
+    public PendingConnection(boolean preserveOrder, DistributedMember id, Map map) {
       this.preserveOrder = preserveOrder;
       this.id = id;
+      this.map = map;
       this.connectingThread = Thread.currentThread();
     }
 
@@ -1168,7 +1255,7 @@ public class ConnectionTable {
         throw new ReenteredConnectException("This thread is already trying to connect");
       }
 
-      final Map m = this.preserveOrder ? orderedConnectionMap : unorderedConnectionMap;
+      final Map m = this.map;
 
       boolean severeAlertIssued = false;
       boolean suspected = false;
@@ -1315,4 +1402,9 @@ public class ConnectionTable {
   public int getNumberOfReceivers() {
     return receivers.size();
   }
+
+  @VisibleForTesting
+  Map getMultiplexedConnectionMap(int slot) {
+    return this.multiplexedConnectionMaps[slot];
+  }
 }
@@ -47,7 +47,7 @@ public class NIOMsgReader extends MsgReader {
     while (lastReadPosition - lastProcessedPosition < bytes) {
       nioInputBuffer.limit(nioInputBuffer.capacity());
       nioInputBuffer.position(lastReadPosition);
-      int bytesRead = inputChannel.read(nioInputBuffer);
+      int bytesRead = conn.getIoFilter().read(inputChannel, nioInputBuffer);
       if (bytesRead < 0) {
         throw new EOFException();
       }
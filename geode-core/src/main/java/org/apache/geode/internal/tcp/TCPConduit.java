@@ -25,6 +25,7 @@ import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
@@ -38,6 +39,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.CancelCriterion;
 import org.apache.geode.CancelException;
 import org.apache.geode.SystemFailure;
+import org.apache.geode.annotations.VisibleForTesting;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.DistributedSystemDisconnectedException;
 import org.apache.geode.distributed.internal.DMStats;
@@ -105,7 +107,8 @@ public class TCPConduit implements Runnable {
   private static int BACKLOG;
 
   /**
-   * use javax.net.ssl.SSLServerSocketFactory?
+   * use SSL? With NIO the connections are encrypted with an SSLEngine, otherwise
+   * javax.net.ssl.SSLServerSocketFactory is used.
    */
   static boolean useSSL;
 
@@ -121,6 +124,13 @@ public class TCPConduit implements Runnable {
    */
   static boolean useDirectBuffers;
 
+  /**
+   * The number of shared ordered connections to each member that carry the messages of threads
+   * that would otherwise own a connection when conserve-sockets is false. Zero, the default, gives
+   * each such thread its own connection.
+   */
+  static int multiplexedConnections;
+
   /**
    * The socket producer used by the cluster
    */
@@ -148,11 +158,12 @@ public class TCPConduit implements Runnable {
 
   public static void init() {
     useSSL = Boolean.getBoolean("p2p.useSSL");
-    // only use nio if not SSL
-    USE_NIO = !useSSL && !Boolean.getBoolean("p2p.oldIO");
+    // SSL is done with an SSLEngine on top of nio unless old io is requested
+    USE_NIO = !Boolean.getBoolean("p2p.oldIO");
     // only use direct buffers if we are using nio
     useDirectBuffers = USE_NIO && !Boolean.getBoolean("p2p.nodirectBuffers");
     LISTENER_CLOSE_TIMEOUT = Integer.getInteger("p2p.listenerCloseTimeout", 60000).intValue();
+    multiplexedConnections = Integer.getInteger("p2p.multiplexedConnections", 0).intValue();
     // note: bug 37730 concerned this defaulting to 50
     BACKLOG = Integer.getInteger("p2p.backlog", 1280).intValue();
   }
@@ -771,6 +782,14 @@ public class TCPConduit implements Runnable {
     return result;
   }
 
+  /**
+   * Returns the connections this conduit has accepted from other members
+   */
+  @VisibleForTesting
+  List<Connection> getReceivers() {
+    return getConTable().getReceivers();
+  }
+
   protected void basicAcceptConnection(Socket othersock) {
     try {
       othersock.setSoTimeout(0);
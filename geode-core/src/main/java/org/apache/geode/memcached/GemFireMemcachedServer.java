@@ -36,6 +36,7 @@ import org.apache.geode.cache.RegionShortcut;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.memcached.ConnectionHandler;
+import org.apache.geode.internal.memcached.MemcachedStats;
 import org.apache.geode.internal.net.SocketCreator;
 
 /**
@@ -105,6 +106,11 @@ public class GemFireMemcachedServer {
    */
   private Cache cache;
 
+  /**
+   * statistics about the requests from clients
+   */
+  private MemcachedStats stats;
+
   /**
    * thread that listens for client connections
    */
@@ -170,6 +176,7 @@ public class GemFireMemcachedServer {
       this.cache = cacheFactory.create();
     }
     logger = this.cache.getLogger();
+    this.stats = new MemcachedStats(this.cache.getDistributedSystem(), "gemcached-" + serverPort);
   }
 
   private void startMemcachedServer() throws IOException, InterruptedException {
@@ -224,7 +231,7 @@ public class GemFireMemcachedServer {
   }
 
   private void handleNewClient(Socket s) {
-    ConnectionHandler connHandler = new ConnectionHandler(s, cache, protocol);
+    ConnectionHandler connHandler = new ConnectionHandler(s, cache, protocol, stats);
     executor.execute(connHandler);
   }
 
@@ -236,6 +243,7 @@ public class GemFireMemcachedServer {
       this.acceptor.interrupt();
     }
     this.executor.shutdownNow();
+    this.stats.close();
     this.cache.close();
   }
 
@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.io.IOException;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.InternalGemFireException;
+import org.apache.geode.internal.ByteArrayDataInput;
+import org.apache.geode.internal.DSCODE;
+import org.apache.geode.internal.cache.CachedDeserializable;
+import org.apache.geode.internal.offheap.StoredObject;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.PdxFieldTypeMismatchException;
+import org.apache.geode.pdx.PdxSerializationException;
+
+/**
+ * Reads one field of serialized PDX values without creating a {@link PdxInstanceImpl} or a
+ * {@link PdxReaderImpl} for them. Primitive fields are read without allocating anything.
+ *
+ * <p>
+ * The values read may be the serialized form as a byte[], a {@link StoredObject} in off-heap
+ * memory, or a {@link CachedDeserializable} holding the serialized form. The caller must keep an
+ * off-heap value retained while reading it.
+ *
+ * <p>
+ * An accessor is made for one field name and remembers where that field is in the last PDX type it
+ * read, so it is cheapest when most of the values it reads have the same type. It may be used by
+ * several threads at once. As with {@link PdxReaderImpl}, reading a field that the value's type
+ * does not have returns the default value for the field type.
+ */
+public class PdxFieldAccessor {
+
+  private final TypeRegistry registry;
+
+  private final String fieldName;
+
+  private volatile ResolvedField lastResolved;
+
+  public PdxFieldAccessor(TypeRegistry registry, String fieldName) {
+    this.registry = registry;
+    this.fieldName = fieldName;
+  }
+
+  public String getFieldName() {
+    return this.fieldName;
+  }
+
+  /**
+   * Returns true if the PDX type of the given value has this accessor's field.
+   */
+  public boolean hasField(Object value) {
+    Object data = getSerializedData(value);
+    return resolve(readInt(data, TYPE_ID_OFFSET)).field != null;
+  }
+
+  public boolean readBoolean(Object value) {
+    Object data = getSerializedData(value);
+    ResolvedField resolved = getField(data, FieldType.BOOLEAN);
+    return resolved.field != null && readByte(data, getPosition(data, resolved)) != 0;
+  }
+
+  public byte readByte(Object value) {
+    Object data = getSerializedData(value);
+    ResolvedField resolved = getField(data, FieldType.BYTE);
+    return resolved.field == null ? 0 : readByte(data, getPosition(data, resolved));
+  }
+
+  public char readChar(Object value) {
+    Object data = getSerializedData(value);
+    ResolvedField resolved = getField(data, FieldType.CHAR);
+    return resolved.field == null ? 0 : (char) readBigEndian(data, getPosition(data, resolved), 2);
+  }
+
+  public short readShort(Object value) {
+    Object data = getSerializedData(value);
+    ResolvedField resolved = getField(data, FieldType.SHORT);
+    return resolved.field == null ? 0 : (short) readBigEndian(data, getPosition(data, resolved), 2);
+  }
+
+  public int readInt(Object value) {
+    Object data = getSerializedData(value);
+    ResolvedField resolved = getField(data, FieldType.INT);
+    return resolved.field == null ? 0 : readInt(data, getPosition(data, resolved));
+  }
+
+  public long readLong(Object value) {
+    Object data = getSerializedData(value);
+    ResolvedField resolved = getField(data, FieldType.LONG);
+    return resolved.field == null ? 0 : readBigEndian(data, getPosition(data, resolved), 8);
+  }
+
+  public float readFloat(Object value) {
+    Object data = getSerializedData(value);
+    ResolvedField resolved = getField(data, FieldType.FLOAT);
+    return resolved.field == null ? 0
+        : Float.intBitsToFloat(readInt(data, getPosition(data, resolved)));
+  }
+
+  public double readDouble(Object value) {
+    Object data = getSerializedData(value);
+    ResolvedField resolved = getField(data, FieldType.DOUBLE);
+    return resolved.field == null ? 0
+        : Double.longBitsToDouble(readBigEndian(data, getPosition(data, resolved), 8));
+  }
+
+  /**
+   * Returns the milliseconds of a date field, or -1 if the field is null.
+   */
+  public long readDateMillis(Object value) {
+    Object data = getSerializedData(value);
+    ResolvedField resolved = getField(data, FieldType.DATE);
+    return resolved.field == null ? -1 : readBigEndian(data, getPosition(data, resolved), 8);
+  }
+
+  public String readString(Object value) {
+    Object data = getSerializedData(value);
+    ResolvedField resolved = getField(data, FieldType.STRING);
+    if (resolved.field == null) {
+      return null;
+    }
+    int position = getPosition(data, resolved);
+    byte header = readByte(data, position);
+    if (header == DSCODE.NULL_STRING.toByte() || header == DSCODE.NULL.toByte()) {
+      return null;
+    }
+    if (header == DSCODE.STRING_BYTES.toByte() && data instanceof byte[]) {
+      return new String((byte[]) data, 0, position + 3, (int) readBigEndian(data, position + 1, 2));
+    }
+
+    byte[] bytes;
+    int offset;
+    if (data instanceof byte[]) {
+      bytes = (byte[]) data;
+      offset = position;
+    } else {
+      bytes = new byte[getEncodedStringLength(data, position, header)];
+      ((StoredObject) data).readDataBytes(position, bytes);
+      offset = 0;
+    }
+    ByteArrayDataInput in = new ByteArrayDataInput();
+    in.initialize(bytes, null);
+    try {
+      in.skipBytes(offset);
+      return DataSerializer.readString(in);
+    } catch (IOException e) {
+      throw new PdxSerializationException("Failed reading a PDX string field", e);
+    }
+  }
+
+  /**
+   * Returns the byte[] or StoredObject holding the serialized form of the given value.
+   */
+  private static Object getSerializedData(Object value) {
+    Object data = value;
+    if (!(data instanceof StoredObject) && data instanceof CachedDeserializable) {
+      data = ((CachedDeserializable) data).getValue();
+    }
+    if (data instanceof StoredObject) {
+      StoredObject storedObject = (StoredObject) data;
+      if (!storedObject.hasRefCount()) {
+        // the value is small enough to be encoded in the address
+        data = storedObject.getValueAsHeapByteArray();
+      } else if (!storedObject.isSerialized() || storedObject.isCompressed()) {
+        throw new PdxSerializationException("Expected a serialized PDX value");
+      }
+    }
+    if (data instanceof byte[]) {
+      byte[] bytes = (byte[]) data;
+      if (bytes.length >= PdxWriterImpl.HEADER_SIZE && bytes[0] == DSCODE.PDX.toByte()) {
+        return data;
+      }
+    } else if (data instanceof StoredObject && readByte(data, 0) == DSCODE.PDX.toByte()) {
+      return data;
+    }
+    throw new PdxSerializationException("Expected a serialized PDX value");
+  }
+
+  private ResolvedField getField(Object data, FieldType fieldType) {
+    ResolvedField result = resolve(readInt(data, TYPE_ID_OFFSET));
+    if (result.field != null && result.field.getFieldType() != fieldType) {
+      throw new PdxFieldTypeMismatchException("Expected " + fieldType.toString().toLowerCase()
+          + " field but found field of type " + result.field.getTypeIdString());
+    }
+    return result;
+  }
+
+  private ResolvedField resolve(int typeId) {
+    ResolvedField result = this.lastResolved;
+    if (result == null || result.typeId != typeId) {
+      PdxType type = this.registry.getType(typeId);
+      if (type == null) {
+        throw new IllegalStateException("Unknown pdx type=" + typeId);
+      }
+      result = new ResolvedField(typeId, type, type.getPdxField(this.fieldName));
+      this.lastResolved = result;
+    }
+    return result;
+  }
+
+  private static final int LENGTH_OFFSET = 1;
+
+  private static final int TYPE_ID_OFFSET = LENGTH_OFFSET + DataSize.INTEGER_SIZE;
+
+  /**
+   * Returns the position of the field in the serialized value, following the same rules as
+   * {@link PdxReaderImpl}, whose positions are relative to the end of the header.
+   */
+  private static int getPosition(Object data, ResolvedField resolved) {
+    PdxField field = resolved.field;
+    int size = readInt(data, LENGTH_OFFSET);
+    int idx0 = field.getRelativeOffset();
+    int idx1 = field.getVlfOffsetIndex();
+    int pos;
+    if (field.isVariableLengthType()) {
+      if (idx1 != -1) {
+        pos = getVlfOffset(data, size, idx1);
+      } else {
+        pos = idx0;
+      }
+    } else {
+      if (idx0 >= 0) {
+        pos = idx0;
+      } else if (idx1 > 0) {
+        pos = getVlfOffset(data, size, idx1) + idx0;
+      } else if (idx1 == -1) {
+        int vlfCount = resolved.type.getVariableLengthFieldCount();
+        pos = size - vlfCount * getSizeOfOffset(size) + idx0;
+      } else {
+        throw new InternalGemFireException("idx0=" + idx0 + " idx1=" + idx1);
+      }
+    }
+    return PdxWriterImpl.HEADER_SIZE + pos;
+  }
+
+  private static int getVlfOffset(Object data, int size, int idx) {
+    int sizeOfOffset = getSizeOfOffset(size);
+    int position = PdxWriterImpl.HEADER_SIZE + size - idx * sizeOfOffset;
+    if (sizeOfOffset == DataSize.BYTE_SIZE) {
+      return readByte(data, position) & PdxReaderImpl.MAX_UNSIGNED_BYTE;
+    } else if (sizeOfOffset == DataSize.SHORT_SIZE) {
+      return (int) readBigEndian(data, position, 2) & PdxReaderImpl.MAX_UNSIGNED_SHORT;
+    } else {
+      return readInt(data, position);
+    }
+  }
+
+  private static int getSizeOfOffset(int size) {
+    if (size <= PdxReaderImpl.MAX_UNSIGNED_BYTE) {
+      return DataSize.BYTE_SIZE;
+    } else if (size <= PdxReaderImpl.MAX_UNSIGNED_SHORT) {
+      return DataSize.SHORT_SIZE;
+    }
+    return DataSize.INTEGER_SIZE;
+  }
+
+  /**
+   * Returns the number of bytes, including the header byte, of the string serialized at the given
+   * position.
+   */
+  private static int getEncodedStringLength(Object data, int position, byte header) {
+    if (header == DSCODE.STRING_BYTES.toByte() || header == DSCODE.STRING.toByte()) {
+      return 3 + ((int) readBigEndian(data, position + 1, 2) & PdxReaderImpl.MAX_UNSIGNED_SHORT);
+    } else if (header == DSCODE.HUGE_STRING_BYTES.toByte()) {
+      return 5 + readInt(data, position + 1);
+    } else if (header == DSCODE.HUGE_STRING.toByte()) {
+      return 5 + readInt(data, position + 1) * 2;
+    }
+    throw new PdxSerializationException("Unknown String header " + header);
+  }
+
+  private static byte readByte(Object data, int position) {
+    if (data instanceof byte[]) {
+      return ((byte[]) data)[position];
+    }
+    return ((StoredObject) data).readDataByte(position);
+  }
+
+  private static int readInt(Object data, int position) {
+    return (int) readBigEndian(data, position, 4);
+  }
+
+  private static long readBigEndian(Object data, int position, int length) {
+    long result = 0;
+    try {
+      for (int i = 0; i < length; i++) {
+        result = (result << 8) | (readByte(data, position + i) & 0xFF);
+      }
+    } catch (IndexOutOfBoundsException e) {
+      throw new PdxSerializationException("Failed reading a PDX field", e);
+    }
+    return result;
+  }
+
+  private static class ResolvedField {
+    private final int typeId;
+    private final PdxType type;
+    private final PdxField field;
+
+    private ResolvedField(int typeId, PdxType type, PdxField field) {
+      this.typeId = typeId;
+      this.type = type;
+      this.field = field;
+    }
+  }
+}
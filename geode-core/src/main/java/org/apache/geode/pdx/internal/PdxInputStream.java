@@ -237,6 +237,13 @@ public class PdxInputStream extends ImmutableByteBufferInputStream {
 
   public String readString() {
     try {
+      PdxStringInterner interner = PdxStringInterner.getInstance();
+      if (interner != null) {
+        String result = interner.readString(this);
+        if (result != null) {
+          return result;
+        }
+      }
       return DataSerializer.readString(this);
     } catch (IOException e) {
       throw new PdxSerializationException("Exception deserializing a PDX field", e);
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.DSCODE;
+
+/**
+ * A bounded cache of the short strings read from PDX fields, so that the many values holding the
+ * same string (a currency code, a status, a symbol) share one String instead of each
+ * deserialization creating its own.
+ *
+ * <p>
+ * It is enabled with the gemfire.pdx.internStrings system property. Only ASCII strings up to
+ * gemfire.pdx.internStringsMaxLength characters are cached. The cache is a fixed size table
+ * indexed by the string's hash code, and a string replaces whatever was in its slot, so no locks
+ * are taken and strings that stop being read are eventually replaced. A string that is found in
+ * the cache is compared with the serialized bytes in place, without allocating anything.
+ */
+public class PdxStringInterner {
+
+  private static final boolean ENABLED =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "pdx.internStrings");
+
+  private static final int MAX_LENGTH =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "pdx.internStringsMaxLength", 32);
+
+  private static final int CACHE_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "pdx.internStringsCacheSize", 4096);
+
+  private static final PdxStringInterner INSTANCE =
+      ENABLED ? new PdxStringInterner(CACHE_SIZE, MAX_LENGTH) : null;
+
+  /**
+   * Returns the interner used by PDX deserialization, or null if interning is not enabled.
+   */
+  public static PdxStringInterner getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the number of strings read from the cache since this JVM started.
+   */
+  public static long getHitCount() {
+    return INSTANCE == null ? 0 : INSTANCE.hits.sum();
+  }
+
+  /**
+   * Returns the number of eligible strings that were not in the cache.
+   */
+  public static long getMissCount() {
+    return INSTANCE == null ? 0 : INSTANCE.misses.sum();
+  }
+
+  /**
+   * Returns an estimate of the heap bytes not allocated because strings were read from the cache.
+   */
+  public static long getBytesSaved() {
+    return INSTANCE == null ? 0 : INSTANCE.bytesSaved.sum();
+  }
+
+  private final AtomicReferenceArray<String> cache;
+
+  private final int mask;
+
+  private final int maxLength;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final LongAdder bytesSaved = new LongAdder();
+
+  PdxStringInterner(int cacheSize, int maxLength) {
+    int size = Integer.highestOneBit(Math.max(1, cacheSize - 1) << 1);
+    this.cache = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.maxLength = maxLength;
+  }
+
+  /**
+   * Reads the string at the current position of the given stream if it is short enough to be
+   * cached, returning the cached instance if there is one.
+   *
+   * @return the string read, or null if the string is not one that is cached, in which case the
+   *         position of the stream is unchanged
+   */
+  String readString(PdxInputStream in) throws IOException {
+    int position = in.position();
+    if (in.size() - position < 3 || in.readByte(position) != DSCODE.STRING_BYTES.toByte()) {
+      return null;
+    }
+    int length = ((in.readByte(position + 1) & 0xFF) << 8) | (in.readByte(position + 2) & 0xFF);
+    if (length > this.maxLength) {
+      return null;
+    }
+
+    // the bytes of these strings are all ascii, so the hash is the same as the String's
+    int start = position + 3;
+    int hash = 0;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + in.readByte(start + i);
+    }
+    int index = (hash ^ (hash >>> 16)) & this.mask;
+    String cached = this.cache.get(index);
+    if (cached != null && cached.length() == length && cached.hashCode() == hash
+        && matches(cached, in, start)) {
+      in.position(start + length);
+      this.hits.increment();
+      this.bytesSaved.add(getHeapSize(length));
+      return cached;
+    }
+
+    String result = DataSerializer.readString(in);
+    this.cache.set(index, result);
+    this.misses.increment();
+    return result;
+  }
+
+  private static boolean matches(String cached, PdxInputStream in, int start) {
+    for (int i = 0; i < cached.length(); i++) {
+      if (cached.charAt(i) != in.readByte(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the approximate size of a String of the given length and its char array.
+   */
+  private static int getHeapSize(int length) {
+    return 24 + ((16 + length * 2 + 7) & ~7);
+  }
+}
@@ -22,11 +22,8 @@ import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.util.Collection;
 import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -54,6 +51,8 @@ import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheFactory;
 import org.apache.geode.cache.DataPolicy;
 import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.PartitionAttributes;
+import org.apache.geode.cache.PartitionAttributesFactory;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.RegionFactory;
@@ -63,14 +62,18 @@ import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.InternalRegionArguments;
-import org.apache.geode.internal.hll.HyperLogLogPlus;
 import org.apache.geode.internal.net.SocketCreator;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.ByteToCommandDecoder;
+import org.apache.geode.redis.internal.ClusterSlots;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
+import org.apache.geode.redis.internal.ExpirationStats;
+import org.apache.geode.redis.internal.RedisCollection;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisHyperLogLog;
 import org.apache.geode.redis.internal.RegionProvider;
+import org.apache.geode.redis.internal.SlotPartitionResolver;
 
 /**
  * The GeodeRedisServer is a server that understands the Redis protocol. As commands are sent to the
@@ -84,10 +87,15 @@ import org.apache.geode.redis.internal.RegionProvider;
  * {@link GeodeRedisServer#REDIS_META_DATA_REGION} or {@link GeodeRedisServer#STRING_REGION}. The
  * default Region type is {@link RegionShortcut#PARTITION} although this can be changed by
  * specifying the SystemProperty {@value #DEFAULT_REGION_SYS_PROP_NAME} to a type defined by
- * {@link RegionShortcut}. If the {@link GeodeRedisServer#NUM_THREADS_SYS_PROP_NAME} system property
- * is set to 0, one thread per client will be created. Otherwise a worker thread pool of specified
- * size is used or a default size of 4 * {@link Runtime#availableProcessors()} if the property is
- * not set.
+ * {@link RegionShortcut}. If the {@value #COLLECTION_ENTRIES_SYS_PROP_NAME} system property is set
+ * to true, hashes, sets, lists and sorted sets are instead each stored as one entry of the
+ * {@link GeodeRedisServer#COLLECTION_REGION}. If the {@value #CLUSTER_SLOTS_SYS_PROP_NAME} system
+ * property is set to true and the Region type is partitioned, the server answers CLUSTER SLOTS and
+ * redirects string commands with MOVED, so that cluster-aware clients send them to the member with
+ * the primary copy of the key. If the {@link GeodeRedisServer#NUM_THREADS_SYS_PROP_NAME} system
+ * property is set to 0, one thread per client will be created. Otherwise a worker thread pool of
+ * specified size is used or a default size of 4 * {@link Runtime#availableProcessors()} if the
+ * property is not set.
  * <p>
  * Setting the AUTH password requires setting the property "redis-password" just as "redis-port"
  * would be in xml or through GFSH.
@@ -117,7 +125,7 @@ import org.apache.geode.redis.internal.RegionProvider;
  * <p>
  * Supported Transaction commands - DISCARD, EXEC, MULTI
  * <P>
- * Supported Server commands - AUTH, ECHO, PING, TIME, QUIT
+ * Supported Server commands - AUTH, CLUSTER, ECHO, PING, TIME, QUIT
  * <p>
  * <p>
  * The command executors are not explicitly documented but the functionality can be found at
@@ -213,9 +221,9 @@ public class GeodeRedisServer {
   private final ScheduledExecutorService expirationExecutor;
 
   /**
-   * Map of futures to be executed for key expirations
+   * Statistics about the expiration of keys, created when the server starts
    */
-  private final ConcurrentMap<ByteArrayWrapper, ScheduledFuture<?>> expirationFutures;
+  private ExpirationStats expirationStats;
 
 
   /**
@@ -230,12 +238,26 @@ public class GeodeRedisServer {
    */
   public static final String HLL_REGION = "ReDiS_HlL";
 
+  /**
+   * The field that defines the name of the {@link Region} which holds all of the hashes, sets,
+   * lists and sorted sets when {@value #COLLECTION_ENTRIES_SYS_PROP_NAME} is set. The current value
+   * of this field is {@code COLLECTION_REGION}.
+   */
+  public static final String COLLECTION_REGION = "ReDiS_CoLlEcTiOnS";
+
   /**
    * The field that defines the name of the {@link Region} which holds all of the Redis meta data.
    * The current value of this field is {@code REDIS_META_DATA_REGION}.
    */
   public static final String REDIS_META_DATA_REGION = "ReDiS_MeTa_DaTa";
 
+  /**
+   * The field that defines the name of the {@link Region} which holds the address of the Redis
+   * server of each member when {@value #CLUSTER_SLOTS_SYS_PROP_NAME} is set. The current value of
+   * this field is {@code NODES_REGION}.
+   */
+  public static final String NODES_REGION = "ReDiS_NoDeS";
+
   /**
    * The system property name used to set the default {@link Region} creation type. The property
    * name is {@code DEFAULT_REGION_SYS_PROP_NAME} and the acceptable values are types defined by
@@ -249,12 +271,51 @@ public class GeodeRedisServer {
    */
   public static final String NUM_THREADS_SYS_PROP_NAME = "gemfireredis.numthreads";
 
+  /**
+   * System property name that can be set to true to store each hash, set, list and sorted set as a
+   * single entry of the {@value #COLLECTION_REGION} {@link Region}, whose value is sent to other
+   * members as a delta when it changes, rather than creating a {@link Region} for each of them.
+   * This makes creating a key much cheaper, so it suits applications with many small collections.
+   * Sorted sets stored this way also answer rank and score range commands without running a
+   * query. Sorted sets added by GEOADD still get a {@link Region} of their own. Every server in the
+   * cluster must use the same setting.
+   */
+  public static final String COLLECTION_ENTRIES_SYS_PROP_NAME = "gemfireredis.collectionentries";
+
+  /**
+   * System property name that can be set to true to emulate the hash slots of Redis Cluster. Keys
+   * of the {@value #STRING_REGION} {@link Region} are then placed in buckets by their slot, CLUSTER
+   * SLOTS describes the member with the primary copy of each bucket as the owner of its slots, and
+   * a string command for a key whose primary is on another member is answered with a MOVED
+   * redirect, so that cluster-aware clients save the extra hop between members. Commands on other
+   * data types are still executed by whichever member receives them. It only applies when the
+   * Region type is partitioned, and every server in the cluster must use the same setting.
+   */
+  public static final String CLUSTER_SLOTS_SYS_PROP_NAME = "gemfireredis.clusterslots";
+
   /**
    * The actual {@link RegionShortcut} type specified by the system property
    * {@value #DEFAULT_REGION_SYS_PROP_NAME}.
    */
   public final RegionShortcut DEFAULT_REGION_TYPE;
 
+  /**
+   * Whether collections are stored as entries, as set by the system property
+   * {@value #COLLECTION_ENTRIES_SYS_PROP_NAME}.
+   */
+  private final boolean collectionEntries;
+
+  /**
+   * Whether Redis Cluster hash slots are emulated, as set by the system property
+   * {@value #CLUSTER_SLOTS_SYS_PROP_NAME}.
+   */
+  private final boolean clusterSlotsEnabled;
+
+  /**
+   * The slots of the keys this server answers for, null unless {@link #clusterSlotsEnabled}
+   */
+  private ClusterSlots clusterSlots;
+
   private boolean shutdown;
   private boolean started;
 
@@ -338,7 +399,6 @@ public class GeodeRedisServer {
     this.singleThreadPerConnection = this.numWorkerThreads == 0;
     this.numSelectorThreads = 1;
     this.metaListener = new MetaCacheListener();
-    this.expirationFutures = new ConcurrentHashMap<ByteArrayWrapper, ScheduledFuture<?>>();
     this.expirationExecutor =
         Executors.newScheduledThreadPool(numExpirationThreads, new ThreadFactory() {
           private final AtomicInteger counter = new AtomicInteger();
@@ -353,6 +413,8 @@ public class GeodeRedisServer {
 
         });
     this.DEFAULT_REGION_TYPE = setRegionType();
+    this.collectionEntries = Boolean.getBoolean(COLLECTION_ENTRIES_SYS_PROP_NAME);
+    this.clusterSlotsEnabled = Boolean.getBoolean(CLUSTER_SLOTS_SYS_PROP_NAME);
     this.shutdown = false;
     this.started = false;
   }
@@ -411,20 +473,43 @@ public class GeodeRedisServer {
     synchronized (this.cache) {
       Region<ByteArrayWrapper, ByteArrayWrapper> stringsRegion;
 
-      Region<ByteArrayWrapper, HyperLogLogPlus> hLLRegion;
+      Region<ByteArrayWrapper, RedisHyperLogLog> hLLRegion;
+      Region<ByteArrayWrapper, RedisCollection> collectionRegion = null;
       Region<String, RedisDataType> redisMetaData;
+      Region<String, String> nodesRegion = null;
       InternalCache gemFireCache = (InternalCache) cache;
+      boolean useClusterSlots = this.clusterSlotsEnabled && this.DEFAULT_REGION_TYPE.isPartition();
+      if (this.clusterSlotsEnabled && !useClusterSlots && this.logger.warningEnabled())
+        this.logger.warning("GeodeRedisServer-" + CLUSTER_SLOTS_SYS_PROP_NAME
+            + " is ignored as the Region type " + this.DEFAULT_REGION_TYPE + " is not partitioned");
       try {
         if ((stringsRegion = cache.getRegion(STRING_REGION)) == null) {
           RegionFactory<ByteArrayWrapper, ByteArrayWrapper> regionFactory =
               gemFireCache.createRegionFactory(this.DEFAULT_REGION_TYPE);
+          if (useClusterSlots) {
+            PartitionAttributes<?, ?> partitionAttributes = gemFireCache
+                .getRegionAttributes(this.DEFAULT_REGION_TYPE.toString()).getPartitionAttributes();
+            regionFactory.setPartitionAttributes(
+                new PartitionAttributesFactory<ByteArrayWrapper, ByteArrayWrapper>(
+                    partitionAttributes).setPartitionResolver(new SlotPartitionResolver())
+                        .create());
+          }
           stringsRegion = regionFactory.create(STRING_REGION);
         }
         if ((hLLRegion = cache.getRegion(HLL_REGION)) == null) {
-          RegionFactory<ByteArrayWrapper, HyperLogLogPlus> regionFactory =
+          RegionFactory<ByteArrayWrapper, RedisHyperLogLog> regionFactory =
               gemFireCache.createRegionFactory(this.DEFAULT_REGION_TYPE);
+          regionFactory.setCloningEnabled(true);
           hLLRegion = regionFactory.create(HLL_REGION);
         }
+        if (this.collectionEntries
+            && (collectionRegion = cache.getRegion(COLLECTION_REGION)) == null) {
+          RegionFactory<ByteArrayWrapper, RedisCollection> regionFactory =
+              gemFireCache.createRegionFactory(this.DEFAULT_REGION_TYPE);
+          // apply deltas to a copy, the collection a reader is iterating over must not change
+          regionFactory.setCloningEnabled(true);
+          collectionRegion = regionFactory.create(COLLECTION_REGION);
+        }
         if ((redisMetaData = cache.getRegion(REDIS_META_DATA_REGION)) == null) {
           AttributesFactory af = new AttributesFactory();
           af.addCacheListener(metaListener);
@@ -433,6 +518,13 @@ public class GeodeRedisServer {
               new InternalRegionArguments().setInternalRegion(true).setIsUsedForMetaRegion(true);
           redisMetaData = gemFireCache.createVMRegion(REDIS_META_DATA_REGION, af.create(), ira);
         }
+        if (useClusterSlots && (nodesRegion = cache.getRegion(NODES_REGION)) == null) {
+          AttributesFactory af = new AttributesFactory();
+          af.setDataPolicy(DataPolicy.REPLICATE);
+          InternalRegionArguments ira =
+              new InternalRegionArguments().setInternalRegion(true).setIsUsedForMetaRegion(true);
+          nodesRegion = gemFireCache.createVMRegion(NODES_REGION, af.create(), ira);
+        }
       } catch (IOException | ClassNotFoundException e) {
         // only if loading snapshot, not here
         InternalGemFireError assErr = new InternalGemFireError(
@@ -440,11 +532,17 @@ public class GeodeRedisServer {
         assErr.initCause(e);
         throw assErr;
       }
+      this.expirationStats =
+          new ExpirationStats(cache.getDistributedSystem(), "redis-" + this.serverPort);
       this.regionCache = new RegionProvider(stringsRegion, hLLRegion, redisMetaData,
-          expirationFutures, expirationExecutor, this.DEFAULT_REGION_TYPE);
+          collectionRegion, expirationExecutor, expirationStats, this.DEFAULT_REGION_TYPE);
       redisMetaData.put(REDIS_META_DATA_REGION, RedisDataType.REDIS_PROTECTED);
       redisMetaData.put(HLL_REGION, RedisDataType.REDIS_PROTECTED);
       redisMetaData.put(STRING_REGION, RedisDataType.REDIS_PROTECTED);
+      if (useClusterSlots) {
+        redisMetaData.put(NODES_REGION, RedisDataType.REDIS_PROTECTED);
+        this.clusterSlots = new ClusterSlots(stringsRegion, nodesRegion);
+      }
     }
     checkForRegions();
   }
@@ -522,7 +620,8 @@ public class GeodeRedisServer {
             ChannelPipeline p = ch.pipeline();
             p.addLast(ByteToCommandDecoder.class.getSimpleName(), new ByteToCommandDecoder());
             p.addLast(ExecutionHandlerContext.class.getSimpleName(),
-                new ExecutionHandlerContext(ch, cache, regionCache, GeodeRedisServer.this, pwdB));
+                new ExecutionHandlerContext(ch, cache, regionCache, GeodeRedisServer.this, pwdB,
+                    clusterSlots));
           }
         }).option(ChannelOption.SO_REUSEADDR, true).option(ChannelOption.SO_RCVBUF, getBufferSize())
         .childOption(ChannelOption.SO_KEEPALIVE, true)
@@ -541,6 +640,12 @@ public class GeodeRedisServer {
       this.logger.info(logMessage);
     }
     this.serverChannel = f.channel();
+    if (this.clusterSlots != null) {
+      InetAddress address = getBindAddress();
+      if (address.isAnyLocalAddress())
+        address = SocketCreator.getLocalHost();
+      this.clusterSlots.start(address.getHostAddress(), serverPort);
+    }
   }
 
   /**
@@ -620,13 +725,13 @@ public class GeodeRedisServer {
       this.serverChannel.close();
       c.syncUninterruptibly();
       c2.syncUninterruptibly();
+      if (this.clusterSlots != null)
+        this.clusterSlots.close();
       this.regionCache.close();
       if (mainThread != null)
         mainThread.interrupt();
-      for (ScheduledFuture<?> f : this.expirationFutures.values())
-        f.cancel(true);
-      this.expirationFutures.clear();
       this.expirationExecutor.shutdownNow();
+      this.expirationStats.close();
       closeFuture.syncUninterruptibly();
       shutdown = true;
     }
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.util.List;
+
+/**
+ * Interface for executors that can also execute a run of pipelined commands of their type at once,
+ * for example with a single bulk operation on a Region
+ */
+public interface BatchExecutor extends Executor {
+
+  /**
+   * Whether a command may be executed together with its neighbours, which is usually only the case
+   * when it has no options
+   *
+   * @param command The command to be executed
+   * @return True if the command can be part of a batch
+   */
+  boolean isBatchable(Command command);
+
+  /**
+   * This method executes the commands as if each had been given to {@link #executeCommand} in
+   * order, and sets the response of each. Any runtime errors from this execution should be handled
+   * by the caller, which executes the commands that have no response yet one at a time.
+   *
+   * @param commands The batchable commands to be executed, all of the type of this executor
+   * @param context The execution context by which these commands are to be executed
+   */
+  void executeCommands(List<Command> commands, ExecutionHandlerContext context);
+
+}
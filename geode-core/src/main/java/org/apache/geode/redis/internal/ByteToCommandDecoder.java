@@ -52,6 +52,7 @@ public class ByteToCommandDecoder extends ByteToMessageDecoder {
   private static final byte bulkStringID = 36; // '$';
   private static final byte arrayID = 42; // '*';
   private static final int MAX_BULK_STRING_LENGTH = 512 * 1024 * 1024; // 512 MB
+  private static final int MAX_PRESIZED_ARRAY_LENGTH = 1024;
 
   public ByteToCommandDecoder() {}
 
@@ -79,37 +80,46 @@ public class ByteToCommandDecoder extends ByteToMessageDecoder {
     if (firstB != arrayID)
       throw new RedisCommandParserException(
           "Expected: " + (char) arrayID + " Actual: " + (char) firstB);
-    ArrayList<byte[]> commandElems = new ArrayList<byte[]>();
-
-    if (!parseArray(commandElems, buffer))
+    ArrayList<byte[]> commandElems = parseArray(buffer);
+    if (commandElems == null)
       return null;
 
     return new Command(commandElems);
   }
 
-  private boolean parseArray(ArrayList<byte[]> commandElems, ByteBuf buffer)
-      throws RedisCommandParserException {
+  /**
+   * Helper method to parse the array of bulk strings of a command
+   *
+   * @param buffer Buffer to read from
+   * @return The bulk strings, or null if the array has not been fully received
+   * @throws RedisCommandParserException Thrown when there is illegal syntax
+   */
+  private ArrayList<byte[]> parseArray(ByteBuf buffer) throws RedisCommandParserException {
     byte currentChar;
     int arrayLength = parseCurrentNumber(buffer);
     if (arrayLength == Integer.MIN_VALUE || !parseRN(buffer))
-      return false;
+      return null;
     if (arrayLength < 0 || arrayLength > 1000000000)
       throw new RedisCommandParserException("invalid multibulk length");
 
+    // Sized for the whole command, within reason as the length has not been checked against the
+    // bytes received
+    ArrayList<byte[]> commandElems =
+        new ArrayList<byte[]>(Math.min(arrayLength, MAX_PRESIZED_ARRAY_LENGTH));
     for (int i = 0; i < arrayLength; i++) {
       if (!buffer.isReadable())
-        return false;
+        return null;
       currentChar = buffer.readByte();
       if (currentChar == bulkStringID) {
         byte[] newBulkString = parseBulkString(buffer);
         if (newBulkString == null)
-          return false;
+          return null;
         commandElems.add(newBulkString);
       } else
         throw new RedisCommandParserException(
             "expected: \'$\', got \'" + (char) currentChar + "\'");
     }
-    return true;
+    return commandElems;
   }
 
   /**
@@ -0,0 +1,331 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.geode.cache.CacheClosedException;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionDestroyedException;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.BucketAdvisor;
+import org.apache.geode.internal.cache.PartitionedRegion;
+
+/**
+ * Maps the 16384 hash slots of Redis Cluster onto the buckets of the partitioned Region holding
+ * the strings, so that a cluster-aware client sends each string command to the member with the
+ * primary copy of its key. The slot of a key is found as Redis does, from the CRC16 of the key or
+ * of its {hash tag}, and {@link SlotPartitionResolver} puts each contiguous range of slots in one
+ * bucket. Every member running a Redis server publishes its address in a replicated Region, so
+ * that the owners of the buckets can be described as Redis nodes.
+ */
+public class ClusterSlots {
+
+  /**
+   * The number of hash slots in a Redis Cluster
+   */
+  public static final int SLOTS = 16384;
+
+  private static final byte OPEN_TAG = 0x7b; // '{'
+  private static final byte CLOSE_TAG = 0x7d; // '}'
+
+  private static final int[] CRC16_TABLE = new int[256];
+
+  static {
+    for (int i = 0; i < CRC16_TABLE.length; i++) {
+      int crc = i << 8;
+      for (int bit = 0; bit < 8; bit++) {
+        crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+      }
+      CRC16_TABLE[i] = crc & 0xffff;
+    }
+  }
+
+  private final PartitionedRegion stringsRegion;
+
+  private final Region<String, String> nodesRegion;
+
+  private final InternalDistributedMember localMember;
+
+  private String localAddress;
+
+  /**
+   * @param stringsRegion The partitioned Region of strings, routed by {@link SlotPartitionResolver}
+   * @param nodesRegion The replicated Region of the address of each member's Redis server
+   */
+  public ClusterSlots(Region<ByteArrayWrapper, ByteArrayWrapper> stringsRegion,
+      Region<String, String> nodesRegion) {
+    this.stringsRegion = (PartitionedRegion) stringsRegion;
+    this.nodesRegion = nodesRegion;
+    this.localMember = this.stringsRegion.getMyId();
+  }
+
+  /**
+   * Returns the slot of a key, which is the CRC16 of the part of the key between the first '{' and
+   * the next '}' if that part is not empty, or of the whole key otherwise
+   */
+  public static int getSlot(byte[] key) {
+    int start = 0;
+    int end = key.length;
+    for (int i = 0; i < key.length; i++) {
+      if (key[i] == OPEN_TAG) {
+        for (int j = i + 1; j < key.length; j++) {
+          if (key[j] == CLOSE_TAG) {
+            if (j > i + 1) {
+              start = i + 1;
+              end = j;
+            }
+            break;
+          }
+        }
+        break;
+      }
+    }
+    int crc = 0;
+    for (int i = start; i < end; i++) {
+      crc = ((crc << 8) ^ CRC16_TABLE[((crc >>> 8) ^ key[i]) & 0xff]) & 0xffff;
+    }
+    return crc & (SLOTS - 1);
+  }
+
+  /**
+   * Returns the bucket holding a slot. Each bucket holds a contiguous range of slots.
+   */
+  public static int getBucketId(int slot, int totalBuckets) {
+    return (int) ((long) slot * totalBuckets / SLOTS);
+  }
+
+  /**
+   * Returns the first slot held by a bucket, which is {@link #SLOTS} for the bucket after the last
+   */
+  static int getFirstSlot(int bucketId, int totalBuckets) {
+    return (int) (((long) bucketId * SLOTS + totalBuckets - 1) / totalBuckets);
+  }
+
+  /**
+   * Publishes the address of the Redis server of this member to the other members
+   */
+  public void start(String host, int port) {
+    this.localAddress = host + ":" + port;
+    this.nodesRegion.put(this.localMember.getId(), this.localAddress);
+  }
+
+  public void close() {
+    try {
+      this.nodesRegion.remove(this.localMember.getId());
+    } catch (CacheClosedException | RegionDestroyedException ignore) {
+    }
+  }
+
+  /**
+   * Returns the address of the Redis server of the member with the primary copy of a key, if it is
+   * not this member. Keys whose bucket has no primary yet are handled by whichever member receives
+   * them, as are keys whose primary member runs no Redis server.
+   *
+   * @return host:port of the member to redirect the client to, or null to execute the command here
+   */
+  public String getMovedAddress(byte[] key) {
+    int bucketId = getBucketId(getSlot(key), this.stringsRegion.getTotalNumberOfBuckets());
+    BucketAdvisor advisor = this.stringsRegion.getRegionAdvisor().getBucketAdvisor(bucketId);
+    if (advisor.isPrimary()) {
+      return null;
+    }
+    InternalDistributedMember primary = advisor.basicGetPrimaryMember();
+    if (primary == null || primary.equals(this.localMember)) {
+      return null;
+    }
+    return this.nodesRegion.get(primary.getId());
+  }
+
+  /**
+   * Returns the reply to CLUSTER SLOTS. Each range of slots whose buckets have the same owners is
+   * given as its first and last slot, followed by the host, port and node id of the primary and
+   * then of each secondary owner. Slots whose bucket has not been created yet are given to this
+   * member, as a write to them creates the bucket.
+   */
+  public List<List<Object>> getSlots() {
+    Map<String, String> addresses = getAddresses();
+    List<List<Object>> slots = new ArrayList<List<Object>>();
+    for (SlotRange range : getSlotRanges(addresses)) {
+      List<Object> slot = new ArrayList<Object>();
+      slot.add(Long.valueOf(range.first));
+      slot.add(Long.valueOf(range.last));
+      for (String owner : range.owners) {
+        String address = addresses.get(owner);
+        int colon = address.lastIndexOf(':');
+        slot.add(Arrays.asList(address.substring(0, colon),
+            Long.valueOf(address.substring(colon + 1)), getNodeId(owner)));
+      }
+      slots.add(slot);
+    }
+    return slots;
+  }
+
+  /**
+   * Returns the reply to CLUSTER NODES. Every member is described as a master serving the slots of
+   * the buckets it has the primary copy of.
+   */
+  public String getNodes() {
+    Map<String, String> addresses = getAddresses();
+    Map<String, StringBuilder> lines = new TreeMap<String, StringBuilder>();
+    for (Map.Entry<String, String> node : addresses.entrySet()) {
+      String address = node.getValue();
+      int port = Integer.parseInt(address.substring(address.lastIndexOf(':') + 1));
+      boolean myself = node.getKey().equals(this.localMember.getId());
+      lines.put(node.getKey(),
+          new StringBuilder().append(getNodeId(node.getKey())).append(' ').append(address)
+              .append('@').append(port + 10000).append(myself ? " myself,master" : " master")
+              .append(" - 0 0 0 connected"));
+    }
+    for (SlotRange range : getSlotRanges(addresses)) {
+      StringBuilder line = lines.get(range.owners.get(0));
+      line.append(' ').append(range.first);
+      if (range.last > range.first) {
+        line.append('-').append(range.last);
+      }
+    }
+    StringBuilder nodes = new StringBuilder();
+    for (StringBuilder line : lines.values()) {
+      nodes.append(line).append('\n');
+    }
+    return nodes.toString();
+  }
+
+  /**
+   * Returns the reply to CLUSTER INFO
+   */
+  public String getInfo() {
+    Map<String, String> addresses = getAddresses();
+    Set<String> masters = new HashSet<String>();
+    for (SlotRange range : getSlotRanges(addresses)) {
+      masters.add(range.owners.get(0));
+    }
+    return "cluster_state:ok\r\n" + "cluster_slots_assigned:" + SLOTS + "\r\n"
+        + "cluster_slots_ok:" + SLOTS + "\r\n" + "cluster_slots_pfail:0\r\n"
+        + "cluster_slots_fail:0\r\n" + "cluster_known_nodes:" + addresses.size() + "\r\n"
+        + "cluster_size:" + masters.size() + "\r\n" + "cluster_current_epoch:0\r\n"
+        + "cluster_my_epoch:0\r\n";
+  }
+
+  /**
+   * Returns the node id of this member, for CLUSTER MYID
+   */
+  public String getMyId() {
+    return getNodeId(this.localMember.getId());
+  }
+
+  /**
+   * Returns the address of the Redis server of each member still in the distributed system, by
+   * member id
+   */
+  private Map<String, String> getAddresses() {
+    Set<String> members = new HashSet<String>();
+    for (InternalDistributedMember member : this.stringsRegion.getDistributionManager()
+        .getDistributionManagerIds()) {
+      members.add(member.getId());
+    }
+    Map<String, String> addresses = new TreeMap<String, String>();
+    for (Map.Entry<String, String> node : this.nodesRegion.entrySet()) {
+      if (members.contains(node.getKey())) {
+        addresses.put(node.getKey(), node.getValue());
+      }
+    }
+    addresses.put(this.localMember.getId(), this.localAddress);
+    return addresses;
+  }
+
+  /**
+   * Returns the ranges of slots, with the primary owner first in the owners of each. Owners without
+   * a Redis server are left out, and a range whose primary has none is given to this member.
+   */
+  private List<SlotRange> getSlotRanges(Map<String, String> addresses) {
+    int totalBuckets = this.stringsRegion.getTotalNumberOfBuckets();
+    List<SlotRange> ranges = new ArrayList<SlotRange>();
+    SlotRange range = null;
+    for (int bucketId = 0; bucketId < totalBuckets; bucketId++) {
+      int first = getFirstSlot(bucketId, totalBuckets);
+      int last = getFirstSlot(bucketId + 1, totalBuckets) - 1;
+      if (last < first) {
+        continue;
+      }
+      List<String> owners = getOwners(bucketId, addresses);
+      if (range != null && range.owners.equals(owners)) {
+        range.last = last;
+      } else {
+        range = new SlotRange(first, last, owners);
+        ranges.add(range);
+      }
+    }
+    return ranges;
+  }
+
+  private List<String> getOwners(int bucketId, Map<String, String> addresses) {
+    List<String> owners = new ArrayList<String>();
+    InternalDistributedMember primary =
+        this.stringsRegion.getRegionAdvisor().getBucketAdvisor(bucketId).basicGetPrimaryMember();
+    if (primary == null || !addresses.containsKey(primary.getId())) {
+      owners.add(this.localMember.getId());
+      return owners;
+    }
+    owners.add(primary.getId());
+    for (InternalDistributedMember owner : this.stringsRegion.getRegionAdvisor()
+        .getBucketOwners(bucketId)) {
+      if (!owner.equals(primary) && addresses.containsKey(owner.getId())) {
+        owners.add(owner.getId());
+      }
+    }
+    owners.subList(1, owners.size()).sort(null);
+    return owners;
+  }
+
+  /**
+   * Returns the 40 character hexadecimal node id Redis Cluster uses for a member
+   */
+  private static String getNodeId(String memberId) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-1").digest(memberId.getBytes(StandardCharsets.UTF_8));
+      StringBuilder nodeId = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        nodeId.append(Character.forDigit((b >> 4) & 0xf, 16))
+            .append(Character.forDigit(b & 0xf, 16));
+      }
+      return nodeId.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static class SlotRange {
+    private final int first;
+    private int last;
+    private final List<String> owners;
+
+    private SlotRange(int first, int last, List<String> owners) {
+      this.first = first;
+      this.last = last;
+      this.owners = owners;
+    }
+  }
+}
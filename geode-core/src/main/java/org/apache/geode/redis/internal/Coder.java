@@ -23,6 +23,8 @@ import java.util.Map.Entry;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 
 import org.apache.geode.cache.EntryDestroyedException;
 import org.apache.geode.cache.query.Struct;
@@ -64,6 +66,8 @@ public class Coder {
   public static final byte OPEN_BRACKET_ID = 0x5b; // '['
   public static final byte HYPHEN_ID = 0x2d; // '-'
   public static final byte PLUS_ID = 0x2b; // '+'
+  public static final byte SPACE_ID = 0x20; // ' '
+  public static final byte NUMBER_0_BYTE = 0x30; // '0'
   public static final byte NUMBER_1_BYTE = 0x31; // '1'
   /**
    * byte identifier of a simple string
@@ -85,6 +89,7 @@ public class Coder {
   public static final byte[] err = stringToBytes("ERR ");
   public static final byte[] noAuth = stringToBytes("NOAUTH ");
   public static final byte[] wrongType = stringToBytes("WRONGTYPE ");
+  public static final byte[] moved = stringToBytes("MOVED ");
 
   /**
    * The charset being used by this coder, {@value #CHARSET}.
@@ -107,77 +112,174 @@ public class Coder {
    */
   public static final String N_INF = "-inf";
 
+  /**
+   * Values at least this long are wrapped into the response rather than copied into it. Values are
+   * never changed in place once stored, so the wrapped array stays valid until it is written.
+   */
+  public static final int WRAP_VALUE_THRESHOLD = 4 * 1024;
+
   public static ByteBuf getBulkStringResponse(ByteBufAllocator alloc, Object v)
       throws CoderException {
-    ByteBuf response;
-    byte[] toWrite;
+    if (v == null) {
+      return alloc.buffer(bNIL.length).writeBytes(bNIL);
+    }
 
+    byte[] value = null;
+    if (v instanceof byte[]) {
+      value = (byte[]) v;
+    } else if (v instanceof ByteArrayWrapper) {
+      value = ((ByteArrayWrapper) v).toBytes();
+    }
+    if (value != null && value.length >= WRAP_VALUE_THRESHOLD) {
+      ByteBuf header = alloc.buffer(16);
+      header.writeByte(BULK_STRING_ID);
+      writeDecimal(header, value.length);
+      header.writeBytes(CRLFar);
+      return alloc.compositeBuffer(3).addComponents(true, header, Unpooled.wrappedBuffer(value),
+          Unpooled.wrappedBuffer(CRLFar));
+    }
+
+    ByteBuf response = alloc.buffer(value != null ? value.length + 20 : 32);
+    writeBulkString(response, v);
+    return response;
+  }
+
+  /**
+   * Writes a bulk string, or the nil bulk string if v is null
+   *
+   * @param response Buffer to write to
+   * @param v A byte[], {@link ByteArrayWrapper}, Double or String
+   * @throws CoderException If v is of any other type
+   */
+  private static void writeBulkString(ByteBuf response, Object v) throws CoderException {
     if (v == null) {
-      response = alloc.buffer();
       response.writeBytes(bNIL);
-      return response;
     } else if (v instanceof byte[]) {
-      byte[] value = (byte[]) v;
-      response = alloc.buffer(value.length + 20);
-      toWrite = value;
+      writeBulkString(response, (byte[]) v);
     } else if (v instanceof ByteArrayWrapper) {
-      byte[] value = ((ByteArrayWrapper) v).toBytes();
-      response = alloc.buffer(value.length + 20);
-      toWrite = value;
+      writeBulkString(response, ((ByteArrayWrapper) v).toBytes());
     } else if (v instanceof Double) {
-      response = alloc.buffer();
-      toWrite = doubleToBytes(((Double) v).doubleValue());
+      writeBulkString(response, doubleToBytes(((Double) v).doubleValue()));
     } else if (v instanceof String) {
-      String value = (String) v;
-      response = alloc.buffer(value.length() + 20);
-      toWrite = stringToBytes(value);
+      writeBulkString(response, stringToBytes((String) v));
     } else {
       throw new CoderException();
     }
+  }
 
+  private static void writeBulkString(ByteBuf response, byte[] value) {
     response.writeByte(BULK_STRING_ID);
-    response.writeBytes(intToBytes(toWrite.length));
+    if (value == null) {
+      // stringToBytes gives null for the empty string
+      response.writeByte(NUMBER_0_BYTE);
+      response.writeBytes(CRLFar);
+    } else {
+      writeDecimal(response, value.length);
+      response.writeBytes(CRLFar);
+      response.writeBytes(value);
+    }
     response.writeBytes(CRLFar);
-    response.writeBytes(toWrite);
+  }
+
+  /**
+   * Writes the decimal digits of a number without creating a String for it
+   */
+  private static void writeDecimal(ByteBuf response, long l) {
+    if (l == Long.MIN_VALUE) {
+      response.writeBytes(longToBytes(l));
+      return;
+    }
+    if (l < 0) {
+      response.writeByte(HYPHEN_ID);
+      l = -l;
+    }
+    int digits = 1;
+    for (long rest = l / 10; rest != 0; rest /= 10) {
+      digits++;
+    }
+    response.ensureWritable(digits);
+    int end = response.writerIndex() + digits;
+    for (int i = end - 1; i >= response.writerIndex(); i--) {
+      response.setByte(i, NUMBER_0_BYTE + (int) (l % 10));
+      l /= 10;
+    }
+    response.writerIndex(end);
+  }
+
+  private static void writeArrayHeader(ByteBuf response, int size) {
+    response.writeByte(ARRAY_ID);
+    writeDecimal(response, size);
     response.writeBytes(CRLFar);
+  }
 
-    return response;
+  /**
+   * Prefixes the elements of an array with its header without copying them, for arrays whose size
+   * is only known once the elements have been written
+   */
+  private static ByteBuf withArrayHeader(ByteBufAllocator alloc, int size, ByteBuf elements) {
+    ByteBuf header = alloc.buffer(16);
+    writeArrayHeader(header, size);
+    return alloc.compositeBuffer(2).addComponents(true, header, elements);
   }
 
   public static ByteBuf getBulkStringArrayResponse(ByteBufAllocator alloc, Collection<?> items)
       throws CoderException {
     ByteBuf response = alloc.buffer();
-    response.writeByte(ARRAY_ID);
-    response.writeBytes(intToBytes(items.size()));
-    response.writeBytes(CRLFar);
+    try {
+      writeBulkStringArray(response, items);
+    } catch (CoderException e) {
+      response.release();
+      throw e;
+    }
+    return response;
+  }
+
+  private static void writeBulkStringArray(ByteBuf response, Collection<?> items)
+      throws CoderException {
+    writeArrayHeader(response, items.size());
     for (Object next : items) {
-      ByteBuf tmp = null;
-      try {
-        if (next instanceof Collection) {
-          Collection<?> nextItems = (Collection<?>) next;
-          tmp = getBulkStringArrayResponse(alloc, nextItems);
-          response.writeBytes(tmp);
-        } else {
-          tmp = getBulkStringResponse(alloc, next);
-          response.writeBytes(tmp);
-        }
-      } finally {
-        if (tmp != null) {
-          tmp.release();
-        }
+      if (next instanceof Collection) {
+        writeBulkStringArray(response, (Collection<?>) next);
+      } else {
+        writeBulkString(response, next);
       }
     }
+  }
 
+  /**
+   * Like {@link #getBulkStringArrayResponse} but Integer and Long items are written as integers
+   */
+  public static ByteBuf getArrayResponse(ByteBufAllocator alloc, Collection<?> items)
+      throws CoderException {
+    ByteBuf response = alloc.buffer();
+    try {
+      writeArray(response, items);
+    } catch (CoderException e) {
+      response.release();
+      throw e;
+    }
     return response;
   }
 
+  private static void writeArray(ByteBuf response, Collection<?> items) throws CoderException {
+    writeArrayHeader(response, items.size());
+    for (Object next : items) {
+      if (next instanceof Collection) {
+        writeArray(response, (Collection<?>) next);
+      } else if (next instanceof Integer || next instanceof Long) {
+        response.writeByte(INTEGER_ID);
+        writeDecimal(response, ((Number) next).longValue());
+        response.writeBytes(CRLFar);
+      } else {
+        writeBulkString(response, next);
+      }
+    }
+  }
+
   public static ByteBuf getKeyValArrayResponse(ByteBufAllocator alloc,
       Collection<Entry<ByteArrayWrapper, ByteArrayWrapper>> items) {
-    ByteBuf response = alloc.buffer();
-    response.writeByte(ARRAY_ID);
-
     int size = 0;
-    ByteBuf tmp = alloc.buffer();
+    ByteBuf elements = alloc.buffer();
     for (Map.Entry<ByteArrayWrapper, ByteArrayWrapper> next : items) {
       byte[] key;
       byte[] nextByteArray;
@@ -187,106 +289,76 @@ public class Coder {
       } catch (EntryDestroyedException e) {
         continue;
       }
-      tmp.writeByte(BULK_STRING_ID); // Add key
-      tmp.writeBytes(intToBytes(key.length));
-      tmp.writeBytes(CRLFar);
-      tmp.writeBytes(key);
-      tmp.writeBytes(CRLFar);
-      tmp.writeByte(BULK_STRING_ID); // Add value
-      tmp.writeBytes(intToBytes(nextByteArray.length));
-      tmp.writeBytes(CRLFar);
-      tmp.writeBytes(nextByteArray);
-      tmp.writeBytes(CRLFar);
+      writeBulkString(elements, key); // Add key
+      writeBulkString(elements, nextByteArray); // Add value
       size++;
     }
 
-    response.writeBytes(intToBytes(size * 2));
-    response.writeBytes(CRLFar);
-    response.writeBytes(tmp);
-
-    tmp.release();
-
-    return response;
+    return withArrayHeader(alloc, size * 2, elements);
   }
 
   public static ByteBuf getScanResponse(ByteBufAllocator alloc, List<?> items) {
     ByteBuf response = alloc.buffer();
 
-    response.writeByte(ARRAY_ID);
-    response.writeBytes(intToBytes(2));
-    response.writeBytes(CRLFar);
-    response.writeByte(BULK_STRING_ID);
-    byte[] cursor = stringToBytes((String) items.get(0));
-    response.writeBytes(intToBytes(cursor.length));
-    response.writeBytes(CRLFar);
-    response.writeBytes(cursor);
-    response.writeBytes(CRLFar);
+    writeArrayHeader(response, 2);
+    writeBulkString(response, stringToBytes((String) items.get(0)));
     items = items.subList(1, items.size());
-    response.writeByte(ARRAY_ID);
-    response.writeBytes(intToBytes(items.size()));
-    response.writeBytes(CRLFar);
+    writeArrayHeader(response, items.size());
 
     for (Object nextObject : items) {
       if (nextObject instanceof String) {
-        String next = (String) nextObject;
-        response.writeByte(BULK_STRING_ID);
-        response.writeBytes(intToBytes(next.length()));
-        response.writeBytes(CRLFar);
-        response.writeBytes(stringToBytes(next));
-        response.writeBytes(CRLFar);
+        writeBulkString(response, stringToBytes((String) nextObject));
       } else if (nextObject instanceof ByteArrayWrapper) {
-        byte[] next = ((ByteArrayWrapper) nextObject).toBytes();
-        response.writeByte(BULK_STRING_ID);
-        response.writeBytes(intToBytes(next.length));
-        response.writeBytes(CRLFar);
-        response.writeBytes(next);
-        response.writeBytes(CRLFar);
+        writeBulkString(response, ((ByteArrayWrapper) nextObject).toBytes());
       }
     }
     return response;
   }
 
   public static ByteBuf getEmptyArrayResponse(ByteBufAllocator alloc) {
-    ByteBuf buf = alloc.buffer().writeBytes(bEMPTY_ARRAY);
+    ByteBuf buf = alloc.buffer(bEMPTY_ARRAY.length).writeBytes(bEMPTY_ARRAY);
     return buf;
   }
 
   public static ByteBuf getSimpleStringResponse(ByteBufAllocator alloc, String string) {
-    byte[] simpAr = stringToBytes(string);
-
-    ByteBuf response = alloc.buffer(simpAr.length + 20);
+    ByteBuf response = alloc.buffer(string.length() + 3);
     response.writeByte(SIMPLE_STRING_ID);
-    response.writeBytes(simpAr);
+    ByteBufUtil.writeUtf8(response, string);
     response.writeBytes(CRLFar);
     return response;
   }
 
   public static ByteBuf getErrorResponse(ByteBufAllocator alloc, String error) {
-    byte[] errorAr = stringToBytes(error);
-    ByteBuf response = alloc.buffer(errorAr.length + 25);
+    return getErrorResponse(alloc, err, error);
+  }
+
+  /**
+   * Returns the Redis Cluster redirection of a key to the node serving its slot
+   */
+  public static ByteBuf getMovedResponse(ByteBufAllocator alloc, int slot, String address) {
+    ByteBuf response = alloc.buffer(moved.length + address.length() + 10);
     response.writeByte(ERROR_ID);
-    response.writeBytes(err);
-    response.writeBytes(errorAr);
+    response.writeBytes(moved);
+    writeDecimal(response, slot);
+    response.writeByte(SPACE_ID);
+    ByteBufUtil.writeUtf8(response, address);
     response.writeBytes(CRLFar);
     return response;
   }
 
   public static ByteBuf getNoAuthResponse(ByteBufAllocator alloc, String error) {
-    byte[] errorAr = stringToBytes(error);
-    ByteBuf response = alloc.buffer(errorAr.length + 25);
-    response.writeByte(ERROR_ID);
-    response.writeBytes(noAuth);
-    response.writeBytes(errorAr);
-    response.writeBytes(CRLFar);
-    return response;
+    return getErrorResponse(alloc, noAuth, error);
   }
 
   public static ByteBuf getWrongTypeResponse(ByteBufAllocator alloc, String error) {
-    byte[] errorAr = stringToBytes(error);
-    ByteBuf response = alloc.buffer(errorAr.length + 31);
+    return getErrorResponse(alloc, wrongType, error);
+  }
+
+  private static ByteBuf getErrorResponse(ByteBufAllocator alloc, byte[] prefix, String error) {
+    ByteBuf response = alloc.buffer(prefix.length + error.length() + 3);
     response.writeByte(ERROR_ID);
-    response.writeBytes(wrongType);
-    response.writeBytes(errorAr);
+    response.writeBytes(prefix);
+    ByteBufUtil.writeUtf8(response, error);
     response.writeBytes(CRLFar);
     return response;
   }
@@ -294,7 +366,7 @@ public class Coder {
   public static ByteBuf getIntegerResponse(ByteBufAllocator alloc, int integer) {
     ByteBuf response = alloc.buffer(15);
     response.writeByte(INTEGER_ID);
-    response.writeBytes(intToBytes(integer));
+    writeDecimal(response, integer);
     response.writeBytes(CRLFar);
     return response;
   }
@@ -302,54 +374,40 @@ public class Coder {
   public static ByteBuf getIntegerResponse(ByteBufAllocator alloc, long l) {
     ByteBuf response = alloc.buffer(25);
     response.writeByte(INTEGER_ID);
-    response.writeBytes(longToBytes(l));
+    writeDecimal(response, l);
     response.writeBytes(CRLFar);
     return response;
   }
 
   public static ByteBuf getNilResponse(ByteBufAllocator alloc) {
-    ByteBuf buf = alloc.buffer().writeBytes(bNIL);
+    ByteBuf buf = alloc.buffer(bNIL.length).writeBytes(bNIL);
     return buf;
   }
 
   public static ByteBuf getBulkStringArrayResponseOfValues(ByteBufAllocator alloc,
       Collection<?> items) {
-    ByteBuf response = alloc.buffer();
-    response.writeByte(Coder.ARRAY_ID);
-    ByteBuf tmp = alloc.buffer();
+    ByteBuf elements = alloc.buffer();
     int size = 0;
-    try {
-      for (Object next : items) {
-        ByteArrayWrapper nextWrapper = null;
-        if (next instanceof Entry) {
-          try {
-            nextWrapper = (ByteArrayWrapper) ((Entry<?, ?>) next).getValue();
-          } catch (EntryDestroyedException e) {
-            continue;
-          }
-        } else if (next instanceof Struct) {
-          nextWrapper = (ByteArrayWrapper) ((Struct) next).getFieldValues()[1];
-        }
-        if (nextWrapper != null) {
-          tmp.writeByte(Coder.BULK_STRING_ID);
-          tmp.writeBytes(intToBytes(nextWrapper.length()));
-          tmp.writeBytes(Coder.CRLFar);
-          tmp.writeBytes(nextWrapper.toBytes());
-          tmp.writeBytes(Coder.CRLFar);
-        } else {
-          tmp.writeBytes(Coder.bNIL);
+    for (Object next : items) {
+      ByteArrayWrapper nextWrapper = null;
+      if (next instanceof Entry) {
+        try {
+          nextWrapper = (ByteArrayWrapper) ((Entry<?, ?>) next).getValue();
+        } catch (EntryDestroyedException e) {
+          continue;
         }
-        size++;
+      } else if (next instanceof Struct) {
+        nextWrapper = (ByteArrayWrapper) ((Struct) next).getFieldValues()[1];
       }
-
-      response.writeBytes(intToBytes(size));
-      response.writeBytes(Coder.CRLFar);
-      response.writeBytes(tmp);
-    } finally {
-      tmp.release();
+      if (nextWrapper != null) {
+        writeBulkString(elements, nextWrapper.toBytes());
+      } else {
+        elements.writeBytes(Coder.bNIL);
+      }
+      size++;
     }
 
-    return response;
+    return withArrayHeader(alloc, size, elements);
   }
 
   public static ByteBuf zRangeResponse(ByteBufAllocator alloc, Collection<?> list,
@@ -357,9 +415,7 @@ public class Coder {
     if (list.isEmpty())
       return Coder.getEmptyArrayResponse(alloc);
 
-    ByteBuf buffer = alloc.buffer();
-    buffer.writeByte(Coder.ARRAY_ID);
-    ByteBuf tmp = alloc.buffer();
+    ByteBuf elements = alloc.buffer();
     int size = 0;
 
     for (Object entry : list) {
@@ -377,39 +433,20 @@ public class Coder {
         key = (ByteArrayWrapper) fieldVals[0];
         score = (DoubleWrapper) fieldVals[1];
       }
-      byte[] byteAr = key.toBytes();
-      tmp.writeByte(Coder.BULK_STRING_ID);
-      tmp.writeBytes(intToBytes(byteAr.length));
-      tmp.writeBytes(Coder.CRLFar);
-      tmp.writeBytes(byteAr);
-      tmp.writeBytes(Coder.CRLFar);
+      writeBulkString(elements, key.toBytes());
       size++;
       if (withScores) {
-        String scoreString = score.toString();
-        byte[] scoreAr = stringToBytes(scoreString);
-        tmp.writeByte(Coder.BULK_STRING_ID);
-        tmp.writeBytes(intToBytes(scoreString.length()));
-        tmp.writeBytes(Coder.CRLFar);
-        tmp.writeBytes(scoreAr);
-        tmp.writeBytes(Coder.CRLFar);
+        writeBulkString(elements, stringToBytes(score.toString()));
         size++;
       }
     }
 
-    buffer.writeBytes(intToBytes(size));
-    buffer.writeBytes(Coder.CRLFar);
-    buffer.writeBytes(tmp);
-
-    tmp.release();
-
-    return buffer;
+    return withArrayHeader(alloc, size, elements);
   }
 
   public static ByteBuf getArrayOfNils(ByteBufAllocator alloc, int length) {
-    ByteBuf response = alloc.buffer();
-    response.writeByte(Coder.ARRAY_ID);
-    response.writeBytes(intToBytes(length));
-    response.writeBytes(Coder.CRLFar);
+    ByteBuf response = alloc.buffer(16 + length * bNIL.length);
+    writeArrayHeader(response, length);
 
     for (int i = 0; i < length; i++)
       response.writeBytes(bNIL);
@@ -0,0 +1,494 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * The elements of a {@link RedisHash}, {@link RedisSet} or {@link RedisList} in a weight balanced
+ * binary tree, as keys with values. The keys of a hash or set are kept ordered, and looked up, with
+ * the methods taking a key. The elements of a list are kept in the order they were inserted at, and
+ * looked up, with the methods taking an index. Each node holds the size of its subtree, so that
+ * finding the element at an index takes O(log n) time.
+ * <p>
+ * The nodes are never changed once created, the same way as those of a {@link SortedSetTree}.
+ * Each change returns a new tree that shares all but O(log n) of its nodes with this one, so a
+ * collection can be copied in O(1) time before it is changed.
+ *
+ * @param <V> The type of the values, Void if there are none
+ */
+class CollectionTree<V> implements Iterable<CollectionTree.Node<V>> {
+
+  /**
+   * A subtree is rebalanced when one side holds more than this many times the nodes of the other
+   */
+  private static final int DELTA = 3;
+
+  /**
+   * A single rotation is used to rebalance when the inner subtree of the heavy side holds less than
+   * this many times the nodes of the outer one, and a double rotation otherwise
+   */
+  private static final int RATIO = 2;
+
+  @SuppressWarnings("rawtypes")
+  private static final CollectionTree EMPTY = new CollectionTree<>(null);
+
+  private final Node<V> root;
+
+  static class Node<V> implements Map.Entry<ByteArrayWrapper, V> {
+    private final ByteArrayWrapper key;
+
+    private final V value;
+
+    private final Node<V> left;
+
+    private final Node<V> right;
+
+    private final int size;
+
+    private Node(ByteArrayWrapper key, V value, Node<V> left, Node<V> right) {
+      this.key = key;
+      this.value = value;
+      this.left = left;
+      this.right = right;
+      this.size = size(left) + 1 + size(right);
+    }
+
+    @Override
+    public ByteArrayWrapper getKey() {
+      return this.key;
+    }
+
+    @Override
+    public V getValue() {
+      return this.value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+      return this.key.equals(entry.getKey())
+          && (this.value == null ? entry.getValue() == null : this.value.equals(entry.getValue()));
+    }
+
+    @Override
+    public int hashCode() {
+      return this.key.hashCode() ^ (this.value == null ? 0 : this.value.hashCode());
+    }
+  }
+
+  private CollectionTree(Node<V> root) {
+    this.root = root;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <V> CollectionTree<V> empty() {
+    return EMPTY;
+  }
+
+  private CollectionTree<V> withRoot(Node<V> root) {
+    return root == this.root ? this : root == null ? empty() : new CollectionTree<>(root);
+  }
+
+  int size() {
+    return size(this.root);
+  }
+
+  /**
+   * Returns the node of a key, or null if it is not in the tree
+   */
+  Node<V> find(ByteArrayWrapper key) {
+    Node<V> x = this.root;
+    while (x != null) {
+      int compared = key.compareTo(x.key);
+      if (compared == 0) {
+        return x;
+      }
+      x = compared < 0 ? x.left : x.right;
+    }
+    return null;
+  }
+
+  /**
+   * Returns a tree in which a key has the given value, whether or not it is already in this one
+   */
+  CollectionTree<V> put(ByteArrayWrapper key, V value) {
+    return withRoot(put(this.root, key, value));
+  }
+
+  /**
+   * Returns a tree without a key, or this tree if it is not in it
+   */
+  CollectionTree<V> remove(ByteArrayWrapper key) {
+    return withRoot(remove(this.root, key));
+  }
+
+  /**
+   * Returns the node at an index, which must be less than the size of the tree
+   */
+  Node<V> get(int index) {
+    Node<V> x = this.root;
+    while (true) {
+      int leftSize = size(x.left);
+      if (index < leftSize) {
+        x = x.left;
+      } else if (index == leftSize) {
+        return x;
+      } else {
+        index -= leftSize + 1;
+        x = x.right;
+      }
+    }
+  }
+
+  /**
+   * Returns a tree with a key inserted before the one at an index, or after the last one if the
+   * index is the size of the tree
+   */
+  CollectionTree<V> insert(int index, ByteArrayWrapper key, V value) {
+    return withRoot(insert(this.root, index, key, value));
+  }
+
+  /**
+   * Returns a tree with the key at an index replaced
+   */
+  CollectionTree<V> set(int index, ByteArrayWrapper key, V value) {
+    return withRoot(set(this.root, index, key, value));
+  }
+
+  /**
+   * Returns a tree without the key at an index
+   */
+  CollectionTree<V> removeAt(int index) {
+    return withRoot(removeAt(this.root, index));
+  }
+
+  /**
+   * Returns a tree of the keys from index start, inclusive, to index stop, exclusive, in O(log n)
+   * time
+   */
+  CollectionTree<V> subTree(int start, int stop) {
+    return withRoot(drop(take(this.root, stop), start));
+  }
+
+  /**
+   * Returns the nodes from index start, inclusive, to index stop, exclusive
+   */
+  List<Node<V>> range(int start, int stop) {
+    List<Node<V>> range = new ArrayList<>(Math.max(0, stop - start));
+    for (Iterator<Node<V>> nodes = iterator(start); nodes.hasNext()
+        && range.size() < stop - start;) {
+      range.add(nodes.next());
+    }
+    return range;
+  }
+
+  @Override
+  public Iterator<Node<V>> iterator() {
+    return iterator(0);
+  }
+
+  /**
+   * Returns an iterator over the nodes in order, starting at the given index
+   */
+  private Iterator<Node<V>> iterator(int start) {
+    Deque<Node<V>> path = new ArrayDeque<>();
+    Node<V> x = this.root;
+    int index = start;
+    while (x != null) {
+      int leftSize = size(x.left);
+      if (index < leftSize) {
+        path.push(x);
+        x = x.left;
+      } else if (index == leftSize) {
+        path.push(x);
+        break;
+      } else {
+        index -= leftSize + 1;
+        x = x.right;
+      }
+    }
+    return new Iterator<Node<V>>() {
+      @Override
+      public boolean hasNext() {
+        return !path.isEmpty();
+      }
+
+      @Override
+      public Node<V> next() {
+        if (path.isEmpty()) {
+          throw new NoSuchElementException();
+        }
+        Node<V> next = path.pop();
+        for (Node<V> x = next.right; x != null; x = x.left) {
+          path.push(x);
+        }
+        return next;
+      }
+    };
+  }
+
+  private static <V> Node<V> put(Node<V> x, ByteArrayWrapper key, V value) {
+    if (x == null) {
+      return new Node<>(key, value, null, null);
+    }
+    int compared = key.compareTo(x.key);
+    if (compared < 0) {
+      return balance(x, put(x.left, key, value), x.right);
+    }
+    if (compared > 0) {
+      return balance(x, x.left, put(x.right, key, value));
+    }
+    return new Node<>(x.key, value, x.left, x.right);
+  }
+
+  private static <V> Node<V> remove(Node<V> x, ByteArrayWrapper key) {
+    if (x == null) {
+      return null;
+    }
+    int compared = key.compareTo(x.key);
+    if (compared < 0) {
+      Node<V> left = remove(x.left, key);
+      return left == x.left ? x : balance(x, left, x.right);
+    }
+    if (compared > 0) {
+      Node<V> right = remove(x.right, key);
+      return right == x.right ? x : balance(x, x.left, right);
+    }
+    return glue(x.left, x.right);
+  }
+
+  private static <V> Node<V> insert(Node<V> x, int index, ByteArrayWrapper key, V value) {
+    if (x == null) {
+      return new Node<>(key, value, null, null);
+    }
+    int leftSize = size(x.left);
+    if (index <= leftSize) {
+      return balance(x, insert(x.left, index, key, value), x.right);
+    }
+    return balance(x, x.left, insert(x.right, index - leftSize - 1, key, value));
+  }
+
+  private static <V> Node<V> set(Node<V> x, int index, ByteArrayWrapper key, V value) {
+    int leftSize = size(x.left);
+    if (index < leftSize) {
+      return new Node<>(x.key, x.value, set(x.left, index, key, value), x.right);
+    }
+    if (index > leftSize) {
+      return new Node<>(x.key, x.value, x.left, set(x.right, index - leftSize - 1, key, value));
+    }
+    return new Node<>(key, value, x.left, x.right);
+  }
+
+  private static <V> Node<V> removeAt(Node<V> x, int index) {
+    int leftSize = size(x.left);
+    if (index < leftSize) {
+      return balance(x, removeAt(x.left, index), x.right);
+    }
+    if (index > leftSize) {
+      return balance(x, x.left, removeAt(x.right, index - leftSize - 1));
+    }
+    return glue(x.left, x.right);
+  }
+
+  /**
+   * Returns the first n nodes of a subtree
+   */
+  private static <V> Node<V> take(Node<V> x, int n) {
+    if (x == null || n <= 0) {
+      return null;
+    }
+    if (n >= x.size) {
+      return x;
+    }
+    int leftSize = size(x.left);
+    if (n <= leftSize) {
+      return take(x.left, n);
+    }
+    return link(x, x.left, take(x.right, n - leftSize - 1));
+  }
+
+  /**
+   * Returns a subtree without its first n nodes
+   */
+  private static <V> Node<V> drop(Node<V> x, int n) {
+    if (x == null || n <= 0) {
+      return x;
+    }
+    if (n >= x.size) {
+      return null;
+    }
+    int leftSize = size(x.left);
+    if (n > leftSize) {
+      return drop(x.right, n - leftSize - 1);
+    }
+    return link(x, drop(x.left, n), x.right);
+  }
+
+  /**
+   * Returns a balanced node for the key of x between two subtrees of any size
+   */
+  private static <V> Node<V> link(Node<V> x, Node<V> left, Node<V> right) {
+    if (left == null) {
+      return insertFirst(x, right);
+    }
+    if (right == null) {
+      return insertLast(x, left);
+    }
+    if (DELTA * left.size < right.size) {
+      return balance(right, link(x, left, right.left), right.right);
+    }
+    if (DELTA * right.size < left.size) {
+      return balance(left, left.left, link(x, left.right, right));
+    }
+    return node(x, left, right);
+  }
+
+  private static <V> Node<V> insertFirst(Node<V> x, Node<V> right) {
+    if (right == null) {
+      return node(x, null, null);
+    }
+    return balance(right, insertFirst(x, right.left), right.right);
+  }
+
+  private static <V> Node<V> insertLast(Node<V> x, Node<V> left) {
+    if (left == null) {
+      return node(x, null, null);
+    }
+    return balance(left, left.left, insertLast(x, left.right));
+  }
+
+  /**
+   * Joins the subtrees of a removed node
+   */
+  private static <V> Node<V> glue(Node<V> left, Node<V> right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (left.size > right.size) {
+      Node<V> last = left;
+      while (last.right != null) {
+        last = last.right;
+      }
+      return balance(last, deleteLast(left), right);
+    }
+    Node<V> first = right;
+    while (first.left != null) {
+      first = first.left;
+    }
+    return balance(first, left, deleteFirst(right));
+  }
+
+  private static <V> Node<V> deleteFirst(Node<V> x) {
+    return x.left == null ? x.right : balance(x, deleteFirst(x.left), x.right);
+  }
+
+  private static <V> Node<V> deleteLast(Node<V> x) {
+    return x.right == null ? x.left : balance(x, x.left, deleteLast(x.right));
+  }
+
+  /**
+   * Returns a node for the key of x with the given subtrees, rotated if one of them has become too
+   * large for the other after a single key was added to or removed from it
+   */
+  private static <V> Node<V> balance(Node<V> x, Node<V> left, Node<V> right) {
+    int leftSize = size(left);
+    int rightSize = size(right);
+    if (leftSize + rightSize > 1) {
+      if (rightSize > DELTA * leftSize) {
+        if (size(right.left) < RATIO * size(right.right)) {
+          return node(right, node(x, left, right.left), right.right);
+        }
+        return node(right.left, node(x, left, right.left.left),
+            node(right, right.left.right, right.right));
+      }
+      if (leftSize > DELTA * rightSize) {
+        if (size(left.right) < RATIO * size(left.left)) {
+          return node(left, left.left, node(x, left.right, right));
+        }
+        return node(left.right, node(left, left.left, left.right.left),
+            node(x, left.right.right, right));
+      }
+    }
+    return node(x, left, right);
+  }
+
+  /**
+   * Returns a node for the key of x with the given subtrees, which is x if they are its own
+   */
+  private static <V> Node<V> node(Node<V> x, Node<V> left, Node<V> right) {
+    if (left == x.left && right == x.right) {
+      return x;
+    }
+    return new Node<>(x.key, x.value, left, right);
+  }
+
+  private static int size(Node<?> x) {
+    return x == null ? 0 : x.size;
+  }
+
+  /**
+   * Builds a balanced tree from keys that are appended in order, in O(n) time
+   */
+  static class Builder<V> {
+    private final List<ByteArrayWrapper> keys;
+
+    private final List<V> values;
+
+    Builder(int expectedSize) {
+      this.keys = new ArrayList<>(expectedSize);
+      this.values = new ArrayList<>(expectedSize);
+    }
+
+    /**
+     * Adds a key after all the keys added so far
+     */
+    void append(ByteArrayWrapper key, V value) {
+      this.keys.add(key);
+      this.values.add(value);
+    }
+
+    CollectionTree<V> build() {
+      Node<V> root = build(0, this.keys.size());
+      return root == null ? empty() : new CollectionTree<>(root);
+    }
+
+    private Node<V> build(int start, int end) {
+      if (start >= end) {
+        return null;
+      }
+      int middle = (start + end) >>> 1;
+      return new Node<>(this.keys.get(middle), this.values.get(middle), build(start, middle),
+          build(middle + 1, end));
+    }
+  }
+}
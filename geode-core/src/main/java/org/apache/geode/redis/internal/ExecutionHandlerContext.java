@@ -15,17 +15,18 @@
 package org.apache.geode.redis.internal;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.handler.codec.DecoderException;
-import io.netty.util.concurrent.EventExecutor;
 
 import org.apache.geode.LogWriter;
 import org.apache.geode.cache.Cache;
@@ -46,6 +47,10 @@ import org.apache.geode.redis.internal.executor.transactions.TransactionExecutor
  * executes it and sends the result back to the client. Additionally, all exception handling is done
  * by this class.
  * <p>
+ * Commands are executed in order once the bytes of a read have been decoded, so that the responses
+ * to pipelined commands are gathered into one {@link ByteBuf} and flushed together. Runs of
+ * consecutive commands with a {@link BatchExecutor} are executed as one batch.
+ * <p>
  * Besides being part of Netty's pipeline, this class also serves as a context to the execution of a
  * command. It abstracts transactions, provides access to the {@link RegionProvider} and anything
  * else an executing {@link Command} may need.
@@ -63,10 +68,29 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
   private final GeodeRedisServer server;
   private final LogWriter logger;
   private final Channel channel;
-  private final AtomicBoolean needChannelFlush;
-  private final Runnable flusher;
-  private final EventExecutor lastExecutor;
   private final ByteBufAllocator byteBufAllocator;
+
+  /**
+   * Commands decoded from the current read, which are executed when the read is complete
+   */
+  private final List<Command> pendingCommands;
+
+  /**
+   * Responses to be flushed when the current read is complete, null if there are none
+   */
+  private ByteBuf pendingResponses;
+
+  /**
+   * Whether {@link #pendingResponses} was allocated here to hold more than one response
+   */
+  private boolean pendingResponsesGathered;
+
+  /**
+   * The responses to be flushed when the current read is complete as components, once a composite
+   * response is among them, otherwise null. Any later responses are gathered in
+   * {@link #pendingResponses} until they are written.
+   */
+  private CompositeByteBuf pendingComponents;
   /**
    * TransactionId for any transactions started by this client
    */
@@ -79,6 +103,11 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
   private final RegionProvider regionProvider;
   private final byte[] authPwd;
 
+  /**
+   * Slots of the keys this server answers for, null unless cluster slots are enabled
+   */
+  private final ClusterSlots clusterSlots;
+
   private boolean isAuthenticated;
 
   /**
@@ -90,53 +119,106 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
    * @param server Instance of the server it is attached to, only used so that any execution can
    *        initiate a shutdwon
    * @param pwd Authentication password for each context, can be null
+   * @param clusterSlots Slots of the keys this server answers for, can be null
    */
   public ExecutionHandlerContext(Channel ch, Cache cache, RegionProvider regionProvider,
-      GeodeRedisServer server, byte[] pwd) {
+      GeodeRedisServer server, byte[] pwd, ClusterSlots clusterSlots) {
     if (ch == null || cache == null || regionProvider == null || server == null)
-      throw new IllegalArgumentException("Only the authentication password may be null");
+      throw new IllegalArgumentException(
+          "Only the authentication password and cluster slots may be null");
     this.cache = cache;
     this.server = server;
     this.logger = cache.getLogger();
     this.channel = ch;
-    this.needChannelFlush = new AtomicBoolean(false);
-    this.flusher = new Runnable() {
-
-      @Override
-      public void run() {
-        flushChannel();
-      }
-
-    };
-    this.lastExecutor = channel.pipeline().lastContext().executor();
     this.byteBufAllocator = channel.alloc();
+    this.pendingCommands = new ArrayList<Command>();
     this.transactionID = null;
     this.transactionQueue = null; // Lazy
     this.regionProvider = regionProvider;
     this.authPwd = pwd;
+    this.clusterSlots = clusterSlots;
     this.isAuthenticated = pwd != null ? false : true;
   }
 
-  private void flushChannel() {
-    while (needChannelFlush.getAndSet(false)) {
-      channel.flush();
+  /**
+   * Adds a response to those to be flushed when the current read is complete. The first response is
+   * kept as it is, and once there is a second they are all copied into one pooled buffer so that
+   * the channel writes them together. A {@link CompositeByteBuf} wraps values that {@link Coder}
+   * chose not to copy, so it is added as a component of {@link #pendingComponents} instead, after
+   * the responses gathered before it.
+   */
+  private void writeToChannel(ByteBuf message) {
+    if (!this.channel.isOpen()) {
+      message.release();
+      return;
+    }
+    if (message instanceof CompositeByteBuf) {
+      if (this.pendingComponents == null) {
+        this.pendingComponents = this.byteBufAllocator.compositeBuffer(Integer.MAX_VALUE);
+      }
+      addPendingResponsesToComponents();
+      this.pendingComponents.addComponent(true, message);
+      return;
     }
+    if (this.pendingResponses == null) {
+      this.pendingResponses = message;
+      return;
+    }
+    if (!this.pendingResponsesGathered) {
+      ByteBuf first = this.pendingResponses;
+      this.pendingResponses =
+          this.byteBufAllocator.ioBuffer(2 * (first.readableBytes() + message.readableBytes()));
+      this.pendingResponses.writeBytes(first);
+      first.release();
+      this.pendingResponsesGathered = true;
+    }
+    this.pendingResponses.writeBytes(message);
+    message.release();
   }
 
-  private void writeToChannel(ByteBuf message) {
-    channel.write(message, channel.voidPromise());
-    if (!needChannelFlush.getAndSet(true)) {
-      this.lastExecutor.execute(flusher);
+  private void addPendingResponsesToComponents() {
+    if (this.pendingResponses != null) {
+      this.pendingComponents.addComponent(true, this.pendingResponses);
+      this.pendingResponses = null;
+      this.pendingResponsesGathered = false;
     }
   }
 
   /**
-   * This will handle the execution of received commands
+   * Writes the pending responses to the channel, and flushes them
+   */
+  private void flushChannel() {
+    ByteBuf responses;
+    if (this.pendingComponents != null) {
+      addPendingResponsesToComponents();
+      responses = this.pendingComponents;
+      this.pendingComponents = null;
+    } else if (this.pendingResponses != null) {
+      responses = this.pendingResponses;
+      this.pendingResponses = null;
+      this.pendingResponsesGathered = false;
+    } else {
+      return;
+    }
+    channel.writeAndFlush(responses, channel.voidPromise());
+  }
+
+  /**
+   * Received commands are held until the read is complete, see {@link #channelReadComplete}
    */
   @Override
   public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
-    Command command = (Command) msg;
-    executeCommand(ctx, command);
+    this.pendingCommands.add((Command) msg);
+  }
+
+  /**
+   * This will handle the execution of the commands received by a read, and send all of their
+   * responses back with one flush
+   */
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) {
+    executePendingCommands(ctx);
+    flushChannel();
   }
 
   /**
@@ -144,6 +226,13 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
    */
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+    // Commands decoded before a malformed one are answered first
+    executePendingCommands(ctx);
+    handleException(ctx, cause);
+    flushChannel();
+  }
+
+  private void handleException(ChannelHandlerContext ctx, Throwable cause) {
     if (cause instanceof IOException) {
       channelInactive(ctx);
       return;
@@ -181,10 +270,100 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
   public void channelInactive(ChannelHandlerContext ctx) {
     if (logger.fineEnabled())
       logger.fine("GeodeRedisServer-Connection closing with " + ctx.channel().remoteAddress());
+    this.pendingCommands.clear();
+    if (this.pendingResponses != null) {
+      this.pendingResponses.release();
+      this.pendingResponses = null;
+      this.pendingResponsesGathered = false;
+    }
+    if (this.pendingComponents != null) {
+      this.pendingComponents.release();
+      this.pendingComponents = null;
+    }
     ctx.channel().close();
     ctx.close();
   }
 
+  /**
+   * Executes the commands received so far in order. Each run of consecutive batchable commands of
+   * the same type is given to its {@link BatchExecutor} at once, unless the client is in a
+   * transaction or has not authenticated.
+   */
+  private void executePendingCommands(ChannelHandlerContext ctx) {
+    List<Command> commands = this.pendingCommands;
+    int start = 0;
+    while (start < commands.size() && this.channel.isOpen()) {
+      int end = getBatchEnd(commands, start);
+      try {
+        if (end - start > 1)
+          executeBatch(ctx, commands.subList(start, end));
+        else
+          executeCommand(ctx, commands.get(start));
+      } catch (Exception e) {
+        handleException(ctx, e);
+      }
+      start = end;
+    }
+    commands.clear();
+  }
+
+  private int getBatchEnd(List<Command> commands, int start) {
+    Command first = commands.get(start);
+    Executor exec = first.getCommandType().getExecutor();
+    if (!isAuthenticated || hasTransaction() || !(exec instanceof BatchExecutor)
+        || !((BatchExecutor) exec).isBatchable(first) || getMovedAddress(first) != null)
+      return start + 1;
+    BatchExecutor batchExec = (BatchExecutor) exec;
+    int end = start + 1;
+    while (end < commands.size() && commands.get(end).getCommandType() == first.getCommandType()
+        && batchExec.isBatchable(commands.get(end)) && getMovedAddress(commands.get(end)) == null)
+      end++;
+    return end;
+  }
+
+  /**
+   * Gets the address of the server that a string command should be sent to instead, if cluster
+   * slots are enabled and the primary copy of its key is on another server
+   *
+   * @return "host:port" of the other server, or null if the command is executed here
+   */
+  private String getMovedAddress(Command command) {
+    if (this.clusterSlots == null)
+      return null;
+    RedisCommandType type = command.getCommandType();
+    if (type.getDataType() != RedisDataType.REDIS_STRING || type == RedisCommandType.BITOP)
+      return null;
+    ByteArrayWrapper key = command.getKey();
+    return key == null ? null : this.clusterSlots.getMovedAddress(key.toBytes());
+  }
+
+  /**
+   * Executes a run of batchable commands. If the batch fails, the commands that have no response
+   * yet are executed one at a time, which retries them while Regions are being recreated.
+   */
+  private void executeBatch(ChannelHandlerContext ctx, List<Command> batch) {
+    BatchExecutor exec = (BatchExecutor) batch.get(0).getCommandType().getExecutor();
+    try {
+      exec.executeCommands(batch, this);
+    } catch (Exception e) {
+      if (this.logger.fineEnabled())
+        this.logger.fine("GeodeRedisServer-Batch of " + batch.size() + " "
+            + batch.get(0).getCommandType() + " commands failed, executing them one at a time", e);
+    }
+    for (Command command : batch) {
+      ByteBuf response = command.getResponse();
+      if (response != null) {
+        writeToChannel(response);
+        continue;
+      }
+      try {
+        executeCommand(ctx, command);
+      } catch (Exception e) {
+        handleException(ctx, e);
+      }
+    }
+  }
+
   private void executeCommand(ChannelHandlerContext ctx, Command command) throws Exception {
     RedisCommandType type = command.getCommandType();
     Executor exec = type.getExecutor();
@@ -193,6 +372,12 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
         this.server.shutdown();
         return;
       }
+      String movedAddress = getMovedAddress(command);
+      if (movedAddress != null) {
+        writeToChannel(Coder.getMovedResponse(this.byteBufAllocator,
+            ClusterSlots.getSlot(command.getKey().toBytes()), movedAddress));
+        return;
+      }
       if (hasTransaction() && !(exec instanceof TransactionExecutor))
         executeWithTransaction(ctx, exec, command);
       else
@@ -209,6 +394,7 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
       exec.executeCommand(command, this);
       ByteBuf response = command.getResponse();
       writeToChannel(response);
+      flushChannel();
       channelInactive(ctx);
     } else if (type == RedisCommandType.AUTH) {
       exec.executeCommand(command, this);
@@ -337,6 +523,15 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
     return this.regionProvider;
   }
 
+  /**
+   * Gets the slots of the keys this server answers for
+   *
+   * @return The cluster slots, or null if they are not enabled
+   */
+  public ClusterSlots getClusterSlots() {
+    return this.clusterSlots;
+  }
+
   /**
    * Getter for manager to allow pausing and resuming transactions
    *
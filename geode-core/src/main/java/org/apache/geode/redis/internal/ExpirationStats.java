@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * Statistics about the expiration of keys by a GeodeRedisServer, see {@link ExpirationWheel}
+ */
+public class ExpirationStats {
+
+  private static final StatisticsType type;
+
+  private static final int keysWithExpirationId;
+  private static final int expirationsId;
+  private static final int expirationLagTimeId;
+  private static final int sweepsId;
+  private static final int sweepTimeId;
+  private static final int sweepBacklogId;
+
+  static {
+    StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+
+    type = f.createType("RedisExpirationStats",
+        "Statistics about the expiration of keys by a Redis server",
+        new StatisticDescriptor[] {
+            f.createLongGauge("keysWithExpiration",
+                "The number of keys that have an expiration set on this server.", "keys"),
+            f.createLongCounter("expirations",
+                "The total number of keys removed because their expiration was reached.",
+                "operations"),
+            f.createLongCounter("expirationLagTime",
+                "The total time between the expiration of keys and the sweep that removed them.",
+                "milliseconds"),
+            f.createLongCounter("sweeps",
+                "The total number of times the keys whose expiration was reached were looked for.",
+                "operations"),
+            f.createLongCounter("sweepTime",
+                "The total time spent looking for and removing keys whose expiration was reached.",
+                "nanoseconds"),
+            f.createLongGauge("sweepBacklog",
+                "How far behind the clock the last sweep started, which grows when keys expire faster than they can be removed.",
+                "milliseconds", false)});
+
+    keysWithExpirationId = type.nameToId("keysWithExpiration");
+    expirationsId = type.nameToId("expirations");
+    expirationLagTimeId = type.nameToId("expirationLagTime");
+    sweepsId = type.nameToId("sweeps");
+    sweepTimeId = type.nameToId("sweepTime");
+    sweepBacklogId = type.nameToId("sweepBacklog");
+  }
+
+  private final Statistics stats;
+
+  public ExpirationStats(StatisticsFactory f, String name) {
+    this.stats = f.createAtomicStatistics(type, name);
+  }
+
+  public void close() {
+    this.stats.close();
+  }
+
+  public void incKeysWithExpiration(long delta) {
+    this.stats.incLong(keysWithExpirationId, delta);
+  }
+
+  public void setKeysWithExpiration(long keys) {
+    this.stats.setLong(keysWithExpirationId, keys);
+  }
+
+  /**
+   * @param keys The number of keys expired together
+   * @param lagTime The total time in milliseconds between their expiration and their removal
+   */
+  public void incExpirations(int keys, long lagTime) {
+    this.stats.incLong(expirationsId, keys);
+    this.stats.incLong(expirationLagTimeId, lagTime);
+  }
+
+  /**
+   * @param start The {@link System#nanoTime} when the sweep started
+   * @param backlog How far behind the clock in milliseconds the sweep started
+   */
+  public void endSweep(long start, long backlog) {
+    this.stats.incLong(sweepsId, 1);
+    this.stats.incLong(sweepTimeId, System.nanoTime() - start);
+    this.stats.setLong(sweepBacklogId, backlog);
+  }
+
+  public long getKeysWithExpiration() {
+    return this.stats.getLong(keysWithExpirationId);
+  }
+
+  public long getExpirations() {
+    return this.stats.getLong(expirationsId);
+  }
+
+  public long getExpirationLagTime() {
+    return this.stats.getLong(expirationLagTimeId);
+  }
+
+  public long getSweeps() {
+    return this.stats.getLong(sweepsId);
+  }
+
+  public long getSweepBacklog() {
+    return this.stats.getLong(sweepBacklogId);
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Expires keys in batches from a hashed timing wheel, rather than scheduling a task for each key.
+ * The wheel has a slot for each tick of {@link #TICK_MILLIS}, and a key waits in the slot of the
+ * tick its deadline falls in, however many turns of the wheel away that is. One task sweeps the
+ * slots of the ticks that have passed and hands the keys whose deadline was reached to the expirer,
+ * at most {@link #MAX_BATCH_SIZE} at a time.
+ * <p>
+ * Changing or removing an expiration only changes the deadline of the key, and the entry left in
+ * its old slot is dropped when that slot is swept. An entry is only removed from its slot if it
+ * still has the deadline the sweep saw, so a concurrent change to the expiration is never lost.
+ */
+public class ExpirationWheel {
+
+  static final long TICK_MILLIS = 10;
+
+  /**
+   * A power of 2, so that one turn of the wheel is about 41 seconds
+   */
+  static final int NUM_SLOTS = 4096;
+
+  static final int MAX_BATCH_SIZE = 1000;
+
+  private final ConcurrentMap<ByteArrayWrapper, Long> deadlines = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<ByteArrayWrapper, Long>[] slots;
+
+  private final Consumer<List<ByteArrayWrapper>> expirer;
+
+  private final ExpirationStats stats;
+
+  private final LongSupplier clock;
+
+  /**
+   * The last tick swept, which is swept again along with the ticks that have passed since, in case
+   * a key was added to its slot while it was being swept
+   */
+  private volatile long lastSweptTick;
+
+  private ScheduledFuture<?> sweeper;
+
+  /**
+   * @param expirer Removes the keys whose deadline was reached
+   */
+  public ExpirationWheel(Consumer<List<ByteArrayWrapper>> expirer, ExpirationStats stats) {
+    this(expirer, stats, System::currentTimeMillis);
+  }
+
+  @SuppressWarnings("unchecked")
+  ExpirationWheel(Consumer<List<ByteArrayWrapper>> expirer, ExpirationStats stats,
+      LongSupplier clock) {
+    this.expirer = expirer;
+    this.stats = stats;
+    this.clock = clock;
+    this.slots = new ConcurrentMap[NUM_SLOTS];
+    for (int i = 0; i < NUM_SLOTS; i++) {
+      this.slots[i] = new ConcurrentHashMap<>();
+    }
+    this.lastSweptTick = clock.getAsLong() / TICK_MILLIS;
+  }
+
+  /**
+   * Sweeps the wheel every {@link #TICK_MILLIS} on the given executor until {@link #close}
+   */
+  public synchronized void start(ScheduledExecutorService executor) {
+    if (this.sweeper == null) {
+      this.sweeper = executor.scheduleWithFixedDelay(this::sweep, TICK_MILLIS, TICK_MILLIS,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  public synchronized void close() {
+    if (this.sweeper != null) {
+      this.sweeper.cancel(false);
+      this.sweeper = null;
+    }
+    this.deadlines.clear();
+    for (ConcurrentMap<ByteArrayWrapper, Long> slot : this.slots) {
+      slot.clear();
+    }
+    this.stats.setKeysWithExpiration(0);
+  }
+
+  /**
+   * Sets the expiration of a key, replacing any expiration it already has
+   *
+   * @param delay The delay in milliseconds until the key expires
+   */
+  public void setExpiration(ByteArrayWrapper key, long delay) {
+    Long deadline = this.clock.getAsLong() + delay;
+    if (this.deadlines.put(key, deadline) == null) {
+      this.stats.incKeysWithExpiration(1);
+    }
+    getSlot(deadline / TICK_MILLIS).put(key, deadline);
+  }
+
+  /**
+   * @return True if the key had an expiration, which has been removed
+   */
+  public boolean cancelExpiration(ByteArrayWrapper key) {
+    if (this.deadlines.remove(key) == null) {
+      return false;
+    }
+    this.stats.incKeysWithExpiration(-1);
+    return true;
+  }
+
+  public boolean hasExpiration(ByteArrayWrapper key) {
+    return this.deadlines.containsKey(key);
+  }
+
+  /**
+   * @return The milliseconds left until the key expires, which is at least 1 until the key has
+   *         been removed, or 0 if it has no expiration
+   */
+  public long getDelayMillis(ByteArrayWrapper key) {
+    Long deadline = this.deadlines.get(key);
+    return deadline == null ? 0L : Math.max(1L, deadline - this.clock.getAsLong());
+  }
+
+  public int size() {
+    return this.deadlines.size();
+  }
+
+  private ConcurrentMap<ByteArrayWrapper, Long> getSlot(long tick) {
+    return this.slots[(int) (tick & (NUM_SLOTS - 1))];
+  }
+
+  /**
+   * Expires the keys in the slots of the ticks that have ended since the last sweep. If more than a
+   * turn of the wheel has passed, each slot is swept once.
+   */
+  void sweep() {
+    long start = System.nanoTime();
+    long now = this.clock.getAsLong();
+    long endTick = now / TICK_MILLIS;
+    long firstTick = Math.max(this.lastSweptTick, endTick - NUM_SLOTS);
+    long backlog = Math.max(0L, now - (firstTick + 2) * TICK_MILLIS);
+
+    List<ByteArrayWrapper> expired = new ArrayList<>();
+    long lagTime = 0;
+    for (long tick = firstTick; tick < endTick; tick++) {
+      ConcurrentMap<ByteArrayWrapper, Long> slot = getSlot(tick);
+      for (Entry<ByteArrayWrapper, Long> entry : slot.entrySet()) {
+        ByteArrayWrapper key = entry.getKey();
+        Long deadline = entry.getValue();
+        if (deadline > now) {
+          // expires on a later turn of the wheel, unless its expiration has changed since
+          if (!deadline.equals(this.deadlines.get(key))) {
+            slot.remove(key, deadline);
+          }
+          continue;
+        }
+        slot.remove(key, deadline);
+        if (this.deadlines.remove(key, deadline)) {
+          expired.add(key);
+          lagTime += now - deadline;
+          if (expired.size() == MAX_BATCH_SIZE) {
+            expire(expired, lagTime);
+            expired = new ArrayList<>();
+            lagTime = 0;
+          }
+        }
+      }
+    }
+    this.lastSweptTick = Math.max(firstTick, endTick - 1);
+    if (!expired.isEmpty()) {
+      expire(expired, lagTime);
+    }
+    this.stats.endSweep(start, backlog);
+  }
+
+  private void expire(List<ByteArrayWrapper> keys, long lagTime) {
+    this.stats.incKeysWithExpiration(-keys.size());
+    this.stats.incExpirations(keys.size(), lagTime);
+    this.expirer.accept(keys);
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+import org.apache.geode.internal.cache.execute.InternalFunction;
+
+/**
+ * Applies a PFADD or PFMERGE to a HyperLogLog of a partitioned Region on the member holding the
+ * primary copy of its bucket, which is the only member that puts it. The registers raised there
+ * are sent to the redundant copies as a delta, so the updates of a key only need to be serialized
+ * on that member, by a local lock, rather than by a distributed lock.
+ * <p>
+ * The arguments are the elements to add, as a byte[][], or the HyperLogLogs to merge, as a
+ * {@link RedisHyperLogLog}[]. The single result is whether a register was raised.
+ */
+class HyperLogLogUpdateFunction implements InternalFunction<Object> {
+
+  private static final long serialVersionUID = -6337284432497207345L;
+
+  static final HyperLogLogUpdateFunction INSTANCE = new HyperLogLogUpdateFunction();
+
+  /**
+   * Locks that serialize the updates of the HyperLogLogs whose primary copies this member holds. A
+   * fixed number is used, rather than a lock per key, so that the many small HyperLogLogs do not
+   * each need a lock.
+   */
+  private static final Lock[] LOCKS = new Lock[256];
+
+  static {
+    for (int i = 0; i < LOCKS.length; i++) {
+      LOCKS[i] = new ReentrantLock();
+    }
+  }
+
+  @Override
+  public void execute(FunctionContext<Object> context) {
+    RegionFunctionContext regionContext = (RegionFunctionContext) context;
+    Region<ByteArrayWrapper, RedisHyperLogLog> region = regionContext.getDataSet();
+    ByteArrayWrapper key = (ByteArrayWrapper) regionContext.getFilter().iterator().next();
+    Lock lock = LOCKS[(key.hashCode() & 0x7fffffff) % LOCKS.length];
+    lock.lock();
+    try {
+      context.getResultSender().lastResult(update(region, key, context.getArguments()));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Changes a HyperLogLog the same way {@link RegionProvider#updateCollection} changes a
+   * collection, so that only the registers raised are distributed. The HyperLogLog is created if it
+   * does not exist. The caller serializes the updates of the key.
+   *
+   * @param update The elements to add, or the HyperLogLogs to merge
+   * @return Whether a register was raised
+   */
+  static boolean update(Region<ByteArrayWrapper, RedisHyperLogLog> region, ByteArrayWrapper key,
+      Object update) {
+    RedisHyperLogLog hll = region.get(key);
+    boolean created = hll == null;
+    hll = created ? new RedisHyperLogLog() : hll.copy();
+    boolean changed = false;
+    if (update instanceof byte[][]) {
+      for (byte[] element : (byte[][]) update) {
+        changed |= hll.add(element);
+      }
+    } else {
+      for (RedisHyperLogLog source : (RedisHyperLogLog[]) update) {
+        changed |= hll.merge(source);
+      }
+    }
+    if (created || hll.hasChanges()) {
+      region.put(key, hll);
+      hll.clearDelta();
+    }
+    return changed;
+  }
+
+  @Override
+  public boolean hasResult() {
+    return true;
+  }
+
+  @Override
+  public boolean optimizeForWrite() {
+    return true;
+  }
+
+  /**
+   * An update can be executed again if the primary fails, since raising a register to a value it
+   * already has changes nothing
+   */
+  @Override
+  public boolean isHA() {
+    return true;
+  }
+}
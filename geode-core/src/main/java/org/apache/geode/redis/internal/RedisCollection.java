@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.Delta;
+import org.apache.geode.InvalidDeltaException;
+
+/**
+ * The value of a Redis hash, set, list or sorted set that is stored as a single entry of the
+ * {@link org.apache.geode.redis.GeodeRedisServer#COLLECTION_REGION} rather than as a Region of its
+ * own.
+ *
+ * <p>
+ * A collection stored in the Region is never modified. {@link RegionProvider#updateCollection}
+ * modifies a {@link #copy()} of it and puts the copy, and the operations that were done on the
+ * copy are recorded so that only they are sent to the other members as a {@link Delta}. The
+ * elements are kept in trees whose nodes are never changed, {@link CollectionTree} and
+ * {@link SortedSetTree}, so the copy shares them with the stored collection and is made in O(1)
+ * time.
+ */
+public abstract class RedisCollection implements Delta, DataSerializable {
+
+  private static final long serialVersionUID = -2946282917432315047L;
+
+  private transient ByteArrayOutputStream deltaBytes;
+
+  private transient DataOutputStream delta;
+
+  private transient int deltaOperations;
+
+  /**
+   * Returns a copy of this collection, without the operations recorded on this one.
+   */
+  public abstract RedisCollection copy();
+
+  public abstract int size();
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Applies an operation that was recorded with {@link #recordDelta} on another member.
+   *
+   * @param operation The operation recorded
+   * @param in The input from which to read the operation's arguments
+   */
+  protected abstract void applyDelta(byte operation, DataInput in) throws IOException;
+
+  /**
+   * Records an operation done on this collection.
+   *
+   * @param operation The operation done
+   * @param arguments Writes the operation's arguments
+   */
+  protected void recordDelta(byte operation, DeltaArguments arguments) {
+    if (this.delta == null) {
+      this.deltaBytes = new ByteArrayOutputStream();
+      this.delta = new DataOutputStream(this.deltaBytes);
+    }
+    try {
+      this.delta.writeByte(operation);
+      arguments.write(this.delta);
+    } catch (IOException e) {
+      // not thrown when writing to a ByteArrayOutputStream
+      throw new IllegalStateException(e);
+    }
+    this.deltaOperations++;
+  }
+
+  @Override
+  public boolean hasDelta() {
+    return this.deltaOperations > 0;
+  }
+
+  /**
+   * Forgets the operations recorded, once they have been sent, so that the collection stored in
+   * the Region does not keep them.
+   */
+  void clearDelta() {
+    this.deltaBytes = null;
+    this.delta = null;
+    this.deltaOperations = 0;
+  }
+
+  @Override
+  public void toDelta(DataOutput out) throws IOException {
+    out.writeInt(this.deltaOperations);
+    out.write(this.deltaBytes.toByteArray());
+  }
+
+  @Override
+  public void fromDelta(DataInput in) throws IOException, InvalidDeltaException {
+    int operations = in.readInt();
+    for (int i = 0; i < operations; i++) {
+      applyDelta(in.readByte(), in);
+    }
+  }
+
+  @FunctionalInterface
+  protected interface DeltaArguments {
+    void write(DataOutput out) throws IOException;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[size=" + size() + "]";
+  }
+}
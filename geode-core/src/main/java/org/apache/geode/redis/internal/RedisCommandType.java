@@ -16,6 +16,7 @@
 package org.apache.geode.redis.internal;
 
 import org.apache.geode.redis.internal.executor.AuthExecutor;
+import org.apache.geode.redis.internal.executor.ClusterExecutor;
 import org.apache.geode.redis.internal.executor.DBSizeExecutor;
 import org.apache.geode.redis.internal.executor.DelExecutor;
 import org.apache.geode.redis.internal.executor.EchoExecutor;
@@ -2842,6 +2843,30 @@ public enum RedisCommandType {
    *************** Server ****************
    ***************************************/
 
+  /**
+   * CLUSTER SLOTS|NODES|INFO|MYID|KEYSLOT key
+   * <p>
+   * Describe how the cluster serves hash slots, when cluster slots are enabled
+   */
+  CLUSTER {
+    private Executor executor;
+
+    @Override
+    public Executor getExecutor() {
+      if (executor == null) {
+        executor = new ClusterExecutor();
+      }
+      return executor;
+    }
+
+    private final RedisDataType dataType = RedisDataType.NONE;
+
+    @Override
+    public RedisDataType getDataType() {
+      return this.dataType;
+    }
+  },
+
   /**
    * DBSIZE
    * <p>
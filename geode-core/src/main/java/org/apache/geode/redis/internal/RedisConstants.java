@@ -62,6 +62,7 @@ public class RedisConstants {
   public static final String ERROR_INVALID_PWD =
       "Attemping to authenticate with an invalid password";
   public static final String ERROR_NOT_AUTH = "Must authenticate before sending any requests";
+  public static final String ERROR_CLUSTER_DISABLED = "This instance has cluster support disabled";
   public static final String ERROR_ZSET_MEMBER_NOT_FOUND = "could not decode requested zset member";
 
   public static class ArityDef {
@@ -72,6 +73,8 @@ public class RedisConstants {
     public static final int DBSIZE_ARITY = 0;
     public static final String AUTH =
         "The wrong number of arguments or syntax was provided, the format for the AUTH command is \"AUTH password\"";
+    public static final String CLUSTER =
+        "The wrong number of arguments or syntax was provided, the format for the CLUSTER command is \"CLUSTER SLOTS|NODES|INFO|MYID|KEYSLOT key\"";
     public static final String DBSIZE = null;
     public static final String DEL =
         "The wrong number of arguments or syntax was provided, the format for the DEL command is \"DEL key [key ...]\"";
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.redis.internal.CollectionTree.Node;
+
+/**
+ * A {@link RedisDataType#REDIS_HASH} stored as a single entry. The fields are kept ordered in a
+ * {@link CollectionTree}, which {@link #copy()} shares with the copy in O(1) time, and each change
+ * replaces O(log n) nodes of the copy's tree.
+ */
+public class RedisHash extends RedisCollection implements Cloneable {
+
+  private static final long serialVersionUID = 4305463624937622367L;
+
+  private static final byte PUT = 0;
+
+  private static final byte REMOVE = 1;
+
+  private CollectionTree<ByteArrayWrapper> fields;
+
+  public RedisHash() {
+    this.fields = CollectionTree.empty();
+  }
+
+  private RedisHash(CollectionTree<ByteArrayWrapper> fields) {
+    this.fields = fields;
+  }
+
+  @Override
+  public RedisHash copy() {
+    return new RedisHash(this.fields);
+  }
+
+  @Override
+  public RedisHash clone() {
+    return copy();
+  }
+
+  @Override
+  public int size() {
+    return this.fields.size();
+  }
+
+  /**
+   * Returns an unmodifiable view of the fields of this hash, which iterates over them in order
+   */
+  public Map<ByteArrayWrapper, ByteArrayWrapper> getFields() {
+    CollectionTree<ByteArrayWrapper> fields = this.fields;
+    return new AbstractMap<ByteArrayWrapper, ByteArrayWrapper>() {
+      @Override
+      public Set<Entry<ByteArrayWrapper, ByteArrayWrapper>> entrySet() {
+        return new AbstractSet<Entry<ByteArrayWrapper, ByteArrayWrapper>>() {
+          @Override
+          public Iterator<Entry<ByteArrayWrapper, ByteArrayWrapper>> iterator() {
+            Iterator<Node<ByteArrayWrapper>> nodes = fields.iterator();
+            return new Iterator<Entry<ByteArrayWrapper, ByteArrayWrapper>>() {
+              @Override
+              public boolean hasNext() {
+                return nodes.hasNext();
+              }
+
+              @Override
+              public Entry<ByteArrayWrapper, ByteArrayWrapper> next() {
+                return nodes.next();
+              }
+            };
+          }
+
+          @Override
+          public int size() {
+            return fields.size();
+          }
+        };
+      }
+
+      @Override
+      public boolean containsKey(Object field) {
+        return get(field) != null;
+      }
+
+      @Override
+      public ByteArrayWrapper get(Object field) {
+        return field instanceof ByteArrayWrapper ? getValue(fields, (ByteArrayWrapper) field)
+            : null;
+      }
+    };
+  }
+
+  private static ByteArrayWrapper getValue(CollectionTree<ByteArrayWrapper> fields,
+      ByteArrayWrapper field) {
+    Node<ByteArrayWrapper> node = fields.find(field);
+    return node == null ? null : node.getValue();
+  }
+
+  public ByteArrayWrapper put(ByteArrayWrapper field, ByteArrayWrapper value) {
+    recordDelta(PUT, out -> {
+      DataSerializer.writeByteArray(field.toBytes(), out);
+      DataSerializer.writeByteArray(value.toBytes(), out);
+    });
+    ByteArrayWrapper oldValue = getValue(this.fields, field);
+    this.fields = this.fields.put(field, value);
+    return oldValue;
+  }
+
+  public ByteArrayWrapper remove(ByteArrayWrapper field) {
+    ByteArrayWrapper oldValue = getValue(this.fields, field);
+    if (oldValue == null) {
+      return null;
+    }
+    recordDelta(REMOVE, out -> DataSerializer.writeByteArray(field.toBytes(), out));
+    this.fields = this.fields.remove(field);
+    return oldValue;
+  }
+
+  @Override
+  protected void applyDelta(byte operation, DataInput in) throws IOException {
+    ByteArrayWrapper field = new ByteArrayWrapper(DataSerializer.readByteArray(in));
+    if (operation == PUT) {
+      this.fields = this.fields.put(field, new ByteArrayWrapper(DataSerializer.readByteArray(in)));
+    } else {
+      this.fields = this.fields.remove(field);
+    }
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    out.writeInt(this.fields.size());
+    for (Node<ByteArrayWrapper> field : this.fields) {
+      DataSerializer.writeByteArray(field.getKey().toBytes(), out);
+      DataSerializer.writeByteArray(field.getValue().toBytes(), out);
+    }
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    int size = in.readInt();
+    List<Entry<ByteArrayWrapper, ByteArrayWrapper>> fields = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      fields.add(new SimpleImmutableEntry<>(new ByteArrayWrapper(DataSerializer.readByteArray(in)),
+          new ByteArrayWrapper(DataSerializer.readByteArray(in))));
+    }
+    // The fields are written in order, which sorting checks in O(n) time
+    fields.sort(Entry.comparingByKey());
+    CollectionTree.Builder<ByteArrayWrapper> builder = new CollectionTree.Builder<>(size);
+    for (Entry<ByteArrayWrapper, ByteArrayWrapper> field : fields) {
+      builder.append(field.getKey(), field.getValue());
+    }
+    this.fields = builder.build();
+  }
+}
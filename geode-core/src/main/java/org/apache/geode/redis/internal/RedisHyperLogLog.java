@@ -0,0 +1,485 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.Delta;
+import org.apache.geode.InvalidDeltaException;
+import org.apache.geode.internal.hll.MurmurHash;
+
+/**
+ * A {@link RedisDataType#REDIS_HLL} with the layout Redis uses: {@link #REGISTERS} registers of
+ * {@link #REGISTER_BITS} bits, indexed by the low {@link #P} bits of the 64 bit hash of an element
+ * and raised to the position of the lowest set bit of the rest of the hash. The cardinality is
+ * estimated from the histogram of the registers, as Redis does, which needs no bias correction.
+ * <p>
+ * While few registers are set they are kept sparse, as a byte array of 3 byte entries holding the
+ * index and value of each set register in index order. Once that would exceed
+ * {@link #SPARSE_MAX_BYTES} the registers become dense, packed into a byte array of
+ * {@link #DENSE_BYTES}. An estimate is kept until a register changes, so that repeated counts of
+ * an unchanged key are not computed again.
+ * <p>
+ * Like a {@link RedisCollection}, a value stored in the Region is never modified; a {@link #copy()}
+ * is changed and put instead, and only the registers raised on the copy are sent to the other
+ * members as a {@link Delta}. Raising a register to the greater of two values gives the same
+ * result in any order, so the members end with the same registers whatever encoding each has.
+ */
+public class RedisHyperLogLog implements Delta, DataSerializable {
+
+  private static final long serialVersionUID = 2914283659153893423L;
+
+  static final int P = 14;
+
+  static final int REGISTERS = 1 << P;
+
+  /**
+   * The number of bits of the hash left once the register index is taken from it
+   */
+  private static final int Q = 64 - P;
+
+  static final int REGISTER_BITS = 6;
+
+  private static final int REGISTER_MAX = (1 << REGISTER_BITS) - 1;
+
+  static final int DENSE_BYTES = REGISTERS * REGISTER_BITS / 8;
+
+  /**
+   * The size of the sparse encoding above which the registers become dense, which is the default
+   * hll-sparse-max-bytes of Redis
+   */
+  static final int SPARSE_MAX_BYTES = 3000;
+
+  private static final int SPARSE_ENTRY_BYTES = 3;
+
+  private static final byte SPARSE = 0;
+
+  private static final byte DENSE = 1;
+
+  private static final double ALPHA_INF = 0.5 / Math.log(2);
+
+  /**
+   * The set registers in index order, or null if the registers are dense
+   */
+  private byte[] sparse;
+
+  /**
+   * The packed registers, or null if they are sparse. A byte is allocated beyond the registers so
+   * that the last one can be read as two bytes like the others.
+   */
+  private byte[] dense;
+
+  /**
+   * The last estimate of the cardinality, or -1 if a register has changed since
+   */
+  private volatile long cardinality;
+
+  /**
+   * Each register raised since the changes were last sent, as its index and value packed as in the
+   * sparse encoding
+   */
+  private transient int[] changes;
+
+  private transient int numChanges;
+
+  public RedisHyperLogLog() {
+    this.sparse = new byte[0];
+    this.cardinality = 0;
+  }
+
+  private RedisHyperLogLog(byte[] sparse, byte[] dense, long cardinality) {
+    this.sparse = sparse;
+    this.dense = dense;
+    this.cardinality = cardinality;
+  }
+
+  /**
+   * Returns a copy of this value, without the changes recorded on this one.
+   */
+  public RedisHyperLogLog copy() {
+    return new RedisHyperLogLog(this.sparse == null ? null : this.sparse.clone(),
+        this.dense == null ? null : this.dense.clone(), this.cardinality);
+  }
+
+  public boolean isSparse() {
+    return this.sparse != null;
+  }
+
+  /**
+   * Returns the number of bytes holding the registers
+   */
+  public int getEncodedSize() {
+    return isSparse() ? this.sparse.length : DENSE_BYTES;
+  }
+
+  /**
+   * Adds an element
+   *
+   * @return Whether a register was changed
+   */
+  public boolean add(byte[] element) {
+    long hash = MurmurHash.hash64(element, element.length);
+    int index = (int) (hash & (REGISTERS - 1));
+    // the lowest set bit of the rest of the hash, or Q + 1 if there is none
+    int value = Long.numberOfTrailingZeros((hash >>> P) | (1L << Q)) + 1;
+    return raise(index, value, true);
+  }
+
+  /**
+   * Raises each register to the value of the same register of another HyperLogLog, if that is
+   * greater
+   *
+   * @return Whether a register was changed
+   */
+  public boolean merge(RedisHyperLogLog other) {
+    boolean changed = false;
+    if (other.isSparse()) {
+      byte[] entries = other.sparse;
+      for (int offset = 0; offset < entries.length; offset += SPARSE_ENTRY_BYTES) {
+        int entry = getEntry(entries, offset);
+        changed |= raise(entry >>> REGISTER_BITS, entry & REGISTER_MAX, true);
+      }
+    } else {
+      for (int index = 0; index < REGISTERS; index++) {
+        int value = getDenseRegister(other.dense, index);
+        if (value != 0) {
+          changed |= raise(index, value, true);
+        }
+      }
+    }
+    return changed;
+  }
+
+  public int getRegister(int index) {
+    if (!isSparse()) {
+      return getDenseRegister(this.dense, index);
+    }
+    int position = findEntry(index);
+    return position < 0 ? 0 : getEntry(this.sparse, position * SPARSE_ENTRY_BYTES) & REGISTER_MAX;
+  }
+
+  /**
+   * Returns the estimated number of distinct elements added, which is kept until a register
+   * changes
+   */
+  public long count() {
+    long count = this.cardinality;
+    if (count < 0) {
+      int[] histogram = new int[Q + 2];
+      addToHistogram(histogram);
+      count = estimate(histogram);
+      this.cardinality = count;
+    }
+    return count;
+  }
+
+  /**
+   * Returns the estimated number of distinct elements added to any of the HyperLogLogs, without
+   * changing them
+   */
+  public static long count(Collection<RedisHyperLogLog> hlls) {
+    if (hlls.size() == 1) {
+      return hlls.iterator().next().count();
+    }
+    byte[] registers = new byte[REGISTERS];
+    for (RedisHyperLogLog hll : hlls) {
+      hll.maxInto(registers);
+    }
+    int[] histogram = new int[Q + 2];
+    for (byte value : registers) {
+      histogram[value]++;
+    }
+    return estimate(histogram);
+  }
+
+  private void addToHistogram(int[] histogram) {
+    if (isSparse()) {
+      int entries = this.sparse.length / SPARSE_ENTRY_BYTES;
+      histogram[0] += REGISTERS - entries;
+      for (int offset = 0; offset < this.sparse.length; offset += SPARSE_ENTRY_BYTES) {
+        histogram[getEntry(this.sparse, offset) & REGISTER_MAX]++;
+      }
+    } else {
+      for (int index = 0; index < REGISTERS; index++) {
+        histogram[getDenseRegister(this.dense, index)]++;
+      }
+    }
+  }
+
+  private void maxInto(byte[] registers) {
+    if (isSparse()) {
+      for (int offset = 0; offset < this.sparse.length; offset += SPARSE_ENTRY_BYTES) {
+        int entry = getEntry(this.sparse, offset);
+        int index = entry >>> REGISTER_BITS;
+        registers[index] = (byte) Math.max(registers[index], entry & REGISTER_MAX);
+      }
+    } else {
+      for (int index = 0; index < REGISTERS; index++) {
+        registers[index] =
+            (byte) Math.max(registers[index], getDenseRegister(this.dense, index));
+      }
+    }
+  }
+
+  /**
+   * Estimates the cardinality from the number of registers with each value, see "New cardinality
+   * estimation algorithms for HyperLogLog sketches" by Otmar Ertl
+   */
+  private static long estimate(int[] histogram) {
+    double z = REGISTERS * tau((REGISTERS - histogram[Q + 1]) / (double) REGISTERS);
+    for (int value = Q; value >= 1; value--) {
+      z += histogram[value];
+      z *= 0.5;
+    }
+    z += REGISTERS * sigma(histogram[0] / (double) REGISTERS);
+    return Math.round(ALPHA_INF * REGISTERS * REGISTERS / z);
+  }
+
+  private static double sigma(double x) {
+    if (x == 1.0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double y = 1;
+    double z = x;
+    double previous;
+    do {
+      x *= x;
+      previous = z;
+      z += x * y;
+      y += y;
+    } while (previous != z);
+    return z;
+  }
+
+  private static double tau(double x) {
+    if (x == 0.0 || x == 1.0) {
+      return 0.0;
+    }
+    double y = 1.0;
+    double z = 1 - x;
+    double previous;
+    do {
+      x = Math.sqrt(x);
+      previous = z;
+      y *= 0.5;
+      z -= Math.pow(1 - x, 2) * y;
+    } while (previous != z);
+    return z / 3;
+  }
+
+  /**
+   * Raises a register to a value, if that is greater than its value
+   *
+   * @param record Whether to record the change to send it to the other members
+   * @return Whether the register was changed
+   */
+  private boolean raise(int index, int value, boolean record) {
+    if (isSparse()) {
+      if (!raiseSparse(index, value)) {
+        return false;
+      }
+    } else {
+      if (getDenseRegister(this.dense, index) >= value) {
+        return false;
+      }
+      setDenseRegister(this.dense, index, value);
+    }
+    this.cardinality = -1;
+    if (record) {
+      recordChange(index, value);
+    }
+    return true;
+  }
+
+  private boolean raiseSparse(int index, int value) {
+    int position = findEntry(index);
+    if (position >= 0) {
+      int offset = position * SPARSE_ENTRY_BYTES;
+      if ((getEntry(this.sparse, offset) & REGISTER_MAX) >= value) {
+        return false;
+      }
+      putEntry(this.sparse, offset, index, value);
+      return true;
+    }
+    if (this.sparse.length + SPARSE_ENTRY_BYTES > SPARSE_MAX_BYTES) {
+      convertToDense();
+      setDenseRegister(this.dense, index, value);
+      return true;
+    }
+    int offset = (-position - 1) * SPARSE_ENTRY_BYTES;
+    byte[] entries = new byte[this.sparse.length + SPARSE_ENTRY_BYTES];
+    System.arraycopy(this.sparse, 0, entries, 0, offset);
+    putEntry(entries, offset, index, value);
+    System.arraycopy(this.sparse, offset, entries, offset + SPARSE_ENTRY_BYTES,
+        this.sparse.length - offset);
+    this.sparse = entries;
+    return true;
+  }
+
+  private void convertToDense() {
+    byte[] registers = new byte[DENSE_BYTES + 1];
+    for (int offset = 0; offset < this.sparse.length; offset += SPARSE_ENTRY_BYTES) {
+      int entry = getEntry(this.sparse, offset);
+      setDenseRegister(registers, entry >>> REGISTER_BITS, entry & REGISTER_MAX);
+    }
+    this.dense = registers;
+    this.sparse = null;
+  }
+
+  /**
+   * @return The position of the entry of the register, or -(insertion position + 1) if it is not
+   *         set
+   */
+  private int findEntry(int index) {
+    int low = 0;
+    int high = this.sparse.length / SPARSE_ENTRY_BYTES - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int middleIndex = getEntry(this.sparse, middle * SPARSE_ENTRY_BYTES) >>> REGISTER_BITS;
+      if (middleIndex < index) {
+        low = middle + 1;
+      } else if (middleIndex > index) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -(low + 1);
+  }
+
+  private static int getEntry(byte[] entries, int offset) {
+    return (entries[offset] & 0xff) << 16 | (entries[offset + 1] & 0xff) << 8
+        | (entries[offset + 2] & 0xff);
+  }
+
+  private static void putEntry(byte[] entries, int offset, int index, int value) {
+    int entry = index << REGISTER_BITS | value;
+    entries[offset] = (byte) (entry >>> 16);
+    entries[offset + 1] = (byte) (entry >>> 8);
+    entries[offset + 2] = (byte) entry;
+  }
+
+  private static int getDenseRegister(byte[] registers, int index) {
+    int bit = index * REGISTER_BITS;
+    int offset = bit >>> 3;
+    int shift = bit & 7;
+    return (((registers[offset] & 0xff) >>> shift) | ((registers[offset + 1] & 0xff) << (8
+        - shift))) & REGISTER_MAX;
+  }
+
+  private static void setDenseRegister(byte[] registers, int index, int value) {
+    int bit = index * REGISTER_BITS;
+    int offset = bit >>> 3;
+    int shift = bit & 7;
+    registers[offset] &= ~(REGISTER_MAX << shift);
+    registers[offset] |= value << shift;
+    registers[offset + 1] &= ~(REGISTER_MAX >>> (8 - shift));
+    registers[offset + 1] |= value >>> (8 - shift);
+  }
+
+  private void recordChange(int index, int value) {
+    if (this.changes == null) {
+      this.changes = new int[16];
+    } else if (this.numChanges == this.changes.length) {
+      this.changes = Arrays.copyOf(this.changes, this.numChanges * 2);
+    }
+    this.changes[this.numChanges++] = index << REGISTER_BITS | value;
+  }
+
+  /**
+   * Returns whether a register has been raised since the changes were last sent
+   */
+  boolean hasChanges() {
+    return this.numChanges > 0;
+  }
+
+  /**
+   * Forgets the changes recorded, once they have been sent, so that the value stored in the Region
+   * does not keep them.
+   */
+  void clearDelta() {
+    this.changes = null;
+    this.numChanges = 0;
+  }
+
+  /**
+   * The changes are only sent as a delta while that is smaller than the whole value, so a merge
+   * that raises many registers sends the registers instead.
+   */
+  @Override
+  public boolean hasDelta() {
+    return hasChanges() && this.numChanges * SPARSE_ENTRY_BYTES < getEncodedSize();
+  }
+
+  @Override
+  public void toDelta(DataOutput out) throws IOException {
+    out.writeInt(this.numChanges);
+    for (int i = 0; i < this.numChanges; i++) {
+      int change = this.changes[i];
+      out.writeShort(change >>> REGISTER_BITS);
+      out.writeByte(change & REGISTER_MAX);
+    }
+  }
+
+  @Override
+  public void fromDelta(DataInput in) throws IOException, InvalidDeltaException {
+    int numChanges = in.readInt();
+    for (int i = 0; i < numChanges; i++) {
+      int index = in.readUnsignedShort();
+      int value = in.readUnsignedByte();
+      if (index >= REGISTERS || value > Q + 1) {
+        throw new InvalidDeltaException("Register " + index + " cannot be set to " + value);
+      }
+      raise(index, value, false);
+    }
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    out.writeLong(this.cardinality);
+    if (isSparse()) {
+      out.writeByte(SPARSE);
+      DataSerializer.writeByteArray(this.sparse, out);
+    } else {
+      out.writeByte(DENSE);
+      out.write(this.dense, 0, DENSE_BYTES);
+    }
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    this.cardinality = in.readLong();
+    if (in.readByte() == SPARSE) {
+      this.sparse = DataSerializer.readByteArray(in);
+      this.dense = null;
+    } else {
+      this.dense = new byte[DENSE_BYTES + 1];
+      in.readFully(this.dense, 0, DENSE_BYTES);
+      this.sparse = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[" + (isSparse() ? "sparse" : "dense") + ", count="
+        + count() + "]";
+  }
+}
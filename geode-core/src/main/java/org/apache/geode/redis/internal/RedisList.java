@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.redis.internal.CollectionTree.Node;
+
+/**
+ * A {@link RedisDataType#REDIS_LIST} stored as a single entry. Indexes are 0 based from the head
+ * of the list; callers convert the negative indexes of Redis commands.
+ * <p>
+ * The elements are kept in a {@link CollectionTree} by index, which {@link #copy()} shares with
+ * the copy in O(1) time. Pushing, popping, getting or setting an element takes O(log n) time, at
+ * either end or in between, and so does trimming the list.
+ */
+public class RedisList extends RedisCollection implements Cloneable {
+
+  private static final long serialVersionUID = 6108523564437913725L;
+
+  private static final byte PUSH_HEAD = 0;
+
+  private static final byte PUSH_TAIL = 1;
+
+  private static final byte POP_HEAD = 2;
+
+  private static final byte POP_TAIL = 3;
+
+  private static final byte SET = 4;
+
+  private static final byte REMOVE = 5;
+
+  private static final byte TRIM = 6;
+
+  private CollectionTree<Void> elements;
+
+  public RedisList() {
+    this.elements = CollectionTree.empty();
+  }
+
+  private RedisList(CollectionTree<Void> elements) {
+    this.elements = elements;
+  }
+
+  @Override
+  public RedisList copy() {
+    return new RedisList(this.elements);
+  }
+
+  @Override
+  public RedisList clone() {
+    return copy();
+  }
+
+  @Override
+  public int size() {
+    return this.elements.size();
+  }
+
+  public ByteArrayWrapper get(int index) {
+    return this.elements.get(index).getKey();
+  }
+
+  /**
+   * Returns a copy of the elements from start to stop, inclusive
+   */
+  public List<ByteArrayWrapper> range(int start, int stop) {
+    List<Node<Void>> nodes = this.elements.range(start, stop + 1);
+    List<ByteArrayWrapper> range = new ArrayList<>(nodes.size());
+    for (Node<Void> node : nodes) {
+      range.add(node.getKey());
+    }
+    return range;
+  }
+
+  public void push(boolean head, ByteArrayWrapper element) {
+    recordDelta(head ? PUSH_HEAD : PUSH_TAIL,
+        out -> DataSerializer.writeByteArray(element.toBytes(), out));
+    doPush(head, element);
+  }
+
+  private void doPush(boolean head, ByteArrayWrapper element) {
+    this.elements = this.elements.insert(head ? 0 : this.elements.size(), element, null);
+  }
+
+  /**
+   * @return The element removed, or null if the list is empty
+   */
+  public ByteArrayWrapper pop(boolean head) {
+    if (this.elements.size() == 0) {
+      return null;
+    }
+    recordDelta(head ? POP_HEAD : POP_TAIL, out -> {
+    });
+    return doPop(head);
+  }
+
+  private ByteArrayWrapper doPop(boolean head) {
+    int index = head ? 0 : this.elements.size() - 1;
+    ByteArrayWrapper element = get(index);
+    this.elements = this.elements.removeAt(index);
+    return element;
+  }
+
+  public ByteArrayWrapper set(int index, ByteArrayWrapper element) {
+    recordDelta(SET, out -> {
+      out.writeInt(index);
+      DataSerializer.writeByteArray(element.toBytes(), out);
+    });
+    ByteArrayWrapper oldElement = get(index);
+    this.elements = this.elements.set(index, element, null);
+    return oldElement;
+  }
+
+  /**
+   * Removes the elements equal to the given one, the way LREM does
+   *
+   * @param count The number of elements to remove starting from the head, or if negative from the
+   *        tail. All equal elements are removed if zero.
+   * @return The number of elements removed
+   */
+  public int remove(ByteArrayWrapper element, int count) {
+    int limit = count == 0 ? Integer.MAX_VALUE : Math.abs(count);
+    List<Integer> indexes = new ArrayList<>();
+    int index = 0;
+    for (Node<Void> node : this.elements) {
+      if (node.getKey().equals(element)) {
+        indexes.add(index);
+        if (count > 0 && indexes.size() == limit) {
+          break;
+        }
+      }
+      index++;
+    }
+    int removed = Math.min(limit, indexes.size());
+    for (int i = 0; i < removed; i++) {
+      if (count >= 0) {
+        // Each element removed moves the following ones one index closer to the head
+        removeAt(indexes.get(i) - i);
+      } else {
+        removeAt(indexes.get(indexes.size() - 1 - i));
+      }
+    }
+    return removed;
+  }
+
+  private void removeAt(int index) {
+    recordDelta(REMOVE, out -> out.writeInt(index));
+    this.elements = this.elements.removeAt(index);
+  }
+
+  /**
+   * Keeps only the elements from start to stop, inclusive. All the elements are removed if start
+   * is after stop.
+   */
+  public void trim(int start, int stop) {
+    recordDelta(TRIM, out -> {
+      out.writeInt(start);
+      out.writeInt(stop);
+    });
+    doTrim(start, stop);
+  }
+
+  private void doTrim(int start, int stop) {
+    if (start > stop) {
+      this.elements = CollectionTree.empty();
+      return;
+    }
+    this.elements = this.elements.subTree(start, stop + 1);
+  }
+
+  @Override
+  protected void applyDelta(byte operation, DataInput in) throws IOException {
+    switch (operation) {
+      case PUSH_HEAD:
+        doPush(true, new ByteArrayWrapper(DataSerializer.readByteArray(in)));
+        break;
+      case PUSH_TAIL:
+        doPush(false, new ByteArrayWrapper(DataSerializer.readByteArray(in)));
+        break;
+      case POP_HEAD:
+        doPop(true);
+        break;
+      case POP_TAIL:
+        doPop(false);
+        break;
+      case SET:
+        int index = in.readInt();
+        this.elements =
+            this.elements.set(index, new ByteArrayWrapper(DataSerializer.readByteArray(in)), null);
+        break;
+      case REMOVE:
+        this.elements = this.elements.removeAt(in.readInt());
+        break;
+      case TRIM:
+        int start = in.readInt();
+        doTrim(start, in.readInt());
+        break;
+      default:
+        throw new IOException("Unknown list operation " + operation);
+    }
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    out.writeInt(this.elements.size());
+    for (Node<Void> element : this.elements) {
+      DataSerializer.writeByteArray(element.getKey().toBytes(), out);
+    }
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    int size = in.readInt();
+    CollectionTree.Builder<Void> builder = new CollectionTree.Builder<>(size);
+    for (int i = 0; i < size; i++) {
+      builder.append(new ByteArrayWrapper(DataSerializer.readByteArray(in)), null);
+    }
+    this.elements = builder.build();
+  }
+}
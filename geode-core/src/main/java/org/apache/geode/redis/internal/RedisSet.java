@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.redis.internal.CollectionTree.Node;
+
+/**
+ * A {@link RedisDataType#REDIS_SET} stored as a single entry. The members are kept ordered in a
+ * {@link CollectionTree}, which {@link #copy()} shares with the copy in O(1) time, and each change
+ * replaces O(log n) nodes of the copy's tree.
+ */
+public class RedisSet extends RedisCollection implements Cloneable {
+
+  private static final long serialVersionUID = -1320455431786429125L;
+
+  private static final byte ADD = 0;
+
+  private static final byte REMOVE = 1;
+
+  private CollectionTree<Void> members;
+
+  public RedisSet() {
+    this.members = CollectionTree.empty();
+  }
+
+  private RedisSet(CollectionTree<Void> members) {
+    this.members = members;
+  }
+
+  @Override
+  public RedisSet copy() {
+    return new RedisSet(this.members);
+  }
+
+  @Override
+  public RedisSet clone() {
+    return copy();
+  }
+
+  @Override
+  public int size() {
+    return this.members.size();
+  }
+
+  /**
+   * Returns an unmodifiable view of the members of this set, which iterates over them in order
+   */
+  public Set<ByteArrayWrapper> getMembers() {
+    CollectionTree<Void> members = this.members;
+    return new AbstractSet<ByteArrayWrapper>() {
+      @Override
+      public Iterator<ByteArrayWrapper> iterator() {
+        Iterator<Node<Void>> nodes = members.iterator();
+        return new Iterator<ByteArrayWrapper>() {
+          @Override
+          public boolean hasNext() {
+            return nodes.hasNext();
+          }
+
+          @Override
+          public ByteArrayWrapper next() {
+            return nodes.next().getKey();
+          }
+        };
+      }
+
+      @Override
+      public boolean contains(Object member) {
+        return member instanceof ByteArrayWrapper
+            && members.find((ByteArrayWrapper) member) != null;
+      }
+
+      @Override
+      public int size() {
+        return members.size();
+      }
+    };
+  }
+
+  public boolean contains(ByteArrayWrapper member) {
+    return this.members.find(member) != null;
+  }
+
+  public boolean add(ByteArrayWrapper member) {
+    if (contains(member)) {
+      return false;
+    }
+    recordDelta(ADD, out -> DataSerializer.writeByteArray(member.toBytes(), out));
+    this.members = this.members.put(member, null);
+    return true;
+  }
+
+  public boolean remove(ByteArrayWrapper member) {
+    CollectionTree<Void> members = this.members.remove(member);
+    if (members == this.members) {
+      return false;
+    }
+    recordDelta(REMOVE, out -> DataSerializer.writeByteArray(member.toBytes(), out));
+    this.members = members;
+    return true;
+  }
+
+  @Override
+  protected void applyDelta(byte operation, DataInput in) throws IOException {
+    ByteArrayWrapper member = new ByteArrayWrapper(DataSerializer.readByteArray(in));
+    if (operation == ADD) {
+      this.members = this.members.put(member, null);
+    } else {
+      this.members = this.members.remove(member);
+    }
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    out.writeInt(this.members.size());
+    for (Node<Void> member : this.members) {
+      DataSerializer.writeByteArray(member.getKey().toBytes(), out);
+    }
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    int size = in.readInt();
+    List<ByteArrayWrapper> members = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      members.add(new ByteArrayWrapper(DataSerializer.readByteArray(in)));
+    }
+    // The members are written in order, which sorting checks in O(n) time
+    members.sort(null);
+    CollectionTree.Builder<Void> builder = new CollectionTree.Builder<>(size);
+    for (ByteArrayWrapper member : members) {
+      builder.append(member, null);
+    }
+    this.members = builder.build();
+  }
+}
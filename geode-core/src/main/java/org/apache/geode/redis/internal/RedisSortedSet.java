@@ -0,0 +1,362 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.redis.internal.SortedSetTree.Node;
+
+/**
+ * A {@link RedisDataType#REDIS_SORTEDSET} stored as a single entry. The members are kept in two
+ * {@link SortedSetTree}s, one ordered by member to look up their scores, and one ordered by score,
+ * so that rank and score range operations take O(log n) time plus the size of the result.
+ * <p>
+ * The trees are never changed in place, so {@link #copy()} shares them with the copy in O(1) time,
+ * and each change replaces O(log n) nodes of the copy's trees. The {@link #clone()} used to copy
+ * the value before a delta is applied to it on another member is just as cheap.
+ * <p>
+ * Ranks are 0 based from the lowest score, or from the highest score if reverse is true. Ranges
+ * by rank are inclusive of both ends, which callers have already bounded by the size of the set.
+ */
+public class RedisSortedSet extends RedisCollection implements Cloneable {
+
+  private static final long serialVersionUID = -3460236178436405837L;
+
+  private static final byte ADD = 0;
+
+  private static final byte REMOVE = 1;
+
+  private SortedSetTree scores;
+
+  private SortedSetTree order;
+
+  public RedisSortedSet() {
+    this.scores = SortedSetTree.byMember();
+    this.order = SortedSetTree.byScore();
+  }
+
+  private RedisSortedSet(SortedSetTree scores, SortedSetTree order) {
+    this.scores = scores;
+    this.order = order;
+  }
+
+  @Override
+  public RedisSortedSet copy() {
+    return new RedisSortedSet(this.scores, this.order);
+  }
+
+  @Override
+  public RedisSortedSet clone() {
+    return copy();
+  }
+
+  @Override
+  public int size() {
+    return this.scores.size();
+  }
+
+  /**
+   * Returns an unmodifiable view of the score of each member of this set, which iterates over the
+   * members in order
+   */
+  public Map<ByteArrayWrapper, Double> getScores() {
+    SortedSetTree scores = this.scores;
+    return new AbstractMap<ByteArrayWrapper, Double>() {
+      @Override
+      public Set<Entry<ByteArrayWrapper, Double>> entrySet() {
+        return new AbstractSet<Entry<ByteArrayWrapper, Double>>() {
+          @Override
+          public Iterator<Entry<ByteArrayWrapper, Double>> iterator() {
+            Iterator<Node> nodes = scores.iterator();
+            return new Iterator<Entry<ByteArrayWrapper, Double>>() {
+              @Override
+              public boolean hasNext() {
+                return nodes.hasNext();
+              }
+
+              @Override
+              public Entry<ByteArrayWrapper, Double> next() {
+                Node node = nodes.next();
+                return new SimpleImmutableEntry<>(node.getMember(), node.getScore());
+              }
+            };
+          }
+
+          @Override
+          public int size() {
+            return scores.size();
+          }
+        };
+      }
+
+      @Override
+      public boolean containsKey(Object member) {
+        return get(member) != null;
+      }
+
+      @Override
+      public Double get(Object member) {
+        return member instanceof ByteArrayWrapper ? getScore(scores, (ByteArrayWrapper) member)
+            : null;
+      }
+    };
+  }
+
+  public Double getScore(ByteArrayWrapper member) {
+    return getScore(this.scores, member);
+  }
+
+  private static Double getScore(SortedSetTree scores, ByteArrayWrapper member) {
+    Node node = scores.find(0, member);
+    return node == null ? null : node.getScore();
+  }
+
+  /**
+   * Adds a member, or changes its score if it is already in the set
+   *
+   * @return The previous score of the member, or null if it was not in the set
+   */
+  public Double add(ByteArrayWrapper member, double score) {
+    Double oldScore = getScore(member);
+    if (oldScore != null && oldScore == score) {
+      return oldScore;
+    }
+    doAdd(member, score, oldScore);
+    recordDelta(ADD, out -> {
+      DataSerializer.writeByteArray(member.toBytes(), out);
+      out.writeDouble(score);
+    });
+    return oldScore;
+  }
+
+  private void doAdd(ByteArrayWrapper member, double score, Double oldScore) {
+    if (oldScore != null) {
+      this.scores = this.scores.delete(oldScore, member);
+      this.order = this.order.delete(oldScore, member);
+    }
+    this.scores = this.scores.insert(score, member);
+    this.order = this.order.insert(score, member);
+  }
+
+  private void doRemove(ByteArrayWrapper member, double score) {
+    this.scores = this.scores.delete(score, member);
+    this.order = this.order.delete(score, member);
+  }
+
+  /**
+   * @return The score of the member removed, or null if it was not in the set
+   */
+  public Double remove(ByteArrayWrapper member) {
+    Double score = getScore(member);
+    if (score == null) {
+      return null;
+    }
+    doRemove(member, score);
+    recordDelta(REMOVE, out -> DataSerializer.writeByteArray(member.toBytes(), out));
+    return score;
+  }
+
+  /**
+   * @return The rank of the member, or -1 if it is not in the set
+   */
+  public int rank(ByteArrayWrapper member, boolean reverse) {
+    Double score = getScore(member);
+    if (score == null) {
+      return -1;
+    }
+    int rank = this.order.rank(score, member);
+    return reverse ? size() - 1 - rank : rank;
+  }
+
+  /**
+   * Returns the members from rank start to rank stop, in the order of their ranks
+   */
+  public List<Entry<ByteArrayWrapper, DoubleWrapper>> range(int start, int stop,
+      boolean reverse) {
+    if (!reverse) {
+      return toEntries(this.order.range(start, stop + 1), false);
+    }
+    return toEntries(this.order.range(size() - 1 - stop, size() - start), true);
+  }
+
+  /**
+   * Returns the number of members with a score from min to max
+   */
+  public int count(double min, boolean minInclusive, double max, boolean maxInclusive) {
+    return Math.max(0, this.order.countLessThan(max, maxInclusive)
+        - this.order.countLessThan(min, !minInclusive));
+  }
+
+  /**
+   * Returns the members with a score from min to max, ordered by score or by descending score if
+   * reverse is true, skipping offset members and returning at most limit of them
+   *
+   * @param limit The maximum number of members returned, or 0 or less for all of them
+   */
+  public List<Entry<ByteArrayWrapper, DoubleWrapper>> rangeByScore(double min,
+      boolean minInclusive, double max, boolean maxInclusive, int offset, int limit,
+      boolean reverse) {
+    int first = this.order.countLessThan(min, !minInclusive);
+    int end = this.order.countLessThan(max, maxInclusive);
+    if (!reverse) {
+      first += offset;
+      if (limit > 0 && first < end - limit) {
+        end = first + limit;
+      }
+    } else {
+      end -= offset;
+      if (limit > 0 && first < end - limit) {
+        first = end - limit;
+      }
+    }
+    return toEntries(this.order.range(first, end), reverse);
+  }
+
+  /**
+   * Returns the members from min to max in the order of their bytes, skipping offset members and
+   * returning at most limit of them. Like Redis, this assumes all the members have the same score,
+   * so the members are read in their own order rather than in score order.
+   *
+   * @param min The lowest member, or null for no lowest member
+   * @param max The highest member, or null for no highest member
+   * @param limit The maximum number of members returned, or 0 or less for all of them
+   */
+  public List<ByteArrayWrapper> rangeByLex(ByteArrayWrapper min, boolean minInclusive,
+      ByteArrayWrapper max, boolean maxInclusive, int offset, int limit) {
+    List<ByteArrayWrapper> range = new ArrayList<>();
+    for (Node node : this.scores) {
+      if (isInLexRange(node.getMember(), min, minInclusive, max, maxInclusive)) {
+        range.add(node.getMember());
+      }
+    }
+    int end = limit > 0 ? (int) Math.min(range.size(), (long) offset + limit) : range.size();
+    return range.subList(Math.min(offset, end), end);
+  }
+
+  private static boolean isInLexRange(ByteArrayWrapper member, ByteArrayWrapper min,
+      boolean minInclusive, ByteArrayWrapper max, boolean maxInclusive) {
+    if (min != null) {
+      int compared = member.compareTo(min);
+      if (compared < 0 || (compared == 0 && !minInclusive)) {
+        return false;
+      }
+    }
+    if (max != null) {
+      int compared = member.compareTo(max);
+      if (compared > 0 || (compared == 0 && !maxInclusive)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Removes the members from rank start to rank stop
+   *
+   * @return The number of members removed
+   */
+  public int removeRange(int start, int stop) {
+    return removeAll(this.order.range(start, stop + 1));
+  }
+
+  /**
+   * Removes the members with a score from min to max
+   *
+   * @return The number of members removed
+   */
+  public int removeRangeByScore(double min, boolean minInclusive, double max,
+      boolean maxInclusive) {
+    return removeAll(this.order.range(this.order.countLessThan(min, !minInclusive),
+        this.order.countLessThan(max, maxInclusive)));
+  }
+
+  private int removeAll(List<Node> nodes) {
+    for (Node node : nodes) {
+      remove(node.getMember());
+    }
+    return nodes.size();
+  }
+
+  private static List<Entry<ByteArrayWrapper, DoubleWrapper>> toEntries(List<Node> nodes,
+      boolean reverse) {
+    List<Entry<ByteArrayWrapper, DoubleWrapper>> entries = new ArrayList<>(nodes.size());
+    for (Node node : nodes) {
+      entries.add(new SimpleImmutableEntry<>(node.getMember(), new DoubleWrapper(node.getScore())));
+    }
+    if (reverse) {
+      Collections.reverse(entries);
+    }
+    return entries;
+  }
+
+  @Override
+  protected void applyDelta(byte operation, DataInput in) throws IOException {
+    ByteArrayWrapper member = new ByteArrayWrapper(DataSerializer.readByteArray(in));
+    if (operation == ADD) {
+      double score = in.readDouble();
+      doAdd(member, score, getScore(member));
+    } else {
+      Double score = getScore(member);
+      if (score != null) {
+        doRemove(member, score);
+      }
+    }
+  }
+
+  /**
+   * Writes the members in score order, so that {@link #fromData} rebuilds the score order in O(n)
+   */
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    out.writeInt(this.order.size());
+    for (Node node : this.order) {
+      DataSerializer.writeByteArray(node.getMember().toBytes(), out);
+      out.writeDouble(node.getScore());
+    }
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    int size = in.readInt();
+    List<Entry<ByteArrayWrapper, Double>> members = new ArrayList<>(size);
+    SortedSetTree.Builder order = new SortedSetTree.Builder(true);
+    for (int i = 0; i < size; i++) {
+      ByteArrayWrapper member = new ByteArrayWrapper(DataSerializer.readByteArray(in));
+      double score = in.readDouble();
+      members.add(new SimpleImmutableEntry<>(member, score));
+      order.append(score, member);
+    }
+    this.order = order.build();
+    members.sort(Entry.comparingByKey());
+    SortedSetTree.Builder scores = new SortedSetTree.Builder(false);
+    for (Entry<ByteArrayWrapper, Double> member : members) {
+      scores.append(member.getValue(), member.getKey());
+    }
+    this.scores = scores.build();
+  }
+}
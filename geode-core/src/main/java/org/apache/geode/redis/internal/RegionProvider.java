@@ -15,23 +15,28 @@
 package org.apache.geode.redis.internal;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
+import org.apache.geode.InternalGemFireException;
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheTransactionManager;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionShortcut;
 import org.apache.geode.cache.TransactionId;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
 import org.apache.geode.cache.query.IndexExistsException;
 import org.apache.geode.cache.query.IndexInvalidException;
 import org.apache.geode.cache.query.IndexNameConflictException;
@@ -39,13 +44,14 @@ import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.QueryInvalidException;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.RegionNotFoundException;
+import org.apache.geode.distributed.DistributedLockService;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.locks.DLockService;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
-import org.apache.geode.internal.hll.HyperLogLogPlus;
 import org.apache.geode.management.cli.Result.Status;
 import org.apache.geode.management.internal.cli.commands.CreateRegionCommand;
 import org.apache.geode.management.internal.cli.result.model.ResultModel;
 import org.apache.geode.redis.GeodeRedisServer;
-import org.apache.geode.redis.internal.executor.ExpirationExecutor;
 import org.apache.geode.redis.internal.executor.ListQuery;
 import org.apache.geode.redis.internal.executor.SortedSetQuery;
 
@@ -75,35 +81,74 @@ public class RegionProvider implements Closeable {
    * This is the {@link RedisDataType#REDIS_HLL} {@link Region}. This is the Region that stores all
    * HyperLogLog contents
    */
-  private final Region<ByteArrayWrapper, HyperLogLogPlus> hLLRegion;
+  private final Region<ByteArrayWrapper, RedisHyperLogLog> hLLRegion;
+
+  /**
+   * This is the Region that stores each {@link RedisDataType#REDIS_HASH},
+   * {@link RedisDataType#REDIS_SET} and {@link RedisDataType#REDIS_LIST} as a single
+   * {@link RedisCollection} entry, or null if each of them is stored in a Region of its own
+   */
+  private final Region<ByteArrayWrapper, RedisCollection> collectionRegion;
+
+  /**
+   * The name of the {@link DistributedLockService} that serializes the updates of the collections
+   * in {@link #collectionRegion} across all members, and those of the HyperLogLogs in
+   * {@link #hLLRegion} when they cannot be applied on the primary copy of the key
+   */
+  private static final String UPDATE_LOCK_SERVICE_NAME = "__GeodeRedisUpdates";
+
+  /**
+   * Holds a lock per key while a collection or HyperLogLog is read, changed and put, so that every
+   * update starts from the latest value no matter which member applies it. A member-local lock is
+   * not enough, because the put of a whole value by one member replaces the changes another member
+   * has distributed in the meantime, and the positional changes of a list cannot be replayed on a
+   * value they were not made to.
+   * <p>
+   * Created by the first update that needs it, so that a member whose updates are all applied by
+   * {@link HyperLogLogUpdateFunction} does not take part in the lock service.
+   */
+  private volatile DistributedLockService updateLockService;
 
   private final Cache cache;
   private final QueryService queryService;
   private final ConcurrentMap<ByteArrayWrapper, Map<Enum<?>, Query>> preparedQueries =
       new ConcurrentHashMap<>();
-  private final ConcurrentMap<ByteArrayWrapper, ScheduledFuture<?>> expirationsMap;
-  private final ScheduledExecutorService expirationExecutor;
+
+  /**
+   * The expirations of keys set on this member
+   */
+  private final ExpirationWheel expirations;
   private final RegionShortcut defaultRegionType;
   private static final CreateRegionCommand createRegionCmd = new CreateRegionCommand();
   private final ConcurrentHashMap<String, Lock> locks;
 
   public RegionProvider(Region<ByteArrayWrapper, ByteArrayWrapper> stringsRegion,
-      Region<ByteArrayWrapper, HyperLogLogPlus> hLLRegion,
+      Region<ByteArrayWrapper, RedisHyperLogLog> hLLRegion,
+      Region<String, RedisDataType> redisMetaRegion, ScheduledExecutorService expirationExecutor,
+      ExpirationStats expirationStats, RegionShortcut defaultShortcut) {
+    this(stringsRegion, hLLRegion, redisMetaRegion, null, expirationExecutor, expirationStats,
+        defaultShortcut);
+  }
+
+  public RegionProvider(Region<ByteArrayWrapper, ByteArrayWrapper> stringsRegion,
+      Region<ByteArrayWrapper, RedisHyperLogLog> hLLRegion,
       Region<String, RedisDataType> redisMetaRegion,
-      ConcurrentMap<ByteArrayWrapper, ScheduledFuture<?>> expirationsMap,
-      ScheduledExecutorService expirationExecutor, RegionShortcut defaultShortcut) {
+      Region<ByteArrayWrapper, RedisCollection> collectionRegion,
+      ScheduledExecutorService expirationExecutor, ExpirationStats expirationStats,
+      RegionShortcut defaultShortcut) {
     if (stringsRegion == null || hLLRegion == null || redisMetaRegion == null)
       throw new NullPointerException();
     this.regions = new ConcurrentHashMap<>();
     this.stringsRegion = stringsRegion;
     this.hLLRegion = hLLRegion;
     this.redisMetaRegion = redisMetaRegion;
+    this.collectionRegion = collectionRegion;
     this.cache = GemFireCacheImpl.getInstance();
     this.queryService = cache.getQueryService();
-    this.expirationsMap = expirationsMap;
-    this.expirationExecutor = expirationExecutor;
     this.defaultRegionType = defaultShortcut;
     this.locks = new ConcurrentHashMap<>();
+    this.expirations = new ExpirationWheel(this::expireKeys, expirationStats);
+    this.expirations.start(expirationExecutor);
   }
 
   public boolean existsKey(ByteArrayWrapper key) {
@@ -183,6 +228,12 @@ public class RegionProvider implements Closeable {
           return this.stringsRegion.remove(key) != null;
         } else if (type == RedisDataType.REDIS_HLL) {
           return this.hLLRegion.remove(key) != null;
+        } else if (isCollectionEntry(type)) {
+          return this.collectionRegion.remove(key) != null;
+        } else if (type == RedisDataType.REDIS_SORTEDSET && this.collectionRegion != null
+            && this.collectionRegion.remove(key) != null) {
+          // Sorted sets added by GEOADD are still Regions
+          return true;
         } else {
           return destroyRegion(key, type);
         }
@@ -209,7 +260,8 @@ public class RegionProvider implements Closeable {
   }
 
   public void createRemoteRegionReferenceLocally(ByteArrayWrapper key, RedisDataType type) {
-    if (type == null || type == RedisDataType.REDIS_STRING || type == RedisDataType.REDIS_HLL)
+    if (type == null || type == RedisDataType.REDIS_STRING || type == RedisDataType.REDIS_HLL
+        || isCollectionEntry(type))
       return;
     Region<?, ?> r = this.regions.get(key);
     if (r != null)
@@ -253,6 +305,178 @@ public class RegionProvider implements Closeable {
     }
   }
 
+  /**
+   * Returns whether hashes, sets, lists and sorted sets are each stored as a single
+   * {@link RedisCollection} entry rather than in a Region of their own
+   */
+  public boolean hasCollectionRegion() {
+    return this.collectionRegion != null;
+  }
+
+  private boolean isCollectionEntry(RedisDataType type) {
+    return this.collectionRegion != null && (type == RedisDataType.REDIS_HASH
+        || type == RedisDataType.REDIS_SET || type == RedisDataType.REDIS_LIST);
+  }
+
+  private static DistributedLockService createUpdateLockService(Cache cache) {
+    DistributedLockService lockService =
+        DistributedLockService.getServiceNamed(UPDATE_LOCK_SERVICE_NAME);
+    if (lockService != null) {
+      return lockService;
+    }
+    try {
+      return DLockService.create(UPDATE_LOCK_SERVICE_NAME,
+          (InternalDistributedSystem) cache.getDistributedSystem(), true /* distributed */,
+          true /* destroyOnDisconnect */, true /* automateFreeResources */);
+    } catch (IllegalArgumentException e) {
+      lockService = DistributedLockService.getServiceNamed(UPDATE_LOCK_SERVICE_NAME);
+      if (lockService == null) {
+        throw e;
+      }
+      return lockService;
+    }
+  }
+
+  private DistributedLockService getUpdateLockService() {
+    DistributedLockService lockService = this.updateLockService;
+    if (lockService == null) {
+      synchronized (this) {
+        lockService = this.updateLockService;
+        if (lockService == null) {
+          lockService = createUpdateLockService(this.cache);
+          this.updateLockService = lockService;
+        }
+      }
+    }
+    return lockService;
+  }
+
+  private void lockForUpdate(ByteArrayWrapper key) {
+    if (!getUpdateLockService().lock(key, -1, -1)) {
+      // this should be impossible
+      throw new InternalGemFireException("Could not obtain the update lock for " + key);
+    }
+  }
+
+  private void unlockForUpdate(ByteArrayWrapper key) {
+    getUpdateLockService().unlock(key);
+  }
+
+  /**
+   * Gets a collection stored as a single entry. The collection returned must not be modified, use
+   * {@link #updateCollection} to change it.
+   *
+   * @param key Key of the collection
+   * @return The collection, or null if the key does not exist
+   */
+  public RedisCollection getCollection(ByteArrayWrapper key) {
+    return this.collectionRegion.get(key);
+  }
+
+  /**
+   * Changes a collection stored as a single entry. The update is applied to a copy of the
+   * collection, which then replaces it, so that only the changes are distributed. The collection
+   * is created if it does not exist, and removed if the update leaves it empty. Updates to the same
+   * key are serialized across all members by a distributed lock, which is held until the change
+   * has been distributed.
+   *
+   * @param key Key of the collection
+   * @param type Type of the collection, which is checked against the type of an existing key
+   * @param update Applies the changes to the collection
+   * @return The result of the update
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends RedisCollection, R> R updateCollection(ByteArrayWrapper key,
+      RedisDataType type, Function<T, R> update) {
+    lockForUpdate(key);
+    try {
+      RedisCollection collection = this.collectionRegion.get(key);
+      if (collection == null) {
+        RedisDataType existingType = metaPutIfAbsent(key, type);
+        if (existingType != null && existingType != type)
+          throw new RedisDataTypeMismatchException(
+              "The key name \"" + key + "\" is already used by a " + existingType.toString());
+        collection = createCollection(type);
+      } else {
+        checkDataType(key, type);
+        collection = collection.copy();
+      }
+      R result = update.apply((T) collection);
+      if (collection.isEmpty()) {
+        removeKey(key, type);
+      } else if (collection.hasDelta()) {
+        this.collectionRegion.put(key, collection);
+        collection.clearDelta();
+      }
+      return result;
+    } finally {
+      unlockForUpdate(key);
+    }
+  }
+
+  /**
+   * Adds elements to a HyperLogLog, which is created if it does not exist. The caller is expected
+   * to have set the type of the key.
+   *
+   * @param key Key of the HyperLogLog
+   * @param elements The elements to add
+   * @return Whether a register of the HyperLogLog was raised
+   */
+  public boolean addToHyperLogLog(ByteArrayWrapper key, byte[][] elements) {
+    return updateHyperLogLog(key, elements);
+  }
+
+  /**
+   * Merges HyperLogLogs into another, which is created if it does not exist. The caller is expected
+   * to have set the type of the key.
+   *
+   * @param key Key of the HyperLogLog merged into
+   * @param sources The HyperLogLogs to merge
+   * @return Whether a register of the HyperLogLog was raised
+   */
+  public boolean mergeIntoHyperLogLog(ByteArrayWrapper key, RedisHyperLogLog[] sources) {
+    return updateHyperLogLog(key, sources);
+  }
+
+  /**
+   * Changes a HyperLogLog so that only the registers raised are distributed. The updates of a key
+   * must be serialized, so that a put of the whole HyperLogLog cannot lower the registers another
+   * update has raised. In a partitioned Region the update is sent to the member holding the primary
+   * copy of the key, which serializes them with a local lock. Otherwise, and within a transaction,
+   * which cannot execute a function on another member, they are serialized by the same distributed
+   * lock as the collections.
+   */
+  private boolean updateHyperLogLog(ByteArrayWrapper key, Object update) {
+    if (PartitionRegionHelper.isPartitionedRegion(this.hLLRegion)
+        && !this.cache.getCacheTransactionManager().exists()) {
+      List<?> results = (List<?>) FunctionService.onRegion(this.hLLRegion)
+          .withFilter(Collections.singleton(key)).setArguments(update)
+          .execute(HyperLogLogUpdateFunction.INSTANCE).getResult();
+      return (Boolean) results.get(0);
+    }
+    lockForUpdate(key);
+    try {
+      return HyperLogLogUpdateFunction.update(this.hLLRegion, key, update);
+    } finally {
+      unlockForUpdate(key);
+    }
+  }
+
+  private static RedisCollection createCollection(RedisDataType type) {
+    switch (type) {
+      case REDIS_HASH:
+        return new RedisHash();
+      case REDIS_SET:
+        return new RedisSet();
+      case REDIS_LIST:
+        return new RedisList();
+      case REDIS_SORTEDSET:
+        return new RedisSortedSet();
+      default:
+        throw new IllegalArgumentException(type + " is not stored as a collection");
+    }
+  }
+
   private Region<?, ?> getOrCreateRegion0(ByteArrayWrapper key, RedisDataType type,
       ExecutionHandlerContext context, boolean addToMeta) {
     checkDataType(key, type);
@@ -448,7 +672,7 @@ public class RegionProvider implements Closeable {
     return this.stringsRegion;
   }
 
-  public Region<ByteArrayWrapper, HyperLogLogPlus> gethLLRegion() {
+  public Region<ByteArrayWrapper, RedisHyperLogLog> gethLLRegion() {
     return this.hLLRegion;
   }
 
@@ -474,9 +698,7 @@ public class RegionProvider implements Closeable {
     RedisDataType type = getRedisDataType(key);
     if (type == null)
       return false;
-    ScheduledFuture<?> future = this.expirationExecutor
-        .schedule(new ExpirationExecutor(key, type, this), delay, TimeUnit.MILLISECONDS);
-    this.expirationsMap.put(key, future);
+    this.expirations.setExpiration(key, delay);
     return true;
   }
 
@@ -488,22 +710,9 @@ public class RegionProvider implements Closeable {
    * @return True if reset, false if not
    */
   public boolean modifyExpiration(ByteArrayWrapper key, long delay) {
-    /*
-     * Attempt to cancel future task
-     */
-    boolean canceled = cancelKeyExpiration(key);
-
-    if (!canceled)
-      return false;
-
-    RedisDataType type = getRedisDataType(key);
-    if (type == null)
+    if (!hasExpiration(key))
       return false;
-
-    ScheduledFuture<?> future = this.expirationExecutor
-        .schedule(new ExpirationExecutor(key, type, this), delay, TimeUnit.MILLISECONDS);
-    this.expirationsMap.put(key, future);
-    return true;
+    return setExpiration(key, delay);
   }
 
   /**
@@ -513,14 +722,50 @@ public class RegionProvider implements Closeable {
    * @return True is expiration cancelled on the key, false otherwise
    */
   public boolean cancelKeyExpiration(ByteArrayWrapper key) {
-    ScheduledFuture<?> future = expirationsMap.remove(key);
-    if (future == null)
-      return false;
-    return future.cancel(false);
+    return this.expirations.cancelExpiration(key);
   }
 
   private boolean removeKeyExpiration(ByteArrayWrapper key) {
-    return expirationsMap.remove(key) != null;
+    return this.expirations.cancelExpiration(key);
+  }
+
+  /**
+   * Removes keys whose expiration was reached. The strings and HyperLogLogs among them are removed
+   * from their Regions with one removeAll each, and the other keys one at a time.
+   */
+  private void expireKeys(List<ByteArrayWrapper> keys) {
+    List<String> names = new ArrayList<>();
+    List<ByteArrayWrapper> strings = new ArrayList<>();
+    List<ByteArrayWrapper> hlls = new ArrayList<>();
+    try {
+      for (ByteArrayWrapper key : keys) {
+        RedisDataType type = getRedisDataType(key);
+        if (type == RedisDataType.REDIS_STRING) {
+          names.add(key.toString());
+          strings.add(key);
+        } else if (type == RedisDataType.REDIS_HLL) {
+          names.add(key.toString());
+          hlls.add(key);
+        } else {
+          removeKey(key, type, false);
+        }
+      }
+      if (!names.isEmpty())
+        this.redisMetaRegion.removeAll(names);
+      if (!strings.isEmpty())
+        this.stringsRegion.removeAll(strings);
+      if (!hlls.isEmpty())
+        this.hLLRegion.removeAll(hlls);
+    } catch (RuntimeException e) {
+      // keep the sweeps going, the keys are expired again if they are given a new expiration
+      if (this.cache.getLogger().fineEnabled())
+        this.cache.getLogger().fine("GeodeRedisServer-Failed to expire " + keys.size() + " keys",
+            e);
+      return;
+    }
+    // any expiration set after the sweep is gone with the key
+    strings.forEach(this::removeKeyExpiration);
+    hlls.forEach(this::removeKeyExpiration);
   }
 
   /**
@@ -530,7 +775,7 @@ public class RegionProvider implements Closeable {
    * @return True if key has expiration, false otherwise
    */
   public boolean hasExpiration(ByteArrayWrapper key) {
-    return this.expirationsMap.containsKey(key);
+    return this.expirations.hasExpiration(key);
   }
 
   /**
@@ -540,13 +785,21 @@ public class RegionProvider implements Closeable {
    * @return Remaining time in milliseconds or 0 if no delay or key doesn't exist
    */
   public long getExpirationDelayMillis(ByteArrayWrapper key) {
-    ScheduledFuture<?> future = this.expirationsMap.get(key);
-    return future != null ? future.getDelay(TimeUnit.MILLISECONDS) : 0L;
+    return this.expirations.getDelayMillis(key);
   }
 
   @Override
   public void close() {
+    this.expirations.close();
     this.preparedQueries.clear();
+    if (this.updateLockService == null) {
+      return;
+    }
+    try {
+      DistributedLockService.destroy(UPDATE_LOCK_SERVICE_NAME);
+    } catch (IllegalArgumentException ignore) {
+      // already destroyed when the member disconnected
+    }
   }
 
   public String dumpRegionsCache() {
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import org.apache.geode.cache.EntryOperation;
+import org.apache.geode.cache.PartitionResolver;
+
+/**
+ * Routes each key to the bucket holding its Redis Cluster hash slot, see {@link ClusterSlots}. The
+ * routing object is the bucket id itself, as a bucket is chosen by the hash code of the routing
+ * object modulo the number of buckets.
+ */
+public class SlotPartitionResolver
+    implements PartitionResolver<ByteArrayWrapper, ByteArrayWrapper> {
+
+  @Override
+  public Object getRoutingObject(EntryOperation<ByteArrayWrapper, ByteArrayWrapper> opDetails) {
+    int totalBuckets =
+        opDetails.getRegion().getAttributes().getPartitionAttributes().getTotalNumBuckets();
+    return ClusterSlots.getBucketId(ClusterSlots.getSlot(opDetails.getKey().toBytes()),
+        totalBuckets);
+  }
+
+  @Override
+  public String getName() {
+    return getClass().getName();
+  }
+
+  @Override
+  public void close() {}
+}
@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The members of a {@link RedisSortedSet} in a weight balanced binary tree, ordered either by
+ * score, and then by member for equal scores, or by member alone. Each node holds the size of its
+ * subtree, so that finding the rank of a member, the member at a rank, or the number of members
+ * below a score takes O(log n) time.
+ * <p>
+ * The nodes are never changed once created. Adding or removing a member returns a new tree that
+ * shares all but O(log n) of its nodes with this one, so a tree can be kept as a copy that later
+ * changes do not affect, and can be read by any number of threads.
+ */
+class SortedSetTree implements Iterable<SortedSetTree.Node> {
+
+  /**
+   * A subtree is rebalanced when one side holds more than this many times the nodes of the other
+   */
+  private static final int DELTA = 3;
+
+  /**
+   * A single rotation is used to rebalance when the inner subtree of the heavy side holds less than
+   * this many times the nodes of the outer one, and a double rotation otherwise
+   */
+  private static final int RATIO = 2;
+
+  private final boolean byScore;
+
+  private final Node root;
+
+  static class Node {
+    private final ByteArrayWrapper member;
+
+    private final double score;
+
+    private final Node left;
+
+    private final Node right;
+
+    private final int size;
+
+    private Node(ByteArrayWrapper member, double score, Node left, Node right) {
+      this.member = member;
+      this.score = score;
+      this.left = left;
+      this.right = right;
+      this.size = size(left) + 1 + size(right);
+    }
+
+    ByteArrayWrapper getMember() {
+      return this.member;
+    }
+
+    double getScore() {
+      return this.score;
+    }
+  }
+
+  private SortedSetTree(boolean byScore, Node root) {
+    this.byScore = byScore;
+    this.root = root;
+  }
+
+  /**
+   * Returns an empty tree ordered by score, and then by member for equal scores
+   */
+  static SortedSetTree byScore() {
+    return new SortedSetTree(true, null);
+  }
+
+  /**
+   * Returns an empty tree ordered by member
+   */
+  static SortedSetTree byMember() {
+    return new SortedSetTree(false, null);
+  }
+
+  int size() {
+    return size(this.root);
+  }
+
+  /**
+   * Returns a tree that also holds a member, which must not already be in this one
+   */
+  SortedSetTree insert(double score, ByteArrayWrapper member) {
+    return new SortedSetTree(this.byScore, insert(this.root, score, member));
+  }
+
+  /**
+   * Returns a tree without a member with the given score, or this tree if it is not in it. The
+   * score is ignored by a tree ordered by member.
+   */
+  SortedSetTree delete(double score, ByteArrayWrapper member) {
+    Node root = delete(this.root, score, member);
+    return root == this.root ? this : new SortedSetTree(this.byScore, root);
+  }
+
+  /**
+   * Returns the node of a member, or null if it is not in the tree. The score is ignored by a tree
+   * ordered by member.
+   */
+  Node find(double score, ByteArrayWrapper member) {
+    Node x = this.root;
+    while (x != null) {
+      int compared = compare(score, member, x);
+      if (compared == 0) {
+        return x;
+      }
+      x = compared < 0 ? x.left : x.right;
+    }
+    return null;
+  }
+
+  /**
+   * @return The 0 based rank of a member with the given score, or -1 if it is not in the tree
+   */
+  int rank(double score, ByteArrayWrapper member) {
+    int rank = 0;
+    Node x = this.root;
+    while (x != null) {
+      int compared = compare(score, member, x);
+      if (compared == 0) {
+        return rank + size(x.left);
+      }
+      if (compared < 0) {
+        x = x.left;
+      } else {
+        rank += size(x.left) + 1;
+        x = x.right;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the number of members whose score is less than the given one, or less than or equal to
+   * it if orEqual is true, in a tree ordered by score. This is also the rank of the first member at
+   * or after that score.
+   */
+  int countLessThan(double score, boolean orEqual) {
+    int count = 0;
+    Node x = this.root;
+    while (x != null) {
+      if (x.score < score || (orEqual && x.score == score)) {
+        count += size(x.left) + 1;
+        x = x.right;
+      } else {
+        x = x.left;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the members from rank start, inclusive, to rank stop, exclusive
+   */
+  List<Node> range(int start, int stop) {
+    List<Node> range = new ArrayList<>(Math.max(0, stop - start));
+    if (start >= stop) {
+      return range;
+    }
+    for (Iterator<Node> nodes = iterator(start); nodes.hasNext() && range.size() < stop - start;) {
+      range.add(nodes.next());
+    }
+    return range;
+  }
+
+  @Override
+  public Iterator<Node> iterator() {
+    return iterator(0);
+  }
+
+  /**
+   * Returns an iterator over the members in order, starting at the given rank
+   */
+  private Iterator<Node> iterator(int start) {
+    Deque<Node> path = new ArrayDeque<>();
+    Node x = this.root;
+    int rank = start;
+    while (x != null) {
+      int leftSize = size(x.left);
+      if (rank < leftSize) {
+        path.push(x);
+        x = x.left;
+      } else if (rank == leftSize) {
+        path.push(x);
+        break;
+      } else {
+        rank -= leftSize + 1;
+        x = x.right;
+      }
+    }
+    return new Iterator<Node>() {
+      @Override
+      public boolean hasNext() {
+        return !path.isEmpty();
+      }
+
+      @Override
+      public Node next() {
+        if (path.isEmpty()) {
+          throw new NoSuchElementException();
+        }
+        Node next = path.pop();
+        for (Node x = next.right; x != null; x = x.left) {
+          path.push(x);
+        }
+        return next;
+      }
+    };
+  }
+
+  private int compare(double score, ByteArrayWrapper member, Node node) {
+    if (this.byScore) {
+      if (score < node.score) {
+        return -1;
+      }
+      if (score > node.score) {
+        return 1;
+      }
+    }
+    return member.compareTo(node.member);
+  }
+
+  private Node insert(Node x, double score, ByteArrayWrapper member) {
+    if (x == null) {
+      return new Node(member, score, null, null);
+    }
+    if (compare(score, member, x) < 0) {
+      return balance(x, insert(x.left, score, member), x.right);
+    }
+    return balance(x, x.left, insert(x.right, score, member));
+  }
+
+  private Node delete(Node x, double score, ByteArrayWrapper member) {
+    if (x == null) {
+      return null;
+    }
+    int compared = compare(score, member, x);
+    if (compared < 0) {
+      Node left = delete(x.left, score, member);
+      return left == x.left ? x : balance(x, left, x.right);
+    }
+    if (compared > 0) {
+      Node right = delete(x.right, score, member);
+      return right == x.right ? x : balance(x, x.left, right);
+    }
+    if (x.left == null) {
+      return x.right;
+    }
+    if (x.right == null) {
+      return x.left;
+    }
+    if (x.left.size > x.right.size) {
+      Node last = x.left;
+      while (last.right != null) {
+        last = last.right;
+      }
+      return balance(last, deleteLast(x.left), x.right);
+    }
+    Node first = x.right;
+    while (first.left != null) {
+      first = first.left;
+    }
+    return balance(first, x.left, deleteFirst(x.right));
+  }
+
+  private static Node deleteFirst(Node x) {
+    return x.left == null ? x.right : balance(x, deleteFirst(x.left), x.right);
+  }
+
+  private static Node deleteLast(Node x) {
+    return x.right == null ? x.left : balance(x, x.left, deleteLast(x.right));
+  }
+
+  /**
+   * Returns a node for the member of x with the given subtrees, rotated if one of them has become
+   * too large for the other after a single member was added to or removed from it
+   */
+  private static Node balance(Node x, Node left, Node right) {
+    int leftSize = size(left);
+    int rightSize = size(right);
+    if (leftSize + rightSize > 1) {
+      if (rightSize > DELTA * leftSize) {
+        if (size(right.left) < RATIO * size(right.right)) {
+          return node(right, node(x, left, right.left), right.right);
+        }
+        return node(right.left, node(x, left, right.left.left),
+            node(right, right.left.right, right.right));
+      }
+      if (leftSize > DELTA * rightSize) {
+        if (size(left.right) < RATIO * size(left.left)) {
+          return node(left, left.left, node(x, left.right, right));
+        }
+        return node(left.right, node(left, left.left, left.right.left),
+            node(x, left.right.right, right));
+      }
+    }
+    return node(x, left, right);
+  }
+
+  /**
+   * Returns a node for the member of x with the given subtrees, which is x if they are its own
+   */
+  private static Node node(Node x, Node left, Node right) {
+    if (left == x.left && right == x.right) {
+      return x;
+    }
+    return new Node(x.member, x.score, left, right);
+  }
+
+  private static int size(Node x) {
+    return x == null ? 0 : x.size;
+  }
+
+  /**
+   * Builds a balanced tree from members that are appended in order, in O(n) time
+   */
+  static class Builder {
+    private final boolean byScore;
+
+    private final List<ByteArrayWrapper> members = new ArrayList<>();
+
+    private final List<Double> scores = new ArrayList<>();
+
+    Builder(boolean byScore) {
+      this.byScore = byScore;
+    }
+
+    /**
+     * Adds a member after all the members added so far
+     */
+    void append(double score, ByteArrayWrapper member) {
+      this.members.add(member);
+      this.scores.add(score);
+    }
+
+    SortedSetTree build() {
+      return new SortedSetTree(this.byScore, build(0, this.members.size()));
+    }
+
+    private Node build(int start, int end) {
+      if (start >= end) {
+        return null;
+      }
+      int middle = (start + end) >>> 1;
+      return new Node(this.members.get(middle), this.scores.get(middle), build(start, middle),
+          build(middle + 1, end));
+    }
+  }
+}
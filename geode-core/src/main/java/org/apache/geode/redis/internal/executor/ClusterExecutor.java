@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal.executor;
+
+import java.util.List;
+
+import org.apache.geode.redis.internal.ClusterSlots;
+import org.apache.geode.redis.internal.Coder;
+import org.apache.geode.redis.internal.CoderException;
+import org.apache.geode.redis.internal.Command;
+import org.apache.geode.redis.internal.ExecutionHandlerContext;
+import org.apache.geode.redis.internal.RedisConstants;
+import org.apache.geode.redis.internal.RedisConstants.ArityDef;
+
+public class ClusterExecutor extends AbstractExecutor {
+
+  @Override
+  public void executeCommand(Command command, ExecutionHandlerContext context) {
+    List<byte[]> commandElems = command.getProcessedCommand();
+
+    if (commandElems.size() < 2) {
+      command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ArityDef.CLUSTER));
+      return;
+    }
+
+    ClusterSlots clusterSlots = context.getClusterSlots();
+    if (clusterSlots == null) {
+      command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(),
+          RedisConstants.ERROR_CLUSTER_DISABLED));
+      return;
+    }
+
+    String subcommand = Coder.bytesToString(commandElems.get(1)).toUpperCase();
+    if (subcommand.equals("SLOTS")) {
+      try {
+        command.setResponse(
+            Coder.getArrayResponse(context.getByteBufAllocator(), clusterSlots.getSlots()));
+      } catch (CoderException e) {
+        command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(),
+            RedisConstants.SERVER_ERROR_MESSAGE));
+      }
+    } else if (subcommand.equals("NODES")) {
+      respondBulkStrings(command, context, clusterSlots.getNodes());
+    } else if (subcommand.equals("INFO")) {
+      respondBulkStrings(command, context, clusterSlots.getInfo());
+    } else if (subcommand.equals("MYID")) {
+      respondBulkStrings(command, context, clusterSlots.getMyId());
+    } else if (subcommand.equals("KEYSLOT") && commandElems.size() == 3) {
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(),
+          ClusterSlots.getSlot(commandElems.get(2))));
+    } else {
+      command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ArityDef.CLUSTER));
+    }
+  }
+}
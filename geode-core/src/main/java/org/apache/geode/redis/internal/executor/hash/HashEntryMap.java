@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal.executor.hash;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.geode.redis.internal.ByteArrayWrapper;
+import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisHash;
+import org.apache.geode.redis.internal.RegionProvider;
+
+/**
+ * A Map of the fields of a hash that is stored as a single {@link RedisHash} entry, so that the
+ * hash executors work the same way whether or not each hash has a Region of its own. Reads see the
+ * hash as it was when the map was created or last changed through it, and each change is applied
+ * to the entry with {@link RegionProvider#updateCollection}.
+ */
+class HashEntryMap extends AbstractMap<ByteArrayWrapper, ByteArrayWrapper> {
+
+  private final RegionProvider regionProvider;
+
+  private final ByteArrayWrapper key;
+
+  private Map<ByteArrayWrapper, ByteArrayWrapper> fields;
+
+  HashEntryMap(RegionProvider regionProvider, ByteArrayWrapper key, RedisHash hash) {
+    this.regionProvider = regionProvider;
+    this.key = key;
+    this.fields = hash == null ? Collections.emptyMap() : hash.getFields();
+  }
+
+  @Override
+  public Set<Entry<ByteArrayWrapper, ByteArrayWrapper>> entrySet() {
+    return this.fields.entrySet();
+  }
+
+  @Override
+  public int size() {
+    return this.fields.size();
+  }
+
+  @Override
+  public boolean containsKey(Object field) {
+    return this.fields.containsKey(field);
+  }
+
+  @Override
+  public ByteArrayWrapper get(Object field) {
+    return this.fields.get(field);
+  }
+
+  @Override
+  public ByteArrayWrapper put(ByteArrayWrapper field, ByteArrayWrapper value) {
+    return update(hash -> hash.put(field, value));
+  }
+
+  @Override
+  public ByteArrayWrapper putIfAbsent(ByteArrayWrapper field, ByteArrayWrapper value) {
+    return update(hash -> {
+      ByteArrayWrapper oldValue = hash.getFields().get(field);
+      if (oldValue == null) {
+        hash.put(field, value);
+      }
+      return oldValue;
+    });
+  }
+
+  @Override
+  public void putAll(Map<? extends ByteArrayWrapper, ? extends ByteArrayWrapper> map) {
+    update(hash -> {
+      for (Entry<? extends ByteArrayWrapper, ? extends ByteArrayWrapper> e : map.entrySet()) {
+        hash.put(e.getKey(), e.getValue());
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public ByteArrayWrapper remove(Object field) {
+    if (this.fields.isEmpty()) {
+      return null;
+    }
+    return update(hash -> hash.remove((ByteArrayWrapper) field));
+  }
+
+  private <R> R update(Function<RedisHash, R> update) {
+    return this.regionProvider.updateCollection(this.key, RedisDataType.REDIS_HASH,
+        (RedisHash hash) -> {
+          R result = update.apply(hash);
+          this.fields = hash.getFields();
+          return result;
+        });
+  }
+}
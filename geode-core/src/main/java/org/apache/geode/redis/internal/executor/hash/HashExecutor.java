@@ -14,28 +14,56 @@
  */
 package org.apache.geode.redis.internal.executor.hash;
 
+import java.util.Map;
+
 import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
+import org.apache.geode.redis.internal.RedisCollection;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisHash;
+import org.apache.geode.redis.internal.RegionProvider;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
 public abstract class HashExecutor extends AbstractExecutor {
 
   protected final int FIELD_INDEX = 2;
 
-  @Override
+  /**
+   * Gets the fields of a hash, creating the hash if it does not exist. The hash is either its own
+   * {@link Region} or, if collections are stored as entries, a {@link HashEntryMap}.
+   */
   @SuppressWarnings("unchecked")
-  protected Region<ByteArrayWrapper, ByteArrayWrapper> getOrCreateRegion(
-      ExecutionHandlerContext context, ByteArrayWrapper key, RedisDataType type) {
-    return (Region<ByteArrayWrapper, ByteArrayWrapper>) context.getRegionProvider()
-        .getOrCreateRegion(key, type, context);
+  protected Map<ByteArrayWrapper, ByteArrayWrapper> getOrCreateHash(
+      ExecutionHandlerContext context, ByteArrayWrapper key) {
+    RegionProvider regionProvider = context.getRegionProvider();
+    if (regionProvider.hasCollectionRegion()) {
+      checkDataType(key, RedisDataType.REDIS_HASH, context);
+      return new HashEntryMap(regionProvider, key, getHashEntry(regionProvider, key));
+    }
+    return (Map<ByteArrayWrapper, ByteArrayWrapper>) regionProvider.getOrCreateRegion(key,
+        RedisDataType.REDIS_HASH, context);
   }
 
+  /**
+   * Gets the fields of a hash
+   *
+   * @return The fields, or null if the hash does not exist
+   */
   @SuppressWarnings("unchecked")
-  protected Region<ByteArrayWrapper, ByteArrayWrapper> getRegion(ExecutionHandlerContext context,
-      ByteArrayWrapper key) {
-    return (Region<ByteArrayWrapper, ByteArrayWrapper>) context.getRegionProvider().getRegion(key);
+  protected static Map<ByteArrayWrapper, ByteArrayWrapper> getHash(
+      ExecutionHandlerContext context, ByteArrayWrapper key) {
+    RegionProvider regionProvider = context.getRegionProvider();
+    if (regionProvider.hasCollectionRegion()) {
+      RedisHash hash = getHashEntry(regionProvider, key);
+      return hash == null ? null : new HashEntryMap(regionProvider, key, hash);
+    }
+    return (Map<ByteArrayWrapper, ByteArrayWrapper>) regionProvider.getRegion(key);
+  }
+
+  private static RedisHash getHashEntry(RegionProvider regionProvider, ByteArrayWrapper key) {
+    RedisCollection collection = regionProvider.getCollection(key);
+    return collection instanceof RedisHash ? (RedisHash) collection : null;
   }
 
 }
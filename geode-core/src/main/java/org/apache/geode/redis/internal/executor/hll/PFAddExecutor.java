@@ -16,8 +16,6 @@ package org.apache.geode.redis.internal.executor.hll;
 
 import java.util.List;
 
-import org.apache.geode.cache.Region;
-import org.apache.geode.internal.hll.HyperLogLogPlus;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
@@ -36,27 +34,12 @@ public class PFAddExecutor extends HllExecutor {
     }
 
     ByteArrayWrapper key = command.getKey();
-    checkAndSetDataType(key, context);
-    Region<ByteArrayWrapper, HyperLogLogPlus> keyRegion =
-        context.getRegionProvider().gethLLRegion();
+    boolean created = checkAndSetDataType(key, context);
 
-    HyperLogLogPlus hll = keyRegion.get(key);
+    byte[][] elements = commandElems.subList(2, commandElems.size()).toArray(new byte[0][]);
+    boolean changed = context.getRegionProvider().addToHyperLogLog(key, elements);
 
-    boolean changed = false;
-
-    if (hll == null)
-      hll = new HyperLogLogPlus(DEFAULT_HLL_DENSE);
-
-    for (int i = 2; i < commandElems.size(); i++) {
-      byte[] bytes = commandElems.get(i);
-      boolean offerChange = hll.offer(bytes);
-      if (offerChange)
-        changed = true;
-    }
-
-    keyRegion.put(key, hll);
-
-    if (changed)
+    if (changed || created)
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), 1));
     else
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), 0));
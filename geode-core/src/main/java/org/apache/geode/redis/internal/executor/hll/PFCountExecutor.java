@@ -18,14 +18,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.geode.cache.Region;
-import org.apache.geode.internal.hll.CardinalityMergeException;
-import org.apache.geode.internal.hll.HyperLogLogPlus;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisHyperLogLog;
 
 public class PFCountExecutor extends HllExecutor {
 
@@ -38,15 +37,15 @@ public class PFCountExecutor extends HllExecutor {
       return;
     }
 
-    Region<ByteArrayWrapper, HyperLogLogPlus> keyRegion =
+    Region<ByteArrayWrapper, RedisHyperLogLog> keyRegion =
         context.getRegionProvider().gethLLRegion();
 
-    List<HyperLogLogPlus> hlls = new ArrayList<HyperLogLogPlus>();
+    List<RedisHyperLogLog> hlls = new ArrayList<>();
 
     for (int i = 1; i < commandElems.size(); i++) {
       ByteArrayWrapper k = new ByteArrayWrapper(commandElems.get(i));
       checkDataType(k, RedisDataType.REDIS_HLL, context);
-      HyperLogLogPlus h = keyRegion.get(k);
+      RedisHyperLogLog h = keyRegion.get(k);
       if (h != null)
         hlls.add(h);
     }
@@ -55,14 +54,8 @@ public class PFCountExecutor extends HllExecutor {
       return;
     }
 
-    HyperLogLogPlus tmp = hlls.remove(0);
-    HyperLogLogPlus[] estimators = hlls.toArray(new HyperLogLogPlus[hlls.size()]);
-    try {
-      tmp = (HyperLogLogPlus) tmp.merge(estimators);
-    } catch (CardinalityMergeException e) {
-      throw new RuntimeException(e);
-    }
-    long cardinality = tmp.cardinality();
+    // the estimate of a single key is kept by its value until a register changes
+    long cardinality = RedisHyperLogLog.count(hlls);
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), cardinality));
   }
 
@@ -18,14 +18,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.geode.cache.Region;
-import org.apache.geode.internal.hll.CardinalityMergeException;
-import org.apache.geode.internal.hll.HyperLogLogPlus;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisHyperLogLog;
 
 public class PFMergeExecutor extends HllExecutor {
 
@@ -40,17 +39,14 @@ public class PFMergeExecutor extends HllExecutor {
 
     ByteArrayWrapper destKey = command.getKey();
     checkAndSetDataType(destKey, context);
-    Region<ByteArrayWrapper, HyperLogLogPlus> keyRegion =
+    Region<ByteArrayWrapper, RedisHyperLogLog> keyRegion =
         context.getRegionProvider().gethLLRegion();
-    HyperLogLogPlus mergedHLL = keyRegion.get(destKey);
-    if (mergedHLL == null)
-      mergedHLL = new HyperLogLogPlus(DEFAULT_HLL_DENSE);
-    List<HyperLogLogPlus> hlls = new ArrayList<HyperLogLogPlus>();
+    List<RedisHyperLogLog> hlls = new ArrayList<>();
 
     for (int i = 2; i < commandElems.size(); i++) {
       ByteArrayWrapper k = new ByteArrayWrapper(commandElems.get(i));
       checkDataType(k, RedisDataType.REDIS_HLL, context);
-      HyperLogLogPlus h = keyRegion.get(k);
+      RedisHyperLogLog h = keyRegion.get(k);
       if (h != null)
         hlls.add(h);
     }
@@ -60,13 +56,9 @@ public class PFMergeExecutor extends HllExecutor {
       return;
     }
 
-    HyperLogLogPlus[] estimators = hlls.toArray(new HyperLogLogPlus[hlls.size()]);
-    try {
-      mergedHLL = (HyperLogLogPlus) mergedHLL.merge(estimators);
-    } catch (CardinalityMergeException e) {
-      throw new RuntimeException(e);
-    }
-    keyRegion.put(destKey, mergedHLL);
+    // only the registers the sources raise on the destination are distributed
+    context.getRegionProvider().mergeIntoHyperLogLog(destKey,
+        hlls.toArray(new RedisHyperLogLog[0]));
     command.setResponse(Coder.getSimpleStringResponse(context.getByteBufAllocator(), "OK"));
   }
 
@@ -26,6 +26,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 import org.apache.geode.redis.internal.executor.ListQuery;
 
 public class LIndexExecutor extends ListExecutor {
@@ -45,15 +46,26 @@ public class LIndexExecutor extends ListExecutor {
     byte[] indexArray = commandElems.get(2);
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
-    Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
-
-    if (keyRegion == null) {
-      command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
-      return;
+    RedisList list = null;
+    int listSize;
+    if (hasListEntries(context)) {
+      list = getListEntry(context, key);
+      if (list == null) {
+        command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
+        return;
+      }
+      listSize = list.size();
+    } else {
+      Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
+
+      if (keyRegion == null) {
+        command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
+        return;
+      }
+
+      listSize = keyRegion.size() - LIST_EMPTY_SIZE;
     }
 
-    int listSize = keyRegion.size() - LIST_EMPTY_SIZE;
-
     int redisIndex;
 
     try {
@@ -81,6 +93,15 @@ public class LIndexExecutor extends ListExecutor {
       return;
     }
 
+    if (list != null) {
+      if (redisIndex >= listSize) {
+        command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
+      } else {
+        respondBulkStrings(command, context, list.get(redisIndex));
+      }
+      return;
+    }
+
     /*
      * Now we must get that element from the region
      */
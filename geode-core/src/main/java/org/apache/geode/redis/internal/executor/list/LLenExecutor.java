@@ -23,6 +23,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 
 public class LLenExecutor extends ListExecutor {
 
@@ -42,6 +43,12 @@ public class LLenExecutor extends ListExecutor {
     int listSize = 0;
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
+    if (hasListEntries(context)) {
+      RedisList list = getListEntry(context, key);
+      listSize = list == null ? NOT_EXISTS : list.size();
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), listSize));
+      return;
+    }
     Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
 
     if (keyRegion == null) {
@@ -26,6 +26,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 import org.apache.geode.redis.internal.executor.ListQuery;
 
 public class LRangeExecutor extends ListExecutor {
@@ -50,14 +51,22 @@ public class LRangeExecutor extends ListExecutor {
 
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
-    Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
-
-    if (keyRegion == null) {
-      command.setResponse(Coder.getEmptyArrayResponse(context.getByteBufAllocator()));
-      return;
+    RedisList list = null;
+    Region<Integer, ByteArrayWrapper> keyRegion = null;
+    int listSize;
+    if (hasListEntries(context)) {
+      list = getListEntry(context, key);
+      listSize = list == null ? 0 : list.size();
+    } else {
+      keyRegion = getRegion(context, key);
+
+      if (keyRegion == null) {
+        command.setResponse(Coder.getEmptyArrayResponse(context.getByteBufAllocator()));
+        return;
+      }
+
+      listSize = keyRegion.size() - LIST_EMPTY_SIZE;
     }
-
-    int listSize = keyRegion.size() - LIST_EMPTY_SIZE;
     if (listSize == 0) {
       command.setResponse(Coder.getEmptyArrayResponse(context.getByteBufAllocator()));
       return;
@@ -81,6 +90,10 @@ public class LRangeExecutor extends ListExecutor {
     redisStart = Math.min(redisStart, listSize - 1);
     redisStop = Math.min(redisStop, listSize - 1);
 
+    if (list != null) {
+      respondBulkStrings(command, context, list.range(redisStart, redisStop));
+      return;
+    }
 
     List<Struct> range;
     try {
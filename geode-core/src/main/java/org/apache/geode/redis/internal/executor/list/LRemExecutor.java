@@ -26,6 +26,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 import org.apache.geode.redis.internal.executor.ListQuery;
 
 public class LRemExecutor extends ListExecutor {
@@ -51,9 +52,15 @@ public class LRemExecutor extends ListExecutor {
 
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
-    Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
+    RedisList list = null;
+    Region<Integer, ByteArrayWrapper> keyRegion = null;
+    if (hasListEntries(context)) {
+      list = getListEntry(context, key);
+    } else {
+      keyRegion = getRegion(context, key);
+    }
 
-    if (keyRegion == null) {
+    if (list == null && keyRegion == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
       return;
     }
@@ -65,6 +72,15 @@ public class LRemExecutor extends ListExecutor {
       return;
     }
 
+    if (list != null) {
+      ByteArrayWrapper element = new ByteArrayWrapper(value);
+      int removeCount = count;
+      int numRemoved =
+          updateListEntry(context, key, listEntry -> listEntry.remove(element, removeCount));
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numRemoved));
+      return;
+    }
+
     List<Struct> removeList;
     try {
       removeList = getRemoveList(context, key, new ByteArrayWrapper(value), count);
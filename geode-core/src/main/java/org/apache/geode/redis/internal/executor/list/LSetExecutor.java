@@ -25,6 +25,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 import org.apache.geode.redis.internal.executor.ListQuery;
 
 public class LSetExecutor extends ListExecutor {
@@ -53,9 +54,15 @@ public class LSetExecutor extends ListExecutor {
 
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
-    Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
+    RedisList list = null;
+    Region<Integer, ByteArrayWrapper> keyRegion = null;
+    if (hasListEntries(context)) {
+      list = getListEntry(context, key);
+    } else {
+      keyRegion = getRegion(context, key);
+    }
 
-    if (keyRegion == null) {
+    if (list == null && keyRegion == null) {
       command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_INDEX));
       return;
     }
@@ -67,7 +74,7 @@ public class LSetExecutor extends ListExecutor {
       return;
     }
 
-    int listSize = keyRegion.size() - LIST_EMPTY_SIZE;
+    int listSize = list != null ? list.size() : keyRegion.size() - LIST_EMPTY_SIZE;
     if (index < 0)
       index += listSize;
     if (index < 0 || index > listSize) {
@@ -75,6 +82,24 @@ public class LSetExecutor extends ListExecutor {
       return;
     }
 
+    if (list != null) {
+      ByteArrayWrapper element = new ByteArrayWrapper(value);
+      int setIndex = index;
+      boolean isSet = updateListEntry(context, key, listEntry -> {
+        if (setIndex >= listEntry.size()) {
+          return false;
+        }
+        listEntry.set(setIndex, element);
+        return true;
+      });
+      if (isSet) {
+        command.setResponse(Coder.getSimpleStringResponse(context.getByteBufAllocator(), SUCCESS));
+      } else {
+        command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_INDEX));
+      }
+      return;
+    }
+
     Integer indexKey;
     try {
       indexKey = getIndexKey(context, key, index);
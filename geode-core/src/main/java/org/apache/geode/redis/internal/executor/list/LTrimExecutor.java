@@ -25,6 +25,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 import org.apache.geode.redis.internal.executor.ListQuery;
 
 public class LTrimExecutor extends ListExecutor {
@@ -53,15 +54,21 @@ public class LTrimExecutor extends ListExecutor {
 
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
-    Region keyRegion = getRegion(context, key);
+    RedisList list = null;
+    Region keyRegion = null;
+    if (hasListEntries(context)) {
+      list = getListEntry(context, key);
+    } else {
+      keyRegion = getRegion(context, key);
+    }
 
-    if (keyRegion == null) {
+    if (list == null && keyRegion == null) {
       command
           .setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_KEY_NOT_EXISTS));
       return;
     }
 
-    int listSize = keyRegion.size() - LIST_EMPTY_SIZE;
+    int listSize = list != null ? list.size() : keyRegion.size() - LIST_EMPTY_SIZE;
     if (listSize == 0) {
       command.setResponse(Coder.getSimpleStringResponse(context.getByteBufAllocator(), SUCCESS));
       return;
@@ -89,6 +96,18 @@ public class LTrimExecutor extends ListExecutor {
       return;
     }
 
+    if (list != null) {
+      int start = redisStart;
+      int stop = redisStop;
+      updateListEntry(context, key, listEntry -> {
+        // the list may have changed size since the indexes were bounded
+        listEntry.trim(start, Math.min(stop, listEntry.size() - 1));
+        return null;
+      });
+      command.setResponse(Coder.getSimpleStringResponse(context.getByteBufAllocator(), SUCCESS));
+      return;
+    }
+
     List<Integer> keepList;
     try {
       keepList = getRange(context, key, redisStart, redisStop, keyRegion);
@@ -15,13 +15,16 @@
 package org.apache.geode.redis.internal.executor.list;
 
 import java.util.List;
+import java.util.function.Function;
 
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
+import org.apache.geode.redis.internal.RedisCollection;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
 public abstract class ListExecutor extends AbstractExecutor {
@@ -50,6 +53,49 @@ public abstract class ListExecutor extends AbstractExecutor {
     return (Region<Integer, ByteArrayWrapper>) context.getRegionProvider().getRegion(key);
   }
 
+  /**
+   * Returns whether lists are stored as single {@link RedisList} entries rather than in a Region
+   * of their own
+   */
+  protected boolean hasListEntries(ExecutionHandlerContext context) {
+    return context.getRegionProvider().hasCollectionRegion();
+  }
+
+  /**
+   * Gets a list stored as a single entry. The list returned must not be modified.
+   *
+   * @return The list, or null if it does not exist
+   */
+  protected RedisList getListEntry(ExecutionHandlerContext context, ByteArrayWrapper key) {
+    RedisCollection collection = context.getRegionProvider().getCollection(key);
+    return collection instanceof RedisList ? (RedisList) collection : null;
+  }
+
+  /**
+   * Changes a list stored as a single entry, creating it if it does not exist
+   *
+   * @return The result of the update
+   */
+  protected <R> R updateListEntry(ExecutionHandlerContext context, ByteArrayWrapper key,
+      Function<RedisList, R> update) {
+    return context.getRegionProvider().updateCollection(key, RedisDataType.REDIS_LIST, update);
+  }
+
+  /**
+   * Pushes elements onto a list stored as a single entry, creating the list if it does not exist
+   *
+   * @return The size of the list after the push
+   */
+  protected int pushElementEntries(ExecutionHandlerContext context, ByteArrayWrapper key,
+      List<byte[]> commandElems, int startIndex, int endIndex, ListDirection pushType) {
+    return updateListEntry(context, key, list -> {
+      for (int i = startIndex; i < endIndex; i++) {
+        list.push(pushType == ListDirection.LEFT, new ByteArrayWrapper(commandElems.get(i)));
+      }
+      return list.size();
+    });
+  }
+
   /**
    * Helper method to be used by the push commands to push elements onto a list. Because our current
    * setup requires non trivial code to push elements in to a Region, I wanted all the push code to
@@ -38,6 +38,15 @@ public abstract class PopExecutor extends ListExecutor implements Extendable {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
+    if (hasListEntries(context)) {
+      ByteArrayWrapper popped = null;
+      if (getListEntry(context, key) != null) {
+        boolean head = popType() == ListDirection.LEFT;
+        popped = updateListEntry(context, key, list -> list.pop(head));
+      }
+      respondBulkStrings(command, context, popped);
+      return;
+    }
     Region keyRegion = getRegion(context, key);
 
     if (keyRegion == null || keyRegion.size() == LIST_EMPTY_SIZE) {
@@ -41,6 +41,13 @@ public abstract class PushExecutor extends PushXExecutor implements Extendable {
 
     ByteArrayWrapper key = command.getKey();
 
+    if (hasListEntries(context)) {
+      int listSize = pushElementEntries(context, key, commandElems, START_VALUES_INDEX,
+          commandElems.size(), pushType());
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), listSize));
+      return;
+    }
+
     Region<Integer, ByteArrayWrapper> keyRegion =
         getOrCreateRegion(context, key, RedisDataType.REDIS_LIST);
     pushElements(key, commandElems, START_VALUES_INDEX, commandElems.size(), keyRegion, pushType(),
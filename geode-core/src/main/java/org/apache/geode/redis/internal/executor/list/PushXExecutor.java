@@ -39,6 +39,16 @@ public abstract class PushXExecutor extends ListExecutor implements Extendable {
 
     ByteArrayWrapper key = command.getKey();
 
+    if (hasListEntries(context)) {
+      checkDataType(key, RedisDataType.REDIS_LIST, context);
+      int listSize = NOT_EXISTS;
+      if (getListEntry(context, key) != null) {
+        listSize = pushElementEntries(context, key, commandElems, 2, 3, pushType());
+      }
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), listSize));
+      return;
+    }
+
     Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
     if (keyRegion == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
@@ -18,7 +18,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
@@ -38,19 +37,17 @@ public class SAddExecutor extends SetExecutor {
     }
 
     ByteArrayWrapper key = command.getKey();
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> keyRegion = (Region<ByteArrayWrapper, Boolean>) context
-        .getRegionProvider().getOrCreateRegion(key, RedisDataType.REDIS_SET, context);
+    Map<ByteArrayWrapper, Boolean> set = getOrCreateSet(context, key);
 
     if (commandElems.size() >= 4) {
       Map<ByteArrayWrapper, Boolean> entries = new HashMap<ByteArrayWrapper, Boolean>();
       for (int i = 2; i < commandElems.size(); i++)
         entries.put(new ByteArrayWrapper(commandElems.get(i)), true);
 
-      keyRegion.putAll(entries);
+      set.putAll(entries);
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), entries.size()));
     } else {
-      Object v = keyRegion.put(new ByteArrayWrapper(commandElems.get(2)), true);
+      Object v = set.put(new ByteArrayWrapper(commandElems.get(2)), true);
       command
           .setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), v == null ? 1 : 0));
     }
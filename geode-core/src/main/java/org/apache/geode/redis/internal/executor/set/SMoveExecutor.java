@@ -15,8 +15,8 @@
 package org.apache.geode.redis.internal.executor.set;
 
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
@@ -45,28 +45,23 @@ public class SMoveExecutor extends SetExecutor {
 
     checkDataType(source, RedisDataType.REDIS_SET, context);
     checkDataType(destination, RedisDataType.REDIS_SET, context);
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> sourceRegion =
-        (Region<ByteArrayWrapper, Boolean>) context.getRegionProvider().getRegion(source);
+    Map<ByteArrayWrapper, Boolean> sourceSet = getSet(context, source);
 
-    if (sourceRegion == null) {
+    if (sourceSet == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_MOVED));
       return;
     }
 
-    Object oldVal = sourceRegion.get(mem);
-    sourceRegion.remove(mem);
+    Object oldVal = sourceSet.get(mem);
+    sourceSet.remove(mem);
 
     if (oldVal == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_MOVED));
       return;
     }
 
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> destinationRegion =
-        (Region<ByteArrayWrapper, Boolean>) getOrCreateRegion(context, destination,
-            RedisDataType.REDIS_SET);
-    destinationRegion.put(mem, true);
+    Map<ByteArrayWrapper, Boolean> destinationSet = getOrCreateSet(context, destination);
+    destinationSet.put(mem, true);
 
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), MOVED));
   }
@@ -15,9 +15,9 @@
 package org.apache.geode.redis.internal.executor.set;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
@@ -36,22 +36,20 @@ public class SPopExecutor extends SetExecutor {
     }
 
     ByteArrayWrapper key = command.getKey();
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> keyRegion =
-        (Region<ByteArrayWrapper, Boolean>) context.getRegionProvider().getRegion(key);
-    if (keyRegion == null || keyRegion.isEmpty()) {
+    Map<ByteArrayWrapper, Boolean> set = getSet(context, key);
+    if (set == null || set.isEmpty()) {
       command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
       return;
     }
 
     Random rand = new Random();
 
-    ByteArrayWrapper[] entries = keyRegion.keySet().toArray(new ByteArrayWrapper[keyRegion.size()]);
+    ByteArrayWrapper[] entries = set.keySet().toArray(new ByteArrayWrapper[set.size()]);
 
     ByteArrayWrapper pop = entries[rand.nextInt(entries.length)];
 
-    keyRegion.remove(pop);
-    if (keyRegion.isEmpty()) {
+    set.remove(pop);
+    if (set.isEmpty()) {
       context.getRegionProvider().removeKey(key);
     }
 
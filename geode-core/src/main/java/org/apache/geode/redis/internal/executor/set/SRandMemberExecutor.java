@@ -17,10 +17,10 @@ package org.apache.geode.redis.internal.executor.set;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
@@ -42,9 +42,7 @@ public class SRandMemberExecutor extends SetExecutor {
     }
 
     ByteArrayWrapper key = command.getKey();
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> keyRegion =
-        (Region<ByteArrayWrapper, Boolean>) context.getRegionProvider().getRegion(key);
+    Map<ByteArrayWrapper, Boolean> set = getSet(context, key);
 
     int count = 1;
 
@@ -58,21 +56,21 @@ public class SRandMemberExecutor extends SetExecutor {
       }
     }
 
-    if (keyRegion == null || count == 0) {
+    if (set == null || count == 0) {
       command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
       return;
     }
 
-    int members = keyRegion.size();
+    int members = set.size();
 
     if (members <= count && count != 1) {
-      respondBulkStrings(command, context, new HashSet<ByteArrayWrapper>(keyRegion.keySet()));
+      respondBulkStrings(command, context, new HashSet<ByteArrayWrapper>(set.keySet()));
       return;
     }
 
     Random rand = new Random();
 
-    ByteArrayWrapper[] entries = keyRegion.keySet().toArray(new ByteArrayWrapper[members]);
+    ByteArrayWrapper[] entries = set.keySet().toArray(new ByteArrayWrapper[members]);
 
     if (count == 1) {
       ByteArrayWrapper randEntry = entries[rand.nextInt(entries.length)];
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal.executor.set;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.geode.redis.internal.ByteArrayWrapper;
+import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSet;
+import org.apache.geode.redis.internal.RegionProvider;
+
+/**
+ * A Map of the members of a set that is stored as a single {@link RedisSet} entry to
+ * {@link Boolean#TRUE}, the way they are stored when each set has a Region of its own, so that the
+ * set executors work the same way for both. Reads see the set as it was when the map was created
+ * or last changed through it, and each change is applied to the entry with
+ * {@link RegionProvider#updateCollection}.
+ */
+class SetEntryMap extends AbstractMap<ByteArrayWrapper, Boolean> {
+
+  private final RegionProvider regionProvider;
+
+  private final ByteArrayWrapper key;
+
+  private Set<ByteArrayWrapper> members;
+
+  SetEntryMap(RegionProvider regionProvider, ByteArrayWrapper key, RedisSet set) {
+    this.regionProvider = regionProvider;
+    this.key = key;
+    this.members = set == null ? Collections.emptySet() : set.getMembers();
+  }
+
+  @Override
+  public Set<Entry<ByteArrayWrapper, Boolean>> entrySet() {
+    return this.members.stream().map(member -> new SimpleImmutableEntry<>(member, Boolean.TRUE))
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Set<ByteArrayWrapper> keySet() {
+    return this.members;
+  }
+
+  @Override
+  public int size() {
+    return this.members.size();
+  }
+
+  @Override
+  public boolean containsKey(Object member) {
+    return this.members.contains(member);
+  }
+
+  @Override
+  public Boolean get(Object member) {
+    return this.members.contains(member) ? Boolean.TRUE : null;
+  }
+
+  @Override
+  public Boolean put(ByteArrayWrapper member, Boolean value) {
+    return update(set -> set.add(member) ? null : Boolean.TRUE);
+  }
+
+  @Override
+  public void putAll(Map<? extends ByteArrayWrapper, ? extends Boolean> map) {
+    update(set -> {
+      for (ByteArrayWrapper member : map.keySet()) {
+        set.add(member);
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public Boolean remove(Object member) {
+    if (this.members.isEmpty()) {
+      return null;
+    }
+    return update(set -> set.remove((ByteArrayWrapper) member) ? Boolean.TRUE : null);
+  }
+
+  private <R> R update(Function<RedisSet, R> update) {
+    return this.regionProvider.updateCollection(this.key, RedisDataType.REDIS_SET,
+        (RedisSet set) -> {
+          R result = update.apply(set);
+          this.members = set.getMembers();
+          return result;
+        });
+  }
+}
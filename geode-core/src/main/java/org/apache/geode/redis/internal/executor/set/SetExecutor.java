@@ -14,8 +14,54 @@
  */
 package org.apache.geode.redis.internal.executor.set;
 
+import java.util.Map;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.redis.internal.ByteArrayWrapper;
+import org.apache.geode.redis.internal.ExecutionHandlerContext;
+import org.apache.geode.redis.internal.RedisCollection;
+import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSet;
+import org.apache.geode.redis.internal.RegionProvider;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
 public abstract class SetExecutor extends AbstractExecutor {
 
+  /**
+   * Gets the members of a set, mapped to true, creating the set if it does not exist. The set is
+   * either its own {@link Region} or, if collections are stored as entries, a {@link SetEntryMap}.
+   */
+  @SuppressWarnings("unchecked")
+  protected Map<ByteArrayWrapper, Boolean> getOrCreateSet(ExecutionHandlerContext context,
+      ByteArrayWrapper key) {
+    RegionProvider regionProvider = context.getRegionProvider();
+    if (regionProvider.hasCollectionRegion()) {
+      checkDataType(key, RedisDataType.REDIS_SET, context);
+      return new SetEntryMap(regionProvider, key, getSetEntry(regionProvider, key));
+    }
+    return (Map<ByteArrayWrapper, Boolean>) regionProvider.getOrCreateRegion(key,
+        RedisDataType.REDIS_SET, context);
+  }
+
+  /**
+   * Gets the members of a set, mapped to true
+   *
+   * @return The members, or null if the set does not exist
+   */
+  @SuppressWarnings("unchecked")
+  protected static Map<ByteArrayWrapper, Boolean> getSet(ExecutionHandlerContext context,
+      ByteArrayWrapper key) {
+    RegionProvider regionProvider = context.getRegionProvider();
+    if (regionProvider.hasCollectionRegion()) {
+      RedisSet set = getSetEntry(regionProvider, key);
+      return set == null ? null : new SetEntryMap(regionProvider, key, set);
+    }
+    return (Map<ByteArrayWrapper, Boolean>) regionProvider.getRegion(key);
+  }
+
+  private static RedisSet getSetEntry(RegionProvider regionProvider, ByteArrayWrapper key) {
+    RedisCollection collection = regionProvider.getCollection(key);
+    return collection instanceof RedisSet ? (RedisSet) collection : null;
+  }
+
 }
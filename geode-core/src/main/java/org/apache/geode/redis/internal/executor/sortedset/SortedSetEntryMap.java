@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal.executor.sortedset;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.geode.redis.internal.ByteArrayWrapper;
+import org.apache.geode.redis.internal.DoubleWrapper;
+import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
+import org.apache.geode.redis.internal.RegionProvider;
+
+/**
+ * A Map of the members of a sorted set that is stored as a single {@link RedisSortedSet} entry to
+ * their scores, so that the sorted set executors work the same way whether or not each sorted set
+ * has a Region of its own. The executors that would otherwise query the Region use the rank and
+ * range methods instead. Reads see the sorted set as it was when the map was created or last
+ * changed through it, and each change is applied to the entry with
+ * {@link RegionProvider#updateCollection}.
+ */
+class SortedSetEntryMap extends AbstractMap<ByteArrayWrapper, DoubleWrapper> {
+
+  private final RegionProvider regionProvider;
+
+  private final ByteArrayWrapper key;
+
+  private RedisSortedSet sortedSet;
+
+  SortedSetEntryMap(RegionProvider regionProvider, ByteArrayWrapper key,
+      RedisSortedSet sortedSet) {
+    this.regionProvider = regionProvider;
+    this.key = key;
+    this.sortedSet = sortedSet == null ? new RedisSortedSet() : sortedSet;
+  }
+
+  @Override
+  public Set<Entry<ByteArrayWrapper, DoubleWrapper>> entrySet() {
+    return this.sortedSet.getScores().entrySet().stream()
+        .map(e -> new SimpleImmutableEntry<>(e.getKey(), new DoubleWrapper(e.getValue())))
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Set<ByteArrayWrapper> keySet() {
+    return this.sortedSet.getScores().keySet();
+  }
+
+  @Override
+  public int size() {
+    return this.sortedSet.size();
+  }
+
+  @Override
+  public boolean containsKey(Object member) {
+    return this.sortedSet.getScores().containsKey(member);
+  }
+
+  @Override
+  public DoubleWrapper get(Object member) {
+    return toDoubleWrapper(this.sortedSet.getScores().get(member));
+  }
+
+  @Override
+  public DoubleWrapper put(ByteArrayWrapper member, DoubleWrapper score) {
+    return update(sortedSet -> toDoubleWrapper(sortedSet.add(member, score.score)));
+  }
+
+  @Override
+  public void putAll(Map<? extends ByteArrayWrapper, ? extends DoubleWrapper> map) {
+    update(sortedSet -> {
+      for (Entry<? extends ByteArrayWrapper, ? extends DoubleWrapper> e : map.entrySet()) {
+        sortedSet.add(e.getKey(), e.getValue().score);
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public DoubleWrapper remove(Object member) {
+    if (this.sortedSet.isEmpty()) {
+      return null;
+    }
+    return update(sortedSet -> toDoubleWrapper(sortedSet.remove((ByteArrayWrapper) member)));
+  }
+
+  /**
+   * @see RedisSortedSet#rank
+   */
+  int rank(ByteArrayWrapper member, boolean reverse) {
+    return this.sortedSet.rank(member, reverse);
+  }
+
+  /**
+   * @see RedisSortedSet#range
+   */
+  List<Entry<ByteArrayWrapper, DoubleWrapper>> range(int start, int stop, boolean reverse) {
+    return this.sortedSet.range(start, stop, reverse);
+  }
+
+  /**
+   * @see RedisSortedSet#count
+   */
+  int count(double min, boolean minInclusive, double max, boolean maxInclusive) {
+    return this.sortedSet.count(min, minInclusive, max, maxInclusive);
+  }
+
+  /**
+   * @see RedisSortedSet#rangeByScore
+   */
+  List<Entry<ByteArrayWrapper, DoubleWrapper>> rangeByScore(double min, boolean minInclusive,
+      double max, boolean maxInclusive, int offset, int limit, boolean reverse) {
+    return this.sortedSet.rangeByScore(min, minInclusive, max, maxInclusive, offset, limit,
+        reverse);
+  }
+
+  /**
+   * @see RedisSortedSet#rangeByLex
+   */
+  List<ByteArrayWrapper> rangeByLex(ByteArrayWrapper min, boolean minInclusive,
+      ByteArrayWrapper max, boolean maxInclusive, int offset, int limit) {
+    return this.sortedSet.rangeByLex(min, minInclusive, max, maxInclusive, offset, limit);
+  }
+
+  /**
+   * Removes the members from rank start to rank stop in one update
+   *
+   * @return The number of members removed
+   */
+  int removeRange(int start, int stop) {
+    return update(sortedSet -> sortedSet.removeRange(start, stop));
+  }
+
+  /**
+   * Removes the members with a score from min to max in one update
+   *
+   * @return The number of members removed
+   */
+  int removeRangeByScore(double min, boolean minInclusive, double max, boolean maxInclusive) {
+    return update(
+        sortedSet -> sortedSet.removeRangeByScore(min, minInclusive, max, maxInclusive));
+  }
+
+  /**
+   * Removes members in one update
+   *
+   * @return The number of members removed
+   */
+  int removeAll(Collection<ByteArrayWrapper> members) {
+    if (this.sortedSet.isEmpty()) {
+      return 0;
+    }
+    return update(sortedSet -> {
+      int removed = 0;
+      for (ByteArrayWrapper member : members) {
+        if (sortedSet.remove(member) != null) {
+          removed++;
+        }
+      }
+      return removed;
+    });
+  }
+
+  private static DoubleWrapper toDoubleWrapper(Double score) {
+    return score == null ? null : new DoubleWrapper(score);
+  }
+
+  private <R> R update(Function<RedisSortedSet, R> update) {
+    return this.regionProvider.updateCollection(this.key, RedisDataType.REDIS_SORTEDSET,
+        (RedisSortedSet sortedSet) -> {
+          R result = update.apply(sortedSet);
+          this.sortedSet = sortedSet;
+          return result;
+        });
+  }
+}
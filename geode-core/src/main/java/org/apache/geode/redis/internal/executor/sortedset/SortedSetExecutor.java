@@ -14,12 +14,17 @@
  */
 package org.apache.geode.redis.internal.executor.sortedset;
 
+import java.util.Map;
+
 import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
+import org.apache.geode.redis.internal.RedisCollection;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
+import org.apache.geode.redis.internal.RegionProvider;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
 public abstract class SortedSetExecutor extends AbstractExecutor {
@@ -27,21 +32,45 @@ public abstract class SortedSetExecutor extends AbstractExecutor {
   final ByteArrayWrapper minus = new ByteArrayWrapper(Coder.stringToBytes("-"));
   final ByteArrayWrapper plus = new ByteArrayWrapper(Coder.stringToBytes("+"));
 
-  @Override
-  protected Region<ByteArrayWrapper, DoubleWrapper> getOrCreateRegion(
-      ExecutionHandlerContext context, ByteArrayWrapper key, RedisDataType type) {
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, DoubleWrapper> r = (Region<ByteArrayWrapper, DoubleWrapper>) context
-        .getRegionProvider().getOrCreateRegion(key, type, context);
-    return r;
+  /**
+   * Gets the scores of the members of a sorted set, creating the sorted set if it does not exist.
+   * The sorted set is either its own {@link Region} or, if collections are stored as entries, a
+   * {@link SortedSetEntryMap}.
+   */
+  @SuppressWarnings("unchecked")
+  protected Map<ByteArrayWrapper, DoubleWrapper> getOrCreateSortedSet(
+      ExecutionHandlerContext context, ByteArrayWrapper key) {
+    RegionProvider regionProvider = context.getRegionProvider();
+    if (regionProvider.hasCollectionRegion() && regionProvider.getRegion(key) == null) {
+      checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
+      return new SortedSetEntryMap(regionProvider, key, getSortedSetEntry(regionProvider, key));
+    }
+    return (Map<ByteArrayWrapper, DoubleWrapper>) regionProvider.getOrCreateRegion(key,
+        RedisDataType.REDIS_SORTEDSET, context);
+  }
+
+  /**
+   * Gets the scores of the members of a sorted set. A sorted set added by GEOADD is always a
+   * {@link Region}.
+   *
+   * @return The scores, or null if the sorted set does not exist
+   */
+  @SuppressWarnings("unchecked")
+  protected static Map<ByteArrayWrapper, DoubleWrapper> getSortedSet(
+      ExecutionHandlerContext context, ByteArrayWrapper key) {
+    RegionProvider regionProvider = context.getRegionProvider();
+    Region<?, ?> region = regionProvider.getRegion(key);
+    if (region == null && regionProvider.hasCollectionRegion()) {
+      RedisSortedSet sortedSet = getSortedSetEntry(regionProvider, key);
+      return sortedSet == null ? null : new SortedSetEntryMap(regionProvider, key, sortedSet);
+    }
+    return (Map<ByteArrayWrapper, DoubleWrapper>) region;
   }
 
-  protected Region<ByteArrayWrapper, DoubleWrapper> getRegion(ExecutionHandlerContext context,
+  private static RedisSortedSet getSortedSetEntry(RegionProvider regionProvider,
       ByteArrayWrapper key) {
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, DoubleWrapper> r =
-        (Region<ByteArrayWrapper, DoubleWrapper>) context.getRegionProvider().getRegion(key);
-    return r;
+    RedisCollection collection = regionProvider.getCollection(key);
+    return collection instanceof RedisSortedSet ? (RedisSortedSet) collection : null;
   }
 
 }
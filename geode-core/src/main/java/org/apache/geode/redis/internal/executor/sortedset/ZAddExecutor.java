@@ -18,14 +18,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
-import org.apache.geode.redis.internal.RedisDataType;
 
 public class ZAddExecutor extends SortedSetExecutor {
 
@@ -62,9 +60,8 @@ public class ZAddExecutor extends SortedSetExecutor {
         map.put(new ByteArrayWrapper(memberArray), new DoubleWrapper(score));
         numberOfAdds++;
       }
-      Region<ByteArrayWrapper, DoubleWrapper> keyRegion =
-          getOrCreateRegion(context, key, RedisDataType.REDIS_SORTEDSET);
-      keyRegion.putAll(map);
+      Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getOrCreateSortedSet(context, key);
+      sortedSet.putAll(map);
     } else {
       byte[] scoreArray = commandElems.get(2);
       byte[] memberArray = commandElems.get(3);
@@ -76,9 +73,8 @@ public class ZAddExecutor extends SortedSetExecutor {
             Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_NOT_NUMERICAL));
         return;
       }
-      Region<ByteArrayWrapper, DoubleWrapper> keyRegion =
-          getOrCreateRegion(context, key, RedisDataType.REDIS_SORTEDSET);
-      Object oldVal = keyRegion.put(new ByteArrayWrapper(memberArray), new DoubleWrapper(score));
+      Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getOrCreateSortedSet(context, key);
+      Object oldVal = sortedSet.put(new ByteArrayWrapper(memberArray), new DoubleWrapper(score));
 
       if (oldVal == null)
         numberOfAdds = 1;
@@ -15,8 +15,8 @@
 package org.apache.geode.redis.internal.executor.sortedset;
 
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.Query;
@@ -49,10 +49,10 @@ public class ZCountExecutor extends SortedSetExecutor {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getSortedSet(context, key);
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
 
-    if (keyRegion == null) {
+    if (sortedSet == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
       return;
     }
@@ -87,7 +87,7 @@ public class ZCountExecutor extends SortedSetExecutor {
 
     int count;
     try {
-      count = getCount(key, keyRegion, context, start, stop, startInclusive, stopInclusive);
+      count = getCount(key, sortedSet, context, start, stop, startInclusive, stopInclusive);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -96,14 +96,16 @@ public class ZCountExecutor extends SortedSetExecutor {
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), count));
   }
 
-  private int getCount(ByteArrayWrapper key, Region<ByteArrayWrapper, DoubleWrapper> keyRegion,
+  private int getCount(ByteArrayWrapper key, Map<ByteArrayWrapper, DoubleWrapper> sortedSet,
       ExecutionHandlerContext context, double start, double stop, boolean startInclusive,
       boolean stopInclusive) throws FunctionDomainException, TypeMismatchException,
       NameResolutionException, QueryInvocationTargetException {
     if (start == Double.NEGATIVE_INFINITY && stop == Double.POSITIVE_INFINITY)
-      return keyRegion.size();
+      return sortedSet.size();
     else if (start == Double.POSITIVE_INFINITY || stop == Double.NEGATIVE_INFINITY)
       return 0;
+    if (sortedSet instanceof SortedSetEntryMap)
+      return ((SortedSetEntryMap) sortedSet).count(start, startInclusive, stop, stopInclusive);
 
     Query query;
     Object[] params;
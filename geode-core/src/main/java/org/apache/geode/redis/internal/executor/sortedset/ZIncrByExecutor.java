@@ -15,15 +15,14 @@
 package org.apache.geode.redis.internal.executor.sortedset;
 
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
-import org.apache.geode.redis.internal.RedisDataType;
 
 public class ZIncrByExecutor extends SortedSetExecutor {
 
@@ -41,8 +40,7 @@ public class ZIncrByExecutor extends SortedSetExecutor {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion =
-        getOrCreateRegion(context, key, RedisDataType.REDIS_SORTEDSET);
+    Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getOrCreateSortedSet(context, key);
 
     ByteArrayWrapper member = new ByteArrayWrapper(commandElems.get(3));
 
@@ -56,10 +54,10 @@ public class ZIncrByExecutor extends SortedSetExecutor {
       return;
     }
 
-    DoubleWrapper score = keyRegion.get(member);
+    DoubleWrapper score = sortedSet.get(member);
 
     if (score == null) {
-      keyRegion.put(member, new DoubleWrapper(incr));
+      sortedSet.put(member, new DoubleWrapper(incr));
       respondBulkStrings(command, context, incr);
       return;
     }
@@ -69,7 +67,7 @@ public class ZIncrByExecutor extends SortedSetExecutor {
       return;
     }
     score.score = result;
-    keyRegion.put(member, score);
+    sortedSet.put(member, score);
     respondBulkStrings(command, context, score.score);
   }
 
@@ -15,8 +15,8 @@
 package org.apache.geode.redis.internal.executor.sortedset;
 
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
@@ -47,10 +47,10 @@ public class ZLexCountExecutor extends SortedSetExecutor {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getSortedSet(context, key);
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
 
-    if (keyRegion == null) {
+    if (sortedSet == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
       return;
     }
@@ -90,7 +90,7 @@ public class ZLexCountExecutor extends SortedSetExecutor {
 
     int count;
     try {
-      count = getCount(key, keyRegion, context, Coder.stringToByteArrayWrapper(startString),
+      count = getCount(key, sortedSet, context, Coder.stringToByteArrayWrapper(startString),
           Coder.stringToByteArrayWrapper(stopString), minInclusive, maxInclusive);
     } catch (Exception e) {
       command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), e.toString()));
@@ -100,13 +100,16 @@ public class ZLexCountExecutor extends SortedSetExecutor {
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), count));
   }
 
-  private int getCount(ByteArrayWrapper key, Region<ByteArrayWrapper, DoubleWrapper> keyRegion,
+  private int getCount(ByteArrayWrapper key, Map<ByteArrayWrapper, DoubleWrapper> sortedSet,
       ExecutionHandlerContext context, ByteArrayWrapper start, ByteArrayWrapper stop,
       boolean startInclusive, boolean stopInclusive) throws Exception {
     if (start.equals(minus) && stop.equals(plus))
-      return keyRegion.size();
+      return sortedSet.size();
     else if (start.equals(plus) || stop.equals(minus))
       return 0;
+    if (sortedSet instanceof SortedSetEntryMap)
+      return ((SortedSetEntryMap) sortedSet).rangeByLex(start.equals(minus) ? null : start,
+          startInclusive, stop.equals(plus) ? null : stop, stopInclusive, 0, 0).size();
 
     Query query;
     Object[] params;
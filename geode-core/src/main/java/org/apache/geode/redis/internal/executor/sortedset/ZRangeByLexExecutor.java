@@ -19,10 +19,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import io.netty.buffer.ByteBuf;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.Query;
@@ -86,10 +86,9 @@ public class ZRangeByLexExecutor extends SortedSetExecutor {
     }
 
     ByteArrayWrapper key = command.getKey();
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion =
-        getOrCreateRegion(context, key, RedisDataType.REDIS_SORTEDSET);
+    Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getOrCreateSortedSet(context, key);
 
-    if (keyRegion == null) {
+    if (sortedSet == null) {
       command.setResponse(Coder.getEmptyArrayResponse(context.getByteBufAllocator()));
       return;
     }
@@ -127,7 +126,7 @@ public class ZRangeByLexExecutor extends SortedSetExecutor {
     Collection<ByteArrayWrapper> list = null;
     if (!(existsLimit && limit == 0)) {
       try {
-        list = getRange(key, keyRegion, context, Coder.stringToByteArrayWrapper(startString),
+        list = getRange(key, sortedSet, context, Coder.stringToByteArrayWrapper(startString),
             Coder.stringToByteArrayWrapper(stopString), minInclusive, maxInclusive, offset, limit);
       } catch (Exception e) {
         throw new RuntimeException(e);
@@ -140,12 +139,18 @@ public class ZRangeByLexExecutor extends SortedSetExecutor {
   }
 
   private List<ByteArrayWrapper> getRange(ByteArrayWrapper key,
-      Region<ByteArrayWrapper, DoubleWrapper> keyRegion, ExecutionHandlerContext context,
+      Map<ByteArrayWrapper, DoubleWrapper> sortedSet, ExecutionHandlerContext context,
       ByteArrayWrapper start, ByteArrayWrapper stop, boolean startInclusive, boolean stopInclusive,
       int offset, int limit) throws FunctionDomainException, TypeMismatchException,
       NameResolutionException, QueryInvocationTargetException {
+    if (sortedSet instanceof SortedSetEntryMap) {
+      if (start.equals(plus) || stop.equals(minus))
+        return null;
+      return ((SortedSetEntryMap) sortedSet).rangeByLex(start.equals(minus) ? null : start,
+          startInclusive, stop.equals(plus) ? null : stop, stopInclusive, offset, limit);
+    }
     if (start.equals(minus) && stop.equals(plus)) {
-      List<ByteArrayWrapper> l = new ArrayList<ByteArrayWrapper>(keyRegion.keySet());
+      List<ByteArrayWrapper> l = new ArrayList<ByteArrayWrapper>(sortedSet.keySet());
       int size = l.size();
       Collections.sort(l);
       if (limit == 0)
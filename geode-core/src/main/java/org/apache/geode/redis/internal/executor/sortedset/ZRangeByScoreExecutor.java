@@ -17,8 +17,8 @@ package org.apache.geode.redis.internal.executor.sortedset;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.Query;
@@ -98,9 +98,9 @@ public class ZRangeByScoreExecutor extends SortedSetExecutor implements Extendab
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getSortedSet(context, key);
 
-    if (keyRegion == null) {
+    if (sortedSet == null) {
       command.setResponse(Coder.getEmptyArrayResponse(context.getByteBufAllocator()));
       return;
     }
@@ -136,7 +136,7 @@ public class ZRangeByScoreExecutor extends SortedSetExecutor implements Extendab
 
     Collection<?> list;
     try {
-      list = getKeys(key, keyRegion, context, start, stop, startInclusive, stopInclusive, offset,
+      list = getKeys(key, sortedSet, context, start, stop, startInclusive, stopInclusive, offset,
           limit);
     } catch (Exception e) {
       throw new RuntimeException(e);
@@ -149,15 +149,18 @@ public class ZRangeByScoreExecutor extends SortedSetExecutor implements Extendab
   }
 
   private Collection<?> getKeys(ByteArrayWrapper key,
-      Region<ByteArrayWrapper, DoubleWrapper> keyRegion, ExecutionHandlerContext context,
+      Map<ByteArrayWrapper, DoubleWrapper> sortedSet, ExecutionHandlerContext context,
       double start, double stop, boolean startInclusive, boolean stopInclusive, int offset,
       int limit) throws FunctionDomainException, TypeMismatchException, NameResolutionException,
       QueryInvocationTargetException {
     if (start == Double.POSITIVE_INFINITY || stop == Double.NEGATIVE_INFINITY || start > stop
         || (start == stop && (!startInclusive || !stopInclusive)))
       return null;
+    if (sortedSet instanceof SortedSetEntryMap)
+      return ((SortedSetEntryMap) sortedSet).rangeByScore(start, startInclusive, stop,
+          stopInclusive, offset, limit, isReverse());
     if (start == Double.NEGATIVE_INFINITY && stop == Double.POSITIVE_INFINITY)
-      return new HashSet(keyRegion.entrySet());
+      return new HashSet(sortedSet.entrySet());
 
     Query query;
     Object[] params;
@@ -15,8 +15,8 @@
 package org.apache.geode.redis.internal.executor.sortedset;
 
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
@@ -53,9 +53,9 @@ public class ZRangeExecutor extends SortedSetExecutor implements Extendable {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getSortedSet(context, key);
 
-    if (keyRegion == null) {
+    if (sortedSet == null) {
       command.setResponse(Coder.getEmptyArrayResponse(context.getByteBufAllocator()));
       return;
     }
@@ -63,7 +63,7 @@ public class ZRangeExecutor extends SortedSetExecutor implements Extendable {
 
     int start;
     int stop;
-    int sSetSize = keyRegion.size();
+    int sSetSize = sortedSet.size();
 
     try {
       byte[] startArray = commandElems.get(2);
@@ -85,10 +85,14 @@ public class ZRangeExecutor extends SortedSetExecutor implements Extendable {
     if (stop == sSetSize)
       stop--;
     List<?> list;
-    try {
-      list = getRange(context, key, start, stop);
-    } catch (Exception e) {
-      throw new RuntimeException(e);
+    if (sortedSet instanceof SortedSetEntryMap) {
+      list = ((SortedSetEntryMap) sortedSet).range(start, stop, isReverse());
+    } else {
+      try {
+        list = getRange(context, key, start, stop);
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
     }
 
     command.setResponse(Coder.zRangeResponse(context.getByteBufAllocator(), list, withScores));
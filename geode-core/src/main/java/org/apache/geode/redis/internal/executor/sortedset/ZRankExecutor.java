@@ -15,8 +15,8 @@
 package org.apache.geode.redis.internal.executor.sortedset;
 
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
@@ -43,16 +43,25 @@ public class ZRankExecutor extends SortedSetExecutor implements Extendable {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getSortedSet(context, key);
 
-    if (keyRegion == null) {
+    if (sortedSet == null) {
       command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
       return;
     }
 
     ByteArrayWrapper member = new ByteArrayWrapper(commandElems.get(2));
 
-    DoubleWrapper value = keyRegion.get(member);
+    if (sortedSet instanceof SortedSetEntryMap) {
+      int rank = ((SortedSetEntryMap) sortedSet).rank(member, isReverse());
+      if (rank < 0)
+        command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
+      else
+        command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), rank));
+      return;
+    }
+
+    DoubleWrapper value = sortedSet.get(member);
 
     if (value == null) {
       command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
@@ -14,9 +14,10 @@
  */
 package org.apache.geode.redis.internal.executor.sortedset;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
@@ -39,23 +40,31 @@ public class ZRemExecutor extends SortedSetExecutor {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getSortedSet(context, key);
 
-    if (keyRegion == null) {
+    if (sortedSet == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), 0));
       return;
     }
 
     int numDeletedMembers = 0;
 
-    for (int i = 2; i < commandElems.size(); i++) {
-      byte[] memberArray = commandElems.get(i);
-      ByteArrayWrapper member = new ByteArrayWrapper(memberArray);
-      Object oldVal = keyRegion.remove(member);
-      if (oldVal != null)
-        numDeletedMembers++;
+    if (sortedSet instanceof SortedSetEntryMap) {
+      List<ByteArrayWrapper> members = new ArrayList<ByteArrayWrapper>();
+      for (int i = 2; i < commandElems.size(); i++) {
+        members.add(new ByteArrayWrapper(commandElems.get(i)));
+      }
+      numDeletedMembers = ((SortedSetEntryMap) sortedSet).removeAll(members);
+    } else {
+      for (int i = 2; i < commandElems.size(); i++) {
+        byte[] memberArray = commandElems.get(i);
+        ByteArrayWrapper member = new ByteArrayWrapper(memberArray);
+        Object oldVal = sortedSet.remove(member);
+        if (oldVal != null)
+          numDeletedMembers++;
+      }
     }
-    if (keyRegion.isEmpty())
+    if (sortedSet.isEmpty())
       context.getRegionProvider().removeKey(key);
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numDeletedMembers));
   }
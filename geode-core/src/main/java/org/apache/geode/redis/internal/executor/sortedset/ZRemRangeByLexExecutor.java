@@ -17,8 +17,8 @@ package org.apache.geode.redis.internal.executor.sortedset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
@@ -50,9 +50,9 @@ public class ZRemRangeByLexExecutor extends SortedSetExecutor {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getSortedSet(context, key);
 
-    if (keyRegion == null) {
+    if (sortedSet == null) {
       command
           .setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), ERROR_NOT_EXISTS));
       return;
@@ -92,7 +92,7 @@ public class ZRemRangeByLexExecutor extends SortedSetExecutor {
 
     Collection<ByteArrayWrapper> removeList;
     try {
-      removeList = getRange(key, keyRegion, context, Coder.stringToByteArrayWrapper(startString),
+      removeList = getRange(key, sortedSet, context, Coder.stringToByteArrayWrapper(startString),
           Coder.stringToByteArrayWrapper(stopString), minInclusive, maxInclusive);
     } catch (Exception e) {
       throw new RuntimeException(e);
@@ -100,23 +100,31 @@ public class ZRemRangeByLexExecutor extends SortedSetExecutor {
 
     int numRemoved = 0;
 
-    for (ByteArrayWrapper entry : removeList) {
-      Object oldVal = keyRegion.remove(entry);
-      if (oldVal != null)
-        numRemoved++;
+    if (sortedSet instanceof SortedSetEntryMap) {
+      if (removeList != null)
+        numRemoved = ((SortedSetEntryMap) sortedSet).removeAll(removeList);
+    } else {
+      for (ByteArrayWrapper entry : removeList) {
+        Object oldVal = sortedSet.remove(entry);
+        if (oldVal != null)
+          numRemoved++;
+      }
     }
 
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numRemoved));
   }
 
   private Collection<ByteArrayWrapper> getRange(ByteArrayWrapper key,
-      Region<ByteArrayWrapper, DoubleWrapper> keyRegion, ExecutionHandlerContext context,
+      Map<ByteArrayWrapper, DoubleWrapper> sortedSet, ExecutionHandlerContext context,
       ByteArrayWrapper start, ByteArrayWrapper stop, boolean startInclusive, boolean stopInclusive)
       throws Exception {
     if (start.equals(minus) && stop.equals(plus))
-      return new ArrayList<ByteArrayWrapper>(keyRegion.keySet());
+      return new ArrayList<ByteArrayWrapper>(sortedSet.keySet());
     else if (start.equals(plus) || stop.equals(minus))
       return null;
+    if (sortedSet instanceof SortedSetEntryMap)
+      return ((SortedSetEntryMap) sortedSet).rangeByLex(start.equals(minus) ? null : start,
+          startInclusive, stop.equals(plus) ? null : stop, stopInclusive, 0, 0);
 
     Query query;
     Object[] params;
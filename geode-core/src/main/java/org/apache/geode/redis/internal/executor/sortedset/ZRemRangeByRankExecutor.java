@@ -15,8 +15,8 @@
 package org.apache.geode.redis.internal.executor.sortedset;
 
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.cache.Region.Entry;
 import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.SelectResults;
@@ -49,9 +49,9 @@ public class ZRemRangeByRankExecutor extends SortedSetExecutor {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getSortedSet(context, key);
 
-    if (keyRegion == null) {
+    if (sortedSet == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NONE_REMOVED));
       return;
     }
@@ -67,7 +67,7 @@ public class ZRemRangeByRankExecutor extends SortedSetExecutor {
       return;
     }
 
-    int sSetSize = keyRegion.size();
+    int sSetSize = sortedSet.size();
 
     startRank = getBoundedStartIndex(startRank, sSetSize);
     stopRank = getBoundedEndIndex(stopRank, sSetSize);
@@ -83,8 +83,10 @@ public class ZRemRangeByRankExecutor extends SortedSetExecutor {
     List<?> removeList = null;
     try {
       if (startRank == 0 && stopRank == sSetSize - 1) {
-        numRemoved = keyRegion.size();
+        numRemoved = sortedSet.size();
         context.getRegionProvider().removeKey(key);
+      } else if (sortedSet instanceof SortedSetEntryMap) {
+        numRemoved = ((SortedSetEntryMap) sortedSet).removeRange(startRank, stopRank);
       } else {
         removeList = getRemoveKeys(context, key, startRank, stopRank);
       }
@@ -99,11 +101,11 @@ public class ZRemRangeByRankExecutor extends SortedSetExecutor {
           removeKey = (ByteArrayWrapper) ((Entry<?, ?>) entry).getKey();
         else
           removeKey = (ByteArrayWrapper) ((Struct) entry).getFieldValues()[0];
-        Object oldVal = keyRegion.remove(removeKey);
+        Object oldVal = sortedSet.remove(removeKey);
         if (oldVal != null)
           numRemoved++;
       }
-      if (keyRegion.isEmpty())
+      if (sortedSet.isEmpty())
         context.getRegionProvider().removeKey(key);
     }
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numRemoved));
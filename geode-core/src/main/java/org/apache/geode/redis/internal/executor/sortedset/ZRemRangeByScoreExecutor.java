@@ -16,9 +16,9 @@ package org.apache.geode.redis.internal.executor.sortedset;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.Struct;
@@ -50,9 +50,9 @@ public class ZRemRangeByScoreExecutor extends SortedSetExecutor {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    Map<ByteArrayWrapper, DoubleWrapper> sortedSet = getSortedSet(context, key);
 
-    if (keyRegion == null) {
+    if (sortedSet == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
       return;
     }
@@ -89,10 +89,13 @@ public class ZRemRangeByScoreExecutor extends SortedSetExecutor {
     try {
       if (start == Double.NEGATIVE_INFINITY && stop == Double.POSITIVE_INFINITY && startInclusive
           && stopInclusive) {
-        numRemoved = keyRegion.size();
+        numRemoved = sortedSet.size();
         context.getRegionProvider().removeKey(key);
+      } else if (sortedSet instanceof SortedSetEntryMap) {
+        numRemoved = ((SortedSetEntryMap) sortedSet).removeRangeByScore(start, startInclusive, stop,
+            stopInclusive);
       } else {
-        removeList = getKeys(context, key, keyRegion, start, stop, startInclusive, stopInclusive);
+        removeList = getKeys(context, key, sortedSet, start, stop, startInclusive, stopInclusive);
       }
     } catch (Exception e) {
       throw new RuntimeException(e);
@@ -105,10 +108,10 @@ public class ZRemRangeByScoreExecutor extends SortedSetExecutor {
           remove = (ByteArrayWrapper) ((Entry<?, ?>) entry).getKey();
         else if (entry instanceof Struct)
           remove = (ByteArrayWrapper) ((Struct) entry).getFieldValues()[0];
-        Object oldVal = keyRegion.remove(remove);
+        Object oldVal = sortedSet.remove(remove);
         if (oldVal != null)
           numRemoved++;
-        if (keyRegion.isEmpty())
+        if (sortedSet.isEmpty())
           context.getRegionProvider().removeKey(key);
       }
     }
@@ -116,7 +119,7 @@ public class ZRemRangeByScoreExecutor extends SortedSetExecutor {
   }
 
   private Collection<?> getKeys(ExecutionHandlerContext context, ByteArrayWrapper key,
-      Region<ByteArrayWrapper, DoubleWrapper> keyRegion, double start, double stop,
+      Map<ByteArrayWrapper, DoubleWrapper> sortedSet, double start, double stop,
       boolean startInclusive, boolean stopInclusive) throws Exception {
     if (start == Double.POSITIVE_INFINITY || stop == Double.NEGATIVE_INFINITY || (start > stop))
       return null;
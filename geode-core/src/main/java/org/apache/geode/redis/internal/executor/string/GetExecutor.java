@@ -14,15 +14,21 @@
  */
 package org.apache.geode.redis.internal.executor.string;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import org.apache.geode.cache.Region;
+import org.apache.geode.redis.internal.BatchExecutor;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisDataTypeMismatchException;
 
-public class GetExecutor extends StringExecutor {
+public class GetExecutor extends StringExecutor implements BatchExecutor {
 
   @Override
   public void executeCommand(Command command, ExecutionHandlerContext context) {
@@ -41,4 +47,36 @@ public class GetExecutor extends StringExecutor {
     respondBulkStrings(command, context, wrapper);
   }
 
+  @Override
+  public boolean isBatchable(Command command) {
+    return command.getProcessedCommand().size() == 2;
+  }
+
+  /**
+   * Reads the values of all the keys with one {@link Region#getAll}
+   */
+  @Override
+  public void executeCommands(List<Command> commands, ExecutionHandlerContext context) {
+    Region<ByteArrayWrapper, ByteArrayWrapper> r = context.getRegionProvider().getStringsRegion();
+
+    List<ByteArrayWrapper> keys = new ArrayList<ByteArrayWrapper>(commands.size());
+    for (Command command : commands) {
+      ByteArrayWrapper key = command.getKey();
+      try {
+        checkDataType(key, RedisDataType.REDIS_STRING, context);
+        keys.add(key);
+      } catch (RedisDataTypeMismatchException e) {
+        command.setResponse(
+            Coder.getWrongTypeResponse(context.getByteBufAllocator(), e.getMessage()));
+      }
+    }
+    Map<ByteArrayWrapper, ByteArrayWrapper> values = r.getAll(keys);
+
+    for (Command command : commands) {
+      if (command.getResponse() == null) {
+        respondBulkStrings(command, context, values.get(command.getKey()));
+      }
+    }
+  }
+
 }
@@ -89,9 +89,11 @@ public class SetBitExecutor extends StringExecutor {
         returnBit = 0;
 
       if (byteIndex < bytes.length) {
-        bytes[byteIndex] = value == 1 ? (byte) (bytes[byteIndex] | (0x80 >> offset))
-            : (byte) (bytes[byteIndex] & ~(0x80 >> offset));
-        r.put(key, new ByteArrayWrapper(bytes));
+        // The old value is never changed in place, as a response being sent may still refer to it
+        byte[] newBytes = bytes.clone();
+        newBytes[byteIndex] = value == 1 ? (byte) (newBytes[byteIndex] | (0x80 >> offset))
+            : (byte) (newBytes[byteIndex] & ~(0x80 >> offset));
+        r.put(key, new ByteArrayWrapper(newBytes));
       } else {
         byte[] newBytes = new byte[byteIndex + 1];
         System.arraycopy(bytes, 0, newBytes, 0, bytes.length);
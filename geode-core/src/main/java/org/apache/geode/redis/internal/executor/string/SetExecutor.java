@@ -14,17 +14,21 @@
  */
 package org.apache.geode.redis.internal.executor.string;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.geode.cache.Region;
+import org.apache.geode.redis.internal.BatchExecutor;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
+import org.apache.geode.redis.internal.RedisDataTypeMismatchException;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
-public class SetExecutor extends StringExecutor {
+public class SetExecutor extends StringExecutor implements BatchExecutor {
 
   private final String SUCCESS = "OK";
 
@@ -110,6 +114,41 @@ public class SetExecutor extends StringExecutor {
 
   }
 
+  @Override
+  public boolean isBatchable(Command command) {
+    return command.getProcessedCommand().size() == 3;
+  }
+
+  /**
+   * Writes the values of all the keys with one {@link Region#putAll}. When a key is set more than
+   * once the last value wins, as it would if the commands were executed one at a time.
+   */
+  @Override
+  public void executeCommands(List<Command> commands, ExecutionHandlerContext context) {
+    Region<ByteArrayWrapper, ByteArrayWrapper> r = context.getRegionProvider().getStringsRegion();
+
+    Map<ByteArrayWrapper, ByteArrayWrapper> values =
+        new HashMap<ByteArrayWrapper, ByteArrayWrapper>();
+    for (Command command : commands) {
+      ByteArrayWrapper key = command.getKey();
+      try {
+        checkDataType(key, context);
+        checkAndSetDataType(key, context);
+        values.put(key, new ByteArrayWrapper(command.getProcessedCommand().get(VALUE_INDEX)));
+      } catch (RedisDataTypeMismatchException e) {
+        command.setResponse(
+            Coder.getWrongTypeResponse(context.getByteBufAllocator(), e.getMessage()));
+      }
+    }
+    r.putAll(values);
+
+    for (Command command : commands) {
+      if (command.getResponse() == null) {
+        command.setResponse(Coder.getSimpleStringResponse(context.getByteBufAllocator(), SUCCESS));
+      }
+    }
+  }
+
   private boolean setNX(Region<ByteArrayWrapper, ByteArrayWrapper> r, Command command,
       ByteArrayWrapper key, ByteArrayWrapper valueWrapper, ExecutionHandlerContext context) {
     checkAndSetDataType(key, context);
@@ -75,19 +75,13 @@ public class SetRangeExecutor extends StringExecutor {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), bytes.length));
     } else {
 
+      // The old value is never changed in place, as a response being sent may still refer to it
       byte[] bytes = wrapper.toBytes();
-      int returnLength;
-      if (totalLength < bytes.length) {
-        System.arraycopy(value, 0, bytes, offset, value.length);
-        r.put(key, new ByteArrayWrapper(bytes));
-        returnLength = bytes.length;
-      } else {
-        byte[] newBytes = new byte[totalLength];
-        System.arraycopy(bytes, 0, newBytes, 0, bytes.length);
-        System.arraycopy(value, 0, newBytes, offset, value.length);
-        returnLength = newBytes.length;
-        r.put(key, new ByteArrayWrapper(newBytes));
-      }
+      byte[] newBytes = new byte[Math.max(totalLength, bytes.length)];
+      System.arraycopy(bytes, 0, newBytes, 0, bytes.length);
+      System.arraycopy(value, 0, newBytes, offset, value.length);
+      int returnLength = newBytes.length;
+      r.put(key, new ByteArrayWrapper(newBytes));
 
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), returnLength));
     }
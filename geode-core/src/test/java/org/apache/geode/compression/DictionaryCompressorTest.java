@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+public class DictionaryCompressorTest {
+
+  private final DictionaryCompressor compressor =
+      new DictionaryCompressor(4096, 10, 50, Deflater.DEFAULT_COMPRESSION);
+
+  @Test
+  public void valuesRoundTripBeforeADictionaryIsBuilt() {
+    byte[] value = json(1);
+
+    assertThat(this.compressor.decompress(this.compressor.compress(value))).isEqualTo(value);
+    assertThat(this.compressor.getDictionaryVersion()).isZero();
+  }
+
+  @Test
+  public void dictionaryIsBuiltFromSamplesAndCompressesBetter() {
+    byte[] before = this.compressor.compress(json(0));
+    for (int i = 1; i < 10; i++) {
+      this.compressor.compress(json(i));
+    }
+    byte[] after = this.compressor.compress(json(0));
+
+    assertThat(this.compressor.getDictionaryVersion()).isEqualTo(1);
+    assertThat(after.length).isLessThan(before.length);
+    assertThat(this.compressor.decompress(after)).isEqualTo(json(0));
+  }
+
+  @Test
+  public void valuesCompressedWithAnOlderDictionaryCanBeDecompressed() {
+    byte[][] compressed = new byte[200][];
+    for (int i = 0; i < compressed.length; i++) {
+      compressed[i] = this.compressor.compress(i < 100 ? json(i) : otherJson(i));
+    }
+
+    assertThat(this.compressor.getDictionaryVersion()).isGreaterThan(1);
+    for (int i = 0; i < compressed.length; i++) {
+      assertThat(this.compressor.decompress(compressed[i]))
+          .isEqualTo(i < 100 ? json(i) : otherJson(i));
+    }
+  }
+
+  @Test
+  public void incompressibleValueIsStoredAsIs() {
+    byte[] value = new byte[100];
+    new Random(1).nextBytes(value);
+
+    byte[] compressed = this.compressor.compress(value);
+
+    assertThat(compressed.length).isEqualTo(value.length + 3);
+    assertThat(this.compressor.decompress(compressed)).isEqualTo(value);
+  }
+
+  @Test
+  public void emptyValueRoundTrips() {
+    assertThat(this.compressor.decompress(this.compressor.compress(new byte[0]))).isEmpty();
+  }
+
+  @Test
+  public void unknownDictionaryVersionThrows() {
+    byte[] compressed = this.compressor.compress(json(1));
+    compressed[0] = 7;
+
+    assertThatThrownBy(() -> this.compressor.decompress(compressed))
+        .isInstanceOf(CompressionException.class);
+  }
+
+  @Test
+  public void deserializedCompressorIsEqualButHasNoDictionary() {
+    for (int i = 0; i < 10; i++) {
+      this.compressor.compress(json(i));
+    }
+
+    DictionaryCompressor copy = SerializationUtils.clone(this.compressor);
+
+    assertThat(copy).isEqualTo(this.compressor);
+    assertThat(copy.getDictionaryVersion()).isZero();
+    assertThat(copy.decompress(copy.compress(json(3)))).isEqualTo(json(3));
+  }
+
+  @Test
+  public void valuesCompressedConcurrentlyWhileDictionariesAreBuiltCanBeDecompressed()
+      throws Exception {
+    DictionaryCompressor compressor =
+        new DictionaryCompressor(4096, 10, 1, Deflater.DEFAULT_COMPRESSION);
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      CyclicBarrier barrier = new CyclicBarrier(threads);
+      List<Future<byte[][]>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          barrier.await();
+          byte[][] compressed = new byte[2000][];
+          for (int i = 0; i < compressed.length; i++) {
+            compressed[i] = compressor.compress(alternatingJson(i));
+          }
+          return compressed;
+        }));
+      }
+
+      for (Future<byte[][]> future : futures) {
+        byte[][] compressed = future.get();
+        for (int i = 0; i < compressed.length; i++) {
+          assertThat(compressor.decompress(compressed[i])).isEqualTo(alternatingJson(i));
+        }
+      }
+      assertThat(compressor.getDictionaryVersion()).isGreaterThan(1);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static byte[] alternatingJson(int i) {
+    return (i / 10) % 2 == 0 ? json(i) : otherJson(i);
+  }
+
+  private static byte[] json(int i) {
+    return ("{\"id\":" + i + ",\"status\":\"ACTIVE\",\"currency\":\"USD\",\"symbol\":\"SYM" + i % 7
+        + "\",\"price\":" + (100 + i) + ".25,\"exchange\":\"NASDAQ\",\"trader\":\"trader-" + i % 3
+        + "\"}").getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] otherJson(int i) {
+    return ("<order><number>" + i + "</number><customer>customer-" + i % 5
+        + "</customer><region>EMEA</region><priority>HIGH</priority></order>")
+            .getBytes(StandardCharsets.UTF_8);
+  }
+}
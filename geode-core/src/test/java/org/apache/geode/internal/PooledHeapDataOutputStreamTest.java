@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({SerializationTest.class})
+public class PooledHeapDataOutputStreamTest {
+
+  @Test
+  public void closedStreamIsReusedByTheSameThread() {
+    PooledHeapDataOutputStream first = PooledHeapDataOutputStream.acquire(Version.CURRENT);
+    first.writeInt(1);
+    first.close();
+
+    PooledHeapDataOutputStream second = PooledHeapDataOutputStream.acquire(null);
+    assertThat(second).isSameAs(first);
+    assertThat(second.size()).isZero();
+    assertThat(second.getVersion()).isNull();
+    second.close();
+  }
+
+  @Test
+  public void streamIsNotHandedOutTwiceBeforeItIsClosed() {
+    PooledHeapDataOutputStream first = PooledHeapDataOutputStream.acquire(Version.CURRENT);
+    PooledHeapDataOutputStream second = PooledHeapDataOutputStream.acquire(Version.CURRENT);
+    assertThat(second).isNotSameAs(first);
+    second.close();
+    first.close();
+  }
+
+  @Test
+  public void closeOfStreamAlreadyGivenBackIsIgnored() throws Exception {
+    PooledHeapDataOutputStream hdos = PooledHeapDataOutputStream.acquire(Version.CURRENT);
+    hdos.close();
+
+    PooledHeapDataOutputStream other = CompletableFuture.supplyAsync(() -> {
+      hdos.close();
+      return PooledHeapDataOutputStream.acquire(Version.CURRENT);
+    }).get();
+    assertThat(other).isNotSameAs(hdos);
+  }
+
+  @Test
+  public void copiedBytesSurviveReuse() {
+    PooledHeapDataOutputStream hdos = PooledHeapDataOutputStream.acquire(Version.CURRENT);
+    hdos.writeInt(0x01020304);
+    byte[] bytes = hdos.copyToByteArray();
+    hdos.close();
+
+    PooledHeapDataOutputStream reused = PooledHeapDataOutputStream.acquire(Version.CURRENT);
+    reused.writeInt(0);
+    reused.close();
+
+    assertThat(bytes).containsExactly(1, 2, 3, 4);
+  }
+
+  @Test
+  public void largeStreamIsNotRetained() {
+    PooledHeapDataOutputStream hdos = PooledHeapDataOutputStream.acquire(Version.CURRENT);
+    hdos.write(new byte[PooledHeapDataOutputStream.MAX_RETAINED_CAPACITY + 1]);
+    hdos.toByteBuffer();
+    hdos.close();
+
+    assertThat(PooledHeapDataOutputStream.acquire(Version.CURRENT)).isNotSameAs(hdos);
+  }
+
+  @Test
+  public void otherThreadsDoNotShareTheStream() throws Exception {
+    PooledHeapDataOutputStream hdos = PooledHeapDataOutputStream.acquire(Version.CURRENT);
+    hdos.close();
+
+    PooledHeapDataOutputStream other =
+        CompletableFuture.supplyAsync(() -> PooledHeapDataOutputStream.acquire(Version.CURRENT))
+            .get();
+    assertThat(other).isNotSameAs(hdos);
+  }
+}
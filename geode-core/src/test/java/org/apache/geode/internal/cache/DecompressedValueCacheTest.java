@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+
+import org.apache.geode.compression.SnappyCompressor;
+
+public class DecompressedValueCacheTest {
+
+  private final CachePerfStats stats = mock(CachePerfStats.class);
+
+  // each segment holds up to 1000 bytes
+  private final DecompressedValueCache cache = new DecompressedValueCache(16 * 1000);
+
+  @Test
+  public void cachedValueIsReturnedForTheSameCompressedArray() {
+    byte[] compressed = {1, 2, 3};
+    this.cache.put(compressed, "value", 10, 500);
+
+    assertThat(this.cache.get(compressed, this.stats)).isEqualTo("value");
+    verify(this.stats).incDecompressedValueCacheHits(500);
+  }
+
+  @Test
+  public void valueIsNotReturnedForAnEqualButDifferentArray() {
+    this.cache.put(new byte[] {1, 2, 3}, "value", 10, 500);
+
+    assertThat(this.cache.get(new byte[] {1, 2, 3}, this.stats)).isNull();
+    verify(this.stats).incDecompressedValueCacheMisses();
+  }
+
+  @Test
+  public void invalidatedValueIsNotReturned() {
+    byte[] compressed = {1, 2, 3};
+    this.cache.put(compressed, "value", 10, 500);
+
+    this.cache.invalidate(compressed);
+
+    assertThat(this.cache.get(compressed, this.stats)).isNull();
+    assertThat(this.cache.getSize()).isZero();
+  }
+
+  @Test
+  public void leastRecentlyReadValuesAreRemovedWhenTheCacheIsFull() {
+    byte[][] keys = new byte[500][];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = new byte[] {1};
+      this.cache.put(keys[i], i, 100, 0);
+      // keep reading the first value so that it is never the least recently used
+      this.cache.get(keys[0], this.stats);
+    }
+
+    assertThat(this.cache.getSize()).isLessThanOrEqualTo(16 * 1000);
+    assertThat(this.cache.get(keys[0], this.stats)).isEqualTo(0);
+    assertThat(this.cache.get(keys[1], this.stats)).isNull();
+  }
+
+  @Test
+  public void valueLargerThanASegmentIsNotCached() {
+    byte[] compressed = {1, 2, 3};
+    this.cache.put(compressed, "value", 2000, 500);
+
+    assertThat(this.cache.get(compressed, this.stats)).isNull();
+  }
+
+  @Test
+  public void cacheIsNotCreatedWithoutACompressorOrForOffHeapRegions() {
+    assertThat(DecompressedValueCache.create(null, false)).isNull();
+    assertThat(DecompressedValueCache.create(new SnappyCompressor(), true)).isNull();
+  }
+}
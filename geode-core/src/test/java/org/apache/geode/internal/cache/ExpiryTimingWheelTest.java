@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.internal.statistics.DummyStatisticsFactory;
+
+public class ExpiryTimingWheelTest {
+
+  private long now;
+  private List<Runnable> batches;
+  private List<ExpiryTask> ran;
+  private CachePerfStats stats;
+  private ExpiryTimingWheel wheel;
+
+  @Before
+  public void setUp() {
+    now = 1_000_000;
+    batches = new ArrayList<>();
+    ran = new ArrayList<>();
+    stats = new CachePerfStats(new DummyStatisticsFactory());
+    wheel = new ExpiryTimingWheel(stats, batches::add, ran::add, () -> now);
+  }
+
+  @Test
+  public void tasksRunWithinATickOfBeingDue() {
+    ExpiryTask first = scheduleTask(25);
+    ExpiryTask second = scheduleTask(55);
+    assertThat(stats.getExpirationTasks()).isEqualTo(2);
+
+    advance(24);
+    assertThat(runBatches()).isEmpty();
+
+    advance(ExpiryTimingWheel.TICK_MILLIS);
+    assertThat(runBatches()).containsExactly(first);
+
+    advance(30);
+    assertThat(runBatches()).containsExactly(second);
+    assertThat(wheel.size()).isEqualTo(0);
+    assertThat(stats.getExpirationTasks()).isEqualTo(0);
+    assertThat(stats.getExpirationBatchTasks()).isEqualTo(2);
+  }
+
+  @Test
+  public void tasksOnOuterWheelsMoveInwardUntilTheyAreDue() {
+    long[] delays = {(ExpiryTimingWheel.WHEEL_SIZE + 1) * ExpiryTimingWheel.TICK_MILLIS,
+        TimeUnit.MINUTES.toMillis(5), TimeUnit.HOURS.toMillis(1)};
+    List<ExpiryTask> tasks = new ArrayList<>();
+    for (long delay : delays) {
+      tasks.add(scheduleTask(delay));
+    }
+
+    long start = now;
+    for (int i = 0; i < delays.length; i++) {
+      advance(start + delays[i] - 1 - now);
+      assertThat(runBatches()).isEmpty();
+      advance(1);
+      assertThat(runBatches()).containsExactly(tasks.get(i));
+    }
+  }
+
+  @Test
+  public void cancelledTasksDoNotRun() {
+    ExpiryTask scheduled = scheduleTask(15);
+    ExpiryTask due = scheduleTask(15);
+    ExpiryTask kept = scheduleTask(15);
+
+    assertThat(ExpiryTimingWheel.cancel(scheduled)).isTrue();
+    assertThat(ExpiryTimingWheel.cancel(scheduled)).isFalse();
+    advance(20);
+    assertThat(stats.getExpirationBacklog()).isEqualTo(2);
+    assertThat(ExpiryTimingWheel.cancel(due)).isTrue();
+
+    assertThat(runBatches()).containsExactly(kept);
+    assertThat(ExpiryTimingWheel.cancel(kept)).isFalse();
+    assertThat(stats.getExpirationBacklog()).isEqualTo(0);
+    assertThat(stats.getExpirationBatchTasks()).isEqualTo(1);
+    assertThat(stats.getExpirationTasks()).isEqualTo(0);
+  }
+
+  @Test
+  public void tasksDueTogetherRunInBatches() {
+    int numTasks = ExpiryTimingWheel.MAX_BATCH_SIZE + 10;
+    for (int i = 0; i < numTasks; i++) {
+      scheduleTask(15);
+    }
+
+    advance(100);
+
+    assertThat(batches).hasSize(2);
+    assertThat(runBatches()).hasSize(numTasks);
+    assertThat(stats.getExpirationBatches()).isEqualTo(2);
+    assertThat(stats.getExpirationBatchTasks()).isEqualTo(numTasks);
+    assertThat(stats.getExpirationLag()).isGreaterThan(0);
+  }
+
+  @Test
+  public void closeDropsTheScheduledTasks() {
+    ExpiryTask task = scheduleTask(15);
+
+    wheel.close();
+
+    assertThat(wheel.size()).isEqualTo(0);
+    assertThat(stats.getExpirationTasks()).isEqualTo(0);
+    assertThat(ExpiryTimingWheel.cancel(task)).isFalse();
+    assertThat(wheel.schedule(mock(ExpiryTask.class), 15)).isFalse();
+    advance(100);
+    assertThat(runBatches()).isEmpty();
+  }
+
+  private ExpiryTask scheduleTask(long delay) {
+    ExpiryTask task = mock(ExpiryTask.class);
+    assertThat(wheel.schedule(task, delay)).isTrue();
+    return task;
+  }
+
+  /**
+   * Moves the clock forward, sweeping the wheel after it has moved by a few ticks at a time
+   */
+  private void advance(long millis) {
+    for (long end = now + millis; now < end;) {
+      now = Math.min(end, now + 3 * ExpiryTimingWheel.TICK_MILLIS);
+      wheel.sweep();
+    }
+  }
+
+  private List<ExpiryTask> runBatches() {
+    batches.forEach(Runnable::run);
+    batches.clear();
+    List<ExpiryTask> result = new ArrayList<>(ran);
+    ran.clear();
+    return result;
+  }
+}
@@ -14,7 +14,9 @@
  */
 package org.apache.geode.internal.cache.eviction;
 
+import static org.apache.geode.internal.lang.SystemPropertyHelper.EVICTION_SAMPLING;
 import static org.apache.geode.internal.lang.SystemPropertyHelper.EVICTION_SCAN_ASYNC;
+import static org.apache.geode.internal.lang.SystemPropertyHelper.EVICTION_TINY_LFU;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -28,9 +30,12 @@ import org.apache.geode.cache.EvictionAlgorithm;
 
 public class EvictionListBuilderTest {
   private static final String EVICTION_PROPERTY_NAME = "geode." + EVICTION_SCAN_ASYNC;
+  private static final String SAMPLING_PROPERTY_NAME = "geode." + EVICTION_SAMPLING;
+  private static final String TINY_LFU_PROPERTY_NAME = "geode." + EVICTION_TINY_LFU;
 
   @Rule
-  public ClearSystemProperties clearProperties = new ClearSystemProperties(EVICTION_PROPERTY_NAME);
+  public ClearSystemProperties clearProperties = new ClearSystemProperties(EVICTION_PROPERTY_NAME,
+      SAMPLING_PROPERTY_NAME, TINY_LFU_PROPERTY_NAME);
 
   private EvictionListBuilder builder;
   private EvictionController controller;
@@ -74,4 +79,31 @@ public class EvictionListBuilderTest {
     assertThat(builder.create()).isInstanceOf(LRUListWithSyncSorting.class);
 
   }
+
+  @Test
+  public void createsSampledListWhenSystemConfiguredToUseIt() {
+    System.setProperty(SAMPLING_PROPERTY_NAME, "true");
+    System.setProperty(EVICTION_PROPERTY_NAME, "false");
+    builder = new EvictionListBuilder(controller);
+
+    assertThat(builder.create()).isInstanceOf(SampledEvictionList.class);
+  }
+
+  @Test
+  public void createsLIFOListWhenAlgorithmIsLifoAndSamplingIsConfigured() {
+    System.setProperty(SAMPLING_PROPERTY_NAME, "true");
+    builder = new EvictionListBuilder(controller);
+    when(controller.getEvictionAlgorithm()).thenReturn(EvictionAlgorithm.LIFO_ENTRY);
+
+    assertThat(builder.create()).isInstanceOf(LIFOList.class);
+  }
+
+  @Test
+  public void createsTinyLFUListWhenSystemConfiguredToUseIt() {
+    System.setProperty(TINY_LFU_PROPERTY_NAME, "true");
+    System.setProperty(SAMPLING_PROPERTY_NAME, "true");
+    builder = new EvictionListBuilder(controller);
+
+    assertThat(builder.create()).isInstanceOf(TinyLFUEvictionList.class);
+  }
 }
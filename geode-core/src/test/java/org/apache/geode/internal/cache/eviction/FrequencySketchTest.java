@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FrequencySketchTest {
+
+  private FrequencySketch sketch;
+
+  @Before
+  public void setup() {
+    sketch = new FrequencySketch();
+    sketch.ensureCapacity(512);
+  }
+
+  @Test
+  public void frequencyOfUnusedKeyIsZero() {
+    assertThat(sketch.frequency("key".hashCode())).isZero();
+  }
+
+  @Test
+  public void incrementIncreasesFrequency() {
+    sketch.increment("key".hashCode());
+    sketch.increment("key".hashCode());
+
+    assertThat(sketch.frequency("key".hashCode())).isEqualTo(2);
+    assertThat(sketch.frequency("other".hashCode())).isZero();
+  }
+
+  @Test
+  public void frequencyIsLimitedToMaximum() {
+    for (int i = 0; i < 100; i++) {
+      sketch.increment("key".hashCode());
+    }
+
+    assertThat(sketch.frequency("key".hashCode())).isEqualTo(FrequencySketch.MAX_FREQUENCY);
+  }
+
+  @Test
+  public void frequenciesAreHalvedAfterSampleSizeIncrements() {
+    sketch = new FrequencySketch();
+    for (int i = 1; i < sketch.getSampleSize(); i++) {
+      sketch.increment("key".hashCode());
+    }
+    assertThat(sketch.frequency("key".hashCode())).isEqualTo(9);
+
+    sketch.increment("key".hashCode());
+
+    assertThat(sketch.frequency("key".hashCode())).isEqualTo(5);
+  }
+
+  @Test
+  public void growingForgetsFrequencies() {
+    sketch.increment("key".hashCode());
+
+    sketch.ensureCapacity(256);
+    assertThat(sketch.frequency("key".hashCode())).isEqualTo(1);
+
+    sketch.ensureCapacity(2048);
+    assertThat(sketch.frequency("key".hashCode())).isZero();
+    assertThat(sketch.getSampleSize()).isEqualTo(10 * 2048);
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+
+public class SampledEvictionListTest {
+
+  private static final int NUM_STRIPES = 4;
+  private static final int SAMPLE_SIZE = 5;
+  private static final int MAX_EVICTION_ATTEMPTS = 10;
+
+  private BucketRegion bucketRegion;
+  private EvictionCounters stats;
+  private EvictionController controller;
+  private SampledEvictionList list;
+
+  @Before
+  public void setup() {
+    bucketRegion = mock(BucketRegion.class);
+    stats = mock(EvictionCounters.class);
+    controller = mock(EvictionController.class);
+    when(controller.getCounters()).thenReturn(stats);
+    list = new SampledEvictionList(controller, NUM_STRIPES, SAMPLE_SIZE, MAX_EVICTION_ATTEMPTS);
+  }
+
+  @Test
+  public void evictingFromEmptyListReturnsNull() {
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void appendingAnEntryTwiceAddsItOnce() {
+    EvictableEntry node = node();
+    list.appendEntry(node);
+    list.appendEntry(node);
+
+    assertThat(list.size()).isEqualTo(1);
+    assertThat(node.next()).isInstanceOf(SampledEvictionList.Slot.class);
+  }
+
+  @Test
+  public void evictsEveryEntryOnce() {
+    List<EvictableEntry> nodes = appendNodes(100);
+
+    Set<EvictableEntry> evicted = new HashSet<>();
+    for (int i = 0; i < nodes.size(); i++) {
+      EvictableEntry node = list.getEvictableEntry();
+      assertThat(node.next()).isNull();
+      assertThat(evicted.add(node)).isTrue();
+    }
+
+    assertThat(evicted).containsExactlyInAnyOrderElementsOf(nodes);
+    assertThat(list.size()).isZero();
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void doesNotEvictRecentlyUsedWhileOthersAreUnused() {
+    list = new SampledEvictionList(controller, NUM_STRIPES, SAMPLE_SIZE, 1000);
+    List<EvictableEntry> nodes = appendNodes(10);
+    for (EvictableEntry node : nodes.subList(1, 10)) {
+      when(node.isRecentlyUsed()).thenReturn(true);
+    }
+
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(0));
+    assertThat(list.size()).isEqualTo(9);
+  }
+
+  @Test
+  public void samplingClearsRecentlyUsedSoEntriesAreEventuallyEvicted() {
+    List<EvictableEntry> nodes = appendNodes(3);
+    nodes.forEach(node -> node.setRecentlyUsed(null));
+
+    EvictableEntry evicted = list.getEvictableEntry();
+
+    assertThat(nodes).contains(evicted);
+    assertThat(evicted.isRecentlyUsed()).isFalse();
+    verify(stats, never()).incGreedyReturns(anyLong());
+  }
+
+  @Test
+  public void returnsRecentlyUsedEntryAfterMaxEvictionAttempts() {
+    EvictableEntry node = node();
+    list.appendEntry(node);
+    doAnswer(invocation -> null).when(node).unsetRecentlyUsed();
+    when(node.isRecentlyUsed()).thenReturn(true);
+
+    assertThat(list.getEvictableEntry()).isSameAs(node);
+    verify(stats).incGreedyReturns(1);
+  }
+
+  @Test
+  public void evictedAndTransactionalEntriesAreRemovedWithoutBeingReturned() {
+    EvictableEntry evictedNode = node();
+    when(evictedNode.isEvicted()).thenReturn(true);
+    EvictableEntry transactionalNode = node();
+    when(transactionalNode.isInUseByTransaction()).thenReturn(true);
+    list.appendEntry(evictedNode);
+    list.appendEntry(transactionalNode);
+
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(evictedNode.next()).isNull();
+    assertThat(transactionalNode.next()).isNull();
+  }
+
+  @Test
+  public void destroyingAnEntryRemovesIt() {
+    List<EvictableEntry> nodes = appendNodes(3);
+
+    list.destroyEntry(nodes.get(1));
+    list.destroyEntry(nodes.get(1));
+
+    assertThat(list.size()).isEqualTo(2);
+    assertThat(nodes.get(1).next()).isNull();
+    verify(stats).incDestroys();
+    Set<EvictableEntry> evicted = new HashSet<>();
+    evicted.add(list.getEvictableEntry());
+    evicted.add(list.getEvictableEntry());
+    assertThat(evicted).containsExactlyInAnyOrder(nodes.get(0), nodes.get(2));
+  }
+
+  @Test
+  public void clearRemovesEveryEntry() {
+    List<EvictableEntry> nodes = appendNodes(10);
+
+    list.clear(null, bucketRegion);
+
+    assertThat(list.size()).isZero();
+    assertThat(nodes).allMatch(node -> node.next() == null);
+    verify(bucketRegion).resetCounter();
+  }
+
+  @Test
+  public void clearWithRegionVersionVectorDoesNothing() {
+    appendNodes(10);
+
+    list.clear(mock(RegionVersionVector.class), null);
+
+    assertThat(list.size()).isEqualTo(10);
+  }
+
+  private List<EvictableEntry> appendNodes(int count) {
+    List<EvictableEntry> nodes = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      EvictableEntry node = node();
+      list.appendEntry(node);
+      nodes.add(node);
+    }
+    return nodes;
+  }
+
+  /**
+   * Returns a mock entry that remembers its next node and recently used bit
+   */
+  private static EvictableEntry node() {
+    EvictableEntry node = mock(EvictableEntry.class);
+    AtomicReference<EvictionNode> next = new AtomicReference<>();
+    AtomicBoolean recentlyUsed = new AtomicBoolean();
+    doAnswer(invocation -> {
+      next.set(invocation.getArgument(0));
+      return null;
+    }).when(node).setNext(any());
+    when(node.next()).thenAnswer(invocation -> next.get());
+    doAnswer(invocation -> {
+      recentlyUsed.set(true);
+      return null;
+    }).when(node).setRecentlyUsed(any());
+    doAnswer(invocation -> {
+      recentlyUsed.set(false);
+      return null;
+    }).when(node).unsetRecentlyUsed();
+    when(node.isRecentlyUsed()).thenAnswer(invocation -> recentlyUsed.get());
+    return node;
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.BucketRegion;
+
+public class TinyLFUEvictionListTest {
+
+  private static final int WINDOW_PERCENT = 1;
+
+  /**
+   * Enough attempts for the first eviction to clear the recently used bit that was set when each
+   * entry of the lists used here was created, so that the entries are then evicted in the order
+   * they were created
+   */
+  private static final int MAX_EVICTION_ATTEMPTS = 100;
+
+  private BucketRegion bucketRegion;
+  private EvictionCounters stats;
+  private EvictionController controller;
+  private TinyLFUEvictionList list;
+
+  @Before
+  public void setup() {
+    bucketRegion = mock(BucketRegion.class);
+    stats = mock(EvictionCounters.class);
+    controller = mock(EvictionController.class);
+    when(controller.getCounters()).thenReturn(stats);
+    list = new TinyLFUEvictionList(controller, WINDOW_PERCENT, MAX_EVICTION_ATTEMPTS);
+  }
+
+  @Test
+  public void evictingFromEmptyListReturnsNull() {
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void firstEvictionAdmitsWindowOverflowAndEvictsLeastRecentlyCreated() {
+    List<EvictableEntry> nodes = appendNodes(100);
+    assertThat(list.getWindowSize()).isEqualTo(100);
+
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(0));
+
+    assertThat(list.size()).isEqualTo(99);
+    assertThat(list.getWindowSize()).isEqualTo(1);
+    verify(stats, never()).incAdmissionRejections();
+  }
+
+  @Test
+  public void rejectsNewEntryThatIsNotUsedAfterItsCreation() {
+    List<EvictableEntry> nodes = appendNodes(100);
+    list.getEvictableEntry();
+
+    create("scanned");
+
+    // the last entry was only used when it was created, which ties the least recently used entry
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(99));
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(1));
+    verify(stats, times(1)).incAdmissionRejections();
+  }
+
+  @Test
+  public void admitsNewEntryForKeyThatWasUsedBefore() {
+    List<EvictableEntry> nodes = appendNodes(100);
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(0));
+
+    EvictableEntry reloaded = create("key0");
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(99));
+    create("new");
+
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(1));
+    assertThat(reloaded.next()).isNotNull();
+    assertThat(list.getWindowSize()).isEqualTo(1);
+    verify(stats, times(1)).incAdmissionRejections();
+  }
+
+  @Test
+  public void admitsNewEntryThatIsUsedAgainBeforeTheNextEviction() {
+    List<EvictableEntry> nodes = appendNodes(100);
+    list.getEvictableEntry();
+
+    EvictableEntry used = create("used");
+    use(used);
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(99));
+    create("new");
+
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(1));
+    assertThat(used.next()).isNotNull();
+  }
+
+  @Test
+  public void countsEveryUseOfAnEntryInTheMainList() {
+    list = new TinyLFUEvictionList(controller, WINDOW_PERCENT, 0);
+    List<EvictableEntry> nodes = appendNodes(100);
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(0));
+    for (int i = 0; i < 3; i++) {
+      use(nodes.get(1));
+    }
+
+    EvictableEntry used = create("used");
+    use(used);
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(99));
+    create("new");
+
+    // key1 is returned without its bit being cleared, but every one of its uses was counted
+    assertThat(list.getEvictableEntry()).isSameAs(used);
+    verify(stats, times(2)).incAdmissionRejections();
+  }
+
+  @Test
+  public void keepsOnlyTheLatestUsesUntilTheNextEviction() {
+    List<EvictableEntry> nodes = appendNodes(100);
+    list.getEvictableEntry();
+
+    EvictableEntry used = create("used");
+    use(used);
+    for (int i = 0; i < TinyLFUEvictionList.ACCESS_BUFFER_SIZE; i++) {
+      list.recordUse(nodes.get(2 + i % 10));
+    }
+
+    // both uses of the new entry were overwritten
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(99));
+    create("new");
+    assertThat(list.getEvictableEntry()).isSameAs(used);
+  }
+
+  @Test
+  public void recentlyUsedEntriesAreMovedToTailOfMainList() {
+    List<EvictableEntry> nodes = appendNodes(10);
+    list.getEvictableEntry();
+    use(nodes.get(1));
+
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(2));
+    assertThat(nodes.get(1).isRecentlyUsed()).isFalse();
+  }
+
+  @Test
+  public void returnsRecentlyUsedEntryAfterMaxEvictionAttempts() {
+    int maxEvictionAttempts = 10;
+    list = new TinyLFUEvictionList(controller, WINDOW_PERCENT, maxEvictionAttempts);
+    List<EvictableEntry> nodes = appendNodes(20);
+
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(maxEvictionAttempts));
+    verify(stats).incGreedyReturns(1);
+  }
+
+  @Test
+  public void destroyingEntriesRemovesThemFromWindowAndMainList() {
+    List<EvictableEntry> nodes = appendNodes(100);
+    list.getEvictableEntry();
+
+    list.destroyEntry(nodes.get(1));
+    list.destroyEntry(nodes.get(99));
+    list.destroyEntry(nodes.get(99));
+
+    assertThat(list.size()).isEqualTo(97);
+    assertThat(list.getWindowSize()).isZero();
+    verify(stats, times(2)).incDestroys();
+    assertThat(list.getEvictableEntry()).isSameAs(nodes.get(2));
+  }
+
+  @Test
+  public void clearEmptiesWindowAndMainList() {
+    appendNodes(100);
+    list.getEvictableEntry();
+
+    list.clear(null, bucketRegion);
+
+    assertThat(list.size()).isZero();
+    assertThat(list.getWindowSize()).isZero();
+    assertThat(list.getEvictableEntry()).isNull();
+    verify(bucketRegion).resetCounter();
+  }
+
+  private List<EvictableEntry> appendNodes(int count) {
+    List<EvictableEntry> nodes = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      nodes.add(create("key" + i));
+    }
+    return nodes;
+  }
+
+  /**
+   * Appends a new entry for the key, recording the use that set its value
+   */
+  private EvictableEntry create(String key) {
+    EvictableEntry node = node(key);
+    list.appendEntry(node);
+    list.recordUse(node);
+    return node;
+  }
+
+  /**
+   * Uses an entry the way a get does, setting its recently used bit and recording the use
+   */
+  private void use(EvictableEntry node) {
+    node.setRecentlyUsed(null);
+    list.recordUse(node);
+  }
+
+  /**
+   * Returns a mock entry for the key that remembers its next and previous nodes and recently used
+   * bit. The bit starts out set, as it is for a new entry once its value is set.
+   */
+  private static EvictableEntry node(String key) {
+    EvictableEntry node = mock(EvictableEntry.class);
+    when(node.getKey()).thenReturn(key);
+    AtomicReference<EvictionNode> next = new AtomicReference<>();
+    AtomicReference<EvictionNode> previous = new AtomicReference<>();
+    AtomicBoolean recentlyUsed = new AtomicBoolean(true);
+    doAnswer(invocation -> {
+      next.set(invocation.getArgument(0));
+      return null;
+    }).when(node).setNext(any());
+    when(node.next()).thenAnswer(invocation -> next.get());
+    doAnswer(invocation -> {
+      previous.set(invocation.getArgument(0));
+      return null;
+    }).when(node).setPrevious(any());
+    when(node.previous()).thenAnswer(invocation -> previous.get());
+    doAnswer(invocation -> {
+      recentlyUsed.set(true);
+      return null;
+    }).when(node).setRecentlyUsed(any());
+    doAnswer(invocation -> {
+      recentlyUsed.set(false);
+      return null;
+    }).when(node).unsetRecentlyUsed();
+    when(node.isRecentlyUsed()).thenAnswer(invocation -> recentlyUsed.get());
+    return node;
+  }
+}
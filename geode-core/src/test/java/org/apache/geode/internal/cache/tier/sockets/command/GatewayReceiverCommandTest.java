@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.subject.support.SubjectThreadState;
+import org.apache.shiro.util.ThreadContext;
+import org.apache.shiro.util.ThreadState;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.EntryEventImpl;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.tier.CachedRegionHelper;
+import org.apache.geode.internal.cache.tier.sockets.AcceptorImpl;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.wan.GatewayBatchCompressor;
+import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.test.junit.categories.WanTest;
+
+@Category({WanTest.class})
+public class GatewayReceiverCommandTest {
+
+  private static final String REGION_NAME = "/region";
+
+  private static final int NUMBER_OF_EVENTS = 100;
+
+  private static final int NUMBER_OF_KEYS = 20;
+
+  private static final int CREATE = 0;
+
+  private static final int UPDATE = 1;
+
+  private static final int DESTROY = 2;
+
+  private static final Object NO_SUBJECT = new Object();
+
+  private ServerConnection serverConnection;
+
+  private AcceptorImpl acceptor;
+
+  private ExecutorService batchApplyPool;
+
+  private SecurityService securityService;
+
+  private GatewayReceiverStats stats;
+
+  private Message replyMessage;
+
+  /** The index of each event applied, by key */
+  private final Map<Object, List<Long>> appliedEvents = new ConcurrentHashMap<>();
+
+  /** The subjects bound to the threads applying the events, or NO_SUBJECT */
+  private final Set<Object> appliedBySubjects = ConcurrentHashMap.newKeySet();
+
+  private final Set<Thread> modifiedBy = ConcurrentHashMap.newKeySet();
+
+  /** Fails the events applied by the server connection thread, if set */
+  private volatile Error serverConnectionThreadFailure;
+
+  /** The number of events being applied */
+  private final AtomicInteger applying = new AtomicInteger();
+
+  private int batchApplyThreads;
+
+  private Thread serverConnectionThread;
+
+  @Before
+  public void setUp() throws Exception {
+    this.serverConnectionThread = Thread.currentThread();
+    this.batchApplyThreads = GatewayReceiverCommand.BATCH_APPLY_THREADS;
+
+    LocalRegion region = mock(LocalRegion.class);
+    when(region.basicBridgeCreate(any(), any(), anyBoolean(), any(), any(), anyBoolean(),
+        any(EntryEventImpl.class), anyBoolean())).thenAnswer(invocation -> {
+          recordApplied(invocation.getArgument(0), invocation.getArgument(6));
+          return true;
+        });
+    when(region.basicBridgePut(any(), any(), isNull(), anyBoolean(), any(), any(), anyBoolean(),
+        any(EntryEventImpl.class))).thenAnswer(invocation -> {
+          recordApplied(invocation.getArgument(0), invocation.getArgument(7));
+          return true;
+        });
+    doAnswer(invocation -> {
+      recordApplied(invocation.getArgument(0), invocation.getArgument(4));
+      return null;
+    }).when(region).basicBridgeDestroy(any(), any(), any(), anyBoolean(),
+        any(EntryEventImpl.class));
+    InternalCache cache = mock(InternalCache.class);
+    when(cache.getRegion(isA(String.class))).thenReturn(region);
+    CachedRegionHelper crHelper = mock(CachedRegionHelper.class);
+    when(crHelper.getCacheForGatewayCommand()).thenReturn(cache);
+
+    this.stats = mock(GatewayReceiverStats.class);
+    this.replyMessage = mock(Message.class);
+    this.batchApplyPool = Executors.newFixedThreadPool(4);
+    this.acceptor = mock(AcceptorImpl.class);
+    when(this.acceptor.getBatchApplyPool(anyInt())).thenReturn(this.batchApplyPool);
+    this.serverConnection = mock(ServerConnection.class);
+    when(this.serverConnection.getCachedRegionHelper()).thenReturn(crHelper);
+    when(this.serverConnection.getCacheServerStats()).thenReturn(this.stats);
+    when(this.serverConnection.getResponseMessage()).thenReturn(this.replyMessage);
+    when(this.serverConnection.getClientVersion()).thenReturn(Version.CURRENT);
+    when(this.serverConnection.getAcceptor()).thenReturn(this.acceptor);
+    doAnswer(invocation -> {
+      this.modifiedBy.add(Thread.currentThread());
+      return null;
+    }).when(this.serverConnection).setModificationInfo(anyBoolean(), any(), any());
+
+    this.securityService = mock(SecurityService.class);
+    when(this.securityService.bindSubject(any())).thenAnswer(invocation -> {
+      ThreadState threadState = new SubjectThreadState(invocation.getArgument(0));
+      threadState.bind();
+      return threadState;
+    });
+  }
+
+  @After
+  public void tearDown() {
+    GatewayReceiverCommand.BATCH_APPLY_THREADS = this.batchApplyThreads;
+    this.batchApplyPool.shutdownNow();
+    ThreadContext.remove();
+  }
+
+  @Test
+  public void batchIsAppliedInOrderByDefault() throws Exception {
+    executeBatch(CREATE);
+
+    assertEventsAppliedInOrderPerKey();
+    verify(this.stats).endBatchApply(anyLong(), eq(1));
+    verify(this.replyMessage).send(this.serverConnection);
+  }
+
+  @Test
+  public void parallelBatchPreservesOrderPerKey() throws Exception {
+    GatewayReceiverCommand.BATCH_APPLY_THREADS = 4;
+
+    executeBatch(CREATE);
+
+    assertEventsAppliedInOrderPerKey();
+    assertAppliedByMoreThanOneThread();
+    verify(this.replyMessage).send(this.serverConnection);
+  }
+
+  @Test
+  public void parallelBatchOfCreatesUpdatesAndDestroysPreservesOrderPerKey() throws Exception {
+    GatewayReceiverCommand.BATCH_APPLY_THREADS = 4;
+
+    executeBatch(CREATE, UPDATE, UPDATE, DESTROY);
+
+    assertEventsAppliedInOrderPerKey();
+    assertAppliedByMoreThanOneThread();
+    verify(this.stats, times(NUMBER_OF_EVENTS / 4)).incCreateRequest();
+    verify(this.stats, times(NUMBER_OF_EVENTS / 2)).incUpdateRequest();
+    verify(this.stats, times(NUMBER_OF_EVENTS / 4)).incDestroyRequest();
+    verify(this.replyMessage).send(this.serverConnection);
+  }
+
+  @Test
+  public void parallelBatchSetsModificationInfoOnServerConnectionThreadOnly() throws Exception {
+    GatewayReceiverCommand.BATCH_APPLY_THREADS = 4;
+
+    executeBatch(CREATE, UPDATE, DESTROY);
+
+    assertAppliedByMoreThanOneThread();
+    assertThat(this.modifiedBy).containsExactly(Thread.currentThread());
+    verify(this.serverConnection).setModificationInfo(true, REGION_NAME,
+        "key" + ((NUMBER_OF_EVENTS - 1) % NUMBER_OF_KEYS));
+  }
+
+  @Test
+  public void parallelBatchIsAppliedAsSubjectOfServerConnectionThread() throws Exception {
+    GatewayReceiverCommand.BATCH_APPLY_THREADS = 4;
+    when(this.securityService.isIntegratedSecurity()).thenReturn(true);
+    Subject subject = mock(Subject.class);
+    ThreadContext.bind(subject);
+
+    executeBatch(CREATE, UPDATE, DESTROY);
+
+    assertEventsAppliedInOrderPerKey();
+    assertAppliedByMoreThanOneThread();
+    assertThat(this.appliedBySubjects).containsExactly(subject);
+  }
+
+  @Test
+  public void batchIsAppliedInOrderIfReceiverIsClosed() throws Exception {
+    GatewayReceiverCommand.BATCH_APPLY_THREADS = 4;
+    when(this.acceptor.getBatchApplyPool(anyInt())).thenReturn(null);
+
+    executeBatch(CREATE, UPDATE, DESTROY);
+
+    assertEventsAppliedInOrderPerKey();
+    verify(this.stats).endBatchApply(anyLong(), eq(1));
+    verify(this.replyMessage).send(this.serverConnection);
+  }
+
+  @Test
+  public void parallelBatchWaitsForAllThreadsIfServerConnectionThreadFails() throws Exception {
+    GatewayReceiverCommand.BATCH_APPLY_THREADS = 4;
+    Error failure = new Error("failed applying event");
+    this.serverConnectionThreadFailure = failure;
+
+    Throwable thrown = catchThrowable(() -> executeBatch(CREATE));
+
+    assertThat(thrown).isSameAs(failure);
+    assertThat(this.applying.get()).isEqualTo(0);
+    verify(this.replyMessage, times(0)).send(this.serverConnection);
+  }
+
+  private void executeBatch(int... actionTypes) throws Exception {
+    GatewayReceiverCommand.getCommand().cmdExecute(createBatch(actionTypes),
+        this.serverConnection, this.securityService, 0);
+  }
+
+  private void recordApplied(Object key, EntryEventImpl clientEvent) throws Exception {
+    if (this.serverConnectionThreadFailure != null) {
+      if (Thread.currentThread() == this.serverConnectionThread) {
+        throw this.serverConnectionThreadFailure;
+      }
+      this.applying.incrementAndGet();
+      try {
+        Thread.sleep(10);
+      } finally {
+        this.applying.decrementAndGet();
+      }
+    }
+    this.appliedEvents
+        .computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>()))
+        .add(clientEvent.getEventId().getSequenceID());
+    Subject subject = ThreadContext.getSubject();
+    this.appliedBySubjects.add(subject == null ? NO_SUBJECT : subject);
+  }
+
+  private void assertEventsAppliedInOrderPerKey() {
+    assertThat(this.appliedEvents).hasSize(NUMBER_OF_KEYS);
+    int numberOfEvents = 0;
+    for (List<Long> events : this.appliedEvents.values()) {
+      assertThat(events).isSorted();
+      numberOfEvents += events.size();
+    }
+    assertThat(numberOfEvents).isEqualTo(NUMBER_OF_EVENTS);
+  }
+
+  private void assertAppliedByMoreThanOneThread() {
+    ArgumentCaptor<Integer> threads = ArgumentCaptor.forClass(Integer.class);
+    verify(this.stats).endBatchApply(anyLong(), threads.capture());
+    assertThat(threads.getValue()).isGreaterThan(1).isLessThanOrEqualTo(4);
+  }
+
+  /**
+   * Creates a batch whose parts are all in serialized form, as if it was received. The action
+   * types of the events cycle through the given ones.
+   */
+  private Message createBatch(int... actionTypes) throws Exception {
+    Message eventParts = new Message(NUMBER_OF_EVENTS * 8, Version.CURRENT);
+    for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+      int actionType = actionTypes[i % actionTypes.length];
+      eventParts.addIntPart(actionType);
+      eventParts.addBytesPart(new byte[] {0x00});
+      eventParts.addStringPart(REGION_NAME);
+      eventParts.addObjPart(new EventID(new byte[] {1}, 1, i));
+      eventParts.addStringOrObjPart("key" + (i % NUMBER_OF_KEYS));
+      if (actionType != DESTROY) {
+        eventParts.addRawPart(new byte[] {(byte) i}, false);
+      }
+      eventParts.addBytesPart(new byte[] {0x00});
+      eventParts.addLongPart(0);
+    }
+
+    Message batch =
+        new Message(GatewayBatchCompressor.NUMBER_OF_LEADING_PARTS + 1, Version.CURRENT);
+    batch.addIntPart(NUMBER_OF_EVENTS);
+    batch.addIntPart(1);
+    batch.addIntPart(2);
+    batch.addBytesPart(new byte[] {GatewayBatchCompressor.getFlags(false, true)});
+    batch.addBytesPart(GatewayBatchCompressor.compress(eventParts));
+    return batch;
+  }
+}
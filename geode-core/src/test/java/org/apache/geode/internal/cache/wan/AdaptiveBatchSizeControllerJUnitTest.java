@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptiveBatchSizeControllerJUnitTest {
+
+  private GatewaySenderStats statistics;
+
+  private AdaptiveBatchSizeController controller;
+
+  @Before
+  public void setUp() {
+    this.statistics = mock(GatewaySenderStats.class);
+    this.controller = new AdaptiveBatchSizeController(this.statistics, 10, 100, 1000);
+  }
+
+  @Test
+  public void startsWithConfiguredBatchSize() {
+    assertThat(this.controller.getBatchSize()).isEqualTo(100);
+    verify(this.statistics).setEffectiveBatchSize(100);
+  }
+
+  @Test
+  public void shrinksTowardQueueDepthAtLowLoad() {
+    assertThat(this.controller.getNextBatchSize(30)).isEqualTo(50);
+    assertThat(this.controller.getNextBatchSize(30)).isEqualTo(50);
+    assertThat(this.controller.getNextBatchSize(20)).isEqualTo(25);
+    assertThat(this.controller.getNextBatchSize(0)).isEqualTo(12);
+    assertThat(this.controller.getNextBatchSize(0)).isEqualTo(10);
+    assertThat(this.controller.getNextBatchSize(0)).isEqualTo(10);
+    verify(this.statistics, times(4)).incBatchSizeDecreases();
+  }
+
+  @Test
+  public void growsUpToConfiguredBatchSizeWhileQueueIsBacklogged() {
+    this.controller.getNextBatchSize(0);
+    this.controller.getNextBatchSize(0);
+
+    int batchSize = this.controller.getBatchSize();
+    for (int i = 0; i < 20; i++) {
+      int nextBatchSize = this.controller.getNextBatchSize(1000);
+      assertThat(nextBatchSize).isGreaterThanOrEqualTo(batchSize);
+      batchSize = nextBatchSize;
+    }
+    assertThat(batchSize).isEqualTo(100);
+  }
+
+  @Test
+  public void decreasesWhenLatencyExceedsTarget() {
+    this.controller.recordLatency(TimeUnit.SECONDS.toNanos(2));
+
+    assertThat(this.controller.getNextBatchSize(1000)).isEqualTo(75);
+    verify(this.statistics).incBatchSizeDecreases();
+  }
+
+  @Test
+  public void reactsToLatencyOnlyOncePerSample() {
+    this.controller.recordLatency(TimeUnit.SECONDS.toNanos(2));
+
+    assertThat(this.controller.getNextBatchSize(1000)).isEqualTo(75);
+    assertThat(this.controller.getNextBatchSize(1000)).isEqualTo(93);
+  }
+
+  @Test
+  public void loweringMaximumBatchSizeCapsBatchSize() {
+    this.controller.setMaximumBatchSize(40);
+
+    assertThat(this.controller.getBatchSize()).isEqualTo(40);
+    assertThat(this.controller.getNextBatchSize(1000)).isEqualTo(40);
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+
+public class GatewayBatchCompressorJUnitTest {
+
+  @Test
+  public void flagsEncodeRemoveFromQueueOnExceptionAndCompression() {
+    assertThat(GatewayBatchCompressor.getFlags(false, false)).isEqualTo((byte) 0);
+    assertThat(GatewayBatchCompressor.getFlags(true, false)).isEqualTo((byte) 1);
+    assertThat(GatewayBatchCompressor.getFlags(true, true) & GatewayBatchCompressor.COMPRESSED)
+        .isNotZero();
+    assertThat(GatewayBatchCompressor.getFlags(false, true)
+        & GatewayBatchCompressor.REMOVE_FROM_QUEUE_ON_EXCEPTION).isZero();
+  }
+
+  @Test
+  public void decompressRestoresLeadingAndEventParts() throws Exception {
+    int numberOfEvents = 50;
+    Message eventParts = new Message(numberOfEvents * 4, Version.CURRENT);
+    for (int i = 0; i < numberOfEvents; i++) {
+      eventParts.addIntPart(i);
+      eventParts.addStringPart("/region");
+      eventParts.addRawPart(new byte[] {(byte) i, 1, 2, 3}, true);
+      eventParts.addLongPart(i * 1000L);
+    }
+    byte[] compressed = GatewayBatchCompressor.compress(eventParts);
+    assertThat(compressed.length)
+        .isLessThan(GatewayBatchCompressor.getUncompressedLength(eventParts));
+
+    Message batch =
+        new Message(GatewayBatchCompressor.NUMBER_OF_LEADING_PARTS + 1, Version.CURRENT);
+    batch.addIntPart(numberOfEvents);
+    batch.addIntPart(7);
+    batch.addIntPart(2);
+    batch.addBytesPart(new byte[] {GatewayBatchCompressor.getFlags(true, true)});
+    batch.addBytesPart(compressed);
+
+    Message result = GatewayBatchCompressor.decompress(batch,
+        GatewayBatchCompressor.NUMBER_OF_LEADING_PARTS, Version.CURRENT);
+
+    assertThat(result.getNumberOfParts())
+        .isEqualTo(GatewayBatchCompressor.NUMBER_OF_LEADING_PARTS + numberOfEvents * 4);
+    assertThat(result.getPart(0).getInt()).isEqualTo(numberOfEvents);
+    assertThat(result.getPart(1).getInt()).isEqualTo(7);
+    assertThat(result.getPart(2).getInt()).isEqualTo(2);
+    for (int i = 0; i < numberOfEvents; i++) {
+      int partNumber = GatewayBatchCompressor.NUMBER_OF_LEADING_PARTS + i * 4;
+      assertThat(result.getPart(partNumber).getInt()).isEqualTo(i);
+      assertThat(result.getPart(partNumber + 1).getString()).isEqualTo("/region");
+      assertThat(result.getPart(partNumber + 2).getSerializedForm())
+          .containsExactly((byte) i, 1, 2, 3);
+      assertThat(result.getPart(partNumber + 2).isObject()).isTrue();
+      assertThat(result.getPart(partNumber + 3).getLong()).isEqualTo(i * 1000L);
+    }
+  }
+}
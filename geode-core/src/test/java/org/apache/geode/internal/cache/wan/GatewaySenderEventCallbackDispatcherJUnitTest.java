@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.asyncqueue.AsyncEvent;
+import org.apache.geode.cache.asyncqueue.AsyncEventListener;
+import org.apache.geode.test.junit.categories.AEQTest;
+
+@Category({AEQTest.class})
+public class GatewaySenderEventCallbackDispatcherJUnitTest {
+
+  private static final int NUMBER_OF_EVENTS = 100;
+
+  private static final int NUMBER_OF_KEYS = 20;
+
+  private final Map<Object, List<Integer>> processedValues = new ConcurrentHashMap<>();
+
+  private final AtomicInteger failingInvocations = new AtomicInteger();
+
+  private GatewaySenderStats statistics;
+
+  private GatewaySenderEventCallbackDispatcher dispatcher;
+
+  private int listenerThreads;
+
+  @Before
+  public void setUp() {
+    this.listenerThreads = AbstractGatewaySender.LISTENER_THREADS;
+
+    AsyncEventListener listener = events -> {
+      for (AsyncEvent event : (List<AsyncEvent>) events) {
+        this.processedValues
+            .computeIfAbsent(event.getKey(), k -> Collections.synchronizedList(new ArrayList<>()))
+            .add((Integer) event.getDeserializedValue());
+      }
+      return this.failingInvocations.getAndDecrement() <= 0;
+    };
+
+    this.statistics = mock(GatewaySenderStats.class);
+    AbstractGatewaySender sender = mock(AbstractGatewaySender.class);
+    when(sender.getId()).thenReturn("sender");
+    when(sender.getStatistics()).thenReturn(this.statistics);
+    when(sender.getAsyncEventListeners()).thenReturn(Collections.singletonList(listener));
+    AbstractGatewaySenderEventProcessor processor =
+        mock(AbstractGatewaySenderEventProcessor.class);
+    when(processor.getSender()).thenReturn(sender);
+
+    this.dispatcher = new GatewaySenderEventCallbackDispatcher(processor);
+  }
+
+  @After
+  public void tearDown() {
+    this.dispatcher.stop();
+    AbstractGatewaySender.LISTENER_THREADS = this.listenerThreads;
+  }
+
+  @Test
+  public void batchIsProcessedWithoutPartitionsByDefault() throws Exception {
+    assertThat(this.dispatcher.dispatchBatch(createBatch())).isTrue();
+
+    assertEventsProcessedInOrderPerKey();
+    verify(this.statistics, never()).endListenerPartition(anyLong());
+  }
+
+  @Test
+  public void partitionedBatchPreservesOrderPerKey() throws Exception {
+    AbstractGatewaySender.LISTENER_THREADS = 4;
+
+    assertThat(this.dispatcher.dispatchBatch(createBatch())).isTrue();
+
+    assertEventsProcessedInOrderPerKey();
+    verify(this.statistics, atLeast(2)).endListenerPartition(anyLong());
+  }
+
+  @Test
+  public void partitionedBatchFailsIfOnePartitionFails() throws Exception {
+    AbstractGatewaySender.LISTENER_THREADS = 4;
+    this.failingInvocations.set(1);
+
+    assertThat(this.dispatcher.dispatchBatch(createBatch())).isFalse();
+
+    assertEventsProcessedInOrderPerKey();
+  }
+
+  private void assertEventsProcessedInOrderPerKey() {
+    assertThat(this.processedValues).hasSize(NUMBER_OF_KEYS);
+    int numberOfValues = 0;
+    for (List<Integer> values : this.processedValues.values()) {
+      assertThat(values).isSorted();
+      numberOfValues += values.size();
+    }
+    assertThat(numberOfValues).isEqualTo(NUMBER_OF_EVENTS);
+  }
+
+  private List<AsyncEvent> createBatch() {
+    List<AsyncEvent> batch = new ArrayList<>(NUMBER_OF_EVENTS);
+    for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+      AsyncEvent event = mock(AsyncEvent.class);
+      when(event.getKey()).thenReturn("key" + (i % NUMBER_OF_KEYS));
+      when(event.getDeserializedValue()).thenReturn(i);
+      batch.add(event);
+    }
+    return batch;
+  }
+}
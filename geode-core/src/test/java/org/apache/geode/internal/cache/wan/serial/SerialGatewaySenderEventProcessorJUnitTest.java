@@ -17,6 +17,7 @@ package org.apache.geode.internal.cache.wan.serial;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -25,6 +26,8 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.logging.log4j.Logger;
@@ -36,6 +39,7 @@ import org.apache.geode.cache.Operation;
 import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.EventID;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.RegionQueue;
 import org.apache.geode.internal.cache.ha.ThreadIdentifier;
 import org.apache.geode.internal.cache.wan.AbstractGatewaySender;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
@@ -224,6 +228,55 @@ public class SerialGatewaySenderEventProcessorJUnitTest {
     assertThat(unProcessedTokens).contains("threadID=4;sequenceID=4");
   }
 
+  @Test
+  public void batchesAreRemovedFromQueueInDispatchOrder() throws Exception {
+    GatewaySenderStats gss = mock(GatewaySenderStats.class);
+    when(sender.getStatistics()).thenReturn(gss);
+    RegionQueue queue = mock(RegionQueue.class);
+    ReflectionTestUtils.setField(processor, "queue", queue);
+
+    this.processor.getBatchIdToEventsMap().put(0, createBatch(2));
+    this.processor.getBatchIdToEventsMap().put(1, createBatch(3));
+
+    // The second batch is acknowledged first. It stays in flight until the first one is
+    // acknowledged since the queue removes events from the head of the peeked events.
+    this.processor.handleSuccessBatchAck(1);
+    verify(queue, never()).remove(anyInt());
+    assertEquals(2, this.processor.getBatchIdToEventsMap().size());
+
+    this.processor.handleSuccessBatchAck(0);
+    verify(queue).remove(2);
+    verify(queue).remove(3);
+    verify(gss).decBatchesInFlight(2);
+    assertEquals(0, this.processor.getBatchIdToEventsMap().size());
+  }
+
+  @Test
+  public void acknowledgementOfUnknownBatchIsIgnored() throws Exception {
+    GatewaySenderStats gss = mock(GatewaySenderStats.class);
+    when(sender.getStatistics()).thenReturn(gss);
+    RegionQueue queue = mock(RegionQueue.class);
+    ReflectionTestUtils.setField(processor, "queue", queue);
+
+    this.processor.getBatchIdToEventsMap().put(0, createBatch(1));
+    this.processor.handleSuccessBatchAck(5);
+    this.processor.handleSuccessBatchAck(0);
+
+    verify(queue, times(1)).remove(1);
+    assertEquals(0, this.processor.getBatchIdToEventsMap().size());
+  }
+
+  private List<GatewaySenderEventImpl>[] createBatch(int numEvents) {
+    List<GatewaySenderEventImpl> events = new ArrayList<>();
+    for (int i = 0; i < numEvents; i++) {
+      events.add(mock(GatewaySenderEventImpl.class));
+    }
+    List<GatewaySenderEventImpl>[] eventsArr = (List<GatewaySenderEventImpl>[]) new List[2];
+    eventsArr[0] = events;
+    eventsArr[1] = events;
+    return eventsArr;
+  }
+
   private EventID handlePrimaryEvent() {
     GatewaySenderEventImpl gsei = mock(GatewaySenderEventImpl.class);
     EventID id = mock(EventID.class);
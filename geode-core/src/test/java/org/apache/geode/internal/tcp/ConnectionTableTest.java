@@ -16,13 +16,17 @@
 package org.apache.geode.internal.tcp;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.Socket;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -32,6 +36,7 @@ import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.internal.DMStats;
 import org.apache.geode.distributed.internal.DistributionManager;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.test.junit.categories.MembershipTest;
 
 
@@ -42,8 +47,13 @@ public class ConnectionTableTest {
   private PeerConnectionFactory factory;
   private Connection connection;
 
+  private int multiplexedConnections;
+
   @Before
   public void initConnectionTable() throws Exception {
+    multiplexedConnections = TCPConduit.multiplexedConnections;
+    TCPConduit.multiplexedConnections = 2;
+
     InternalDistributedSystem system = mock(InternalDistributedSystem.class);
     when(system.isShareSockets()).thenReturn(false);
 
@@ -68,6 +78,11 @@ public class ConnectionTableTest {
     when(factory.createReceiver(connectionTable, socket)).thenReturn(connection);
   }
 
+  @After
+  public void restoreMultiplexedConnections() {
+    TCPConduit.multiplexedConnections = multiplexedConnections;
+  }
+
   @Test
   public void testConnectionsClosedDuringCreateAreNotAddedAsReceivers() throws Exception {
     when(connection.isReceiverStopped()).thenReturn(false);
@@ -111,4 +126,36 @@ public class ConnectionTableTest {
       }
     }
   }
+
+  @Test
+  public void multiplexedConnectionIsRemovedFromItsSlot() throws Exception {
+    DistributedMember member = mock(DistributedMember.class);
+    Connection other = mock(Connection.class);
+    Map slot0 = connectionTable.getMultiplexedConnectionMap(0);
+    Map slot1 = connectionTable.getMultiplexedConnectionMap(1);
+    slot0.put(member, other);
+    slot1.put(member, connection);
+    when(connection.getMultiplexedSlot()).thenReturn(1);
+
+    connectionTable.removeSharedConnection("test", member, true, connection);
+
+    assertFalse(slot1.containsKey(member));
+    assertSame(other, slot0.get(member));
+    verify(connection).closePartialConnect("test", false);
+  }
+
+  @Test
+  public void removeEndpointClosesMultiplexedConnections() throws Exception {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    Connection other = mock(Connection.class);
+    connectionTable.getMultiplexedConnectionMap(0).put(member, other);
+    connectionTable.getMultiplexedConnectionMap(1).put(member, connection);
+
+    connectionTable.removeEndpoint(member, "test", false);
+
+    assertEquals(0, connectionTable.getMultiplexedConnectionMap(0).size());
+    assertEquals(0, connectionTable.getMultiplexedConnectionMap(1).size());
+    verify(other).closePartialConnect("test", false);
+    verify(connection).closePartialConnect("test", false);
+  }
 }
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({SerializationTest.class})
+public class PdxStringInternerTest {
+
+  private final PdxStringInterner interner = new PdxStringInterner(16, 8);
+
+  @Test
+  public void sameStringIsSharedByLaterReads() throws IOException {
+    String first = this.interner.readString(stream("USD"));
+    String second = this.interner.readString(stream("USD"));
+
+    assertThat(second).isEqualTo("USD").isSameAs(first);
+  }
+
+  @Test
+  public void readAdvancesPastTheString() throws IOException {
+    PdxInputStream in = stream("USD", "EUR");
+    this.interner.readString(in);
+    PdxInputStream reread = stream("USD", "EUR");
+    this.interner.readString(reread);
+
+    assertThat(in.readString()).isEqualTo("EUR");
+    assertThat(reread.readString()).isEqualTo("EUR");
+  }
+
+  @Test
+  public void longStringIsNotCached() throws IOException {
+    PdxInputStream in = stream("a string longer than the limit");
+
+    assertThat(this.interner.readString(in)).isNull();
+    assertThat(in.position()).isZero();
+    assertThat(in.readString()).isEqualTo("a string longer than the limit");
+  }
+
+  @Test
+  public void nonAsciiStringIsNotCached() throws IOException {
+    PdxInputStream in = stream("été");
+
+    assertThat(this.interner.readString(in)).isNull();
+    assertThat(in.readString()).isEqualTo("été");
+  }
+
+  @Test
+  public void differentStringInTheSameSlotIsNotReturned() throws IOException {
+    // "Aa" and "BB" have the same hash code
+    this.interner.readString(stream("Aa"));
+
+    assertThat(this.interner.readString(stream("BB"))).isEqualTo("BB");
+    assertThat(this.interner.readString(stream("Aa"))).isEqualTo("Aa");
+  }
+
+  private static PdxInputStream stream(String... strings) throws IOException {
+    HeapDataOutputStream hdos = new HeapDataOutputStream(Version.CURRENT);
+    for (String string : strings) {
+      DataSerializer.writeString(string, hdos);
+    }
+    return new PdxInputStream(hdos.toByteArray());
+  }
+}
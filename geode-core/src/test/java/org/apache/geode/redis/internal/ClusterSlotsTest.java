@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.RedisTest;
+
+@Category({RedisTest.class})
+public class ClusterSlotsTest {
+
+  @Test
+  public void slotsMatchRedisCluster() {
+    assertThat(ClusterSlots.getSlot(bytes("foo"))).isEqualTo(12182);
+    assertThat(ClusterSlots.getSlot(bytes("bar"))).isEqualTo(5061);
+    assertThat(ClusterSlots.getSlot(bytes(""))).isEqualTo(0);
+  }
+
+  @Test
+  public void hashTagsChooseTheSlot() {
+    assertThat(ClusterSlots.getSlot(bytes("{user1000}.following"))).isEqualTo(3443);
+    assertThat(ClusterSlots.getSlot(bytes("{user1000}.followers"))).isEqualTo(3443);
+    assertThat(ClusterSlots.getSlot(bytes("foo{{bar}}zap")))
+        .isEqualTo(ClusterSlots.getSlot(bytes("{bar")));
+    assertThat(ClusterSlots.getSlot(bytes("foo{bar}{zap}")))
+        .isEqualTo(ClusterSlots.getSlot(bytes("bar")));
+  }
+
+  @Test
+  public void bucketsHoldContiguousRangesOfSlots() {
+    for (int totalBuckets : new int[] {1, 7, 113, ClusterSlots.SLOTS, 20000}) {
+      int expectedBucket = 0;
+      for (int slot = 0; slot < ClusterSlots.SLOTS; slot++) {
+        int bucketId = ClusterSlots.getBucketId(slot, totalBuckets);
+        while (ClusterSlots.getFirstSlot(expectedBucket + 1, totalBuckets) <= slot) {
+          expectedBucket++;
+        }
+        assertThat(bucketId).isEqualTo(expectedBucket);
+        assertThat(bucketId).isLessThan(totalBuckets);
+      }
+    }
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes();
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map.Entry;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.RedisTest;
+
+@Category({RedisTest.class})
+public class CoderTest {
+
+  private final ByteBufAllocator alloc = UnpooledByteBufAllocator.DEFAULT;
+
+  @Test
+  public void integersAreWrittenAsDecimals() {
+    assertThat(read(Coder.getIntegerResponse(alloc, 0))).isEqualTo(":0\r\n");
+    assertThat(read(Coder.getIntegerResponse(alloc, 1234567))).isEqualTo(":1234567\r\n");
+    assertThat(read(Coder.getIntegerResponse(alloc, -42))).isEqualTo(":-42\r\n");
+    assertThat(read(Coder.getIntegerResponse(alloc, Integer.MIN_VALUE)))
+        .isEqualTo(":" + Integer.MIN_VALUE + "\r\n");
+    assertThat(read(Coder.getIntegerResponse(alloc, Long.MAX_VALUE)))
+        .isEqualTo(":" + Long.MAX_VALUE + "\r\n");
+    assertThat(read(Coder.getIntegerResponse(alloc, Long.MIN_VALUE)))
+        .isEqualTo(":" + Long.MIN_VALUE + "\r\n");
+  }
+
+  @Test
+  public void bulkStringsAreWrittenWithTheirLength() throws Exception {
+    assertThat(read(Coder.getBulkStringResponse(alloc, bytes("value"))))
+        .isEqualTo("$5\r\nvalue\r\n");
+    assertThat(read(Coder.getBulkStringResponse(alloc, "é"))).isEqualTo("$2\r\né\r\n");
+    assertThat(read(Coder.getBulkStringResponse(alloc, ""))).isEqualTo("$0\r\n\r\n");
+    assertThat(read(Coder.getBulkStringResponse(alloc, 1.5d))).isEqualTo("$3\r\n1.5\r\n");
+    assertThat(read(Coder.getBulkStringResponse(alloc, null))).isEqualTo("$-1\r\n");
+  }
+
+  @Test
+  public void largeValuesAreWrappedRatherThanCopied() throws Exception {
+    char[] chars = new char[Coder.WRAP_VALUE_THRESHOLD];
+    Arrays.fill(chars, 'x');
+    String value = new String(chars);
+
+    ByteBuf response = Coder.getBulkStringResponse(alloc, bytes(value));
+
+    assertThat(response).isInstanceOf(CompositeByteBuf.class);
+    assertThat(read(response)).isEqualTo("$" + value.length() + "\r\n" + value + "\r\n");
+  }
+
+  @Test
+  public void arraysAreWrittenWithTheirSize() throws Exception {
+    Collection<?> items = Arrays.asList(bytes("a"), Arrays.asList("b", "c"), null);
+    assertThat(read(Coder.getBulkStringArrayResponse(alloc, items)))
+        .isEqualTo("*3\r\n$1\r\na\r\n*2\r\n$1\r\nb\r\n$1\r\nc\r\n$-1\r\n");
+
+    Collection<Entry<ByteArrayWrapper, ByteArrayWrapper>> fields =
+        Collections.singletonList(new SimpleEntry<>(bytes("field"), bytes("value")));
+    assertThat(read(Coder.getKeyValArrayResponse(alloc, fields)))
+        .isEqualTo("*2\r\n$5\r\nfield\r\n$5\r\nvalue\r\n");
+
+    assertThat(read(Coder.getArrayOfNils(alloc, 2))).isEqualTo("*2\r\n$-1\r\n$-1\r\n");
+  }
+
+  @Test
+  public void simpleStringsAndErrorsAreWrittenInUtf8() {
+    assertThat(read(Coder.getSimpleStringResponse(alloc, "OK"))).isEqualTo("+OK\r\n");
+    assertThat(read(Coder.getErrorResponse(alloc, "bad é"))).isEqualTo("-ERR bad é\r\n");
+    assertThat(read(Coder.getWrongTypeResponse(alloc, "hash"))).isEqualTo("-WRONGTYPE hash\r\n");
+  }
+
+  private static String read(ByteBuf response) {
+    try {
+      return response.toString(StandardCharsets.UTF_8);
+    } finally {
+      response.release();
+    }
+  }
+
+  private static ByteArrayWrapper bytes(String value) {
+    return new ByteArrayWrapper(value.getBytes(StandardCharsets.UTF_8));
+  }
+}
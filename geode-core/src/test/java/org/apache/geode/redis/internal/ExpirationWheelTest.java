@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.statistics.DummyStatisticsFactory;
+import org.apache.geode.test.junit.categories.RedisTest;
+
+@Category({RedisTest.class})
+public class ExpirationWheelTest {
+
+  private long now;
+  private List<List<ByteArrayWrapper>> batches;
+  private ExpirationStats stats;
+  private ExpirationWheel wheel;
+
+  @Before
+  public void setUp() {
+    this.now = 1_000_000;
+    this.batches = new ArrayList<>();
+    this.stats = new ExpirationStats(new DummyStatisticsFactory(), "test");
+    this.wheel = new ExpirationWheel(batches::add, stats, () -> now);
+  }
+
+  @Test
+  public void keysExpireOnceTheirDeadlineHasPassed() {
+    wheel.setExpiration(key("a"), 25);
+    wheel.setExpiration(key("b"), 55);
+
+    advance(20);
+    assertThat(expired()).isEmpty();
+    assertThat(wheel.getDelayMillis(key("a"))).isEqualTo(5);
+
+    advance(20);
+    assertThat(expired()).containsExactly(key("a"));
+    assertThat(wheel.hasExpiration(key("a"))).isFalse();
+    assertThat(wheel.getDelayMillis(key("a"))).isEqualTo(0);
+
+    advance(20);
+    assertThat(expired()).containsExactly(key("b"));
+    assertThat(stats.getExpirations()).isEqualTo(2);
+    assertThat(stats.getKeysWithExpiration()).isEqualTo(0);
+  }
+
+  @Test
+  public void keysWaitForTheTurnOfTheWheelTheyExpireOn() {
+    long turn = ExpirationWheel.NUM_SLOTS * ExpirationWheel.TICK_MILLIS;
+    wheel.setExpiration(key("later"), turn + 15);
+    wheel.setExpiration(key("sooner"), 15);
+
+    advance(30);
+    assertThat(expired()).containsExactly(key("sooner"));
+
+    advance(turn - 30);
+    assertThat(expired()).isEmpty();
+
+    advance(30);
+    assertThat(expired()).containsExactly(key("later"));
+  }
+
+  @Test
+  public void changedAndCancelledExpirationsAreHonored() {
+    wheel.setExpiration(key("moved"), 15);
+    wheel.setExpiration(key("moved"), 500);
+    wheel.setExpiration(key("cancelled"), 15);
+    assertThat(wheel.cancelExpiration(key("cancelled"))).isTrue();
+    assertThat(wheel.cancelExpiration(key("cancelled"))).isFalse();
+    assertThat(stats.getKeysWithExpiration()).isEqualTo(1);
+
+    advance(100);
+    assertThat(expired()).isEmpty();
+
+    advance(500);
+    assertThat(expired()).containsExactly(key("moved"));
+  }
+
+  @Test
+  public void keysThatExpireTogetherAreExpiredInBatches() {
+    int numKeys = ExpirationWheel.MAX_BATCH_SIZE + 10;
+    for (int i = 0; i < numKeys; i++) {
+      wheel.setExpiration(key("key" + i), 15);
+    }
+
+    advance(100);
+
+    assertThat(batches).hasSize(2);
+    assertThat(expired()).hasSize(numKeys);
+    assertThat(stats.getExpirations()).isEqualTo(numKeys);
+    assertThat(stats.getExpirationLagTime()).isGreaterThan(0);
+  }
+
+  @Test
+  public void aLateSweepSweepsEverySlotOnce() {
+    for (int i = 0; i < 100; i++) {
+      wheel.setExpiration(key("key" + i), 1000 * i + 1);
+    }
+
+    now += 3 * ExpirationWheel.NUM_SLOTS * ExpirationWheel.TICK_MILLIS;
+    wheel.sweep();
+
+    assertThat(expired()).hasSize(100);
+    assertThat(stats.getSweepBacklog()).isGreaterThan(0);
+  }
+
+  /**
+   * Moves the clock forward one tick at a time, sweeping after each tick
+   */
+  private void advance(long millis) {
+    for (long end = now + millis; now < end;) {
+      now = Math.min(end, now + ExpirationWheel.TICK_MILLIS);
+      wheel.sweep();
+    }
+  }
+
+  private List<ByteArrayWrapper> expired() {
+    List<ByteArrayWrapper> expired = new ArrayList<>();
+    batches.forEach(expired::addAll);
+    batches.clear();
+    return expired;
+  }
+
+  private static ByteArrayWrapper key(String key) {
+    return new ByteArrayWrapper(key.getBytes());
+  }
+}
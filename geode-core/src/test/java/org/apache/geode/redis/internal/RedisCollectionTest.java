@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.RedisTest;
+
+@Category({RedisTest.class})
+public class RedisCollectionTest {
+
+  @Test
+  public void copyHasNoDeltaUntilModified() {
+    RedisHash hash = new RedisHash();
+    hash.put(bytes("field"), bytes("value"));
+
+    RedisHash copy = hash.copy();
+    assertThat(copy.hasDelta()).isFalse();
+
+    copy.remove(bytes("missing"));
+    assertThat(copy.hasDelta()).isFalse();
+
+    copy.put(bytes("field"), bytes("other"));
+    assertThat(copy.hasDelta()).isTrue();
+  }
+
+  @Test
+  public void hashDeltaIsAppliedToOriginal() throws Exception {
+    RedisHash hash = new RedisHash();
+    hash.put(bytes("a"), bytes("1"));
+    hash.put(bytes("b"), bytes("2"));
+
+    RedisHash copy = hash.copy();
+    copy.put(bytes("c"), bytes("3"));
+    copy.put(bytes("a"), bytes("4"));
+    copy.remove(bytes("b"));
+
+    applyDelta(copy, hash);
+
+    assertThat(hash.getFields()).isEqualTo(copy.getFields());
+  }
+
+  @Test
+  public void setDeltaIsAppliedToOriginal() throws Exception {
+    RedisSet set = new RedisSet();
+    set.add(bytes("a"));
+    set.add(bytes("b"));
+
+    RedisSet copy = set.copy();
+    assertThat(copy.add(bytes("a"))).isFalse();
+    copy.add(bytes("c"));
+    copy.remove(bytes("b"));
+
+    applyDelta(copy, set);
+
+    assertThat(set.getMembers()).isEqualTo(copy.getMembers());
+  }
+
+  @Test
+  public void listDeltaIsAppliedToOriginal() throws Exception {
+    RedisList list = new RedisList();
+    for (String element : new String[] {"a", "b", "a", "c", "a", "d"}) {
+      list.push(false, bytes(element));
+    }
+
+    RedisList copy = list.copy();
+    copy.push(true, bytes("head"));
+    assertThat(copy.pop(false)).isEqualTo(bytes("d"));
+    copy.set(1, bytes("z"));
+    assertThat(copy.remove(bytes("a"), -1)).isEqualTo(1);
+    copy.trim(1, 3);
+
+    applyDelta(copy, list);
+
+    assertThat(list.range(0, list.size() - 1)).containsExactly(bytes("z"), bytes("b"),
+        bytes("a"));
+    assertThat(list.range(0, list.size() - 1)).isEqualTo(copy.range(0, copy.size() - 1));
+  }
+
+  @Test
+  public void listRemoveWithZeroCountRemovesAllEqualElements() {
+    RedisList list = new RedisList();
+    for (String element : new String[] {"a", "b", "a", "a"}) {
+      list.push(false, bytes(element));
+    }
+
+    assertThat(list.remove(bytes("a"), 0)).isEqualTo(3);
+    assertThat(list.range(0, list.size() - 1)).containsExactly(bytes("b"));
+  }
+
+  @Test
+  public void listTrimWithStartAfterStopRemovesAllElements() throws Exception {
+    RedisList list = new RedisList();
+    list.push(false, bytes("a"));
+    list.push(false, bytes("b"));
+
+    RedisList copy = list.copy();
+    copy.trim(1, 0);
+    applyDelta(copy, list);
+
+    assertThat(copy.isEmpty()).isTrue();
+    assertThat(list.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void collectionsRoundTripThroughToDataAndFromData() throws Exception {
+    RedisHash hash = new RedisHash();
+    hash.put(bytes("field"), bytes("value"));
+    RedisHash hashCopy = new RedisHash();
+    toAndFromData(hash, hashCopy);
+    assertThat(hashCopy.getFields()).isEqualTo(hash.getFields());
+
+    RedisSet set = new RedisSet();
+    set.add(bytes("member"));
+    RedisSet setCopy = new RedisSet();
+    toAndFromData(set, setCopy);
+    assertThat(setCopy.getMembers()).isEqualTo(set.getMembers());
+
+    RedisList list = new RedisList();
+    list.push(false, bytes("first"));
+    list.push(false, bytes("second"));
+    RedisList listCopy = new RedisList();
+    toAndFromData(list, listCopy);
+    assertThat(listCopy.range(0, 1)).isEqualTo(list.range(0, 1));
+  }
+
+  @Test
+  public void changesToACopyDoNotChangeTheOriginal() {
+    RedisHash hash = new RedisHash();
+    RedisSet set = new RedisSet();
+    RedisList list = new RedisList();
+    for (int i = 0; i < 100; i++) {
+      hash.put(bytes("f" + i), bytes("v" + i));
+      set.add(bytes("m" + i));
+      list.push(false, bytes("e" + i));
+    }
+
+    RedisHash hashCopy = hash.copy();
+    hashCopy.put(bytes("f0"), bytes("other"));
+    hashCopy.remove(bytes("f1"));
+    RedisSet setCopy = set.clone();
+    setCopy.add(bytes("new"));
+    setCopy.remove(bytes("m1"));
+    RedisList listCopy = list.copy();
+    listCopy.push(true, bytes("head"));
+    listCopy.set(50, bytes("other"));
+    listCopy.trim(10, 20);
+
+    assertThat(hash.getFields()).hasSize(100).containsEntry(bytes("f0"), bytes("v0"))
+        .containsKey(bytes("f1"));
+    assertThat(set.getMembers()).hasSize(100).contains(bytes("m1")).doesNotContain(bytes("new"));
+    assertThat(list.size()).isEqualTo(100);
+    assertThat(list.get(0)).isEqualTo(bytes("e0"));
+    assertThat(list.get(50)).isEqualTo(bytes("e50"));
+    assertThat(hashCopy.getFields()).hasSize(99).containsEntry(bytes("f0"), bytes("other"));
+    assertThat(setCopy.getMembers()).hasSize(100).contains(bytes("new"));
+    assertThat(listCopy.range(0, listCopy.size() - 1)).hasSize(11).startsWith(bytes("e9"));
+  }
+
+  @Test
+  public void listMatchesAnArrayListAfterRandomChanges() throws Exception {
+    Random random = new Random(11);
+    RedisList list = new RedisList();
+    RedisList replica = new RedisList();
+    List<ByteArrayWrapper> expected = new ArrayList<>();
+
+    for (int i = 0; i < 5000; i++) {
+      RedisList copy = list.copy();
+      ByteArrayWrapper element = bytes("e" + random.nextInt(20));
+      int index = expected.isEmpty() ? 0 : random.nextInt(expected.size());
+      switch (random.nextInt(6)) {
+        case 0:
+          copy.push(true, element);
+          expected.add(0, element);
+          break;
+        case 1:
+          copy.push(false, element);
+          expected.add(element);
+          break;
+        case 2:
+          assertThat(copy.pop(true)).isEqualTo(expected.isEmpty() ? null : expected.remove(0));
+          break;
+        case 3:
+          if (!expected.isEmpty()) {
+            assertThat(copy.set(index, element)).isEqualTo(expected.set(index, element));
+          }
+          break;
+        case 4:
+          int removed = copy.remove(element, 1);
+          assertThat(removed).isEqualTo(expected.remove(element) ? 1 : 0);
+          break;
+        default:
+          if (random.nextInt(20) == 0 && !expected.isEmpty()) {
+            copy.trim(index, expected.size() - 2);
+            expected =
+                new ArrayList<>(expected.subList(index, Math.max(index, expected.size() - 1)));
+          }
+          break;
+      }
+      if (copy.hasDelta()) {
+        applyDelta(copy, replica);
+        copy.clearDelta();
+      }
+      list = copy;
+    }
+
+    assertThat(list.range(0, list.size() - 1)).isEqualTo(expected);
+    assertThat(replica.range(0, replica.size() - 1)).isEqualTo(expected);
+    for (int i = 0; i < expected.size(); i++) {
+      assertThat(list.get(i)).isEqualTo(expected.get(i));
+    }
+  }
+
+  private static void applyDelta(RedisCollection from, RedisCollection to) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    from.toDelta(new DataOutputStream(bytes));
+    to.fromDelta(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+  }
+
+  private static void toAndFromData(RedisCollection from, RedisCollection to)
+      throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    from.toData(new DataOutputStream(bytes));
+    to.fromData(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+  }
+
+  private static ByteArrayWrapper bytes(String value) {
+    return new ByteArrayWrapper(value.getBytes());
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.RedisTest;
+
+@Category({RedisTest.class})
+public class RedisHyperLogLogTest {
+
+  @Test
+  public void countIsCloseToTheNumberOfDistinctElements() {
+    for (int cardinality : new int[] {0, 1, 100, 1000, 10000, 100000, 1000000}) {
+      RedisHyperLogLog hll = add(new RedisHyperLogLog(), "element", cardinality);
+      add(hll, "element", cardinality / 2);
+
+      assertThat((double) hll.count()).isCloseTo(cardinality, within(cardinality * 0.03 + 1));
+    }
+  }
+
+  @Test
+  public void registersBecomeDenseOnceTheSparseEncodingIsTooLarge() {
+    RedisHyperLogLog hll = add(new RedisHyperLogLog(), "element", 100);
+    assertThat(hll.isSparse()).isTrue();
+    assertThat(hll.getEncodedSize()).isLessThan(RedisHyperLogLog.SPARSE_MAX_BYTES);
+
+    add(hll, "more", 2000);
+
+    assertThat(hll.isSparse()).isFalse();
+    assertThat(hll.getEncodedSize()).isEqualTo(RedisHyperLogLog.DENSE_BYTES);
+    assertThat((double) hll.count()).isCloseTo(2100, within(2100 * 0.03));
+  }
+
+  @Test
+  public void addingAKnownElementChangesNothing() {
+    RedisHyperLogLog hll = new RedisHyperLogLog();
+    assertThat(hll.add(bytes("a"))).isTrue();
+    hll.clearDelta();
+
+    assertThat(hll.add(bytes("a"))).isFalse();
+    assertThat(hll.hasChanges()).isFalse();
+    assertThat(hll.count()).isEqualTo(1);
+  }
+
+  @Test
+  public void mergeAndCountOfSeveralGiveTheUnion() {
+    RedisHyperLogLog sparse = add(new RedisHyperLogLog(), "a", 500);
+    RedisHyperLogLog dense = add(new RedisHyperLogLog(), "b", 50000);
+    add(dense, "a", 500);
+
+    long union = RedisHyperLogLog.count(Arrays.asList(sparse, dense));
+    RedisHyperLogLog merged = sparse.copy();
+    merged.merge(dense);
+
+    assertThat(merged.count()).isEqualTo(union);
+    assertThat((double) union).isCloseTo(50500, within(50500 * 0.03));
+    assertThat(sparse.count()).isEqualTo(add(new RedisHyperLogLog(), "a", 500).count());
+  }
+
+  @Test
+  public void deltasRaiseTheRegistersOfAReplica() throws IOException {
+    RedisHyperLogLog original = add(new RedisHyperLogLog(), "element", 100);
+    original.clearDelta();
+    RedisHyperLogLog replica = original.copy();
+
+    // the replica becomes dense once enough registers have been sent
+    for (int round = 0; round < 20; round++) {
+      RedisHyperLogLog copy = original.copy();
+      add(copy, "round" + round + "-", 100);
+      assertThat(copy.hasDelta()).isTrue();
+      ByteArrayOutputStream delta = new ByteArrayOutputStream();
+      copy.toDelta(new DataOutputStream(delta));
+      replica.fromDelta(new DataInputStream(new ByteArrayInputStream(delta.toByteArray())));
+      copy.clearDelta();
+      original = copy;
+    }
+
+    assertThat(replica.isSparse()).isFalse();
+    assertRegistersEqual(replica, original);
+    assertThat(replica.count()).isEqualTo(original.count());
+  }
+
+  @Test
+  public void aMergeThatRaisesManyRegistersIsNotSentAsADelta() {
+    RedisHyperLogLog hll = add(new RedisHyperLogLog(), "element", 10);
+    hll.clearDelta();
+
+    hll.merge(add(new RedisHyperLogLog(), "other", 100000));
+
+    assertThat(hll.hasChanges()).isTrue();
+    assertThat(hll.hasDelta()).isFalse();
+  }
+
+  @Test
+  public void serializesSparseAndDenseRegisters() throws Exception {
+    for (int cardinality : new int[] {10, 10000}) {
+      RedisHyperLogLog hll = add(new RedisHyperLogLog(), "element", cardinality);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      hll.toData(new DataOutputStream(bytes));
+
+      RedisHyperLogLog copy = new RedisHyperLogLog();
+      copy.fromData(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+      assertThat(copy.isSparse()).isEqualTo(hll.isSparse());
+      assertRegistersEqual(copy, hll);
+      assertThat(copy.count()).isEqualTo(hll.count());
+    }
+  }
+
+  private static void assertRegistersEqual(RedisHyperLogLog actual, RedisHyperLogLog expected) {
+    for (int index = 0; index < RedisHyperLogLog.REGISTERS; index++) {
+      assertThat(actual.getRegister(index)).as("register " + index)
+          .isEqualTo(expected.getRegister(index));
+    }
+  }
+
+  private static RedisHyperLogLog add(RedisHyperLogLog hll, String prefix, int count) {
+    for (int i = 0; i < count; i++) {
+      hll.add(bytes(prefix + i));
+    }
+    return hll;
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes();
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.RedisTest;
+
+@Category({RedisTest.class})
+public class RedisSortedSetTest {
+
+  @Test
+  public void membersAreOrderedByScoreThenByMember() {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    sortedSet.add(bytes("c"), 2);
+    sortedSet.add(bytes("b"), 1);
+    sortedSet.add(bytes("a"), 2);
+    sortedSet.add(bytes("d"), 0);
+
+    assertThat(members(sortedSet.range(0, 3, false))).containsExactly("d", "b", "a", "c");
+    assertThat(members(sortedSet.range(0, 1, true))).containsExactly("c", "a");
+    assertThat(sortedSet.rank(bytes("a"), false)).isEqualTo(2);
+    assertThat(sortedSet.rank(bytes("a"), true)).isEqualTo(1);
+    assertThat(sortedSet.rank(bytes("missing"), false)).isEqualTo(-1);
+  }
+
+  @Test
+  public void addingAnExistingMemberMovesIt() {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    sortedSet.add(bytes("a"), 1);
+    sortedSet.add(bytes("b"), 2);
+
+    assertThat(sortedSet.add(bytes("a"), 3)).isEqualTo(1.0);
+
+    assertThat(sortedSet.size()).isEqualTo(2);
+    assertThat(members(sortedSet.range(0, 1, false))).containsExactly("b", "a");
+  }
+
+  @Test
+  public void scoreRangesHonorInclusionOffsetAndLimit() {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    for (int i = 0; i < 10; i++) {
+      sortedSet.add(bytes("m" + i), i);
+    }
+
+    assertThat(sortedSet.count(2, true, 5, true)).isEqualTo(4);
+    assertThat(sortedSet.count(2, false, 5, false)).isEqualTo(2);
+    assertThat(sortedSet.count(5, true, 2, true)).isEqualTo(0);
+    assertThat(members(sortedSet.rangeByScore(2, true, 7, false, 1, 2, false)))
+        .containsExactly("m3", "m4");
+    assertThat(members(sortedSet.rangeByScore(2, true, 7, false, 1, 2, true)))
+        .containsExactly("m5", "m4");
+    assertThat(members(sortedSet.rangeByScore(8, false, Double.POSITIVE_INFINITY, true, 0, 0,
+        false))).containsExactly("m9");
+  }
+
+  @Test
+  public void ranksMatchSortedMembersAfterRandomChanges() throws Exception {
+    Random random = new Random(7);
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    RedisSortedSet replica = new RedisSortedSet();
+    Map<String, Double> expected = new HashMap<>();
+
+    for (int i = 0; i < 2000; i++) {
+      RedisSortedSet copy = sortedSet.copy();
+      String member = "member" + random.nextInt(200);
+      if (random.nextInt(4) == 0) {
+        copy.remove(bytes(member));
+        expected.remove(member);
+      } else {
+        double score = random.nextInt(20);
+        copy.add(bytes(member), score);
+        expected.put(member, score);
+      }
+      if (copy.hasDelta()) {
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        copy.toDelta(new DataOutputStream(delta));
+        replica.fromDelta(new DataInputStream(new ByteArrayInputStream(delta.toByteArray())));
+      }
+      sortedSet = copy;
+    }
+
+    List<String> sorted = expected.entrySet().stream()
+        .sorted(Comparator.comparing(Entry<String, Double>::getValue)
+            .thenComparing(e -> bytes(e.getKey())))
+        .map(Entry::getKey).collect(Collectors.toList());
+    assertThat(members(sortedSet.range(0, sorted.size() - 1, false))).isEqualTo(sorted);
+    assertThat(members(replica.range(0, sorted.size() - 1, false))).isEqualTo(sorted);
+    for (int i = 0; i < sorted.size(); i++) {
+      assertThat(sortedSet.rank(bytes(sorted.get(i)), false)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void removeRangesRemoveOnlyMembersInRange() {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    for (int i = 0; i < 10; i++) {
+      sortedSet.add(bytes("m" + i), i);
+    }
+
+    assertThat(sortedSet.removeRange(0, 2)).isEqualTo(3);
+    assertThat(sortedSet.removeRangeByScore(5, false, 8, true)).isEqualTo(3);
+    assertThat(members(sortedSet.range(0, sortedSet.size() - 1, false)))
+        .containsExactly("m3", "m4", "m5", "m9");
+  }
+
+  @Test
+  public void lexRangesAreOrderedByMember() {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    for (String member : new String[] {"e", "a", "d", "b", "c"}) {
+      sortedSet.add(bytes(member), 0);
+    }
+
+    assertThat(sortedSet.rangeByLex(bytes("b"), true, bytes("d"), false, 0, 0))
+        .containsExactly(bytes("b"), bytes("c"));
+    assertThat(sortedSet.rangeByLex(null, true, null, true, 1, 2)).containsExactly(bytes("b"),
+        bytes("c"));
+  }
+
+  @Test
+  public void roundTripsThroughToDataAndFromData() throws Exception {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    for (int i = 0; i < 100; i++) {
+      sortedSet.add(bytes("m" + i), i % 7);
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    sortedSet.toData(new DataOutputStream(bytes));
+    RedisSortedSet copy = new RedisSortedSet();
+    copy.fromData(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+    assertThat(copy.getScores()).isEqualTo(sortedSet.getScores());
+    assertThat(members(copy.range(0, 99, false)))
+        .isEqualTo(members(sortedSet.range(0, 99, false)));
+    assertThat(copy.rank(bytes("m50"), false)).isEqualTo(sortedSet.rank(bytes("m50"), false));
+  }
+
+  @Test
+  public void changesToACopyDoNotChangeTheOriginal() {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    for (int i = 0; i < 100; i++) {
+      sortedSet.add(bytes("m" + i), i);
+    }
+    List<String> members = members(sortedSet.range(0, 99, false));
+
+    RedisSortedSet copy = sortedSet.copy();
+    copy.add(bytes("m0"), 200);
+    copy.remove(bytes("m50"));
+    copy.removeRange(0, 9);
+    RedisSortedSet clone = sortedSet.clone();
+    clone.add(bytes("new"), -1);
+
+    assertThat(members(sortedSet.range(0, 99, false))).isEqualTo(members);
+    assertThat(sortedSet.getScore(bytes("m0"))).isEqualTo(0);
+    assertThat(sortedSet.getScores()).hasSize(100).doesNotContainKey(bytes("new"));
+    assertThat(copy.size()).isEqualTo(89);
+    assertThat(copy.rank(bytes("m0"), true)).isEqualTo(0);
+    assertThat(clone.rank(bytes("new"), false)).isEqualTo(0);
+  }
+
+  private static List<String> members(List<Entry<ByteArrayWrapper, DoubleWrapper>> entries) {
+    List<String> members = new ArrayList<>(entries.size());
+    for (Entry<ByteArrayWrapper, DoubleWrapper> entry : entries) {
+      members.add(entry.getKey().toString());
+    }
+    return members;
+  }
+
+  private static ByteArrayWrapper bytes(String value) {
+    return new ByteArrayWrapper(value.getBytes());
+  }
+}
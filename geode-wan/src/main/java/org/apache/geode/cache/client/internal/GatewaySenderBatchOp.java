@@ -14,6 +14,7 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.util.Iterator;
 import java.util.List;
@@ -21,6 +22,7 @@ import java.util.List;
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.InternalGemFireError;
+import org.apache.geode.SerializationException;
 import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.EventID;
@@ -28,9 +30,12 @@ import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
 import org.apache.geode.internal.cache.tier.sockets.Message;
 import org.apache.geode.internal.cache.tier.sockets.Part;
+import org.apache.geode.internal.cache.wan.AbstractGatewaySender;
 import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.GatewayBatchCompressor;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventRemoteDispatcher.GatewayAck;
+import org.apache.geode.internal.cache.wan.GatewaySenderStats;
 import org.apache.geode.internal.logging.LogService;
 
 @SuppressWarnings("unchecked")
@@ -48,9 +53,10 @@ public class GatewaySenderBatchOp {
    * @param batchId the ID of this batch
    * @param removeFromQueueOnException true if the events should be processed even after some
    *        exception
+   * @param stats the statistics of the sender dispatching the batch
    */
   public static void executeOn(Connection con, ExecutablePool pool, List events, int batchId,
-      boolean removeFromQueueOnException, boolean isRetry) {
+      boolean removeFromQueueOnException, boolean isRetry, GatewaySenderStats stats) {
     AbstractOp op = null;
     // System.out.println("Version: "+con.getWanSiteVersion());
     // Is this check even needed anymore? It looks like we just create the same exact op impl with
@@ -58,6 +64,10 @@ public class GatewaySenderBatchOp {
     if (Version.GFE_651.compareTo(con.getWanSiteVersion()) >= 0) {
       op = new GatewaySenderGFEBatchOpImpl(events, batchId, removeFromQueueOnException,
           con.getDistributedSystemId(), isRetry);
+    } else if (AbstractGatewaySender.COMPRESS_BATCHES
+        && Version.GEODE_190.compareTo(con.getWanSiteVersion()) <= 0) {
+      op = new GatewaySenderGFEBatchOpImpl(events, batchId, removeFromQueueOnException,
+          con.getDistributedSystemId(), isRetry, stats);
     } else {
       // Default should create a batch of server version (ACCEPTOR.VERSION)
       op = new GatewaySenderGFEBatchOpImpl(events, batchId, removeFromQueueOnException,
@@ -91,15 +101,52 @@ public class GatewaySenderBatchOp {
       getMessage().addIntPart(batchId);
       getMessage().addIntPart(dsId);
       getMessage().addBytesPart(new byte[] {removeFromQueueOnException ? (byte) 1 : (byte) 0});
+      addEventParts(getMessage(), events);
+    }
+
+    /**
+     * Creates a batch whose event parts are compressed into a single part.
+     *
+     * @throws org.apache.geode.SerializationException if serialization or compression fails
+     */
+    public GatewaySenderGFEBatchOpImpl(List events, int batchId, boolean removeFromQueueOnException,
+        int dsId, boolean isRetry, GatewaySenderStats stats) {
+      super(MessageType.GATEWAY_RECEIVER_COMMAND,
+          GatewayBatchCompressor.NUMBER_OF_LEADING_PARTS + 1);
+      if (isRetry) {
+        getMessage().setIsRetry();
+      }
+      getMessage().addIntPart(events.size());
+      getMessage().addIntPart(batchId);
+      getMessage().addIntPart(dsId);
+      getMessage().addBytesPart(
+          new byte[] {GatewayBatchCompressor.getFlags(removeFromQueueOnException, true)});
+      Message eventParts = new Message(
+          calcPartCount(events) - GatewayBatchCompressor.NUMBER_OF_LEADING_PARTS, Version.CURRENT);
+      try {
+        addEventParts(eventParts, events);
+        long start = stats.startTime();
+        byte[] compressed = GatewayBatchCompressor.compress(eventParts);
+        stats.endBatchCompression(start,
+            GatewayBatchCompressor.getUncompressedLength(eventParts), compressed.length);
+        getMessage().addBytesPart(compressed);
+      } catch (IOException e) {
+        throw new SerializationException("Failed to compress batch " + batchId, e);
+      } finally {
+        eventParts.clearParts();
+      }
+    }
+
+    private static void addEventParts(Message message, List events) {
       // Add each event
       for (Iterator i = events.iterator(); i.hasNext();) {
         GatewaySenderEventImpl event = (GatewaySenderEventImpl) i.next();
         // Add action
         int action = event.getAction();
-        getMessage().addIntPart(action);
+        message.addIntPart(action);
         { // Add posDup flag
           byte posDupByte = (byte) (event.getPossibleDuplicate() ? 0x01 : 0x00);
-          getMessage().addBytesPart(new byte[] {posDupByte});
+          message.addBytesPart(new byte[] {posDupByte});
         }
         if (action >= 0 && action <= 3) {
           // 0 = create
@@ -111,25 +158,25 @@ public class GatewaySenderBatchOp {
           Object callbackArg = event.getSenderCallbackArgument();
 
           // Add region name
-          getMessage().addStringPart(regionName);
+          message.addStringPart(regionName);
           // Add event id
-          getMessage().addObjPart(eventId);
+          message.addObjPart(eventId);
           // Add key
-          getMessage().addStringOrObjPart(key);
+          message.addStringOrObjPart(key);
           if (action < 2 /* it is 0 or 1 */) {
             byte[] value = event.getSerializedValue();
             byte valueIsObject = event.getValueIsObject();;
             // Add value (which is already a serialized byte[])
-            getMessage().addRawPart(value, (valueIsObject == 0x01));
+            message.addRawPart(value, (valueIsObject == 0x01));
           }
           // Add callback arg if necessary
           if (callbackArg == null) {
-            getMessage().addBytesPart(new byte[] {0x00});
+            message.addBytesPart(new byte[] {0x00});
           } else {
-            getMessage().addBytesPart(new byte[] {0x01});
-            getMessage().addObjPart(callbackArg);
+            message.addBytesPart(new byte[] {0x01});
+            message.addObjPart(callbackArg);
           }
-          getMessage().addLongPart(event.getVersionTimeStamp());
+          message.addLongPart(event.getVersionTimeStamp());
         }
       }
     }
@@ -17,7 +17,9 @@ package org.apache.geode.internal.cache.wan;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 
@@ -61,6 +63,13 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
 
   private ReentrantReadWriteLock connectionLifeCycleLock = new ReentrantReadWriteLock();
 
+  /**
+   * The time each batch awaiting acknowledgement was sent on the current connection, from
+   * System.nanoTime. Used to measure the acknowledgement latency of the remote site whether or not
+   * time statistics are enabled.
+   */
+  private final Map<Integer, Long> batchIdToDispatchTime = new ConcurrentHashMap<>();
+
   /*
    * Called after each attempt at processing an outbound (dispatch) or inbound (ack)
    * message, whether the attempt is successful or not. The purpose is testability.
@@ -201,8 +210,9 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
       this.connectionLifeCycleLock.readLock().lock();
       try {
         if (connection != null) {
+          this.batchIdToDispatchTime.put(currentBatchId, System.nanoTime());
           sp.dispatchBatch_NewWAN(connection, events, currentBatchId,
-              sender.isRemoveFromQueueOnException(), isRetry);
+              sender.isRemoveFromQueueOnException(), isRetry, statistics);
           if (logger.isDebugEnabled()) {
             logger.debug(
                 "{} : Dispatched batch (id={}) of {} events, queue size: {} on connection {}",
@@ -363,6 +373,7 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
       } else {
         this.processor.resetBatchId();
       }
+      this.batchIdToDispatchTime.clear();
       Connection con;
       try {
         if (this.sender.isParallel()) {
@@ -605,6 +616,14 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
             boolean gotBatchException = ack.getBatchException() != null;
             int batchId = ack.getBatchId();
             int numEvents = ack.getNumEvents();
+            Long dispatchTime = batchIdToDispatchTime.remove(batchId);
+            if (dispatchTime != null) {
+              long latency = System.nanoTime() - dispatchTime;
+              sender.getStatistics().endBatchAcknowledgement(latency);
+              if (!gotBatchException) {
+                processor.recordBatchLatency(latency);
+              }
+            }
 
             // If the batch is successfully processed, remove it from the
             // queue.